@@ -0,0 +1,441 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.knime.core.data.BooleanValue;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataValue;
+import org.knime.core.data.DoubleValue;
+import org.knime.core.data.IntValue;
+import org.knime.core.data.LongValue;
+import org.knime.core.data.StringValue;
+import org.knime.core.data.collection.CollectionCellFactory;
+import org.knime.core.data.collection.CollectionDataValue;
+import org.knime.core.data.def.BooleanCell.BooleanCellFactory;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.LongCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.data.vector.bitvector.BitVectorValue;
+import org.knime.core.data.vector.bitvector.DenseBitVector;
+import org.knime.core.data.vector.bitvector.DenseBitVectorCellFactory;
+import org.knime.core.data.vector.bytevector.ByteVectorValue;
+import org.knime.core.data.vector.bytevector.DenseByteVector;
+import org.knime.core.data.vector.bytevector.DenseByteVectorCellFactory;
+import org.knime.dl.core.DLDefaultFixedTensorShape;
+import org.knime.dl.core.DLDefaultTensor;
+import org.knime.dl.core.DLDefaultTensorId;
+import org.knime.dl.core.DLDefaultTensorSpec;
+import org.knime.dl.core.DLDimensionOrder;
+import org.knime.dl.core.DLTensor;
+import org.knime.dl.core.DLTensorSpec;
+import org.knime.dl.core.data.DLBuffer;
+import org.knime.dl.core.data.DLDefaultBitBuffer;
+import org.knime.dl.core.data.DLDefaultByteBuffer;
+import org.knime.dl.core.data.DLDefaultDoubleBuffer;
+import org.knime.dl.core.data.DLDefaultFloatBuffer;
+import org.knime.dl.core.data.DLDefaultIntBuffer;
+import org.knime.dl.core.data.DLDefaultLongBuffer;
+import org.knime.dl.core.data.DLDefaultShortBuffer;
+import org.knime.dl.core.data.DLDefaultStringBuffer;
+import org.knime.dl.core.data.DLDefaultUnsignedByteBuffer;
+import org.knime.dl.core.data.DLReadableBitBuffer;
+import org.knime.dl.core.data.DLReadableBuffer;
+import org.knime.dl.core.data.DLReadableByteBuffer;
+import org.knime.dl.core.data.DLReadableDoubleBuffer;
+import org.knime.dl.core.data.DLReadableFloatBuffer;
+import org.knime.dl.core.data.DLReadableIntBuffer;
+import org.knime.dl.core.data.DLReadableLongBuffer;
+import org.knime.dl.core.data.DLReadableShortBuffer;
+import org.knime.dl.core.data.DLReadableStringBuffer;
+import org.knime.dl.core.data.DLReadableUnsignedByteBuffer;
+import org.knime.dl.core.data.DLWritableBitBuffer;
+import org.knime.dl.core.data.DLWritableBuffer;
+import org.knime.dl.core.data.DLWritableByteBuffer;
+import org.knime.dl.core.data.DLWritableDoubleBuffer;
+import org.knime.dl.core.data.DLWritableFloatBuffer;
+import org.knime.dl.core.data.DLWritableIntBuffer;
+import org.knime.dl.core.data.DLWritableLongBuffer;
+import org.knime.dl.core.data.DLWritableShortBuffer;
+import org.knime.dl.core.data.DLWritableStringBuffer;
+import org.knime.dl.core.data.DLWritableUnsignedByteBuffer;
+import org.knime.dl.core.data.convert.DLCollectionDataValueToTensorConverterFactory;
+import org.knime.dl.core.data.convert.DLDataValueToTensorConverterFactory;
+import org.knime.dl.core.data.convert.DLDataValueToTensorConverterRegistry;
+import org.knime.dl.core.data.convert.DLTensorToDataCellConverterFactory;
+import org.knime.dl.core.data.convert.DLTensorToDataCellConverterRegistry;
+
+import com.google.common.primitives.UnsignedBytes;
+
+/**
+ * Creates the synthetic tensors and data cells the benchmarks operate on.
+ *
+ * @author agent
+ */
+final class DLBenchmarkUtil {
+
+	/**
+	 * Length of synthetic strings.
+	 */
+	static final int STRING_LENGTH = 16;
+
+	/**
+	 * Seed of all synthetic data, fixed to make runs comparable.
+	 */
+	static final long SEED = 42;
+
+	private static final List<Class<? extends DLWritableBuffer>> WRITABLE_BUFFER_TYPES = Arrays.asList(
+			DLWritableBitBuffer.class, DLWritableByteBuffer.class, DLWritableUnsignedByteBuffer.class,
+			DLWritableShortBuffer.class, DLWritableIntBuffer.class, DLWritableLongBuffer.class,
+			DLWritableFloatBuffer.class, DLWritableDoubleBuffer.class, DLWritableStringBuffer.class);
+
+	private static final List<Class<? extends DLReadableBuffer>> READABLE_BUFFER_TYPES = Arrays.asList(
+			DLReadableBitBuffer.class, DLReadableByteBuffer.class, DLReadableUnsignedByteBuffer.class,
+			DLReadableShortBuffer.class, DLReadableIntBuffer.class, DLReadableLongBuffer.class,
+			DLReadableFloatBuffer.class, DLReadableDoubleBuffer.class, DLReadableStringBuffer.class);
+
+	private DLBenchmarkUtil() {
+		// utility class
+	}
+
+	/**
+	 * @return the identifiers of all registered, non-deprecated input converter factories whose source cells can be
+	 *         synthesized by {@link #createCells(DLDataValueToTensorConverterFactory, long[], Random)}
+	 */
+	static String[] getInputConverterFactoryIds() {
+		final DLDataValueToTensorConverterRegistry registry = DLDataValueToTensorConverterRegistry.getInstance();
+		final Set<String> ids = new TreeSet<>();
+		for (final Class<? extends DLWritableBuffer> bufferType : WRITABLE_BUFFER_TYPES) {
+			for (final DLDataValueToTensorConverterFactory<?, ?> factory : registry
+					.getConverterFactoriesForBufferType(bufferType)) {
+				if (createCells(factory, new long[] { 1 }, new Random(SEED)) != null) {
+					ids.add(factory.getIdentifier());
+				}
+			}
+		}
+		return ids.toArray(new String[ids.size()]);
+	}
+
+	/**
+	 * @return the identifiers of all registered, non-deprecated output converter factories, including their list
+	 *         variants
+	 */
+	static String[] getOutputConverterFactoryIds() {
+		final DLTensorToDataCellConverterRegistry registry = DLTensorToDataCellConverterRegistry.getInstance();
+		final Set<String> ids = new TreeSet<>();
+		for (final Class<? extends DLReadableBuffer> bufferType : READABLE_BUFFER_TYPES) {
+			// list variants are only offered for multi-element examples
+			final DLTensorSpec spec = createTensorSpec(getElementType(bufferType), 1, new long[] { 2 });
+			for (final DLTensorToDataCellConverterFactory<?, ?> factory : registry.getFactoriesForSourceType(bufferType,
+					spec)) {
+				ids.add(factory.getIdentifier());
+			}
+		}
+		return ids.toArray(new String[ids.size()]);
+	}
+
+	/**
+	 * @param shape dimensions separated by 'x', e.g. "3x32x32"
+	 * @return the parsed shape
+	 */
+	static long[] parseShape(final String shape) {
+		return Arrays.stream(shape.split("x")).mapToLong(Long::parseLong).toArray();
+	}
+
+	static long getSize(final long[] shape) {
+		long size = 1;
+		for (final long dim : shape) {
+			size *= dim;
+		}
+		return size;
+	}
+
+	/**
+	 * @param name one of bit, byte, unsigned_byte, short, int, long, float, double, string
+	 * @return the corresponding tensor element type
+	 */
+	static Class<?> getElementType(final String name) {
+		switch (name) {
+			case "bit":
+				return boolean.class;
+			case "byte":
+				return byte.class;
+			case "unsigned_byte":
+				return UnsignedBytes.class;
+			case "short":
+				return short.class;
+			case "int":
+				return int.class;
+			case "long":
+				return long.class;
+			case "float":
+				return float.class;
+			case "double":
+				return double.class;
+			case "string":
+				return String.class;
+			default:
+				throw new IllegalArgumentException("Unknown element type: '" + name + "'.");
+		}
+	}
+
+	/**
+	 * @param bufferType the buffer type of a converter factory
+	 * @return the tensor element type that is backed by the given buffer type
+	 */
+	static Class<?> getElementType(final Class<? extends DLBuffer> bufferType) {
+		if (bufferType.equals(DLWritableDoubleBuffer.class) || bufferType.equals(DLReadableDoubleBuffer.class)) {
+			return double.class;
+		} else if (bufferType.equals(DLWritableFloatBuffer.class)
+				|| bufferType.equals(DLReadableFloatBuffer.class)) {
+			return float.class;
+		} else if (bufferType.equals(DLWritableBitBuffer.class) || bufferType.equals(DLReadableBitBuffer.class)) {
+			return boolean.class;
+		} else if (bufferType.equals(DLWritableUnsignedByteBuffer.class)
+				|| bufferType.equals(DLReadableUnsignedByteBuffer.class)) {
+			return UnsignedBytes.class;
+		} else if (bufferType.equals(DLWritableByteBuffer.class) || bufferType.equals(DLReadableByteBuffer.class)) {
+			return byte.class;
+		} else if (bufferType.equals(DLWritableShortBuffer.class)
+				|| bufferType.equals(DLReadableShortBuffer.class)) {
+			return short.class;
+		} else if (bufferType.equals(DLWritableIntBuffer.class) || bufferType.equals(DLReadableIntBuffer.class)) {
+			return int.class;
+		} else if (bufferType.equals(DLWritableLongBuffer.class) || bufferType.equals(DLReadableLongBuffer.class)) {
+			return long.class;
+		} else if (bufferType.equals(DLWritableStringBuffer.class)
+				|| bufferType.equals(DLReadableStringBuffer.class)) {
+			return String.class;
+		} else {
+			throw new IllegalArgumentException("No matching element type for buffer type '" + bufferType + "'.");
+		}
+	}
+
+	/**
+	 * @return the number of payload bytes of a single element of the given type
+	 */
+	static int getElementSize(final Class<?> elementType) {
+		if (elementType == boolean.class || elementType == byte.class || elementType == UnsignedBytes.class) {
+			return Byte.BYTES;
+		} else if (elementType == short.class) {
+			return Short.BYTES;
+		} else if (elementType == int.class || elementType == float.class) {
+			return Integer.BYTES;
+		} else if (elementType == long.class || elementType == double.class) {
+			return Long.BYTES;
+		} else if (elementType == String.class) {
+			return STRING_LENGTH * Character.BYTES;
+		} else {
+			throw new IllegalArgumentException("Unknown element type: '" + elementType + "'.");
+		}
+	}
+
+	static DLBuffer createBuffer(final Class<?> elementType, final long capacity) {
+		if (elementType == boolean.class) {
+			return new DLDefaultBitBuffer(capacity);
+		} else if (elementType == byte.class) {
+			return new DLDefaultByteBuffer(capacity);
+		} else if (elementType == UnsignedBytes.class) {
+			return new DLDefaultUnsignedByteBuffer(capacity);
+		} else if (elementType == short.class) {
+			return new DLDefaultShortBuffer(capacity);
+		} else if (elementType == int.class) {
+			return new DLDefaultIntBuffer(capacity);
+		} else if (elementType == long.class) {
+			return new DLDefaultLongBuffer(capacity);
+		} else if (elementType == float.class) {
+			return new DLDefaultFloatBuffer(capacity);
+		} else if (elementType == double.class) {
+			return new DLDefaultDoubleBuffer(capacity);
+		} else if (elementType == String.class) {
+			return new DLDefaultStringBuffer(capacity);
+		} else {
+			throw new IllegalArgumentException("Unknown element type: '" + elementType + "'.");
+		}
+	}
+
+	/**
+	 * Creates a tensor with a fixed shape that is backed by a default buffer.
+	 */
+	static DLTensor<?> createTensor(final Class<?> elementType, final long batchSize, final long[] shape) {
+		return createTensor(elementType, batchSize, shape,
+				createBuffer(elementType, batchSize * getSize(shape)));
+	}
+
+	/**
+	 * Creates a tensor with a fixed shape that is backed by the given buffer.
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	static DLTensor<?> createTensor(final Class<?> elementType, final long batchSize, final long[] shape,
+			final DLBuffer buffer) {
+		return new DLDefaultTensor(createTensorSpec(elementType, batchSize, shape), buffer, getSize(shape));
+	}
+
+	static DLTensorSpec createTensorSpec(final Class<?> elementType, final long batchSize, final long[] shape) {
+		return new DLDefaultTensorSpec(new DLDefaultTensorId("benchmark"), "benchmark", batchSize,
+				new DLDefaultFixedTensorShape(shape), elementType, DLDimensionOrder.TDHWC);
+	}
+
+	/**
+	 * Appends <code>length</code> synthetic values to the given buffer.
+	 */
+	static void fill(final DLWritableBuffer buffer, final long length) {
+		final Random random = new Random(SEED);
+		if (buffer instanceof DLWritableStringBuffer) {
+			final DLWritableStringBuffer stringBuffer = (DLWritableStringBuffer) buffer;
+			for (long i = 0; i < length; i++) {
+				stringBuffer.put(randomString(random));
+			}
+		} else {
+			// all numeric buffers accept bits
+			final DLWritableBitBuffer bitBuffer = (DLWritableBitBuffer) buffer;
+			for (long i = 0; i < length; i++) {
+				bitBuffer.put(random.nextBoolean());
+			}
+		}
+	}
+
+	/**
+	 * Creates the cells of a single example for the converters of the given factory. Collections are created as a
+	 * single list cell that holds the cells of the example.
+	 *
+	 * @param factory the converter factory
+	 * @param shape the shape of a single example of the target tensor
+	 * @return the cells, one per column, or null if the source type is not supported by the benchmarks
+	 */
+	static List<DataCell> createCells(final DLDataValueToTensorConverterFactory<?, ?> factory, final long[] shape,
+			final Random random) {
+		if (factory instanceof DLCollectionDataValueToTensorConverterFactory) {
+			final Class<? extends DataValue> elementType =
+					((DLCollectionDataValueToTensorConverterFactory<?, ?>) factory).getSourceElementType();
+			if (elementType == CollectionDataValue.class) {
+				// nested collections are not supported
+				return null;
+			}
+			final List<DataCell> elements = createCells(elementType, shape, random);
+			if (elements == null) {
+				return null;
+			}
+			return Collections.singletonList(CollectionCellFactory.createListCell(elements));
+		}
+		return createCells(factory.getSourceType(), shape, random);
+	}
+
+	/**
+	 * Creates the cells of a single example for a converter with the given source type.
+	 *
+	 * @param sourceType the source type of the converter
+	 * @param shape the shape of a single example of the target tensor
+	 * @return the cells, one per column, or null if the source type is not supported by the benchmarks
+	 */
+	static List<DataCell> createCells(final Class<? extends DataValue> sourceType, final long[] shape,
+			final Random random) {
+		final int exampleSize = (int) getSize(shape);
+		final List<DataCell> cells = new ArrayList<>(exampleSize);
+		if (sourceType == DoubleValue.class) {
+			for (int i = 0; i < exampleSize; i++) {
+				cells.add(new DoubleCell(random.nextDouble()));
+			}
+		} else if (sourceType == IntValue.class) {
+			for (int i = 0; i < exampleSize; i++) {
+				cells.add(new IntCell(random.nextInt(256)));
+			}
+		} else if (sourceType == LongValue.class) {
+			for (int i = 0; i < exampleSize; i++) {
+				cells.add(new LongCell(random.nextLong()));
+			}
+		} else if (sourceType == BooleanValue.class) {
+			for (int i = 0; i < exampleSize; i++) {
+				cells.add(BooleanCellFactory.create(random.nextBoolean()));
+			}
+		} else if (sourceType == StringValue.class) {
+			for (int i = 0; i < exampleSize; i++) {
+				cells.add(new StringCell(randomString(random)));
+			}
+		} else if (sourceType == BitVectorValue.class) {
+			final DenseBitVector bits = new DenseBitVector(exampleSize);
+			for (int i = 0; i < exampleSize; i++) {
+				if (random.nextBoolean()) {
+					bits.set(i);
+				}
+			}
+			cells.add(new DenseBitVectorCellFactory(bits).createDataCell());
+		} else if (sourceType == ByteVectorValue.class) {
+			final byte[] bytes = new byte[exampleSize];
+			random.nextBytes(bytes);
+			cells.add(new DenseByteVectorCellFactory(new DenseByteVector(bytes)).createDataCell());
+		} else if (sourceType == CollectionDataValue.class) {
+			// one-hot encoding: one class index per entry of the feature (i.e. last) dimension
+			final int featureDimSize = (int) shape[shape.length - 1];
+			final int numIndices = exampleSize / featureDimSize;
+			final List<DataCell> indices = new ArrayList<>(numIndices);
+			for (int i = 0; i < numIndices; i++) {
+				indices.add(new IntCell(random.nextInt(featureDimSize)));
+			}
+			cells.add(CollectionCellFactory.createListCell(indices));
+		} else {
+			return null;
+		}
+		return cells;
+	}
+
+	private static String randomString(final Random random) {
+		final char[] chars = new char[STRING_LENGTH];
+		for (int i = 0; i < chars.length; i++) {
+			chars[i] = (char) ('a' + random.nextInt(26));
+		}
+		return new String(chars);
+	}
+}
@@ -0,0 +1,97 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Entry point of the benchmark suite. Runs all benchmarks (or those matching the regular expression given via system
+ * property {@value #INCLUDE_PROPERTY}) and reports their throughput in ops/s, rows/s and bytes/s. Results are
+ * additionally written as JSON to the file given via system property {@value #RESULT_PROPERTY}, if any. The converter
+ * benchmarks cover all converter factories that are registered at the respective registry.
+ * <P>
+ * The benchmarks need the OSGi environment of the test runtime to resolve the converter and serializer extensions, so
+ * they are run within the test JVM instead of forked ones. This makes results somewhat less isolated - compare runs
+ * against each other, not against absolute numbers.
+ *
+ * @author agent
+ */
+public class DLBenchmarks {
+
+	static final String INCLUDE_PROPERTY = "knime.dl.benchmarks.include";
+
+	static final String RESULT_PROPERTY = "knime.dl.benchmarks.result";
+
+	@Test
+	public void runBenchmarks() throws Exception {
+		final ChainedOptionsBuilder options = new OptionsBuilder() //
+				.include(System.getProperty(INCLUDE_PROPERTY, DLBenchmarks.class.getPackage().getName() + ".DL.*Benchmark")) //
+				.mode(Mode.Throughput) //
+				.timeUnit(TimeUnit.SECONDS) //
+				.forks(0) //
+				.warmupIterations(3) //
+				.warmupTime(TimeValue.seconds(1)) //
+				.measurementIterations(5) //
+				.measurementTime(TimeValue.seconds(1)) //
+				.shouldFailOnError(true) //
+				.param("inputConverter", DLBenchmarkUtil.getInputConverterFactoryIds()) //
+				.param("outputConverter", DLBenchmarkUtil.getOutputConverterFactoryIds());
+		final String result = System.getProperty(RESULT_PROPERTY);
+		if (result != null) {
+			options.resultFormat(ResultFormatType.JSON).result(result);
+		}
+		new Runner(options.build()).run();
+	}
+}
@@ -0,0 +1,304 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.benchmarks;
+
+import java.util.Random;
+
+import org.knime.dl.core.data.DLBuffer;
+import org.knime.dl.core.data.DLReadableBuffer;
+import org.knime.dl.core.data.DLReadableDoubleBuffer;
+import org.knime.dl.core.data.DLReadableLongBuffer;
+import org.knime.dl.core.data.DLReadableStringBuffer;
+import org.knime.dl.core.data.DLWritableBitBuffer;
+import org.knime.dl.core.data.DLWritableBuffer;
+import org.knime.dl.core.data.DLWritableByteBuffer;
+import org.knime.dl.core.data.DLWritableDoubleBuffer;
+import org.knime.dl.core.data.DLWritableFloatBuffer;
+import org.knime.dl.core.data.DLWritableIntBuffer;
+import org.knime.dl.core.data.DLWritableLongBuffer;
+import org.knime.dl.core.data.DLWritableShortBuffer;
+import org.knime.dl.core.data.DLWritableStringBuffer;
+import org.knime.dl.core.data.DLWritableUnsignedByteBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.google.common.primitives.UnsignedBytes;
+
+/**
+ * Measures writing to and reading from the default buffers, element-wise as well as in bulk.
+ *
+ * @author agent
+ */
+@State(Scope.Thread)
+public class DLBufferBenchmark {
+
+	@Param({ "bit", "byte", "unsigned_byte", "short", "int", "long", "float", "double", "string" })
+	public String elementType;
+
+	@Param({ "1024", "262144" })
+	public int size;
+
+	private Class<?> m_elementType;
+
+	private long m_bytes;
+
+	private DLBuffer m_writeBuffer;
+
+	private DLBuffer m_readBuffer;
+
+	/**
+	 * Source array of the element type's primitive (or String) array type.
+	 */
+	private Object m_values;
+
+	/**
+	 * Destination array of bulk reads, either double[], long[] or String[].
+	 */
+	private Object m_dest;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		m_elementType = DLBenchmarkUtil.getElementType(elementType);
+		m_bytes = (long) size * DLBenchmarkUtil.getElementSize(m_elementType);
+		m_writeBuffer = DLBenchmarkUtil.createBuffer(m_elementType, size);
+		m_readBuffer = DLBenchmarkUtil.createBuffer(m_elementType, size);
+		DLBenchmarkUtil.fill((DLWritableBuffer) m_readBuffer, size);
+		m_values = createValues(m_elementType, size);
+		if (m_readBuffer instanceof DLReadableStringBuffer) {
+			m_dest = new String[size];
+		} else if (m_readBuffer instanceof DLReadableDoubleBuffer) {
+			m_dest = new double[size];
+		} else {
+			m_dest = new long[size];
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		m_writeBuffer.close();
+		m_readBuffer.close();
+	}
+
+	@Benchmark
+	public void putEach(final DLThroughputCounters counters) {
+		final DLWritableBuffer buffer = (DLWritableBuffer) m_writeBuffer;
+		buffer.resetWrite();
+		if (m_elementType == boolean.class) {
+			final boolean[] values = (boolean[]) m_values;
+			final DLWritableBitBuffer b = (DLWritableBitBuffer) buffer;
+			for (int i = 0; i < values.length; i++) {
+				b.put(values[i]);
+			}
+		} else if (m_elementType == byte.class) {
+			final byte[] values = (byte[]) m_values;
+			final DLWritableByteBuffer b = (DLWritableByteBuffer) buffer;
+			for (int i = 0; i < values.length; i++) {
+				b.put(values[i]);
+			}
+		} else if (m_elementType == UnsignedBytes.class) {
+			final short[] values = (short[]) m_values;
+			final DLWritableUnsignedByteBuffer b = (DLWritableUnsignedByteBuffer) buffer;
+			for (int i = 0; i < values.length; i++) {
+				b.put(values[i]);
+			}
+		} else if (m_elementType == short.class) {
+			final short[] values = (short[]) m_values;
+			final DLWritableShortBuffer b = (DLWritableShortBuffer) buffer;
+			for (int i = 0; i < values.length; i++) {
+				b.put(values[i]);
+			}
+		} else if (m_elementType == int.class) {
+			final int[] values = (int[]) m_values;
+			final DLWritableIntBuffer b = (DLWritableIntBuffer) buffer;
+			for (int i = 0; i < values.length; i++) {
+				b.put(values[i]);
+			}
+		} else if (m_elementType == long.class) {
+			final long[] values = (long[]) m_values;
+			final DLWritableLongBuffer b = (DLWritableLongBuffer) buffer;
+			for (int i = 0; i < values.length; i++) {
+				b.put(values[i]);
+			}
+		} else if (m_elementType == float.class) {
+			final float[] values = (float[]) m_values;
+			final DLWritableFloatBuffer b = (DLWritableFloatBuffer) buffer;
+			for (int i = 0; i < values.length; i++) {
+				b.put(values[i]);
+			}
+		} else if (m_elementType == double.class) {
+			final double[] values = (double[]) m_values;
+			final DLWritableDoubleBuffer b = (DLWritableDoubleBuffer) buffer;
+			for (int i = 0; i < values.length; i++) {
+				b.put(values[i]);
+			}
+		} else {
+			final String[] values = (String[]) m_values;
+			final DLWritableStringBuffer b = (DLWritableStringBuffer) buffer;
+			for (int i = 0; i < values.length; i++) {
+				b.put(values[i]);
+			}
+		}
+		counters.add(size, m_bytes);
+	}
+
+	@Benchmark
+	public void putAll(final DLThroughputCounters counters) {
+		final DLWritableBuffer buffer = (DLWritableBuffer) m_writeBuffer;
+		buffer.resetWrite();
+		if (m_elementType == boolean.class) {
+			((DLWritableBitBuffer) buffer).putAll((boolean[]) m_values);
+		} else if (m_elementType == byte.class) {
+			((DLWritableByteBuffer) buffer).putAll((byte[]) m_values);
+		} else if (m_elementType == UnsignedBytes.class) {
+			((DLWritableUnsignedByteBuffer) buffer).putAll((short[]) m_values);
+		} else if (m_elementType == short.class) {
+			((DLWritableShortBuffer) buffer).putAll((short[]) m_values);
+		} else if (m_elementType == int.class) {
+			((DLWritableIntBuffer) buffer).putAll((int[]) m_values);
+		} else if (m_elementType == long.class) {
+			((DLWritableLongBuffer) buffer).putAll((long[]) m_values);
+		} else if (m_elementType == float.class) {
+			((DLWritableFloatBuffer) buffer).putAll((float[]) m_values);
+		} else if (m_elementType == double.class) {
+			((DLWritableDoubleBuffer) buffer).putAll((double[]) m_values);
+		} else {
+			((DLWritableStringBuffer) buffer).putAll((String[]) m_values);
+		}
+		counters.add(size, m_bytes);
+	}
+
+	@Benchmark
+	public void readEach(final DLThroughputCounters counters, final Blackhole blackhole) {
+		final DLReadableBuffer buffer = (DLReadableBuffer) m_readBuffer;
+		buffer.resetRead();
+		// all numeric buffers except long buffers can be read as doubles
+		if (buffer instanceof DLReadableStringBuffer) {
+			final DLReadableStringBuffer b = (DLReadableStringBuffer) buffer;
+			for (int i = 0; i < size; i++) {
+				blackhole.consume(b.readNext());
+			}
+		} else if (buffer instanceof DLReadableDoubleBuffer) {
+			final DLReadableDoubleBuffer b = (DLReadableDoubleBuffer) buffer;
+			for (int i = 0; i < size; i++) {
+				blackhole.consume(b.readNextDouble());
+			}
+		} else {
+			final DLReadableLongBuffer b = (DLReadableLongBuffer) buffer;
+			for (int i = 0; i < size; i++) {
+				blackhole.consume(b.readNextLong());
+			}
+		}
+		counters.add(size, m_bytes);
+	}
+
+	@Benchmark
+	public void readAll(final DLThroughputCounters counters, final Blackhole blackhole) {
+		final DLReadableBuffer buffer = (DLReadableBuffer) m_readBuffer;
+		buffer.resetRead();
+		if (buffer instanceof DLReadableStringBuffer) {
+			final DLReadableStringBuffer b = (DLReadableStringBuffer) buffer;
+			final String[] dest = (String[]) m_dest;
+			for (int i = 0; i < size; i++) {
+				dest[i] = b.readNext();
+			}
+		} else if (buffer instanceof DLReadableDoubleBuffer) {
+			((DLReadableDoubleBuffer) buffer).readToDoubleArray((double[]) m_dest, 0, size);
+		} else {
+			((DLReadableLongBuffer) buffer).readToLongArray((long[]) m_dest, 0, size);
+		}
+		blackhole.consume(m_dest);
+		counters.add(size, m_bytes);
+	}
+
+	private static Object createValues(final Class<?> elementType, final int size) {
+		final Random random = new Random(DLBenchmarkUtil.SEED);
+		if (elementType == boolean.class) {
+			final boolean[] values = new boolean[size];
+			for (int i = 0; i < size; i++) {
+				values[i] = random.nextBoolean();
+			}
+			return values;
+		} else if (elementType == byte.class) {
+			final byte[] values = new byte[size];
+			random.nextBytes(values);
+			return values;
+		} else if (elementType == UnsignedBytes.class || elementType == short.class) {
+			final short[] values = new short[size];
+			for (int i = 0; i < size; i++) {
+				values[i] = (short) random.nextInt(256);
+			}
+			return values;
+		} else if (elementType == int.class) {
+			return random.ints(size).toArray();
+		} else if (elementType == long.class) {
+			return random.longs(size).toArray();
+		} else if (elementType == float.class) {
+			final float[] values = new float[size];
+			for (int i = 0; i < size; i++) {
+				values[i] = random.nextFloat();
+			}
+			return values;
+		} else if (elementType == double.class) {
+			return random.doubles(size).toArray();
+		} else {
+			final DLWritableStringBuffer buffer = (DLWritableStringBuffer) DLBenchmarkUtil.createBuffer(String.class,
+					size);
+			DLBenchmarkUtil.fill(buffer, size);
+			final String[] values = new String[size];
+			for (int i = 0; i < size; i++) {
+				values[i] = ((DLReadableStringBuffer) buffer).readNext();
+			}
+			return values;
+		}
+	}
+}
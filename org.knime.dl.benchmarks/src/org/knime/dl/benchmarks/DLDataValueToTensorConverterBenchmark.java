@@ -0,0 +1,160 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.benchmarks;
+
+import java.util.List;
+import java.util.Random;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataValue;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.dl.core.DLTensor;
+import org.knime.dl.core.data.DLWritableBuffer;
+import org.knime.dl.core.data.convert.DLDataValueToTensorBatchConverter;
+import org.knime.dl.core.data.convert.DLDataValueToTensorConverter;
+import org.knime.dl.core.data.convert.DLDataValueToTensorConverterFactory;
+import org.knime.dl.core.data.convert.DLDataValueToTensorConverterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures the conversion of a batch of synthetic KNIME rows into a tensor, once example by example and once via
+ * {@link DLDataValueToTensorBatchConverter#convertBatch(DataRow[], int, int[], DLTensor) batch conversion} where the
+ * converter supports it.
+ *
+ * @author agent
+ */
+@State(Scope.Thread)
+public class DLDataValueToTensorConverterBenchmark {
+
+	/**
+	 * Identifier of the converter factory. Filled with all registered factories by {@link DLBenchmarks}.
+	 */
+	@Param({})
+	public String inputConverter;
+
+	@Param({ "1", "32", "256" })
+	public int batchSize;
+
+	@Param({ "1", "64", "3x32x32" })
+	public String shape;
+
+	private DLDataValueToTensorConverter<DataValue, DLWritableBuffer> m_converter;
+
+	private DLTensor<DLWritableBuffer> m_tensor;
+
+	private DataRow[] m_rows;
+
+	private List<? extends DataValue>[] m_examples;
+
+	private int[] m_columns;
+
+	private long m_bytes;
+
+	@SuppressWarnings("unchecked")
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		final DLDataValueToTensorConverterFactory<?, ?> registered = DLDataValueToTensorConverterRegistry.getInstance()
+				.getConverterFactory(inputConverter)
+				.orElseThrow(() -> new IllegalArgumentException("Unknown converter factory: '" + inputConverter + "'."));
+		final DLDataValueToTensorConverterFactory<DataValue, DLWritableBuffer> converterFactory =
+				(DLDataValueToTensorConverterFactory<DataValue, DLWritableBuffer>) registered;
+		final long[] exampleShape = DLBenchmarkUtil.parseShape(shape);
+		final Class<?> elementType = DLBenchmarkUtil.getElementType(converterFactory.getBufferType());
+		m_converter = converterFactory.createConverter();
+		m_tensor = (DLTensor<DLWritableBuffer>) DLBenchmarkUtil.createTensor(elementType, batchSize, exampleShape);
+		m_rows = new DataRow[batchSize];
+		m_examples = new List[batchSize];
+		final Random random = new Random(DLBenchmarkUtil.SEED);
+		for (int r = 0; r < batchSize; r++) {
+			final List<DataCell> cells = DLBenchmarkUtil.createCells(converterFactory, exampleShape, random);
+			m_rows[r] = new DefaultRow(RowKey.createRowKey((long) r), cells);
+			m_examples[r] = (List<? extends DataValue>) (List<?>) cells;
+		}
+		m_columns = new int[m_rows[0].getNumCells()];
+		for (int c = 0; c < m_columns.length; c++) {
+			m_columns[c] = c;
+		}
+		m_bytes = batchSize * m_tensor.getExampleSize() * DLBenchmarkUtil.getElementSize(elementType);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		m_tensor.close();
+	}
+
+	@Benchmark
+	public void convert(final DLThroughputCounters counters) {
+		m_tensor.getBuffer().reset();
+		for (int r = 0; r < batchSize; r++) {
+			m_converter.convert(m_examples[r], m_tensor);
+		}
+		counters.add(batchSize, m_bytes);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Benchmark
+	public void convertBatch(final DLThroughputCounters counters) {
+		m_tensor.getBuffer().reset();
+		if (!(m_converter instanceof DLDataValueToTensorBatchConverter)
+				|| !((DLDataValueToTensorBatchConverter<DataValue, DLWritableBuffer>) m_converter)
+						.convertBatch(m_rows, batchSize, m_columns, m_tensor)) {
+			// same fallback as in the input preparer
+			for (int r = 0; r < batchSize; r++) {
+				m_converter.convert(m_examples[r], m_tensor);
+			}
+		}
+		counters.add(batchSize, m_bytes);
+	}
+}
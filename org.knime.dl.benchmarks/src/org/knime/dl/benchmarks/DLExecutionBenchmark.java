@@ -0,0 +1,259 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.benchmarks;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import org.knime.core.data.DataColumnSpec;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.node.streamable.RowOutput;
+import org.knime.dl.core.DLAbstractRowIterator;
+import org.knime.dl.core.DLDefaultTensorId;
+import org.knime.dl.core.DLTensor;
+import org.knime.dl.core.DLTensorId;
+import org.knime.dl.core.data.DLReadableBuffer;
+import org.knime.dl.core.data.DLWritableBuffer;
+import org.knime.dl.core.data.DLWritableDoubleBuffer;
+import org.knime.dl.core.data.convert.DLDataValueToTensorConverterFactory;
+import org.knime.dl.core.data.convert.DLDoubleTensorToDoubleCellConverterFactory;
+import org.knime.dl.core.data.convert.DLDoubleValueToFloatTensorConverterFactory;
+import org.knime.dl.core.data.convert.DLTensorToDataCellConverterFactory;
+import org.knime.dl.core.execution.DLKnimeNetworkExecutionInputPreparer;
+import org.knime.dl.core.execution.DLKnimeNetworkOutputConsumer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the KNIME side of network execution without a back end: filling the input tensors of a batch from a table
+ * and turning the output tensors of a batch back into rows.
+ *
+ * @author agent
+ */
+@State(Scope.Thread)
+public class DLExecutionBenchmark {
+
+	private static final DLTensorId TENSOR_ID = new DLDefaultTensorId("benchmark");
+
+	private static final int NUM_ROWS = 1024;
+
+	@Param({ "1", "32", "256" })
+	public int batchSize;
+
+	@Param({ "1", "64", "3072" })
+	public int numColumns;
+
+	private DataRow[] m_rows;
+
+	private DLKnimeNetworkExecutionInputPreparer m_inputPreparer;
+
+	private Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> m_input;
+
+	private DLKnimeNetworkOutputConsumer m_outputConsumer;
+
+	private Map<DLTensorId, DLTensor<? extends DLReadableBuffer>> m_output;
+
+	private Blackhole m_blackhole;
+
+	@Setup(Level.Trial)
+	public void setup(final Blackhole blackhole) {
+		m_blackhole = blackhole;
+		final DataColumnSpec[] columns = new DataColumnSpec[numColumns];
+		final int[] columnIndices = new int[numColumns];
+		for (int c = 0; c < numColumns; c++) {
+			columns[c] = new DataColumnSpecCreator("column" + c, DoubleCell.TYPE).createSpec();
+			columnIndices[c] = c;
+		}
+		final DataTableSpec tableSpec = new DataTableSpec(columns);
+		final Random random = new Random(DLBenchmarkUtil.SEED);
+		m_rows = new DataRow[NUM_ROWS];
+		for (int r = 0; r < NUM_ROWS; r++) {
+			final DoubleCell[] cells = new DoubleCell[numColumns];
+			for (int c = 0; c < numColumns; c++) {
+				cells[c] = new DoubleCell(random.nextDouble());
+			}
+			m_rows[r] = new DefaultRow(RowKey.createRowKey((long) r), cells);
+		}
+		final long[] shape = new long[] { numColumns };
+
+		final Map<DLTensorId, DLDataValueToTensorConverterFactory<?, ?>> inputConverters = Collections
+				.singletonMap(TENSOR_ID, new DLDoubleValueToFloatTensorConverterFactory());
+		m_inputPreparer = new DLKnimeNetworkExecutionInputPreparer(
+				new DLCyclingRowIterator(tableSpec, Collections.singletonMap(TENSOR_ID, columnIndices), m_rows),
+				batchSize, true, inputConverters);
+		@SuppressWarnings("unchecked")
+		final DLTensor<? extends DLWritableBuffer> inputTensor = (DLTensor<? extends DLWritableBuffer>) DLBenchmarkUtil
+				.createTensor(float.class, batchSize, shape);
+		m_input = Collections.singletonMap(TENSOR_ID, inputTensor);
+
+		final LinkedHashMap<DLTensorId, DLTensorToDataCellConverterFactory<?, ?>> outputConverters =
+				new LinkedHashMap<>();
+		outputConverters.put(TENSOR_ID, new DLDoubleTensorToDoubleCellConverterFactory());
+		final Supplier<DataRow> baseRows = new Supplier<DataRow>() {
+
+			private int m_next;
+
+			@Override
+			public DataRow get() {
+				final DataRow row = m_rows[m_next];
+				m_next = (m_next + 1) % m_rows.length;
+				return row;
+			}
+		};
+		// non-file store converters do not need an execution context
+		m_outputConsumer = new DLKnimeNetworkOutputConsumer(new DLDiscardingRowOutput(), baseRows, false,
+				outputConverters, null);
+		@SuppressWarnings("unchecked")
+		final DLTensor<? extends DLReadableBuffer> outputTensor = (DLTensor<? extends DLReadableBuffer>) DLBenchmarkUtil
+				.createTensor(double.class, batchSize, shape);
+		DLBenchmarkUtil.fill((DLWritableDoubleBuffer) outputTensor.getBuffer(), (long) batchSize * numColumns);
+		m_output = Collections.singletonMap(TENSOR_ID, outputTensor);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws Exception {
+		m_inputPreparer.close();
+		m_outputConsumer.close();
+		m_input.values().forEach(DLTensor::close);
+		m_output.values().forEach(DLTensor::close);
+	}
+
+	@Benchmark
+	public void prepareInput(final DLThroughputCounters counters) throws Exception {
+		m_input.get(TENSOR_ID).getBuffer().reset();
+		m_inputPreparer.prepareNext(m_input);
+		// the output consumer would usually drain the base rows
+		m_inputPreparer.getBaseRows().clear();
+		counters.add(batchSize, (long) batchSize * numColumns * Float.BYTES);
+	}
+
+	@Benchmark
+	public void consumeOutput(final DLThroughputCounters counters) {
+		m_output.get(TENSOR_ID).getBuffer().resetRead();
+		m_outputConsumer.accept(m_output);
+		counters.add(batchSize, (long) batchSize * numColumns * Double.BYTES);
+	}
+
+	/**
+	 * Endlessly iterates over a fixed set of in-memory rows.
+	 */
+	private static final class DLCyclingRowIterator extends DLAbstractRowIterator {
+
+		private final DataRow[] m_rows;
+
+		private int m_next;
+
+		private DLCyclingRowIterator(final DataTableSpec tableSpec, final Map<DLTensorId, int[]> columns,
+				final DataRow[] rows) {
+			super(tableSpec, columns);
+			m_rows = rows;
+		}
+
+		@Override
+		public long size() {
+			throw new UnsupportedOperationException("The iterator is infinite.");
+		}
+
+		@Override
+		public boolean hasNext() {
+			return true;
+		}
+
+		@Override
+		public DataRow peek() throws NoSuchElementException {
+			return m_rows[m_next];
+		}
+
+		@Override
+		public DataRow next() throws NoSuchElementException {
+			final DataRow row = m_rows[m_next];
+			m_next = (m_next + 1) % m_rows.length;
+			return row;
+		}
+
+		@Override
+		public void reset() {
+			m_next = 0;
+		}
+
+		@Override
+		public void close() {
+			// no op
+		}
+	}
+
+	/**
+	 * Drops all pushed rows.
+	 */
+	private final class DLDiscardingRowOutput extends RowOutput {
+
+		@Override
+		public void push(final DataRow row) {
+			m_blackhole.consume(row);
+		}
+
+		@Override
+		public void close() {
+			// no op
+		}
+	}
+}
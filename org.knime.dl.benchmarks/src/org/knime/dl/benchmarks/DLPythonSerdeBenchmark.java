@@ -0,0 +1,202 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.benchmarks;
+
+import org.knime.dl.core.DLTensor;
+import org.knime.dl.core.data.DLBuffer;
+import org.knime.dl.core.data.DLReadableBuffer;
+import org.knime.dl.core.data.DLWritableBuffer;
+import org.knime.dl.python.core.data.DLPythonBitBuffer;
+import org.knime.dl.python.core.data.DLPythonByteBuffer;
+import org.knime.dl.python.core.data.DLPythonDoubleBuffer;
+import org.knime.dl.python.core.data.DLPythonFloatBuffer;
+import org.knime.dl.python.core.data.DLPythonIntBuffer;
+import org.knime.dl.python.core.data.DLPythonLongBuffer;
+import org.knime.dl.python.core.data.DLPythonShortBuffer;
+import org.knime.dl.python.core.data.DLPythonStringBuffer;
+import org.knime.dl.python.core.data.DLPythonUnsignedByteBuffer;
+import org.knime.dl.python.core.data.serde.DLPythonBitBufferDeserializerFactory;
+import org.knime.dl.python.core.data.serde.DLPythonBitBufferSerializerFactory;
+import org.knime.dl.python.core.data.serde.DLPythonByteBufferDeserializerFactory;
+import org.knime.dl.python.core.data.serde.DLPythonByteBufferSerializerFactory;
+import org.knime.dl.python.core.data.serde.DLPythonDeserializer;
+import org.knime.dl.python.core.data.serde.DLPythonDoubleBufferDeserializerFactory;
+import org.knime.dl.python.core.data.serde.DLPythonDoubleBufferSerializerFactory;
+import org.knime.dl.python.core.data.serde.DLPythonFloatBufferDeserializerFactory;
+import org.knime.dl.python.core.data.serde.DLPythonFloatBufferSerializerFactory;
+import org.knime.dl.python.core.data.serde.DLPythonIntBufferDeserializerFactory;
+import org.knime.dl.python.core.data.serde.DLPythonIntBufferSerializerFactory;
+import org.knime.dl.python.core.data.serde.DLPythonLongBufferDeserializerFactory;
+import org.knime.dl.python.core.data.serde.DLPythonLongBufferSerializerFactory;
+import org.knime.dl.python.core.data.serde.DLPythonShortBufferDeserializerFactory;
+import org.knime.dl.python.core.data.serde.DLPythonShortBufferSerializerFactory;
+import org.knime.dl.python.core.data.serde.DLPythonStringBufferDeserializerFactory;
+import org.knime.dl.python.core.data.serde.DLPythonStringBufferSerializerFactory;
+import org.knime.dl.python.core.data.serde.DLPythonUnsignedByteBufferDeserializerFactory;
+import org.knime.dl.python.core.data.serde.DLPythonUnsignedByteBufferSerializerFactory;
+import org.knime.python.typeextension.Serializer;
+import org.knime.python.typeextension.SerializerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.google.common.primitives.UnsignedBytes;
+
+/**
+ * Measures the serialization of tensor buffers into the byte arrays that are sent to Python and the deserialization of
+ * such byte arrays back into tensors.
+ *
+ * @author agent
+ */
+@State(Scope.Thread)
+public class DLPythonSerdeBenchmark {
+
+	@Param({ "bit", "byte", "unsigned_byte", "short", "int", "long", "float", "double", "string" })
+	public String elementType;
+
+	@Param({ "1024", "262144" })
+	public int size;
+
+	private DLBuffer m_source;
+
+	private Serializer<DLBuffer> m_serializer;
+
+	private byte[] m_serialized;
+
+	private DLTensor<DLWritableBuffer> m_target;
+
+	private DLPythonDeserializer<DLWritableBuffer> m_deserializer;
+
+	private long m_bytes;
+
+	@SuppressWarnings("unchecked")
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		final Class<?> type = DLBenchmarkUtil.getElementType(elementType);
+		final SerializerFactory<?> serializerFactory;
+		final DLPythonDeserializer<?> deserializer;
+		final DLBuffer target;
+		if (type == boolean.class) {
+			m_source = new DLPythonBitBuffer(size);
+			target = new DLPythonBitBuffer(size);
+			serializerFactory = new DLPythonBitBufferSerializerFactory();
+			deserializer = (DLPythonDeserializer<?>) new DLPythonBitBufferDeserializerFactory().createDeserializer();
+		} else if (type == byte.class) {
+			m_source = new DLPythonByteBuffer(size);
+			target = new DLPythonByteBuffer(size);
+			serializerFactory = new DLPythonByteBufferSerializerFactory();
+			deserializer = (DLPythonDeserializer<?>) new DLPythonByteBufferDeserializerFactory().createDeserializer();
+		} else if (type == UnsignedBytes.class) {
+			m_source = new DLPythonUnsignedByteBuffer(size);
+			target = new DLPythonUnsignedByteBuffer(size);
+			serializerFactory = new DLPythonUnsignedByteBufferSerializerFactory();
+			deserializer = (DLPythonDeserializer<?>) new DLPythonUnsignedByteBufferDeserializerFactory()
+					.createDeserializer();
+		} else if (type == short.class) {
+			m_source = new DLPythonShortBuffer(size);
+			target = new DLPythonShortBuffer(size);
+			serializerFactory = new DLPythonShortBufferSerializerFactory();
+			deserializer = (DLPythonDeserializer<?>) new DLPythonShortBufferDeserializerFactory().createDeserializer();
+		} else if (type == int.class) {
+			m_source = new DLPythonIntBuffer(size);
+			target = new DLPythonIntBuffer(size);
+			serializerFactory = new DLPythonIntBufferSerializerFactory();
+			deserializer = (DLPythonDeserializer<?>) new DLPythonIntBufferDeserializerFactory().createDeserializer();
+		} else if (type == long.class) {
+			m_source = new DLPythonLongBuffer(size);
+			target = new DLPythonLongBuffer(size);
+			serializerFactory = new DLPythonLongBufferSerializerFactory();
+			deserializer = (DLPythonDeserializer<?>) new DLPythonLongBufferDeserializerFactory().createDeserializer();
+		} else if (type == float.class) {
+			m_source = new DLPythonFloatBuffer(size);
+			target = new DLPythonFloatBuffer(size);
+			serializerFactory = new DLPythonFloatBufferSerializerFactory();
+			deserializer = (DLPythonDeserializer<?>) new DLPythonFloatBufferDeserializerFactory().createDeserializer();
+		} else if (type == double.class) {
+			m_source = new DLPythonDoubleBuffer(size);
+			target = new DLPythonDoubleBuffer(size);
+			serializerFactory = new DLPythonDoubleBufferSerializerFactory();
+			deserializer = (DLPythonDeserializer<?>) new DLPythonDoubleBufferDeserializerFactory().createDeserializer();
+		} else {
+			m_source = new DLPythonStringBuffer(size);
+			target = new DLPythonStringBuffer(size);
+			serializerFactory = new DLPythonStringBufferSerializerFactory();
+			deserializer = (DLPythonDeserializer<?>) new DLPythonStringBufferDeserializerFactory().createDeserializer();
+		}
+		DLBenchmarkUtil.fill((DLWritableBuffer) m_source, size);
+		m_serializer = (Serializer<DLBuffer>) serializerFactory.createSerializer();
+		m_serialized = m_serializer.serialize(m_source);
+		m_target = (DLTensor<DLWritableBuffer>) DLBenchmarkUtil.createTensor(type, 1, new long[] { size }, target);
+		m_deserializer = (DLPythonDeserializer<DLWritableBuffer>) deserializer;
+		m_bytes = (long) size * DLBenchmarkUtil.getElementSize(type);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		m_source.close();
+		m_target.close();
+	}
+
+	@Benchmark
+	public byte[] serialize(final DLThroughputCounters counters) throws Exception {
+		((DLReadableBuffer) m_source).resetRead();
+		final byte[] serialized = m_serializer.serialize(m_source);
+		counters.add(size, m_bytes);
+		return serialized;
+	}
+
+	@Benchmark
+	public void deserialize(final DLThroughputCounters counters) {
+		m_target.getBuffer().reset();
+		m_deserializer.deserialize(m_serialized, m_target);
+		counters.add(size, m_bytes);
+	}
+}
@@ -0,0 +1,126 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.benchmarks;
+
+import org.knime.core.data.DataCell;
+import org.knime.dl.core.DLTensor;
+import org.knime.dl.core.data.DLReadableBuffer;
+import org.knime.dl.core.data.DLWritableBuffer;
+import org.knime.dl.core.data.convert.DLTensorToDataCellConverter;
+import org.knime.dl.core.data.convert.DLTensorToDataCellConverterFactory;
+import org.knime.dl.core.data.convert.DLTensorToDataCellConverterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures the conversion of a synthetic network output tensor into KNIME cells, as done by the executor node for
+ * each batch.
+ *
+ * @author agent
+ */
+@State(Scope.Thread)
+public class DLTensorToDataCellConverterBenchmark {
+
+	/**
+	 * Identifier of the converter factory. Filled with all registered factories by {@link DLBenchmarks}.
+	 */
+	@Param({})
+	public String outputConverter;
+
+	@Param({ "1", "32", "256" })
+	public int batchSize;
+
+	@Param({ "1", "64", "3x32x32" })
+	public String shape;
+
+	private DLTensorToDataCellConverter<DLReadableBuffer, DataCell> m_converter;
+
+	private DLTensor<DLReadableBuffer> m_tensor;
+
+	private DataCell[] m_cells;
+
+	private long m_bytes;
+
+	@SuppressWarnings("unchecked")
+	@Setup(Level.Trial)
+	public void setup() {
+		final DLTensorToDataCellConverterFactory<?, ?> registered = DLTensorToDataCellConverterRegistry.getInstance()
+				.getConverterFactory(outputConverter)
+				.orElseThrow(() -> new IllegalArgumentException("Unknown converter factory: '" + outputConverter + "'."));
+		final DLTensorToDataCellConverterFactory<DLReadableBuffer, DataCell> converterFactory =
+				(DLTensorToDataCellConverterFactory<DLReadableBuffer, DataCell>) registered;
+		final long[] exampleShape = DLBenchmarkUtil.parseShape(shape);
+		final Class<?> elementType = DLBenchmarkUtil.getElementType(converterFactory.getBufferType());
+		m_converter = converterFactory.createConverter();
+		m_tensor = (DLTensor<DLReadableBuffer>) DLBenchmarkUtil.createTensor(elementType, batchSize, exampleShape);
+		// default buffers are readable and writable
+		DLBenchmarkUtil.fill((DLWritableBuffer) m_tensor.getBuffer(), batchSize * m_tensor.getExampleSize());
+		final long destCount = converterFactory.getDestCount(m_tensor.getSpec())
+				.orElseThrow(() -> new IllegalArgumentException(
+						"Converter factory '" + outputConverter + "' does not have a fixed number of outputs."));
+		m_cells = new DataCell[(int) (destCount * batchSize)];
+		m_bytes = batchSize * m_tensor.getExampleSize() * DLBenchmarkUtil.getElementSize(elementType);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		m_tensor.close();
+	}
+
+	@Benchmark
+	public void convert(final DLThroughputCounters counters) {
+		m_tensor.getBuffer().resetRead();
+		// none of the registered converters creates file store cells, so no execution context is needed
+		m_converter.convert(m_tensor, m_cells, null);
+		counters.add(batchSize, m_bytes);
+	}
+}
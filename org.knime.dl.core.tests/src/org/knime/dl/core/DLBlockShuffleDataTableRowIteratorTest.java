@@ -0,0 +1,206 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.LongValue;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.LongCell;
+import org.knime.core.data.filestore.internal.NotInWorkflowDataRepository;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.DefaultNodeProgressMonitor;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.Node;
+import org.knime.core.node.NodeFactory;
+import org.knime.core.node.NodeModel;
+import org.knime.core.node.port.PortType;
+import org.knime.core.node.workflow.SingleNodeContainer;
+import org.knime.core.node.workflow.virtual.parchunk.VirtualParallelizedChunkPortObjectInNodeFactory;
+
+/**
+ * @author agent
+ */
+public class DLBlockShuffleDataTableRowIteratorTest {
+
+	private static final Map<DLTensorId, int[]> COLUMNS =
+			Collections.singletonMap(new DLDefaultTensorId("input"), new int[] { 0 });
+
+	private static ExecutionContext exec;
+
+	@BeforeClass
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public static void setUpClass() {
+		exec = new ExecutionContext(new DefaultNodeProgressMonitor(),
+				new Node((NodeFactory<NodeModel>) (NodeFactory) new VirtualParallelizedChunkPortObjectInNodeFactory(
+						new PortType[0])),
+				SingleNodeContainer.MemoryPolicy.CacheSmallInMemory, NotInWorkflowDataRepository.newInstance());
+	}
+
+	@Test
+	public void testEachRowExactlyOncePerEpoch() {
+		for (final int numRows : new int[] { 0, 1, 7, DLBlockShuffleDataTableRowIterator.NUM_STRIPES, 100, 1001 }) {
+			for (final int bufferSize : new int[] { 1, 3, 16, 5000 }) {
+				final DLBlockShuffleDataTableRowIterator iterator =
+						new DLBlockShuffleDataTableRowIterator(createTable(numRows), COLUMNS, 42, bufferSize);
+				for (int epoch = 0; epoch < 3; epoch++) {
+					final List<Long> rows = readEpoch(iterator);
+					assertEquals(numRows, rows.size());
+					final BitSet seen = new BitSet(numRows);
+					for (final long row : rows) {
+						assertFalse("Row " + row + " was returned twice.", seen.get((int) row));
+						seen.set((int) row);
+					}
+					iterator.reset();
+				}
+				iterator.close();
+			}
+		}
+	}
+
+	@Test
+	public void testBlocksOfAllStripesAreInterleaved() {
+		final int numRows = 800;
+		final int stripeSize = numRows / DLBlockShuffleDataTableRowIterator.NUM_STRIPES;
+		final DLBlockShuffleDataTableRowIterator iterator =
+				new DLBlockShuffleDataTableRowIterator(createTable(numRows), COLUMNS, 42, 16);
+		final List<Long> rows = readEpoch(iterator);
+		iterator.close();
+		// Every stripe contributes to the first half of the epoch, i.e. stripes are not read one after another.
+		final BitSet stripes = new BitSet();
+		for (final long row : rows.subList(0, numRows / 2)) {
+			stripes.set((int) (row / stripeSize));
+		}
+		assertEquals(DLBlockShuffleDataTableRowIterator.NUM_STRIPES, stripes.cardinality());
+		final List<Long> tableOrder = new ArrayList<>(rows);
+		Collections.sort(tableOrder);
+		assertNotEquals(tableOrder, rows);
+	}
+
+	@Test
+	public void testRowIndexIsNotCorrelatedWithEpochPosition() {
+		final int numRows = 1000;
+		final int numEpochs = 50;
+		final DLBlockShuffleDataTableRowIterator iterator =
+				new DLBlockShuffleDataTableRowIterator(createTable(numRows), COLUMNS, 42, 16);
+		double correlationSum = 0;
+		for (int epoch = 0; epoch < numEpochs; epoch++) {
+			final List<Long> rows = readEpoch(iterator);
+			iterator.reset();
+			// Pearson correlation between the index of a row in the table and its position in the epoch
+			final double mean = (numRows - 1) / 2d;
+			double covariance = 0;
+			double variance = 0;
+			for (int position = 0; position < numRows; position++) {
+				covariance += (rows.get(position) - mean) * (position - mean);
+				variance += (position - mean) * (position - mean);
+			}
+			correlationSum += covariance / variance;
+		}
+		iterator.close();
+		// Reading the blocks of each stripe in ascending order would yield a mean correlation of about 0.1 here.
+		final double meanCorrelation = correlationSum / numEpochs;
+		assertTrue("Mean correlation between row index and epoch position is " + meanCorrelation + ".",
+				Math.abs(meanCorrelation) < 0.05);
+	}
+
+	@Test
+	public void testSeedReproducibility() {
+		final BufferedDataTable table = createTable(500);
+		final DLBlockShuffleDataTableRowIterator first = new DLBlockShuffleDataTableRowIterator(table, COLUMNS, 7, 32);
+		final DLBlockShuffleDataTableRowIterator second = new DLBlockShuffleDataTableRowIterator(table, COLUMNS, 7, 32);
+		final DLBlockShuffleDataTableRowIterator other = new DLBlockShuffleDataTableRowIterator(table, COLUMNS, 8, 32);
+		for (int epoch = 0; epoch < 2; epoch++) {
+			final List<Long> firstRows = readEpoch(first);
+			assertEquals(firstRows, readEpoch(second));
+			assertNotEquals(firstRows, readEpoch(other));
+			first.reset();
+			second.reset();
+			other.reset();
+		}
+		// Epochs differ from each other.
+		final List<Long> epoch1 = readEpoch(first);
+		first.reset();
+		assertNotEquals(epoch1, readEpoch(first));
+		first.close();
+		second.close();
+		other.close();
+	}
+
+	private static List<Long> readEpoch(final DLBlockShuffleDataTableRowIterator iterator) {
+		final List<Long> rows = new ArrayList<>();
+		while (iterator.hasNext()) {
+			rows.add(((LongValue) iterator.next().getCell(0)).getLongValue());
+		}
+		return rows;
+	}
+
+	private static BufferedDataTable createTable(final int numRows) {
+		final BufferedDataContainer container = exec.createDataContainer(
+				new DataTableSpec(new DataColumnSpecCreator("index", LongCell.TYPE).createSpec()));
+		for (int i = 0; i < numRows; i++) {
+			container.addRowToTable(new DefaultRow(RowKey.createRowKey((long) i), new LongCell(i)));
+		}
+		container.close();
+		return container.getTable();
+	}
+}
@@ -0,0 +1,217 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.core.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.knime.core.util.FileUtil;
+import org.knime.dl.core.cache.DLMemoryAlertAwareCache.EvictionPolicy;
+
+/**
+ * @author agent
+ */
+public class DLMemoryAlertAwareCacheTest {
+
+	@Test
+	public void testLRUEvictsLeastRecentlyUsedEntriesToFitBudget() {
+		final DLMemoryAlertAwareCache cache = new DLMemoryAlertAwareCache(100, EvictionPolicy.LRU, null, 0, null);
+		final UUID a = UUID.randomUUID();
+		final UUID b = UUID.randomUUID();
+		final UUID c = UUID.randomUUID();
+		cache.put(a, "a", 40);
+		cache.put(b, "b", 40);
+		cache.get(a);
+		cache.put(c, "c", 40);
+		assertTrue(cache.get(a).isPresent());
+		assertFalse(cache.get(b).isPresent());
+		assertTrue(cache.get(c).isPresent());
+		assertEquals(80, cache.getStats().getSize());
+		assertEquals(1, cache.getStats().getEvictionCount());
+	}
+
+	@Test
+	public void testLFUEvictsLeastFrequentlyUsedEntriesToFitBudget() {
+		final DLMemoryAlertAwareCache cache = new DLMemoryAlertAwareCache(100, EvictionPolicy.LFU, null, 0, null);
+		final UUID a = UUID.randomUUID();
+		final UUID b = UUID.randomUUID();
+		final UUID c = UUID.randomUUID();
+		cache.put(a, "a", 40);
+		cache.put(b, "b", 40);
+		cache.get(a);
+		cache.get(a);
+		cache.get(b);
+		cache.get(b);
+		cache.get(b);
+		cache.put(c, "c", 40);
+		assertFalse(cache.get(a).isPresent());
+		assertTrue(cache.get(b).isPresent());
+		assertTrue(cache.get(c).isPresent());
+	}
+
+	@Test
+	public void testMemoryAlertOnlyEvictsPartially() {
+		final DLMemoryAlertAwareCache cache = new DLMemoryAlertAwareCache(100, EvictionPolicy.LFU, null, 0, null);
+		final UUID[] keys = new UUID[4];
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] = UUID.randomUUID();
+			cache.put(keys[i], i, 25);
+		}
+		// the oldest entries are evicted first, regardless of the eviction policy
+		cache.get(keys[0]);
+		cache.releaseMemory();
+		assertEquals(50, cache.getStats().getSize());
+		assertTrue(cache.get(keys[0]).isPresent());
+		assertFalse(cache.get(keys[1]).isPresent());
+		assertFalse(cache.get(keys[2]).isPresent());
+		assertTrue(cache.get(keys[3]).isPresent());
+	}
+
+	@Test
+	public void testEvictedEntriesAreSpilledToDiskAndRestored() throws IOException {
+		final File diskDir = FileUtil.createTempDir("dl-cache-test");
+		final DLMemoryAlertAwareCache cache =
+			new DLMemoryAlertAwareCache(100, EvictionPolicy.LRU, diskDir, 1024 * 1024, Runnable::run);
+		final UUID a = UUID.randomUUID();
+		final UUID b = UUID.randomUUID();
+		cache.put(a, "a", 60);
+		cache.put(b, "b", 60);
+		assertEquals(1, cache.getStats().getSpillCount());
+		assertEquals(1, diskDir.list().length);
+
+		assertEquals("a", cache.get(a).get());
+		final DLMemoryAlertAwareCache.Stats stats = cache.getStats();
+		assertEquals(1, stats.getDiskHitCount());
+		// restoring a has evicted and spilled b
+		assertEquals(2, stats.getSpillCount());
+		assertEquals(1, stats.getNumSpilledEntries());
+		assertEquals(1, stats.getNumEntries());
+
+		cache.remove(b);
+		assertEquals(0, cache.getStats().getNumSpilledEntries());
+		assertEquals(0, diskDir.list().length);
+	}
+
+	@Test
+	public void testSpillingIsDeferredAndPendingEntriesAreStillServed() throws IOException {
+		final File diskDir = FileUtil.createTempDir("dl-cache-test");
+		final List<Runnable> spills = new ArrayList<>();
+		final DLMemoryAlertAwareCache cache =
+			new DLMemoryAlertAwareCache(100, EvictionPolicy.LRU, diskDir, 1024 * 1024, spills::add);
+		final UUID a = UUID.randomUUID();
+		final UUID b = UUID.randomUUID();
+		cache.put(a, "a", 60);
+		cache.put(b, "b", 60);
+		assertEquals(1, spills.size());
+		assertEquals(0, diskDir.list().length);
+		// a is still served from memory, restoring it evicts b
+		assertEquals("a", cache.get(a).get());
+		assertEquals(1, cache.getStats().getHitCount());
+		assertEquals(2, spills.size());
+		// the outdated spill of a does nothing
+		spills.get(0).run();
+		assertEquals(0, diskDir.list().length);
+		spills.get(1).run();
+		assertEquals(1, diskDir.list().length);
+		assertEquals(1, cache.getStats().getSpillCount());
+		assertEquals("b", cache.get(b).get());
+		assertEquals(1, cache.getStats().getDiskHitCount());
+	}
+
+	@Test
+	public void testMemoryAlertDoesNotSpill() throws IOException {
+		final File diskDir = FileUtil.createTempDir("dl-cache-test");
+		final List<Runnable> spills = new ArrayList<>();
+		final DLMemoryAlertAwareCache cache =
+			new DLMemoryAlertAwareCache(100, EvictionPolicy.LRU, diskDir, 1024 * 1024, spills::add);
+		final UUID a = UUID.randomUUID();
+		final UUID b = UUID.randomUUID();
+		final UUID c = UUID.randomUUID();
+		cache.put(a, "a", 60);
+		cache.put(b, "b", 30);
+		cache.put(c, "c", 30);
+		assertEquals(1, spills.size());
+		cache.releaseMemory();
+		// only the entries evicted due to the budget were scheduled, and the memory alert dropped those, too
+		assertEquals(1, spills.size());
+		spills.forEach(Runnable::run);
+		assertEquals(0, diskDir.list().length);
+		assertFalse(cache.get(a).isPresent());
+		assertFalse(cache.get(b).isPresent());
+		assertTrue(cache.get(c).isPresent());
+	}
+
+	@Test
+	public void testGetWithLoaderLoadsOnlyOnMiss() throws Exception {
+		final DLMemoryAlertAwareCache cache = new DLMemoryAlertAwareCache(100, EvictionPolicy.LRU, null, 0, null);
+		final UUID key = UUID.randomUUID();
+		final Object value = new Object();
+		final AtomicInteger numLoads = new AtomicInteger();
+		assertSame(value, cache.get(key, () -> {
+			numLoads.incrementAndGet();
+			return value;
+		}, v -> 10));
+		assertSame(value, cache.get(key, () -> {
+			numLoads.incrementAndGet();
+			return new Object();
+		}));
+		assertEquals(1, numLoads.get());
+		assertEquals(1, cache.getStats().getHitCount());
+		assertEquals(1, cache.getStats().getMissCount());
+		assertEquals(10, cache.getStats().getSize());
+	}
+}
@@ -0,0 +1,231 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.core.data;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.knime.dl.testing.DLTestUtil.DOUBLE_EPSILON;
+import static org.knime.dl.testing.DLTestUtil.alternatingBooleanArray;
+import static org.knime.dl.testing.DLTestUtil.booleanRange;
+import static org.knime.dl.testing.DLTestUtil.toByte;
+import static org.knime.dl.testing.DLTestUtil.toDouble;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * @author agent
+ */
+@SuppressWarnings("javadoc")
+public class DLPackedBitBufferTest {
+
+    @Test
+    public void testGetNumWords() throws Exception {
+        assertEquals(0, DLPackedBitBuffer.getNumWords(0));
+        assertEquals(1, DLPackedBitBuffer.getNumWords(1));
+        assertEquals(1, DLPackedBitBuffer.getNumWords(64));
+        assertEquals(2, DLPackedBitBuffer.getNumWords(65));
+    }
+
+    @Test
+    public void testPutBoolean() throws Exception {
+        try (DLPackedBitBuffer buffer = new DLPackedBitBuffer(10)) {
+            assertEquals(1, buffer.m_storage.length);
+            buffer.put(true);
+            assertEquals(1L, buffer.m_storage[0]);
+            assertEquals(1, buffer.m_nextWrite);
+            buffer.put(false);
+            buffer.put(true);
+            assertEquals(5L, buffer.m_storage[0]);
+        }
+    }
+
+    @Test(expected = BufferOverflowException.class)
+    public void testPutBooleanOverflow() throws Exception {
+        try (DLPackedBitBuffer buffer = new DLPackedBitBuffer(1)) {
+            buffer.put(true);
+            buffer.put(false);
+        }
+    }
+
+    @Test
+    public void testPutAllBoolean() throws Exception {
+        try (DLPackedBitBuffer buffer = new DLPackedBitBuffer(100)) {
+            final boolean[] expected = alternatingBooleanArray(100);
+            buffer.putAll(expected);
+            assertArrayEquals(expected, buffer.toBitArray());
+        }
+    }
+
+    @Test(expected = BufferOverflowException.class)
+    public void testPutAllBooleanOverflow() throws Exception {
+        try (DLPackedBitBuffer buffer = new DLPackedBitBuffer(1)) {
+            buffer.putAll(alternatingBooleanArray(10));
+        }
+    }
+
+    @Test
+    public void testPutWords() throws Exception {
+        final Random random = new Random(42);
+        final long[] words = new long[]{random.nextLong(), random.nextLong(), random.nextLong()};
+        try (DLPackedBitBuffer buffer = new DLPackedBitBuffer(300)) {
+            // unaligned writes that span word boundaries
+            buffer.put(true);
+            buffer.putWords(words, 130);
+            buffer.putWords(words, 5);
+            assertEquals(136, buffer.size());
+            assertEquals(true, buffer.readNextBit());
+            for (int i = 0; i < 130; i++) {
+                assertEquals(getBit(words, i), buffer.readNextBit());
+            }
+            for (int i = 0; i < 5; i++) {
+                assertEquals(getBit(words, i), buffer.readNextBit());
+            }
+        }
+    }
+
+    @Test
+    public void testPutWordsOverwritesStaleBits() throws Exception {
+        try (DLPackedBitBuffer buffer = new DLPackedBitBuffer(128)) {
+            buffer.putWords(new long[]{-1L, -1L}, 128);
+            buffer.resetWrite();
+            buffer.put(false);
+            buffer.putWords(new long[]{0L, 0L}, 100);
+            buffer.resetRead();
+            for (int i = 0; i < 101; i++) {
+                assertEquals(false, buffer.readNextBit());
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPutWordsTooManyBits() throws Exception {
+        try (DLPackedBitBuffer buffer = new DLPackedBitBuffer(200)) {
+            buffer.putWords(new long[]{0L}, 65);
+        }
+    }
+
+    @Test(expected = BufferOverflowException.class)
+    public void testPutWordsOverflow() throws Exception {
+        try (DLPackedBitBuffer buffer = new DLPackedBitBuffer(10)) {
+            buffer.putWords(new long[]{0L}, 11);
+        }
+    }
+
+    @Test
+    public void testReadToWordArray() throws Exception {
+        final Random random = new Random(42);
+        final boolean[] values = new boolean[200];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextBoolean();
+        }
+        try (DLPackedBitBuffer buffer = new DLPackedBitBuffer(200)) {
+            buffer.putAll(values);
+            buffer.readNextBit();
+            final long[] words = new long[3];
+            buffer.readToWordArray(words, 150);
+            for (int i = 0; i < 150; i++) {
+                assertEquals(values[i + 1], getBit(words, i));
+            }
+            // unused bits are cleared
+            assertEquals(0L, words[2] >>> 22);
+            assertEquals(151, buffer.getNextReadPosition());
+        }
+    }
+
+    @Test(expected = BufferUnderflowException.class)
+    public void testReadToWordArrayUnderflow() throws Exception {
+        try (DLPackedBitBuffer buffer = new DLPackedBitBuffer(10)) {
+            buffer.putAll(booleanRange(10));
+            buffer.readToWordArray(new long[1], 11);
+        }
+    }
+
+    @Test
+    public void testToDoubleArray() throws Exception {
+        try (DLPackedBitBuffer buffer = new DLPackedBitBuffer(10)) {
+            final boolean[] expected = booleanRange(10);
+            buffer.putAll(expected);
+            assertArrayEquals(toDouble(expected), buffer.toDoubleArray(), DOUBLE_EPSILON);
+        }
+    }
+
+    @Test
+    public void testReadToByteArray() throws Exception {
+        try (DLPackedBitBuffer buffer = new DLPackedBitBuffer(10)) {
+            final boolean[] expected = booleanRange(10);
+            buffer.putAll(expected);
+            final byte[] dest = new byte[10];
+            buffer.readToByteArray(dest, 0, 10);
+            assertArrayEquals(toByte(expected), dest);
+        }
+    }
+
+    @Test
+    public void testZeroPad() throws Exception {
+        try (DLPackedBitBuffer buffer = new DLPackedBitBuffer(10)) {
+            buffer.putAll(booleanRange(10));
+            buffer.resetWrite();
+            buffer.zeroPad(10);
+            assertArrayEquals(new boolean[10], buffer.toBitArray());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetStorageWrongCapacity() throws Exception {
+        try (DLPackedBitBuffer buffer = new DLPackedBitBuffer(100)) {
+            buffer.setStorage(new long[1], 10);
+        }
+    }
+
+    private static boolean getBit(final long[] words, final int index) {
+        return (words[index >>> 6] & (1L << index)) != 0;
+    }
+}
@@ -1,11 +1,15 @@
 package org.knime.dl.core.data.convert;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.knime.dl.testing.DLTestUtil.createTensor;
 
 import java.util.Collections;
 
 import org.junit.Test;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.def.DefaultRow;
 import org.knime.core.data.vector.bitvector.BitVectorValue;
 import org.knime.core.data.vector.bitvector.DenseBitVector;
 import org.knime.core.data.vector.bitvector.DenseBitVectorCellFactory;
@@ -42,6 +46,34 @@ public void testConvert() {
         assertEquals(input.get(4), outputAsReadable.readNextBit());
     }
 
+    @Test
+    public void testConvertBatch() {
+        final DLBitVectorToBitTensorConverterFactory factory = new DLBitVectorToBitTensorConverterFactory();
+        final DLDataValueToTensorBatchConverter<BitVectorValue, DLWritableBitBuffer> converter =
+            (DLDataValueToTensorBatchConverter<BitVectorValue, DLWritableBitBuffer>)factory.createConverter();
+        final BitVectorValue input0 =
+            new DenseBitVectorCellFactory(new DenseBitVector(new long[]{0xABCDEF0123456789l}, 5)).createDataCell();
+        final BitVectorValue input1 =
+            new DenseBitVectorCellFactory(new DenseBitVector(new long[]{0x0123456789ABCDEFl}, 5)).createDataCell();
+        final DataRow[] rows = new DataRow[]{new DefaultRow("Row0", (DataCell)input0),
+            new DefaultRow("Row1", (DataCell)input1)};
+
+        final DLTensor<DLWritableBitBuffer> output = (DLTensor<DLWritableBitBuffer>)createTensor(Boolean.class, 2, 5);
+        // stale values of a previous batch must be overwritten
+        converter.convertBatch(new DataRow[]{rows[1], rows[1]}, 2, new int[]{0}, output);
+        output.getBuffer().reset();
+        assertTrue(converter.convertBatch(rows, 2, new int[]{0}, output));
+        final DLReadableBitBuffer outputAsReadable = (DLReadableBitBuffer)output.getBuffer();
+
+        assertEquals(input0.length() + input1.length(), outputAsReadable.size());
+        for (int i = 0; i < input0.length(); i++) {
+            assertEquals(input0.get(i), outputAsReadable.readNextBit());
+        }
+        for (int i = 0; i < input1.length(); i++) {
+            assertEquals(input1.get(i), outputAsReadable.readNextBit());
+        }
+    }
+
     @Test
     public void testGetName() {
         final DLBitVectorToBitTensorConverterFactory factory = new DLBitVectorToBitTensorConverterFactory();
@@ -121,6 +121,24 @@ public void testMatching() {
 		testForSourceDestCombination(src, dest, "1");
 	}
 
+	@Test
+	public void testLookupsAreCached() {
+		final DataType collectionSource = ListCell.getCollectionType(DoubleCell.TYPE);
+		final Class<? extends DLWritableBuffer> dest = DLWritableFloatBuffer.class;
+
+		final List<DLDataValueToTensorConverterFactory<? extends DataValue, ?>> converterFactories = REGISTRY
+				.getConverterFactories(collectionSource, dest);
+		Assert.assertSame(converterFactories, REGISTRY.getConverterFactories(collectionSource, dest));
+		Assert.assertSame(REGISTRY.getPreferredConverterFactory(collectionSource, dest).get(),
+				REGISTRY.getPreferredConverterFactory(collectionSource, dest).get());
+		Assert.assertSame(REGISTRY.getConverterFactoriesForBufferType(dest),
+				REGISTRY.getConverterFactoriesForBufferType(dest));
+		// collection wrappers are shared across all lookups
+		for (final DLDataValueToTensorConverterFactory<? extends DataValue, ?> factory : converterFactories) {
+			Assert.assertSame(factory, REGISTRY.getConverterFactory(factory.getIdentifier()).get());
+		}
+	}
+
 	private void testForSourceDestCombination(final DataType source, final Class<? extends DLWritableBuffer> dest,
 			final String input) {
 		final List<DLDataValueToTensorConverterFactory<? extends DataValue, ?>> converterFactories = REGISTRY
@@ -0,0 +1,76 @@
+package org.knime.dl.core.data.convert;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.knime.dl.testing.DLTestUtil.DOUBLE_EPSILON;
+import static org.knime.dl.testing.DLTestUtil.createTensor;
+
+import org.junit.Test;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.vector.doublevector.DoubleVectorCellFactory;
+import org.knime.core.data.vector.doublevector.DoubleVectorValue;
+import org.knime.dl.core.DLDefaultFixedTensorShape;
+import org.knime.dl.core.DLDefaultTensorId;
+import org.knime.dl.core.DLDefaultTensorSpec;
+import org.knime.dl.core.DLDimensionOrder;
+import org.knime.dl.core.DLTensor;
+import org.knime.dl.core.data.DLReadableDoubleBuffer;
+import org.knime.dl.core.data.DLWritableFloatBuffer;
+
+/**
+ * @author agent
+ */
+public class DLDoubleTensorToDoubleVectorCellConverterFactoryTest {
+
+	@Test
+	public void testConvert() {
+		final DLDoubleTensorToDoubleVectorCellConverterFactory factory =
+				new DLDoubleTensorToDoubleVectorCellConverterFactory();
+		final DLTensorToDataCellConverter<DLReadableDoubleBuffer, DataCell> converter = factory.createConverter();
+		final DLTensor<DLReadableDoubleBuffer> input = (DLTensor<DLReadableDoubleBuffer>) createTensor(Float.class, 2,
+				3);
+		final DLWritableFloatBuffer buffer = (DLWritableFloatBuffer) input.getBuffer();
+		// data for testing
+		for (int i = 0; i < 6; i++) {
+			buffer.put((float) i);
+		}
+
+		final DataCell[] output = new DataCell[2];
+
+		converter.convert(input, output, null);
+
+		for (int i = 0; i < 2; i++) {
+			final DoubleVectorValue vector = (DoubleVectorValue) output[i];
+			assertEquals(3, vector.getLength());
+			for (int j = 0; j < 3; j++) {
+				assertEquals(i * 3 + j, vector.getValue(j), DOUBLE_EPSILON);
+			}
+		}
+	}
+
+	@Test
+	public void testGetDestCount() {
+		final DLDoubleTensorToDoubleVectorCellConverterFactory factory =
+				new DLDoubleTensorToDoubleVectorCellConverterFactory();
+		final long[] shape = { 3 };
+		final DLDefaultTensorSpec spec = new DLDefaultTensorSpec(new DLDefaultTensorId("1"), "Tspec", 1,
+				new DLDefaultFixedTensorShape(shape), Double.class, DLDimensionOrder.TCDHW);
+
+		assertTrue(factory.getDestCount(spec).isPresent());
+		assertEquals(1l, factory.getDestCount(spec).getAsLong());
+	}
+
+	@Test
+	public void testGetBufferType() {
+		final DLDoubleTensorToDoubleVectorCellConverterFactory factory =
+				new DLDoubleTensorToDoubleVectorCellConverterFactory();
+		assertEquals(DLReadableDoubleBuffer.class, factory.getBufferType());
+	}
+
+	@Test
+	public void testGetDestType() {
+		final DLDoubleTensorToDoubleVectorCellConverterFactory factory =
+				new DLDoubleTensorToDoubleVectorCellConverterFactory();
+		assertEquals(DoubleVectorCellFactory.TYPE, factory.getDestType());
+	}
+}
@@ -3,8 +3,10 @@
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.knime.dl.testing.DLTestUtil.DOUBLE_EPSILON;
+import static org.knime.dl.testing.DLTestUtil.FLOAT_EPSILON;
 import static org.knime.dl.testing.DLTestUtil.createTensor;
 
+import java.nio.BufferOverflowException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -12,8 +14,11 @@
 import org.junit.Test;
 import org.knime.core.data.DataColumnSpec;
 import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
 import org.knime.core.data.DoubleValue;
+import org.knime.core.data.def.DefaultRow;
 import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.StringCell;
 import org.knime.dl.core.DLTensor;
 import org.knime.dl.core.data.DLReadableFloatBuffer;
 import org.knime.dl.core.data.DLWritableFloatBuffer;
@@ -45,6 +50,44 @@ public void testConvert() {
 		assertTrue(Double.isInfinite(input.get(2).getDoubleValue()));
 	}
 
+	@Test
+	public void testConvertBatch() {
+		final DLDoubleValueToFloatTensorConverterFactory factory = new DLDoubleValueToFloatTensorConverterFactory();
+		final DLDataValueToTensorBatchConverter<DoubleValue, DLWritableFloatBuffer> converter =
+				(DLDataValueToTensorBatchConverter<DoubleValue, DLWritableFloatBuffer>) factory.createConverter();
+		final DataRow[] rows = new DataRow[] { //
+				new DefaultRow("Row0", new StringCell("a"), new DoubleCell(0d), new DoubleCell(1d)), //
+				new DefaultRow("Row1", new StringCell("b"), new DoubleCell(2d), new DoubleCell(3d)), //
+				new DefaultRow("Row2", new StringCell("c"), new DoubleCell(4d), new DoubleCell(5d)), //
+				null };
+
+		final DLTensor<DLWritableFloatBuffer> output = (DLTensor<DLWritableFloatBuffer>) createTensor(Float.class, 3,
+				2);
+		// row-wise and batch-wise conversion can be mixed
+		converter.convert(Arrays.asList(new DoubleCell(-2d), new DoubleCell(-1d)), output);
+		assertTrue(converter.convertBatch(rows, 2, new int[] { 1, 2 }, output));
+		final DLReadableFloatBuffer outputAsReadable = (DLReadableFloatBuffer) output.getBuffer();
+
+		assertEquals(6, outputAsReadable.size());
+		for (int i = 0; i < 6; i++) {
+			assertEquals(i - 2f, outputAsReadable.readNextFloat(), FLOAT_EPSILON);
+		}
+	}
+
+	@Test(expected = BufferOverflowException.class)
+	public void testConvertBatchOverflow() {
+		final DLDoubleValueToFloatTensorConverterFactory factory = new DLDoubleValueToFloatTensorConverterFactory();
+		final DLDataValueToTensorBatchConverter<DoubleValue, DLWritableFloatBuffer> converter =
+				(DLDataValueToTensorBatchConverter<DoubleValue, DLWritableFloatBuffer>) factory.createConverter();
+		final DataRow[] rows = new DataRow[] { //
+				new DefaultRow("Row0", new DoubleCell(0d), new DoubleCell(1d)), //
+				new DefaultRow("Row1", new DoubleCell(2d), new DoubleCell(3d)) };
+
+		final DLTensor<DLWritableFloatBuffer> output = (DLTensor<DLWritableFloatBuffer>) createTensor(Float.class, 1,
+				2);
+		converter.convertBatch(rows, 2, new int[] { 0, 1 }, output);
+	}
+
 	@Test
 	public void testGetDestCount() {
 		final DLDoubleValueToFloatTensorConverterFactory factory = new DLDoubleValueToFloatTensorConverterFactory();
@@ -0,0 +1,119 @@
+package org.knime.dl.core.execution;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.node.streamable.RowInput;
+import org.knime.core.node.streamable.RowOutput;
+import org.knime.dl.core.DLDefaultTensorId;
+import org.knime.dl.core.DLRowInputRowIterator;
+import org.knime.dl.core.DLRowIterator;
+import org.knime.dl.core.DLTensorId;
+
+/**
+ * @author agent
+ */
+public class DLKnimeParallelExecutionDispatcherTest {
+
+	private static final DataTableSpec SPEC = new DataTableSpec(
+			new DataColumnSpecCreator("column", DoubleCell.TYPE).createSpec());
+
+	private static final Map<DLTensorId, int[]> COLUMNS = Collections.singletonMap(new DLDefaultTensorId("input"),
+			new int[] { 0 });
+
+	@Test
+	public void testResultsAreReassembledInInputOrder() throws Exception {
+		final List<DataRow> pushed = new ArrayList<>();
+		final RowOutput output = new RowOutput() {
+
+			@Override
+			public void push(final DataRow row) {
+				pushed.add(row);
+			}
+
+			@Override
+			public void close() {
+				// no op
+			}
+		};
+		try (final DLRowIterator input = new DLRowInputRowIterator(createInput(7), COLUMNS);
+				final DLKnimeParallelExecutionDispatcher dispatcher = new DLKnimeParallelExecutionDispatcher(input,
+						SPEC, COLUMNS, 3, 2, output)) {
+			final DLKnimeParallelExecutionDispatcher.Worker worker0 = dispatcher.createWorker();
+			final DLKnimeParallelExecutionDispatcher.Worker worker1 = dispatcher.createWorker();
+			// worker 0 takes rows 0-2, worker 1 takes rows 3-5
+			final List<DataRow> batch0 = takeBatch(worker0.getRowIterator(), 3);
+			final List<DataRow> batch1 = takeBatch(worker1.getRowIterator(), 3);
+			assertEquals("Row0", batch0.get(0).getKey().getString());
+			assertEquals("Row3", batch1.get(0).getKey().getString());
+			// worker 1 finishes first, its results must be held back
+			for (final DataRow row : batch1) {
+				worker1.getRowOutput().push(row);
+			}
+			assertTrue(pushed.isEmpty());
+			// worker 1 takes the incomplete last batch
+			final List<DataRow> batch2 = takeBatch(worker1.getRowIterator(), 3);
+			assertEquals(1, batch2.size());
+			assertFalse(worker0.getRowIterator().hasNext());
+			for (final DataRow row : batch2) {
+				worker1.getRowOutput().push(row);
+			}
+			assertTrue(pushed.isEmpty());
+			for (final DataRow row : batch0) {
+				worker0.getRowOutput().push(row);
+			}
+			assertEquals(7, pushed.size());
+			for (int i = 0; i < 7; i++) {
+				assertEquals("Row" + i, pushed.get(i).getKey().getString());
+			}
+		}
+	}
+
+	private static List<DataRow> takeBatch(final DLRowIterator iterator, final int batchSize) {
+		final List<DataRow> batch = new ArrayList<>(batchSize);
+		for (int i = 0; i < batchSize && iterator.hasNext(); i++) {
+			batch.add(iterator.next());
+		}
+		return batch;
+	}
+
+	private static RowInput createInput(final int numRows) {
+		return new RowInput() {
+
+			private int m_next = 0;
+
+			@Override
+			public DataTableSpec getDataTableSpec() {
+				return SPEC;
+			}
+
+			@Override
+			public DataRow poll() {
+				if (m_next == numRows) {
+					return null;
+				}
+				final DataRow row = new DefaultRow(new RowKey("Row" + m_next), new DoubleCell(m_next));
+				m_next++;
+				return row;
+			}
+
+			@Override
+			public void close() {
+				// no op
+			}
+		};
+	}
+}
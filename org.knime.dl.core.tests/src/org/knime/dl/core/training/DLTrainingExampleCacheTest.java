@@ -0,0 +1,218 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.core.training;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import org.knime.dl.core.DLDefaultFixedTensorShape;
+import org.knime.dl.core.DLDefaultTensor;
+import org.knime.dl.core.DLDefaultTensorId;
+import org.knime.dl.core.DLDefaultTensorSpec;
+import org.knime.dl.core.DLDimensionOrder;
+import org.knime.dl.core.DLTensor;
+import org.knime.dl.core.DLTensorId;
+import org.knime.dl.core.DLTensorSpec;
+import org.knime.dl.core.data.DLDefaultBitBuffer;
+import org.knime.dl.core.data.DLDefaultFloatBuffer;
+import org.knime.dl.core.data.DLDefaultIntBuffer;
+import org.knime.dl.core.data.DLWritableBuffer;
+
+/**
+ * @author agent
+ */
+public class DLTrainingExampleCacheTest {
+
+	private static final DLTensorId FLOAT_ID = new DLDefaultTensorId("float");
+
+	private static final DLTensorId INT_ID = new DLDefaultTensorId("int");
+
+	private static final int FLOAT_EXAMPLE_SIZE = 3;
+
+	private static final int INT_EXAMPLE_SIZE = 2;
+
+	/**
+	 * 3 floats + 2 ints
+	 */
+	private static final int RECORD_SIZE = 20;
+
+	private static final int BATCH_SIZE = 3;
+
+	@Test
+	public void testRecordsAcrossRegionBoundaries() throws IOException {
+		// two records per region, the remaining 10 bytes of each region stay unused
+		final int maxRegionSize = 2 * RECORD_SIZE + 10;
+		final int numExamples = 7;
+		final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> tensors = createTensors(BATCH_SIZE);
+		try (final DLTrainingExampleCache cache =
+				DLTrainingExampleCache.create(tensors, numExamples, maxRegionSize).get()) {
+			writeExamples(cache, tensors, numExamples);
+			assertTrue(cache.isComplete());
+			for (int e = 0; e < numExamples; e++) {
+				assertExample(cache, e);
+			}
+		}
+	}
+
+	@Test
+	public void testRegionBoundaryAlignedToRecords() throws IOException {
+		final int numExamples = 6;
+		final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> tensors = createTensors(BATCH_SIZE);
+		try (final DLTrainingExampleCache cache =
+				DLTrainingExampleCache.create(tensors, numExamples, 2 * RECORD_SIZE).get()) {
+			writeExamples(cache, tensors, numExamples);
+			// read out of order, alternating between regions
+			for (final int e : new int[] { 5, 0, 3, 2, 1, 4 }) {
+				assertExample(cache, e);
+			}
+		}
+	}
+
+	@Test
+	public void testExamplesBeyondCapacityAreIgnored() throws IOException {
+		final int numExamples = 4;
+		final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> tensors = createTensors(BATCH_SIZE);
+		try (final DLTrainingExampleCache cache = DLTrainingExampleCache.create(tensors, numExamples, RECORD_SIZE)
+				.get()) {
+			// two full batches, the last two examples of the second batch exceed the capacity of the cache
+			fillTensors(tensors, 0, BATCH_SIZE);
+			cache.write(tensors, BATCH_SIZE);
+			assertFalse(cache.isComplete());
+			fillTensors(tensors, BATCH_SIZE, BATCH_SIZE);
+			cache.write(tensors, BATCH_SIZE);
+			assertTrue(cache.isComplete());
+			fillTensors(tensors, 2 * BATCH_SIZE, BATCH_SIZE);
+			cache.write(tensors, BATCH_SIZE);
+			assertTrue(cache.isComplete());
+			for (int e = 0; e < numExamples; e++) {
+				assertExample(cache, e);
+			}
+		}
+	}
+
+	@Test
+	public void testRecordLargerThanRegionIsNotCached() throws IOException {
+		assertFalse(DLTrainingExampleCache.create(createTensors(BATCH_SIZE), 1, RECORD_SIZE - 1).isPresent());
+	}
+
+	@Test
+	public void testBitTensorIsNotCached() throws IOException {
+		final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> tensors = createTensors(BATCH_SIZE);
+		final DLTensorId bitId = new DLDefaultTensorId("bit");
+		tensors.put(bitId, new DLDefaultTensor<>(createSpec(bitId, boolean.class, 1, BATCH_SIZE),
+				new DLDefaultBitBuffer(BATCH_SIZE), 1));
+		assertFalse(DLTrainingExampleCache.create(tensors, 1).isPresent());
+	}
+
+	private static void writeExamples(final DLTrainingExampleCache cache,
+			final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> tensors, final int numExamples) {
+		for (int first = 0; first < numExamples; first += BATCH_SIZE) {
+			final int batchSize = Math.min(BATCH_SIZE, numExamples - first);
+			fillTensors(tensors, first, batchSize);
+			cache.write(tensors, batchSize);
+		}
+	}
+
+	private static void assertExample(final DLTrainingExampleCache cache, final int example) {
+		final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> tensors = createTensors(1);
+		cache.read(tensors, example);
+		final float[] floats = ((DLDefaultFloatBuffer) tensors.get(FLOAT_ID).getBuffer()).toFloatArray();
+		final int[] ints = ((DLDefaultIntBuffer) tensors.get(INT_ID).getBuffer()).toIntArray();
+		assertArrayEquals(expectedFloats(example), Arrays.copyOf(floats, FLOAT_EXAMPLE_SIZE), 0f);
+		assertArrayEquals(expectedInts(example), Arrays.copyOf(ints, INT_EXAMPLE_SIZE));
+	}
+
+	private static void fillTensors(final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> tensors,
+			final int firstExample, final int numExamples) {
+		final DLDefaultFloatBuffer floatBuffer = (DLDefaultFloatBuffer) tensors.get(FLOAT_ID).getBuffer();
+		final DLDefaultIntBuffer intBuffer = (DLDefaultIntBuffer) tensors.get(INT_ID).getBuffer();
+		floatBuffer.reset();
+		intBuffer.reset();
+		for (int e = firstExample; e < firstExample + numExamples; e++) {
+			floatBuffer.putAll(expectedFloats(e));
+			intBuffer.putAll(expectedInts(e));
+		}
+	}
+
+	private static float[] expectedFloats(final int example) {
+		final float[] values = new float[FLOAT_EXAMPLE_SIZE];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = example + i / 10f;
+		}
+		return values;
+	}
+
+	private static int[] expectedInts(final int example) {
+		final int[] values = new int[INT_EXAMPLE_SIZE];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = -(example * 100 + i);
+		}
+		return values;
+	}
+
+	private static Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> createTensors(final int batchSize) {
+		final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> tensors = new LinkedHashMap<>();
+		tensors.put(FLOAT_ID, new DLDefaultTensor<>(createSpec(FLOAT_ID, float.class, FLOAT_EXAMPLE_SIZE, batchSize),
+				new DLDefaultFloatBuffer(FLOAT_EXAMPLE_SIZE * batchSize), FLOAT_EXAMPLE_SIZE));
+		tensors.put(INT_ID, new DLDefaultTensor<>(createSpec(INT_ID, int.class, INT_EXAMPLE_SIZE, batchSize),
+				new DLDefaultIntBuffer(INT_EXAMPLE_SIZE * batchSize), INT_EXAMPLE_SIZE));
+		return tensors;
+	}
+
+	private static DLTensorSpec createSpec(final DLTensorId id, final Class<?> elementType, final long exampleSize,
+			final long batchSize) {
+		return new DLDefaultTensorSpec(id, id.getIdentifierString(), batchSize,
+				new DLDefaultFixedTensorShape(new long[] { exampleSize }), elementType, DLDimensionOrder.TDHWC);
+	}
+}
@@ -0,0 +1,107 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.keras.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Map;
+
+import org.junit.Test;
+import org.knime.dl.util.DLUtils;
+
+/**
+ * @author agent
+ */
+public final class DLKerasH5ConfigReaderTest {
+
+    private static final String BUNDLE_ID = "org.knime.dl.keras.tests";
+
+    @Test
+    public void testReadCompleteModel() throws IOException {
+        final Map<String, String> attributes = readRootAttributes("data/simple_test_model.h5");
+        assertEquals("tensorflow", attributes.get("backend"));
+        assertEquals("2.0.4", attributes.get("keras_version"));
+        assertTrue(attributes.get(DLKerasH5ConfigReader.MODEL_CONFIG_ATTRIBUTE).startsWith("{"));
+        assertTrue(attributes.get(DLKerasH5ConfigReader.MODEL_CONFIG_ATTRIBUTE).contains("\"Dense\""));
+        assertTrue(attributes.get(DLKerasH5ConfigReader.TRAINING_CONFIG_ATTRIBUTE).contains("\"optimizer_config\""));
+    }
+
+    @Test
+    public void testReadModelWithoutTrainingConfig() throws IOException {
+        final Map<String, String> attributes = readRootAttributes("data/multi_in_out.h5");
+        assertEquals("2.0.5", attributes.get("keras_version"));
+        assertTrue(attributes.get(DLKerasH5ConfigReader.MODEL_CONFIG_ATTRIBUTE).contains("\"input_layers\""));
+        assertFalse(attributes.containsKey(DLKerasH5ConfigReader.TRAINING_CONFIG_ATTRIBUTE));
+    }
+
+    @Test
+    public void testReadWeightsOnly() throws IOException {
+        final Map<String, String> attributes = readRootAttributes("data/simple_test_model_weights.h5");
+        assertEquals("tensorflow", attributes.get("backend"));
+        assertFalse(attributes.containsKey(DLKerasH5ConfigReader.MODEL_CONFIG_ATTRIBUTE));
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadNonHdf5File() throws IOException {
+        final File file = File.createTempFile("not_hdf5", ".h5");
+        try {
+            Files.write(file.toPath(), new byte[2048]);
+            DLKerasH5ConfigReader.readRootAttributes(file);
+        } finally {
+            file.delete();
+        }
+    }
+
+    private static Map<String, String> readRootAttributes(final String path) throws IOException {
+        return DLKerasH5ConfigReader.readRootAttributes(DLUtils.Files.getFileFromBundle(BUNDLE_ID, path));
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.keras.core.layers;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.knime.core.util.FileUtil;
+import org.knime.dl.core.DLNetworkLocation;
+import org.knime.dl.core.DLNetworkReferenceLocation;
+import org.knime.dl.keras.core.DLKerasNetwork;
+import org.knime.dl.keras.tensorflow.core.DLKerasTensorFlowNetwork;
+import org.knime.dl.keras.tensorflow.core.DLKerasTensorFlowNetworkSpec;
+import org.knime.dl.keras.testing.DLKerasTestUtil;
+
+/**
+ * @author agent
+ */
+public final class DLKerasMaterializationCacheTest {
+
+    private static final String KEY = "0123456789abcdef";
+
+    private File m_cacheDir;
+
+    private DLKerasMaterializationCache m_cache;
+
+    @Before
+    public void setUp() throws IOException {
+        m_cacheDir = FileUtil.createTempDir("dl-keras-materialization-cache-test");
+        m_cache = new DLKerasMaterializationCache(m_cacheDir, 1024 * 1024);
+    }
+
+    @Test
+    public void testDisabledCacheComputesNoKey() {
+        final DLKerasMaterializationCache cache = new DLKerasMaterializationCache(null, 1024);
+        assertFalse(cache.computeKey(Collections.emptyList(), DLKerasTensorFlowNetwork.class).isPresent());
+    }
+
+    @Test
+    public void testMiss() throws IOException {
+        assertFalse(m_cache.get(KEY, createLocation()).isPresent());
+    }
+
+    @Test
+    public void testHit() throws IOException {
+        final byte[] content = "network".getBytes(StandardCharsets.UTF_8);
+        final DLKerasTensorFlowNetwork network = createNetwork(content);
+        m_cache.put(KEY, network);
+
+        final DLNetworkLocation target = createLocation();
+        final Optional<DLKerasNetwork> cached = m_cache.get(KEY, target);
+        assertTrue(cached.isPresent());
+        assertEquals(network.getSpec(), cached.get().getSpec());
+        assertEquals(target, cached.get().getSource());
+        assertArrayEquals(content, Files.readAllBytes(new File(target.getURI()).toPath()));
+        // No temporary files are left behind.
+        assertEquals(2, m_cacheDir.listFiles().length);
+    }
+
+    @Test
+    public void testCorruptEntryIsRemoved() throws IOException {
+        m_cache.put(KEY, createNetwork("network".getBytes(StandardCharsets.UTF_8)));
+        final File specFile = new File(m_cacheDir, KEY + ".spec");
+        Files.write(specFile.toPath(), "corrupt".getBytes(StandardCharsets.UTF_8));
+
+        assertFalse(m_cache.get(KEY, createLocation()).isPresent());
+        assertFalse(specFile.exists());
+        assertFalse(new File(m_cacheDir, KEY + ".h5").exists());
+    }
+
+    @Test
+    public void testIncompleteEntryIsMiss() throws IOException {
+        // A network file without spec file is an entry that is still being written by another instance.
+        Files.write(new File(m_cacheDir, KEY + ".h5").toPath(), "network".getBytes(StandardCharsets.UTF_8));
+        assertFalse(m_cache.get(KEY, createLocation()).isPresent());
+    }
+
+    @Test
+    public void testEvictionRemovesLeastRecentlyUsedEntry() throws IOException {
+        final DLKerasMaterializationCache cache = new DLKerasMaterializationCache(m_cacheDir, 0);
+        cache.put(KEY, createNetwork("network".getBytes(StandardCharsets.UTF_8)));
+        assertFalse(cache.get(KEY, createLocation()).isPresent());
+    }
+
+    private DLKerasTensorFlowNetwork createNetwork(final byte[] content) throws IOException {
+        final DLNetworkLocation source = createLocation();
+        Files.write(new File(source.getURI()).toPath(), content);
+        final DLKerasTensorFlowNetworkSpec spec = DLKerasTestUtil.randomNetworkSpec(new Random(42));
+        return new DLKerasTensorFlowNetwork(spec, source);
+    }
+
+    private static DLNetworkLocation createLocation() throws IOException {
+        final File file = FileUtil.createTempFile("dl-keras-materialization-cache-test", ".h5");
+        return new DLNetworkReferenceLocation(file.toURI());
+    }
+}
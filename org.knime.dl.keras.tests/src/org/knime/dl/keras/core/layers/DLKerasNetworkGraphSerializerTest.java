@@ -46,6 +46,8 @@
  */
 package org.knime.dl.keras.core.layers;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.knime.dl.keras.core.layers.DLKerasLayerTestSetups.createMultiInputModelTestSetup;
 import static org.knime.dl.keras.core.layers.DLKerasLayerTestSetups.createMultiInputMultiOutputForkJoinModelTestSetup;
@@ -59,6 +61,7 @@
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -134,6 +137,22 @@ public void testSerializeMultiInputMultiOutputForkJoinModel() throws IOException
         testSerialize(createMultiInputMultiOutputForkJoinModelTestSetup());
     }
 
+    @Test
+    public void testWriteContentIgnoresRuntimeIds() throws IOException {
+        final List<DLKerasLayer> outputLayers = createMultiInputMultiOutputForkJoinModelTestSetup();
+        final byte[] content = writeContent(outputLayers);
+        assertArrayEquals(content, writeContent(createMultiInputMultiOutputForkJoinModelTestSetup()));
+        outputLayers.get(0).setRuntimeId("reset");
+        assertArrayEquals(content, writeContent(outputLayers));
+        assertFalse(Arrays.equals(content, writeContent(createMultiInputMultiOutputModelTestSetup())));
+    }
+
+    private static byte[] writeContent(final List<DLKerasLayer> outputLayers) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DLKerasNetworkGraphSerializer.writeContentTo(outputLayers, out);
+        return out.toByteArray();
+    }
+
     private void testSerialize(final List<DLKerasLayer> outputLayers) throws IOException, ClassNotFoundException {
         DLKerasNetworkGraphSerializer.writeGraphTo(outputLayers, m_outStream);
         m_inStream = outStreamToInStream();
@@ -46,6 +46,10 @@
  */
 package org.knime.dl.keras.core.layers;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.knime.dl.keras.core.layers.DLKerasLayerTestSetups.createSequentialModelTestSetup;
 import static org.knime.dl.keras.core.layers.DLKerasLayerTestSetups.testOnMultiInputModelSetup;
 import static org.knime.dl.keras.core.layers.DLKerasLayerTestSetups.testOnMultiInputMultiOutputForkJoinModelSetup;
 import static org.knime.dl.keras.core.layers.DLKerasLayerTestSetups.testOnMultiInputMultiOutputModelAppendedBinaryLayerSetup;
@@ -59,6 +63,7 @@
 import static org.knime.dl.keras.core.layers.DLKerasLayerTestSetups.testOnTwoMultiInputMultiOutputModelsAppendedBinaryLayerSetup;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
 import java.util.function.Function;
 
@@ -70,8 +75,11 @@
 import org.knime.dl.core.DLCanceledExecutionException;
 import org.knime.dl.core.DLInvalidEnvironmentException;
 import org.knime.dl.core.DLInvalidSourceException;
+import org.knime.dl.core.DLTensorSpec;
 import org.knime.dl.keras.core.DLKerasNetworkSpec;
 import org.knime.dl.keras.core.DLKerasPythonContext;
+import org.knime.dl.keras.core.layers.impl.core.DLKerasDefaultInputLayer;
+import org.knime.dl.keras.core.layers.impl.core.DLKerasDenseLayer;
 import org.knime.dl.python.core.DLPythonContext;
 import org.knime.dl.python.prefs.DLPythonPreferences;
 import org.knime.python2.testing.PreferencesSetup;
@@ -157,6 +165,47 @@ public void testAppendBinaryLayerToTwoMultiInputMultiOutputModels()
         testOnTwoMultiInputMultiOutputModelsAppendedBinaryLayerSetup(this::inferSpecs, Function.identity(), m_context);
     }
 
+    @Test
+    public void testLayerSpecsAreMemoized() throws DLInvalidTensorSpecException {
+        final DLKerasInnerLayer out0 = (DLKerasInnerLayer)createSequentialModelTestSetup().get(0);
+        final DLKerasInnerLayer hidden2 = (DLKerasInnerLayer)out0.getParent(0);
+        final List<DLTensorSpec> hidden2Specs = hidden2.getOutputSpecs();
+        final List<DLTensorSpec> out0Specs = out0.getOutputSpecs();
+        assertSame(hidden2Specs, hidden2.getOutputSpecs());
+        assertSame(out0Specs, out0.getOutputSpecs());
+
+        // Appending a layer reuses the specs of its predecessors.
+        final DLKerasDenseLayer appended = new DLKerasDenseLayer();
+        appended.setRuntimeId("appended");
+        appended.setParent(0, out0);
+        inferSpecs(Arrays.asList(appended));
+        assertSame(hidden2Specs, hidden2.getOutputSpecs());
+        assertSame(out0Specs, out0.getOutputSpecs());
+
+        // Re-parenting invalidates the memoized specs of the layer and its successors.
+        final DLKerasDefaultInputLayer newInput = new DLKerasDefaultInputLayer();
+        hidden2.setParent(0, newInput);
+        assertNotSame(hidden2Specs, hidden2.getOutputSpecs());
+        assertNotSame(out0Specs, out0.getOutputSpecs());
+        assertEquals(hidden2Specs, hidden2.getOutputSpecs());
+    }
+
+    @Test
+    public void testReparentingDropsTrustedMemo() throws DLInvalidTensorSpecException {
+        final DLKerasInnerLayer out0 = (DLKerasInnerLayer)createSequentialModelTestSetup().get(0);
+        final DLKerasInnerLayer hidden2 = (DLKerasInnerLayer)out0.getParent(0);
+        out0.validateInputSpecs();
+        final List<DLTensorSpec> out0Specs = out0.getOutputSpecs();
+
+        // Successors trust the memoized specs of their parents, which re-parenting drops.
+        final DLKerasDefaultInputLayer newInput = new DLKerasDefaultInputLayer();
+        hidden2.setParent(0, newInput);
+        final List<DLTensorSpec> newOut0Specs = out0.getOutputSpecs();
+        assertNotSame(out0Specs, newOut0Specs);
+        assertEquals(out0Specs, newOut0Specs);
+        assertSame(newOut0Specs, out0.getOutputSpecs());
+    }
+
     private DLKerasNetworkSpec inferSpecs(final List<DLKerasLayer> outputLayers) {
         return new DLKerasNetworkSpecInferrer(outputLayers).inferNetworkSpec();
     }
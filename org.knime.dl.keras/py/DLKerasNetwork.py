@@ -139,6 +139,10 @@ class DLKerasNetwork(DLPythonNetwork):
     def __init__(self, model, compatibility_mode=False):
         super().__init__(DLKerasNetwork._convert_sequential_to_model(model, compatibility_mode))
         self._training_monitor = None
+        # Per output identifier
+        self._output_tensors = {}
+        # Per tuple of output identifiers
+        self._intermediate_models = {}
 
     @abc.abstractmethod
     def _extract_model_spec(self):
@@ -151,12 +155,23 @@ class DLKerasNetwork(DLPythonNetwork):
         return self._spec
 
     def execute(self, in_data, batch_size, output_identifiers):
-        model = self._model
         X = self._format_input(in_data, batch_size)
+        intermediate_model = self._get_intermediate_model(output_identifiers)
+        Y = intermediate_model.predict(X, batch_size=batch_size, verbose=0)
+        return self._format_output(Y, output_identifiers)
 
-        # Get the requested output tensors
-        outputs = []
-        for id in output_identifiers:
+    def _get_intermediate_model(self, output_identifiers):
+        # Building the model (and, in TF1, its predict function) is costly, so the model is reused for all batches
+        # that request the same outputs. It shares its layers (and therefore its weights) with the wrapped model.
+        key = tuple(output_identifiers)
+        if key not in self._intermediate_models:
+            outputs = [self._get_output_tensor(id) for id in output_identifiers]
+            self._intermediate_models[key] = Model(inputs=self._model.inputs, outputs=outputs)
+        return self._intermediate_models[key]
+
+    def _get_output_tensor(self, id):
+        if id not in self._output_tensors:
+            model = self._model
             matcher = re.match(r'^(.*)_(\d+):(\d+)$', id)
             layer_name = matcher.group(1)
             node_idx = int(matcher.group(2))
@@ -164,14 +179,11 @@ class DLKerasNetwork(DLPythonNetwork):
             output_tensors = model.get_layer(layer_name).get_output_at(node_idx)
             if not isinstance(output_tensors, list):
                 output_tensors = [output_tensors]
-            if output_tensors[tensor_idx] in model.inputs:
-                output_tensors[tensor_idx] = Lambda(lambda x: x)(output_tensors[tensor_idx])
-            outputs.append(output_tensors[tensor_idx])
-
-        # Build the model with the requested outputs
-        intermediate_model = Model(inputs=model.inputs, outputs=outputs)
-        Y = intermediate_model.predict(X, batch_size=batch_size, verbose=0)
-        return self._format_output(Y, output_identifiers)
+            output_tensor = output_tensors[tensor_idx]
+            if output_tensor in model.inputs:
+                output_tensor = Lambda(lambda x: x)(output_tensor)
+            self._output_tensors[id] = output_tensor
+        return self._output_tensors[id]
 
     def train(self, training_data_supplier, validation_data_supplier=None, send_to_java=None):
         assert training_data_supplier is not None
@@ -194,7 +206,8 @@ class DLKerasNetwork(DLPythonNetwork):
         self._model.compile(loss=loss, optimizer=config.optimizer, metrics=metrics)
 
         if not any(isinstance(c, DLKerasTrainingMonitor) for c in config.callbacks):
-            training_monitor = DLKerasTrainingMonitor(self)
+            training_monitor = DLKerasTrainingMonitor(self, config.metrics_reporting_batches,
+                                                      config.metrics_reporting_interval)
             config.callbacks.append(training_monitor)
             self._training_monitor = training_monitor
 
@@ -259,31 +272,34 @@ class DLKerasNetwork(DLPythonNetwork):
         tensors = []
         for spec in specs:
             tensor = in_data[spec.identifier].values[0][0].array
-            tensor_shape = in_data[spec.identifier].values[0][1]
-            tensor = tensor.reshape([batch_size] + tensor_shape)
+            # buffers that were transmitted with a tensor header are already in shape, only flat ones (e.g. from the
+            # shared memory transfer) need to be reshaped
+            if tensor.ndim == 1:
+                tensor_shape = in_data[spec.identifier].values[0][1]
+                tensor = tensor.reshape([batch_size] + tensor_shape)
             tensors.append(tensor)
         return tensors
 
     def _put_in_matching_buffer(self, y):
         t = y.dtype
         if t == np.float64:
-            return DLPythonDoubleBuffer(y)
+            return DLPythonDoubleBuffer(y, batched=True)
         elif t == np.float32:
-            return DLPythonFloatBuffer(y)
+            return DLPythonFloatBuffer(y, batched=True)
         elif t == np.bool_:
-            return DLPythonBitBuffer(y)
+            return DLPythonBitBuffer(y, batched=True)
         elif t == np.int8:
-            return DLPythonByteBuffer(y)
+            return DLPythonByteBuffer(y, batched=True)
         elif t == np.uint8:
-            return DLPythonUnsignedByteBuffer(y)
+            return DLPythonUnsignedByteBuffer(y, batched=True)
         elif t == np.int16:
-            return DLPythonShortBuffer(y)
+            return DLPythonShortBuffer(y, batched=True)
         elif t == np.int32:
-            return DLPythonIntBuffer(y)
+            return DLPythonIntBuffer(y, batched=True)
         elif t == np.int64:
-            return DLPythonLongBuffer(y)
+            return DLPythonLongBuffer(y, batched=True)
         elif t == np.object:
-            return DLPythonStringBuffer(y)
+            return DLPythonStringBuffer(y, batched=True)
         # TODO: support more types
         else:
             raise ValueError('Output type of the network \'{}\' is not supported.'.format(y.dtype))
@@ -312,3 +328,5 @@ class DLKerasTrainingConfig(DLPythonTrainingConfig):
         self.loss = {}
         self.metrics = ['acc']
         self.callbacks = []
+        self.metrics_reporting_batches = 1
+        self.metrics_reporting_interval = 1000
@@ -53,11 +53,11 @@ from DLPythonNetworkTrainingInputGenerator import DLPythonNetworkTrainingInputGe
 
 
 class DLKerasNetworkTrainingInputGenerator(DLPythonNetworkTrainingInputGenerator):
-    def __init__(self, network, steps, batch_size, message_category, is_validation_data=False):
+    def __init__(self, network, steps, batch_size, message_category, is_validation_data=False, cache_size=0):
         assert network is not None
         input_names = [s.identifier for s in network.spec.input_specs]
         target_names = [s.identifier for s in network.spec.output_specs]
-        super().__init__(input_names, target_names, steps, batch_size)
+        super().__init__(input_names, target_names, steps, batch_size, cache_size)
         self._network = network
         self._message_category = message_category
         self._request_from_java = None
@@ -49,7 +49,9 @@
 '''
 
 import abc
+import struct
 import sys
+import time
 
 from keras.callbacks import Callback
 from keras.callbacks import EarlyStopping
@@ -107,10 +109,16 @@ class DLKerasTerminateOnNaN(TerminateOnNaN, DLKerasAbstractTrainingCallback):
 
 
 class DLKerasTrainingMonitor(Callback, DLKerasAbstractTrainingCallback):
-    def __init__(self, network):
+    def __init__(self, network, reporting_batches=1, reporting_interval=1000):
         super().__init__()
         self._network = network
         self._stop_training = False
+        # Per-batch metrics are collected and sent to Java in a single binary message every reporting_batches batches
+        # or after reporting_interval milliseconds, whichever comes first.
+        self._reporting_batches = max(1, reporting_batches)
+        self._reporting_interval = reporting_interval / 1000.0
+        self._pending_metrics = []
+        self._last_report = 0
 
     def stop_early(self):
         self._stop_training = True
@@ -120,8 +128,11 @@ class DLKerasTrainingMonitor(Callback, DLKerasAbstractTrainingCallback):
         # metrics_names = self.params['metrics']
         # self._metrics = pd.DataFrame(index=[0], columns=metrics_names)
         self._stop_training = False
+        self._pending_metrics = []
+        self._last_report = time.time()
 
     def on_train_end(self, logs=None):
+        self._report_batch_metrics()
         if self._stop_training:
             # flush pending Keras logs before printing our own status message
             sys.stdout.flush()
@@ -131,6 +142,7 @@ class DLKerasTrainingMonitor(Callback, DLKerasAbstractTrainingCallback):
         self.send_to_java('epoch_begin')
 
     def on_epoch_end(self, epoch, logs=None):
+        self._report_batch_metrics()
         if logs:
             loss = logs.get('val_loss')
             acc = logs.get('val_acc')
@@ -145,9 +157,6 @@ class DLKerasTrainingMonitor(Callback, DLKerasAbstractTrainingCallback):
 
             self.send_to_java('epoch_end', str(acc) + ';' + str(loss))
 
-    def on_batch_begin(self, batch, logs=None):
-        self.send_to_java('batch_begin')
-
     def on_batch_end(self, batch, logs=None):
         if logs:
             loss = logs.get('loss')
@@ -158,5 +167,23 @@ class DLKerasTrainingMonitor(Callback, DLKerasAbstractTrainingCallback):
                 # reporting is pending.
                 accs = [v for k, v in logs.items() if k.endswith('_acc')]
                 acc = sum(accs) / len(accs)
-
-            self.send_to_java('batch_end', str(acc) + ';' + str(loss))
+        else:
+            acc = None
+            loss = None
+        # Java treats -1 as an invalid metric value, see DLPythonNetworkTrainingTaskHandler.
+        self._pending_metrics.append(float(acc) if acc is not None else -1.0)
+        self._pending_metrics.append(float(loss) if loss is not None else -1.0)
+        # The last batch of an epoch is always reported immediately as Java derives the start of the validation phase
+        # from it.
+        if len(self._pending_metrics) >= 2 * self._reporting_batches \
+                or batch == (self.params.get('steps') or 0) - 1 \
+                or self.model.stop_training \
+                or time.time() - self._last_report >= self._reporting_interval:
+            self._report_batch_metrics()
+
+    def _report_batch_metrics(self):
+        if self._pending_metrics:
+            payload = struct.pack('>%df' % len(self._pending_metrics), *self._pending_metrics)
+            self._pending_metrics = []
+            self.send_to_java('batch_metrics', payload)
+        self._last_report = time.time()
@@ -103,6 +103,16 @@ final class DLKerasLearnerGeneralConfig extends AbstractConfig implements DLGene
 
 	static final String CFG_KEY_RANDOM_SEED = "random_seed";
 
+	static final String CFG_KEY_TRAINING_DATA_QUEUE_SIZE = "training_data_queue_size";
+
+	static final String CFG_KEY_SHUFFLE_BUFFER_SIZE = "shuffle_buffer_size";
+
+	static final String CFG_KEY_VALIDATION_DATA_CACHE_SIZE = "validation_data_cache_size";
+
+	static final String CFG_KEY_CACHE_TRAINING_DATA = "cache_training_data";
+
+	static final String CFG_KEY_METRICS_REPORTING_BATCHES = "metrics_reporting_batches";
+
 	static Collection<DLKerasTrainingContext<?>> getAvailableTrainingContexts(
 			final Class<? extends DLNetwork> networkType) {
 		return DLTrainingContextRegistry.getInstance().getTrainingContextsForNetworkType((networkType)) //
@@ -216,6 +226,54 @@ protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings,
 			}
 		};
 		put(randomSeed);
+		// zero shuffles the entire table before each epoch
+		put(new DefaultConfigEntry<Integer>(CFG_KEY_SHUFFLE_BUFFER_SIZE, Integer.class, 0) {
+
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility: shuffle the entire table as we previously did
+				m_value = 0;
+				return true;
+			}
+		});
+
+		put(new DefaultConfigEntry<Integer>(CFG_KEY_TRAINING_DATA_QUEUE_SIZE, Integer.class, 2) {
+
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility: prepare training data on request as we previously did
+				m_value = 0;
+				return true;
+			}
+		});
+		// in megabytes, zero transfers the validation data in each epoch
+		put(new DefaultConfigEntry<Integer>(CFG_KEY_VALIDATION_DATA_CACHE_SIZE, Integer.class, 512) {
+
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility: transfer validation data in each epoch as we previously did
+				m_value = 0;
+				return true;
+			}
+		});
+		put(new DefaultConfigEntry<Boolean>(CFG_KEY_CACHE_TRAINING_DATA, Boolean.class, false) {
+
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility: convert training data in each epoch as we previously did
+				m_value = false;
+				return true;
+			}
+		});
+		put(new DefaultConfigEntry<Integer>(CFG_KEY_METRICS_REPORTING_BATCHES, Integer.class, 10) {
+
+			@Override
+			protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+				// backward compatibility: report the metrics of each batch separately as we previously did
+				m_value = 1;
+				return true;
+			}
+		});
 	}
 
 	@Override
@@ -276,6 +334,26 @@ ConfigEntry<Long> getRandomSeed() {
 		return get(CFG_KEY_RANDOM_SEED, Long.class);
 	}
 
+	ConfigEntry<Integer> getShuffleBufferSizeEntry() {
+		return get(CFG_KEY_SHUFFLE_BUFFER_SIZE, Integer.class);
+	}
+
+	ConfigEntry<Integer> getTrainingDataQueueSizeEntry() {
+		return get(CFG_KEY_TRAINING_DATA_QUEUE_SIZE, Integer.class);
+	}
+
+	ConfigEntry<Integer> getValidationDataCacheSizeEntry() {
+		return get(CFG_KEY_VALIDATION_DATA_CACHE_SIZE, Integer.class);
+	}
+
+	ConfigEntry<Boolean> getCacheTrainingDataEntry() {
+		return get(CFG_KEY_CACHE_TRAINING_DATA, Boolean.class);
+	}
+
+	ConfigEntry<Integer> getMetricsReportingBatchesEntry() {
+		return get(CFG_KEY_METRICS_REPORTING_BATCHES, Integer.class);
+	}
+
 	void copyClipSettingsToOptimizer() {
 		final DLKerasOptimizer optimizer = getOptimizerEntry().getValue();
 		if (optimizer != null) {
@@ -80,6 +80,8 @@
  */
 class DLKerasLearnerGeneralPanel extends AbstractGridBagDialogComponentGroup {
 
+	private static final int MAX_TRAINING_DATA_QUEUE_SIZE = 16;
+
 	private final DLKerasLearnerGeneralConfig m_cfg;
 
 	private final DialogComponentObjectSelection<DLKerasTrainingContext<?>> m_dcBackend;
@@ -119,6 +121,22 @@ class DLKerasLearnerGeneralPanel extends AbstractGridBagDialogComponentGroup {
 			randomSeedConfig.setEnabled(!v);
 			toggleCheckBox.setEnabled(!v);
 		});
+
+		addNumberSpinnerRowComponent(ConfigUtil.toSettingsModelIntegerBounded(m_cfg.getShuffleBufferSizeEntry(), 0,
+				Integer.MAX_VALUE), "Shuffle buffer size", 1000);
+
+		addNumberSpinnerRowComponent(ConfigUtil.toSettingsModelIntegerBounded(m_cfg.getTrainingDataQueueSizeEntry(),
+				0, MAX_TRAINING_DATA_QUEUE_SIZE), "Training data queue size", 1);
+
+		addNumberSpinnerRowComponent(ConfigUtil.toSettingsModelIntegerBounded(
+				m_cfg.getValidationDataCacheSizeEntry(), 0, Integer.MAX_VALUE), "Validation data cache size (MB)", 64);
+
+		addCheckboxRow(ConfigUtil.toSettingsModelBoolean(m_cfg.getCacheTrainingDataEntry()),
+				"Cache converted training data on disk", true);
+
+		addNumberSpinnerRowComponent(ConfigUtil.toSettingsModelIntegerBounded(
+				m_cfg.getMetricsReportingBatchesEntry(), 1, Integer.MAX_VALUE), "Report training metrics every n batches",
+				1);
 	}
 	
 	private JCheckBox getLastCheckBox() {
@@ -87,6 +87,7 @@
 import org.knime.dl.base.settings.ConfigEntry;
 import org.knime.dl.base.settings.DLAbstractInputConfig;
 import org.knime.dl.base.settings.DLDataTypeColumnFilter;
+import org.knime.dl.core.DLBlockShuffleDataTableRowIterator;
 import org.knime.dl.core.DLCanceledExecutionException;
 import org.knime.dl.core.DLDataTableRowIterator;
 import org.knime.dl.core.DLDefaultTensorId;
@@ -104,6 +105,7 @@
 import org.knime.dl.core.training.DLKnimeNetworkTrainingInputPreparer;
 import org.knime.dl.core.training.DLKnimeNetworkValidationInputPreparer;
 import org.knime.dl.core.training.DLKnimeTrainingMonitor;
+import org.knime.dl.core.training.DLReportedMetric;
 import org.knime.dl.core.training.DLTrainingContext;
 import org.knime.dl.core.training.DLTrainingStatus.Status;
 import org.knime.dl.keras.base.nodes.DLKerasGpuSelectionConfig;
@@ -701,6 +703,10 @@ private <N extends DLKerasNetwork> PortObject executeInternal(final PortObject i
                                 trainingConfig.getBatchSize(), columnsForTensorId, m_converters),
                             inputPreparer, validationPreparer);) {
                 m_session = session; // Needed for early stopping.
+                if (m_generalCfg.getCacheTrainingDataEntry().getValue()) {
+                    inputPreparer.enableExampleCache(
+                        m_generalCfg.getShuffleTrainingData().getValue() ? new Random(random.nextLong()) : null);
+                }
                 final DLKnimeTrainingMonitor<DLKerasTrainingStatus> monitor =
                     new DLKnimeTrainingMonitor<>(exec, m_status);
                 setupTrainingStatus(doValidation, trainingConfig, numTrainingBatchesPerEpoch, totalNumTrainingBatches,
@@ -709,6 +715,9 @@ private <N extends DLKerasNetwork> PortObject executeInternal(final PortObject i
                 if (!cudaVisibleDevices.isEmpty()) {
                     session.setKernelEnvironmentVariable("CUDA_VISIBLE_DEVICES", cudaVisibleDevices);
                 }
+                session.setTrainingDataQueueSize(m_generalCfg.getTrainingDataQueueSizeEntry().getValue());
+                session.setValidationDataCacheSize(
+                    m_generalCfg.getValidationDataCacheSizeEntry().getValue() * 1024L * 1024L);
                 session.run(monitor);
                 exec.setMessage("Saving trained Keras deep learning network...");
                 var network = session.getTrainedNetwork(exec);
@@ -803,8 +812,30 @@ private void setupTrainingStatus(final boolean doValidation, final DLKerasTraini
         });
         m_status.batchEnded().addListener((src, metrics) -> {
         	// update view
-        	((DLDenseLinePlotViewData) m_viewData[0].get(0)).getDataY().add(metrics.get("accuracy").getValue());
-        	((DLDenseLinePlotViewData) m_viewData[1].get(0)).getDataY().add(metrics.get("loss").getValue());
+        	((DLDenseLinePlotViewData) m_viewData[0].get(0)).add(metrics.get("accuracy").getValue());
+        	((DLDenseLinePlotViewData) m_viewData[1].get(0)).add(metrics.get("loss").getValue());
+            try {
+                notifyViewsWithNodeContext(nodeContext, m_status);
+            } catch (final Exception e) {
+        		LOGGER.warn("An error occurred while updating the learner's view. "
+        				+ "The actual learning process remains unaffected.", e);
+        	}
+        });
+        m_status.batchesEnded().addListener((src, metrics) -> {
+        	// update progress
+        	final int currentBatch = m_status.getCurrentBatchInEpoch() + 1;
+        	final int currentEpoch = m_status.getCurrentEpoch() + 1;
+        	final double progress = ((currentEpoch - 1) * numTrainingBatchesPerEpoch + currentBatch)
+        			/ (double) totalNumTrainingBatches;
+        	monitor.setProgress(progress, "Processing batch " + currentBatch + " of " + numTrainingBatchesPerEpoch
+        			+ " in epoch " + currentEpoch + " of " + trainingConfig.getEpochs() + "...");
+        	// update view, once for all reported batches
+        	final DLDenseLinePlotViewData accuracyPlot = (DLDenseLinePlotViewData) m_viewData[0].get(0);
+        	final DLDenseLinePlotViewData lossPlot = (DLDenseLinePlotViewData) m_viewData[1].get(0);
+        	for (final Map<String, DLReportedMetric> m : metrics) {
+        		accuracyPlot.add(m.get("accuracy").getValue());
+        		lossPlot.add(m.get("loss").getValue());
+        	}
             try {
                 notifyViewsWithNodeContext(nodeContext, m_status);
             } catch (final Exception e) {
@@ -901,8 +932,9 @@ private DLKerasTrainingConfig createTrainingConfig(final DLKerasNetworkSpec inNe
 		final DLKerasOptimizer optimizer = m_generalCfg.getOptimizerEntry().getValue();
         final Map<DLTensorId, DLKerasLossFunction> lossFunctions = createLossFunctionMap(inNetworkSpec);
 		final ArrayList<DLKerasCallback> callbacks = createCallbackList();
+		final int metricsReportingBatches = m_generalCfg.getMetricsReportingBatchesEntry().getValue();
 		return new DLKerasDefaultTrainingConfig(numEpochs, trainingBatchSize,
-				validationBatchSize, optimizer, lossFunctions, callbacks);
+				validationBatchSize, optimizer, lossFunctions, callbacks, metricsReportingBatches);
     }
 
     private ArrayList<DLKerasCallback> createCallbackList() {
@@ -959,6 +991,11 @@ private DLRowIterator createRowIterator(final BufferedDataTable inTable,
 			final Map<DLTensorId, int[]> columnsForTensorId, final Random random, final ExecutionContext exec) {
 		final boolean doShuffle = m_generalCfg.getShuffleTrainingData().getValue();
 		if (doShuffle) {
+			final int shuffleBufferSize = m_generalCfg.getShuffleBufferSizeEntry().getValue();
+			if (shuffleBufferSize > 0) {
+				return new DLBlockShuffleDataTableRowIterator(inTable, columnsForTensorId, random.nextLong(),
+						shuffleBufferSize);
+			}
 			return new DLShuffleDataTableRowIterator(inTable, columnsForTensorId, random.nextLong(),
 					exec.createSubExecutionContext(0));
 		}
@@ -64,6 +64,16 @@
 public final class DLDefaultLinePlotViewDataCollection<S extends DLLinePlotViewSpec>
     implements DLLinePlotViewDataCollection {
 
+    /*
+     * Type tags of the serialized view data. Earlier versions wrote a boolean (sparse or dense) instead, which is
+     * equivalent to the first two tags.
+     */
+    private static final byte SPARSE_VIEW_DATA = 0;
+
+    private static final byte LEGACY_DENSE_VIEW_DATA = 1;
+
+    private static final byte DENSE_VIEW_DATA = 2;
+
     private final S m_spec;
 
     private DLLinePlotViewData[] m_viewData;
@@ -107,7 +117,8 @@ public Iterator<DLLinePlotViewData> iterator() {
     public void writeExternal(final ObjectOutput objOut) throws IOException {
         objOut.writeInt(m_viewData.length);
         for (int i = 0; i < m_viewData.length; i++) {
-            objOut.writeBoolean(m_viewData[i].getClass() == DLDenseLinePlotViewData.class);
+            objOut.writeByte(
+                m_viewData[i].getClass() == DLDenseLinePlotViewData.class ? DENSE_VIEW_DATA : SPARSE_VIEW_DATA);
             m_viewData[i].writeExternal(objOut);
         }
     }
@@ -116,10 +127,15 @@ public void writeExternal(final ObjectOutput objOut) throws IOException {
     public void readExternal(final ObjectInput objIn) throws IOException, ClassNotFoundException {
         m_viewData = new DLLinePlotViewData[objIn.readInt()];
         for (int i = 0; i < m_viewData.length; i++) {
-            final DLLinePlotViewData viewData =
-                objIn.readBoolean() ? new DLDenseLinePlotViewData() : new DLSparseLinePlotViewData();
-            viewData.readExternal(objIn);
-            m_viewData[i] = viewData;
+            final byte type = objIn.readByte();
+            if (type == LEGACY_DENSE_VIEW_DATA) {
+                m_viewData[i] = DLDenseLinePlotViewData.readLegacyExternal(objIn);
+            } else {
+                final DLLinePlotViewData viewData =
+                    type == DENSE_VIEW_DATA ? new DLDenseLinePlotViewData() : new DLSparseLinePlotViewData();
+                viewData.readExternal(objIn);
+                m_viewData[i] = viewData;
+            }
         }
     }
 }
@@ -46,24 +46,73 @@
  */
 package org.knime.dl.keras.base.nodes.learner.view;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
 import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 
 import gnu.trove.TFloatArrayList;
 
 /**
+ * Line plot data that contains one value per x-value (e.g. per training batch).
+ * <P>
+ * The data is stored at a level of detail that keeps its size bounded: once {@link #MAX_NUM_BUCKETS} buckets are
+ * occupied, neighboring buckets are merged into their mean and the number of x-values covered by a bucket doubles. The
+ * x-value of a bucket is the first x-value it covers. Iterators only return complete buckets and continue after the
+ * last returned x-value if the data gets merged while they are in use.
+ * <P>
+ * Values may be added by one thread while others iterate over the data.
+ *
  * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
  * @author Christian Dietz, KNIME GmbH, Konstanz, Germany
  */
 public final class DLDenseLinePlotViewData implements DLLinePlotViewData {
 
-	private TFloatArrayList m_dataY;
+	/**
+	 * The maximum number of buckets that are kept. Must be even.
+	 */
+	public static final int MAX_NUM_BUCKETS = 1 << 14;
+
+	/**
+	 * Reads data that was written in the format used before values were bucketed (a plain float list).
+	 *
+	 * @param objIn the input to read from
+	 * @return the read data
+	 * @throws IOException if reading failed
+	 */
+	static DLDenseLinePlotViewData readLegacyExternal(final ObjectInput objIn) throws IOException {
+		final TFloatArrayList legacyDataY = new TFloatArrayList(0);
+		legacyDataY.readExternal(objIn);
+		final DLDenseLinePlotViewData data = new DLDenseLinePlotViewData(legacyDataY.size());
+		for (int i = 0; i < legacyDataY.size(); i++) {
+			data.add(legacyDataY.get(i));
+		}
+		return data;
+	}
 
+	private float[] m_dataY;
+
+	private int m_numBuckets;
+
+	private int m_bucketWidth = 1;
+
+	private int m_lastBucketCount;
+
+	/**
+	 * Incremented each time buckets get merged. Allows iterators to detect that their position became invalid.
+	 */
+	private int m_numMerges;
+
+	/**
+	 * @param capacity the expected number of values, used to size the initial storage
+	 */
 	public DLDenseLinePlotViewData(final int capacity) {
-		m_dataY = new TFloatArrayList(capacity);
+		m_dataY = new float[Math.max(Math.min(capacity, MAX_NUM_BUCKETS), 16)];
 	}
 
 	/**
@@ -72,54 +121,117 @@ public DLDenseLinePlotViewData(final int capacity) {
 	public DLDenseLinePlotViewData() {
 	}
 
-	public TFloatArrayList getDataY() {
-		return m_dataY;
+	/**
+	 * Appends the value of the next x-value.
+	 *
+	 * @param valueY the value to append
+	 */
+	public synchronized void add(final float valueY) {
+		if (m_numBuckets > 0 && m_lastBucketCount < m_bucketWidth) {
+			// incremental mean of the last bucket
+			m_lastBucketCount++;
+			m_dataY[m_numBuckets - 1] += (valueY - m_dataY[m_numBuckets - 1]) / m_lastBucketCount;
+			return;
+		}
+		if (m_numBuckets == MAX_NUM_BUCKETS) {
+			mergeBuckets();
+		}
+		if (m_numBuckets == m_dataY.length) {
+			m_dataY = Arrays.copyOf(m_dataY, Math.min(m_dataY.length * 2, MAX_NUM_BUCKETS));
+		}
+		m_dataY[m_numBuckets++] = valueY;
+		m_lastBucketCount = 1;
 	}
 
 	@Override
 	public Iterator<DLLinePlotViewDataEntry> iterator() {
-		return new DLDenseLinePlotViewDataIterator(m_dataY);
+		return new DLDenseLinePlotViewDataIterator(this);
 	}
 
 	@Override
-	public void writeExternal(final ObjectOutput objOut) throws IOException {
-		m_dataY.writeExternal(objOut);
+	public synchronized void writeExternal(final ObjectOutput objOut) throws IOException {
+		objOut.writeInt(m_numBuckets);
+		objOut.writeInt(m_bucketWidth);
+		objOut.writeInt(m_lastBucketCount);
+		final ByteBuffer bytes = ByteBuffer.allocate(m_numBuckets * Float.BYTES);
+		bytes.asFloatBuffer().put(m_dataY, 0, m_numBuckets);
+		objOut.write(bytes.array());
 	}
 
 	@Override
-	public void readExternal(final ObjectInput objIn) throws IOException, ClassNotFoundException {
-		m_dataY = new TFloatArrayList(0);
-		m_dataY.readExternal(objIn);
+	public synchronized void readExternal(final ObjectInput objIn) throws IOException, ClassNotFoundException {
+		m_numBuckets = objIn.readInt();
+		m_bucketWidth = objIn.readInt();
+		m_lastBucketCount = objIn.readInt();
+		checkArgument(m_numBuckets >= 0 && m_numBuckets <= MAX_NUM_BUCKETS, "Invalid number of buckets: %s.",
+				m_numBuckets);
+		final byte[] bytes = new byte[m_numBuckets * Float.BYTES];
+		objIn.readFully(bytes);
+		m_dataY = new float[Math.max(m_numBuckets, 16)];
+		ByteBuffer.wrap(bytes).asFloatBuffer().get(m_dataY, 0, m_numBuckets);
+	}
+
+	private void mergeBuckets() {
+		// all buckets are complete at this point
+		for (int i = 0; i < m_numBuckets / 2; i++) {
+			m_dataY[i] = (m_dataY[2 * i] + m_dataY[2 * i + 1]) / 2f;
+		}
+		m_numBuckets /= 2;
+		m_bucketWidth *= 2;
+		m_lastBucketCount = m_bucketWidth;
+		m_numMerges++;
+	}
+
+	private synchronized int getNumCompleteBuckets() {
+		return m_lastBucketCount == m_bucketWidth ? m_numBuckets : m_numBuckets - 1;
 	}
 
 	private static class DLDenseLinePlotViewDataIterator implements Iterator<DLLinePlotViewDataEntry> {
 
-		private final TFloatArrayList m_dataY;
+		private final DLDenseLinePlotViewData m_data;
 
 		private final DLMutableLinePlotViewDataEntry m_proxy;
 
 		private int m_idx = -1;
 
-		public DLDenseLinePlotViewDataIterator(final TFloatArrayList dataY) {
-			m_dataY = dataY;
+		private int m_lastX = -1;
+
+		private int m_numMerges;
+
+		public DLDenseLinePlotViewDataIterator(final DLDenseLinePlotViewData data) {
+			m_data = data;
 			m_proxy = new DLMutableLinePlotViewDataEntry();
+			m_numMerges = data.m_numMerges;
 		}
 
 		@Override
 		public boolean hasNext() {
-			return m_idx < m_dataY.size() - 1;
+			synchronized (m_data) {
+				updatePosition();
+				return m_idx < m_data.getNumCompleteBuckets() - 1;
+			}
 		}
 
 		@Override
 		public DLLinePlotViewDataEntry next() throws NoSuchElementException {
-			m_idx++;
-			m_proxy.setX(m_idx);
-			try {
-				m_proxy.setY(m_dataY.get(m_idx));
-			} catch (final ArrayIndexOutOfBoundsException e) {
-				throw new NoSuchElementException();
+			synchronized (m_data) {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				m_idx++;
+				m_lastX = m_idx * m_data.m_bucketWidth;
+				m_proxy.setX(m_lastX);
+				m_proxy.setY(m_data.m_dataY[m_idx]);
+				return m_proxy;
+			}
+		}
+
+		private void updatePosition() {
+			if (m_numMerges != m_data.m_numMerges) {
+				// skip the bucket that contains the last returned x-value, it was (partially) returned already
+				m_idx = m_lastX < 0 ? -1 : m_lastX / m_data.m_bucketWidth;
+				m_numMerges = m_data.m_numMerges;
 			}
-			return m_proxy;
 		}
 	}
 }
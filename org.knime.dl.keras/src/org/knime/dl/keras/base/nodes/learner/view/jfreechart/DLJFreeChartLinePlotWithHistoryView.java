@@ -413,17 +413,22 @@ public Component getComponent() {
 
     @Override
     public void update(final String lineLabel, final Iterator<DLLinePlotViewDataEntry> iterator) {
+        if (!iterator.hasNext()) {
+            return;
+        }
+        final StringBuilder history = new StringBuilder();
         while (iterator.hasNext()) {
             final DLLinePlotViewDataEntry dataEntry = iterator.next();
 
             m_linePlot.plotNext(lineLabel, dataEntry.getX() + 1, dataEntry.getY()); // x-values are 0-based
-            m_historyAreas.get(lineLabel).append(dataEntry.getY() + "\n");
+            history.append(dataEntry.getY()).append('\n');
             m_currentValues.put(lineLabel, dataEntry.getY());
 
             m_sliderPlotSync.updateMaxXValue(dataEntry.getX() + 1);
             m_sliderPlotSync.updateYBounds(dataEntry.getY());
-            m_sliderPlotSync.updateOnData();
         }
+        m_historyAreas.get(lineLabel).append(history.toString());
+        m_sliderPlotSync.updateOnData();
     }
 
     /**
@@ -53,6 +53,7 @@
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.awt.Stroke;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -63,6 +64,7 @@
 
 import javax.swing.JPanel;
 import javax.swing.SwingUtilities;
+import javax.swing.Timer;
 
 import org.jfree.chart.ChartFactory;
 import org.jfree.chart.ChartPanel;
@@ -103,6 +105,9 @@ public class JFreeChartLinePlotPanel extends JPanel {
     /* Global line width of all plots */
     private static final int LINE_STROKE = 1;
 
+    /* Interval in milliseconds in which newly plotted values are pushed to the chart */
+    private static final int FRAME_INTERVAL = 100;
+
     private final DLJFreeChartLinePlotViewSpec m_spec;
 
     private ChartPanel m_chartPanel;
@@ -119,6 +124,11 @@ public class JFreeChartLinePlotPanel extends JPanel {
 
     private final Map<String, AtomicBoolean> m_smoothedLineOutdated = new HashMap<>();
 
+    /* Values that were plotted but not yet pushed to the chart, guarded by itself */
+    private final Map<String, List<XYDataItem>> m_pendingValues = new HashMap<>();
+
+    private final Timer m_frameTimer;
+
     private Map<String, ExponentialSmoothingIterator> m_smoothingIters;
 
     private XYPlot m_plot;
@@ -143,6 +153,9 @@ public JFreeChartLinePlotPanel(final DLJFreeChartLinePlotViewSpec spec) {
         gbc.weightx = 1;
 
         add(getChartPanel(), gbc);
+
+        m_frameTimer = new Timer(FRAME_INTERVAL, e -> pushPendingValues());
+        m_frameTimer.setRepeats(false);
     }
 
     /**
@@ -161,6 +174,7 @@ private XYSeriesCollection createDataset() {
             lines.addSeries(line);
             m_lineIndexToLineLabel.put(lineCounter, lineLabel);
             m_lineLabelToLineIndex.put(lineLabel, lineCounter);
+            m_pendingValues.put(lineLabel, new ArrayList<>());
             lineCounter++;
 
             final String smoothedLineLabel = lineLabel + SMOOTHED_LINE_KEY_SUFFIX;
@@ -275,20 +289,41 @@ public void enableLogAxis() {
     }
 
     /**
-     * Plots the specified value to the line with the specified label.
+     * Plots the specified value to the line with the specified label. Values are collected and pushed to the chart in
+     * frames of {@link #FRAME_INTERVAL} milliseconds, so plotting many values at once only causes a single repaint.
      *
      * @param lineLabel the label of the line to plot to
      * @param valueX the x-value to plot
      * @param valueY the y-value to plot
      */
     public void plotNext(final String lineLabel, final int valueX, final float valueY) {
-        // All updates of the lines need to happen in the EDT
-        SwingUtilities.invokeLater(() -> {
-            final XYSeries line = m_dataset.getSeries(lineLabel);
-            // TODO: we need to differentiate between line plots and scatter plots somewhere
-            line.add(valueX, valueY);
-            plotSmoothed(lineLabel);
-        });
+        synchronized (m_pendingValues) {
+            m_pendingValues.get(lineLabel).add(new XYDataItem(valueX, valueY));
+        }
+        // Does nothing if a frame is already scheduled.
+        m_frameTimer.start();
+    }
+
+    /**
+     * Adds all pending values to their lines. Runs in the EDT.
+     */
+    private void pushPendingValues() {
+        for (int i = 0; i < m_spec.numPlots(); i++) {
+            final String lineLabel = m_spec.getLineLabel(i);
+            final List<XYDataItem> pending;
+            synchronized (m_pendingValues) {
+                pending = m_pendingValues.put(lineLabel, new ArrayList<>());
+            }
+            if (!pending.isEmpty()) {
+                final XYSeries line = m_dataset.getSeries(lineLabel);
+                // TODO: we need to differentiate between line plots and scatter plots somewhere
+                for (final XYDataItem item : pending) {
+                    line.add(item, false);
+                }
+                line.fireSeriesChanged();
+                plotSmoothed(lineLabel);
+            }
+        }
     }
 
     /**
@@ -391,12 +426,10 @@ private void plotSmoothed(final String lineLabel) {
 
         final XYSeries line = m_dataset.getSeries(lineLabel + SMOOTHED_LINE_KEY_SUFFIX);
         final ExponentialSmoothingIterator iter = m_smoothingIters.get(lineLabel + SMOOTHED_LINE_KEY_SUFFIX);
-        while (iter.hasNext()) {
-            if (lineOutdated.get()) {
-                return;
-            }
-            line.add(iter.next());
+        while (iter.hasNext() && !lineOutdated.get()) {
+            line.add(iter.next(), false);
         }
+        line.fireSeriesChanged();
     }
 
     private void clearSmoothedLine(final String lineLabel) {
@@ -56,6 +56,7 @@
 import java.net.URL;
 import java.nio.file.InvalidPathException;
 import java.util.List;
+import java.util.Optional;
 
 import org.knime.core.data.filestore.FileStore;
 import org.knime.core.node.CanceledExecutionException;
@@ -85,6 +86,8 @@
 import org.knime.dl.keras.base.portobjects.DLKerasNetworkPortObjectSpec;
 import org.knime.dl.keras.core.DLKerasNetwork;
 import org.knime.dl.keras.core.DLKerasNetworkLoader;
+import org.knime.dl.keras.core.DLKerasNetworkSpec;
+import org.knime.dl.keras.core.DLKerasNetworkSpecCache;
 import org.knime.dl.keras.core.DLKerasPythonContext;
 import org.knime.dl.python.core.DLPythonContext;
 import org.knime.dl.python.core.DLPythonDefaultNetworkReader;
@@ -169,8 +172,14 @@ protected PortObjectSpec[] configure(final PortObjectSpec[] inSpecs) throws Inva
                 "File path '" + filePath + "' cannot be resolved to a valid URI. Message: " + e.getMessage(), e);
         }
         final DLKerasNetworkLoader<?> loader = getBackend(backendId);
+        try {
+            loader.validateSource(uri);
+        } catch (final DLInvalidSourceException e) {
+            throw new InvalidSettingsException(e.getMessage(), e);
+        }
         try (final DLPythonContext context = new DLKerasPythonContext(m_pythonCommandConfig.getCommand())) {
             try {
+                // Successful installation tests are cached, so this does not start Python in the common case.
                 DLPythonNetworkLoaderRegistry.getInstance();
                 loader.checkAvailability(context, false, DLPythonNetworkLoaderRegistry.getInstallationTestTimeout(),
                     DLNotCancelable.INSTANCE);
@@ -180,10 +189,16 @@ protected PortObjectSpec[] configure(final PortObjectSpec[] inSpecs) throws Inva
                     "Selected Keras back end '" + loader.getName() + "' is not available anymore. "
                         + "Please check your local installation.\nDetails: " + e.getMessage());
             }
-            try {
-                loader.validateSource(uri);
-            } catch (final DLInvalidSourceException e) {
-                throw new InvalidSettingsException(e.getMessage(), e);
+            final Optional<DLKerasNetworkSpec> cachedSpec = DLKerasNetworkSpecCache.getInstance().get(uri, loader);
+            if (cachedSpec.isPresent()) {
+                // The spec of this network file is known, no need to read the network in Python.
+                try {
+                    m_network = cachedSpec.get().create(new DLNetworkReferenceLocation(uri));
+                } catch (final DLInvalidSourceException e) {
+                    throw new InvalidSettingsException(e.getMessage(), e);
+                }
+                return new PortObjectSpec[]{
+                    new DLKerasNetworkPortObjectSpec(m_network.getSpec(), m_network.getClass())};
             }
             try {
                 // TODO: We could allow the user to configure "loadTrainingConfig" flag.
@@ -201,6 +216,7 @@ protected PortObjectSpec[] configure(final PortObjectSpec[] inSpecs) throws Inva
                 }
                 throw new InvalidSettingsException(message, e);
             }
+            DLKerasNetworkSpecCache.getInstance().put(uri, loader, m_network.getSpec());
             return new PortObjectSpec[]{new DLKerasNetworkPortObjectSpec(m_network.getSpec(), m_network.getClass())};
         }
     }
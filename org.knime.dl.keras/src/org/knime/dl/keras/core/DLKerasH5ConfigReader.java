@@ -0,0 +1,440 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.keras.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads the string attributes that Keras attaches to the root group of an HDF5 model file (e.g.
+ * {@code model_config}, {@code training_config}, {@code keras_version} and {@code backend}) without involving Python.
+ * <P>
+ * This is a minimal HDF5 reader that only supports what is needed to read scalar string attributes of the root group
+ * that are stored compactly in its object header, which is what h5py does by default. Files that use other storage
+ * layouts (e.g. dense attribute storage) are reported as unsupported via {@link IOException}s, callers are expected to
+ * fall back to loading the model in Python in this case.
+ *
+ * @author agent
+ */
+public final class DLKerasH5ConfigReader {
+
+    /**
+     * The name of the root group attribute that contains the JSON model configuration.
+     */
+    public static final String MODEL_CONFIG_ATTRIBUTE = "model_config";
+
+    /**
+     * The name of the root group attribute that contains the JSON training configuration.
+     */
+    public static final String TRAINING_CONFIG_ATTRIBUTE = "training_config";
+
+    private static final byte[] SIGNATURE = {(byte)0x89, 'H', 'D', 'F', '\r', '\n', 0x1a, '\n'};
+
+    private static final long UNDEFINED_ADDRESS = -1;
+
+    private static final int MSG_CONTINUATION = 0x0010;
+
+    private static final int MSG_ATTRIBUTE = 0x000C;
+
+    private static final int DT_CLASS_STRING = 3;
+
+    private static final int DT_CLASS_VARIABLE_LENGTH = 9;
+
+    private static final int MAX_HEADER_BLOCKS = 64;
+
+    /**
+     * Reads all scalar string attributes of the root group of the given HDF5 file.
+     *
+     * @param file the HDF5 file
+     * @return the attributes, mapped by name, never <code>null</code>
+     * @throws IOException if the file is not a valid HDF5 file, uses unsupported features or cannot be read
+     */
+    public static Map<String, String> readRootAttributes(final File file) throws IOException {
+        try (final RandomAccessFile raf = new RandomAccessFile(file, "r"); final FileChannel channel = raf.getChannel()) {
+            return new DLKerasH5ConfigReader(channel).readRootAttributes();
+        }
+    }
+
+    private final FileChannel m_channel;
+
+    private long m_baseAddress;
+
+    private int m_offsetSize;
+
+    private int m_lengthSize;
+
+    private DLKerasH5ConfigReader(final FileChannel channel) {
+        m_channel = channel;
+    }
+
+    private Map<String, String> readRootAttributes() throws IOException {
+        final long rootHeaderAddress = readSuperblock();
+        final Map<String, String> attributes = new HashMap<>();
+        final Set<Long> visited = new HashSet<>();
+        final ByteBuffer prefix = read(rootHeaderAddress, 4);
+        if (prefix.get(0) == 'O' && prefix.get(1) == 'H' && prefix.get(2) == 'D' && prefix.get(3) == 'R') {
+            readObjectHeaderV2(rootHeaderAddress, attributes, visited);
+        } else {
+            readObjectHeaderV1(rootHeaderAddress, attributes, visited);
+        }
+        return Collections.unmodifiableMap(attributes);
+    }
+
+    /**
+     * @return the absolute address of the root group's object header
+     */
+    private long readSuperblock() throws IOException {
+        long superblockAddress = 0;
+        final long size = m_channel.size();
+        while (true) {
+            if (superblockAddress + SIGNATURE.length > size) {
+                throw new IOException("File is not a valid HDF5 file.");
+            }
+            final byte[] signature = new byte[SIGNATURE.length];
+            read(superblockAddress, SIGNATURE.length).get(signature);
+            if (Arrays.equals(signature, SIGNATURE)) {
+                break;
+            }
+            superblockAddress = superblockAddress == 0 ? 512 : superblockAddress * 2;
+        }
+        final int version = read(superblockAddress + 8, 1).get() & 0xFF;
+        if (version <= 1) {
+            final ByteBuffer buf = read(superblockAddress + 8, 16);
+            m_offsetSize = buf.get(5) & 0xFF;
+            m_lengthSize = buf.get(6) & 0xFF;
+            checkSizes();
+            long pos = superblockAddress + 24 + (version == 1 ? 4 : 0);
+            m_baseAddress = readOffset(read(pos, m_offsetSize));
+            // skip base, free-space info, end-of-file and driver info block addresses
+            pos += 4L * m_offsetSize;
+            // root group symbol table entry: link name offset, object header address, ...
+            final ByteBuffer entry = read(pos, 2 * m_offsetSize);
+            entry.position(m_offsetSize);
+            return toAbsolute(readOffset(entry));
+        } else if (version <= 3) {
+            final ByteBuffer buf = read(superblockAddress + 9, 3);
+            m_offsetSize = buf.get(0) & 0xFF;
+            m_lengthSize = buf.get(1) & 0xFF;
+            checkSizes();
+            final ByteBuffer addresses = read(superblockAddress + 12, 4 * m_offsetSize);
+            m_baseAddress = readOffset(addresses);
+            // skip superblock extension and end-of-file addresses
+            addresses.position(3 * m_offsetSize);
+            return toAbsolute(readOffset(addresses));
+        } else {
+            throw new IOException("Unsupported HDF5 superblock version: " + version + ".");
+        }
+    }
+
+    private void checkSizes() throws IOException {
+        if (m_offsetSize != 2 && m_offsetSize != 4 && m_offsetSize != 8) {
+            throw new IOException("Unsupported HDF5 offset size: " + m_offsetSize + ".");
+        }
+        if (m_lengthSize != 2 && m_lengthSize != 4 && m_lengthSize != 8) {
+            throw new IOException("Unsupported HDF5 length size: " + m_lengthSize + ".");
+        }
+    }
+
+    private void readObjectHeaderV1(final long address, final Map<String, String> attributes, final Set<Long> visited)
+        throws IOException {
+        final ByteBuffer header = read(address, 16);
+        if ((header.get(0) & 0xFF) != 1) {
+            throw new IOException("Unsupported HDF5 object header version: " + (header.get(0) & 0xFF) + ".");
+        }
+        final long headerSize = header.getInt(8) & 0xFFFFFFFFL;
+        readMessagesV1(address + 16, headerSize, attributes, visited);
+    }
+
+    private void readMessagesV1(final long address, final long length, final Map<String, String> attributes,
+        final Set<Long> visited) throws IOException {
+        checkVisit(address, visited);
+        final ByteBuffer block = read(address, length);
+        while (block.remaining() >= 8) {
+            final int type = block.getShort() & 0xFFFF;
+            final int size = block.getShort() & 0xFFFF;
+            block.position(block.position() + 4); // flags and reserved
+            if (size > block.remaining()) {
+                throw new IOException("Corrupt HDF5 object header.");
+            }
+            final ByteBuffer message = slice(block, size);
+            handleMessage(type, message, attributes, visited, false);
+        }
+    }
+
+    private void readObjectHeaderV2(final long address, final Map<String, String> attributes, final Set<Long> visited)
+        throws IOException {
+        final ByteBuffer prefix = read(address, 6);
+        if ((prefix.get(4) & 0xFF) != 2) {
+            throw new IOException("Unsupported HDF5 object header version: " + (prefix.get(4) & 0xFF) + ".");
+        }
+        final int flags = prefix.get(5) & 0xFF;
+        long pos = address + 6;
+        if ((flags & 0x20) != 0) {
+            pos += 16; // access, modification, change and birth times
+        }
+        if ((flags & 0x10) != 0) {
+            pos += 4; // attribute phase change values
+        }
+        final int chunkSizeWidth = 1 << (flags & 0x03);
+        final long chunkSize = readUnsigned(read(pos, chunkSizeWidth), chunkSizeWidth);
+        pos += chunkSizeWidth;
+        readMessagesV2(pos, chunkSize, (flags & 0x04) != 0, attributes, visited);
+    }
+
+    private void readMessagesV2(final long address, final long length, final boolean trackCreationOrder,
+        final Map<String, String> attributes, final Set<Long> visited) throws IOException {
+        checkVisit(address, visited);
+        final ByteBuffer block = read(address, length);
+        final int messageHeaderSize = trackCreationOrder ? 6 : 4;
+        while (block.remaining() >= messageHeaderSize) {
+            final int type = block.get() & 0xFF;
+            final int size = block.getShort() & 0xFFFF;
+            block.get(); // flags
+            if (trackCreationOrder) {
+                block.getShort();
+            }
+            if (size > block.remaining()) {
+                throw new IOException("Corrupt HDF5 object header.");
+            }
+            final ByteBuffer message = slice(block, size);
+            handleMessage(type, message, attributes, visited, true);
+        }
+    }
+
+    private void handleMessage(final int type, final ByteBuffer message, final Map<String, String> attributes,
+        final Set<Long> visited, final boolean v2) throws IOException {
+        if (type == MSG_CONTINUATION) {
+            final long continuationAddress = toAbsolute(readOffset(message));
+            final long continuationLength = readLength(message);
+            if (v2) {
+                final ByteBuffer signature = read(continuationAddress, 4);
+                if (signature.get(0) != 'O' || signature.get(1) != 'C' || signature.get(2) != 'H'
+                    || signature.get(3) != 'K') {
+                    throw new IOException("Corrupt HDF5 object header continuation block.");
+                }
+                // skip signature and trailing checksum
+                readMessagesV2(continuationAddress + 4, continuationLength - 8, false, attributes, visited);
+            } else {
+                readMessagesV1(continuationAddress, continuationLength, attributes, visited);
+            }
+        } else if (type == MSG_ATTRIBUTE) {
+            readAttribute(message, attributes);
+        }
+    }
+
+    private void readAttribute(final ByteBuffer message, final Map<String, String> attributes) throws IOException {
+        final int version = message.get() & 0xFF;
+        message.get(); // reserved or flags
+        final int nameSize = message.getShort() & 0xFFFF;
+        final int datatypeSize = message.getShort() & 0xFFFF;
+        final int dataspaceSize = message.getShort() & 0xFFFF;
+        if (version == 3) {
+            message.get(); // name character set encoding
+        } else if (version != 1 && version != 2) {
+            throw new IOException("Unsupported HDF5 attribute message version: " + version + ".");
+        }
+        final boolean padded = version == 1;
+        final byte[] nameBytes = new byte[nameSize];
+        message.get(nameBytes);
+        skipPadding(message, nameSize, padded);
+        final String name = toString(nameBytes);
+        final ByteBuffer datatype = slice(message, datatypeSize);
+        skipPadding(message, datatypeSize, padded);
+        final ByteBuffer dataspace = slice(message, dataspaceSize);
+        skipPadding(message, dataspaceSize, padded);
+        if (!isScalar(dataspace)) {
+            return;
+        }
+        final int classAndVersion = datatype.get() & 0xFF;
+        final int datatypeClass = classAndVersion & 0x0F;
+        final int classBits = datatype.get() & 0xFF;
+        datatype.getShort(); // remaining class bit fields
+        final int elementSize = datatype.getInt();
+        if (datatypeClass == DT_CLASS_STRING) {
+            final byte[] value = new byte[Math.min(elementSize, message.remaining())];
+            message.get(value);
+            attributes.put(name, toString(value));
+        } else if (datatypeClass == DT_CLASS_VARIABLE_LENGTH && (classBits & 0x0F) == 1) {
+            message.getInt(); // length of the sequence
+            final long collectionAddress = toAbsolute(readOffset(message));
+            final int objectIndex = message.getInt();
+            attributes.put(name, toString(readGlobalHeapObject(collectionAddress, objectIndex)));
+        }
+    }
+
+    private static boolean isScalar(final ByteBuffer dataspace) {
+        final int version = dataspace.get(0) & 0xFF;
+        final int dimensionality = dataspace.get(1) & 0xFF;
+        if (version == 2) {
+            // type 0 is scalar, type 1 simple
+            return (dataspace.get(3) & 0xFF) == 0
+                || (dimensionality == 0 && (dataspace.get(3) & 0xFF) == 1);
+        }
+        return dimensionality == 0;
+    }
+
+    private byte[] readGlobalHeapObject(final long collectionAddress, final int objectIndex) throws IOException {
+        final ByteBuffer header = read(collectionAddress, 8 + m_lengthSize);
+        if (header.get(0) != 'G' || header.get(1) != 'C' || header.get(2) != 'O' || header.get(3) != 'L') {
+            throw new IOException("Corrupt HDF5 global heap collection.");
+        }
+        header.position(8);
+        final long collectionSize = readLength(header);
+        final ByteBuffer collection = read(collectionAddress, collectionSize);
+        collection.position(8 + m_lengthSize);
+        while (collection.remaining() >= 8 + m_lengthSize) {
+            final int index = collection.getShort() & 0xFFFF;
+            collection.position(collection.position() + 6); // reference count and reserved
+            final long objectSize = readLength(collection);
+            if (index == 0) {
+                break; // free space
+            }
+            if (objectSize > collection.remaining()) {
+                throw new IOException("Corrupt HDF5 global heap collection.");
+            }
+            if (index == objectIndex) {
+                final byte[] data = new byte[(int)objectSize];
+                collection.get(data);
+                return data;
+            }
+            collection.position(collection.position() + (int)align8(objectSize));
+        }
+        throw new IOException("HDF5 global heap object " + objectIndex + " not found.");
+    }
+
+    private static void checkVisit(final long address, final Set<Long> visited) throws IOException {
+        if (!visited.add(address) || visited.size() > MAX_HEADER_BLOCKS) {
+            throw new IOException("Corrupt HDF5 object header: cyclic or too many continuation blocks.");
+        }
+    }
+
+    private ByteBuffer read(final long address, final long length) throws IOException {
+        if (address < 0 || length < 0 || length > Integer.MAX_VALUE || address + length > m_channel.size()) {
+            throw new IOException("Corrupt HDF5 file: read beyond end of file.");
+        }
+        final ByteBuffer buf = ByteBuffer.allocate((int)length).order(ByteOrder.LITTLE_ENDIAN);
+        long pos = address;
+        while (buf.hasRemaining()) {
+            final int read = m_channel.read(buf, pos);
+            if (read < 0) {
+                throw new IOException("Unexpected end of HDF5 file.");
+            }
+            pos += read;
+        }
+        buf.flip();
+        return buf;
+    }
+
+    private long readOffset(final ByteBuffer buf) {
+        final long offset = readUnsigned(buf, m_offsetSize);
+        return isUndefined(offset, m_offsetSize) ? UNDEFINED_ADDRESS : offset;
+    }
+
+    private long readLength(final ByteBuffer buf) {
+        return readUnsigned(buf, m_lengthSize);
+    }
+
+    private long toAbsolute(final long address) throws IOException {
+        if (address == UNDEFINED_ADDRESS) {
+            throw new IOException("Corrupt HDF5 file: undefined address.");
+        }
+        return m_baseAddress + address;
+    }
+
+    private static boolean isUndefined(final long value, final int width) {
+        return width == 8 ? value == -1L : value == (1L << (8 * width)) - 1;
+    }
+
+    private static long readUnsigned(final ByteBuffer buf, final int width) {
+        switch (width) {
+            case 1:
+                return buf.get() & 0xFFL;
+            case 2:
+                return buf.getShort() & 0xFFFFL;
+            case 4:
+                return buf.getInt() & 0xFFFFFFFFL;
+            default:
+                return buf.getLong();
+        }
+    }
+
+    private static ByteBuffer slice(final ByteBuffer buf, final int length) {
+        final ByteBuffer slice = buf.slice().order(ByteOrder.LITTLE_ENDIAN);
+        slice.limit(length);
+        buf.position(buf.position() + length);
+        return slice;
+    }
+
+    private static void skipPadding(final ByteBuffer buf, final int size, final boolean padded) {
+        if (padded) {
+            buf.position(Math.min(buf.limit(), buf.position() + (int)(align8(size) - size)));
+        }
+    }
+
+    private static long align8(final long size) {
+        return (size + 7) & ~7L;
+    }
+
+    private static String toString(final byte[] bytes) {
+        int length = bytes.length;
+        while (length > 0 && bytes[length - 1] == 0) {
+            length--;
+        }
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+}
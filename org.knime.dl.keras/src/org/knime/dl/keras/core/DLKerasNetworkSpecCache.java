@@ -0,0 +1,278 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.keras.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.io.FilenameUtils;
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.node.NodeLogger;
+import org.knime.core.util.FileUtil;
+import org.knime.dl.util.DLUtils;
+
+/**
+ * Persistent cache of {@link DLKerasNetworkSpec network specs} that were read from network files. This allows to
+ * configure nodes that read Keras networks without starting Python.
+ * <P>
+ * Entries are keyed by source URI and content hash of the source file as well as by back end and back-end version. For
+ * HDF5 files, the content hash only covers the model and training configuration and the Keras version and back end the
+ * file was written with (see {@link DLKerasH5ConfigReader}), which keeps hashing cheap for files with large weights.
+ * Rewriting only the weights of such a file therefore keeps its cached spec. Each source file and back end occupies a
+ * single slot on disk which is overwritten once the hashed content of the source file changes. Only local files are
+ * cached.
+ *
+ * @author agent
+ */
+public final class DLKerasNetworkSpecCache {
+
+    /**
+     * Set this VM option to {@code false} to disable the persistent network spec cache.
+     */
+    public static final String SPEC_CACHE_VM_OPT = "knime.dl.keras.speccache";
+
+    private static final String CACHE_DIR_NAME = "dl-keras-spec-cache";
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(DLKerasNetworkSpecCache.class);
+
+    private static final DLKerasNetworkSpecCache INSTANCE = new DLKerasNetworkSpecCache(
+        Boolean.parseBoolean(System.getProperty(SPEC_CACHE_VM_OPT, "true")) ? getDefaultCacheDir() : null);
+
+    /**
+     * @return the singleton instance of this class
+     */
+    public static DLKerasNetworkSpecCache getInstance() {
+        return INSTANCE;
+    }
+
+    private static File getDefaultCacheDir() {
+        final String homeDir = KNIMEConstants.getKNIMEHomeDir();
+        return homeDir != null ? new File(homeDir, CACHE_DIR_NAME) : null;
+    }
+
+    private final File m_cacheDir;
+
+    private final Map<String, DLKerasNetworkSpec> m_entries = new ConcurrentHashMap<>();
+
+    /**
+     * @param cacheDir the directory to which the cache is persisted, may be {@code null} in which case caching is
+     *            disabled
+     */
+    DLKerasNetworkSpecCache(final File cacheDir) {
+        m_cacheDir = cacheDir;
+    }
+
+    /**
+     * @param source the URI of the network file
+     * @param loader the back end that is used to read the network
+     * @return the cached spec if there is one and neither the hashed content of the network file nor the back end
+     *         changed since it was cached
+     */
+    public Optional<DLKerasNetworkSpec> get(final URI source, final DLKerasNetworkLoader<?> loader) {
+        final File file = getLocalFile(source);
+        if (file == null) {
+            return Optional.empty();
+        }
+        final String key = createKey(source, loader, file);
+        if (key == null) {
+            return Optional.empty();
+        }
+        DLKerasNetworkSpec spec = m_entries.get(key);
+        if (spec == null) {
+            spec = readEntry(getSlot(source, loader), key);
+            if (spec == null) {
+                return Optional.empty();
+            }
+            m_entries.put(key, spec);
+        }
+        return Optional.of(spec);
+    }
+
+    /**
+     * @param source the URI of the network file
+     * @param loader the back end that was used to read the network
+     * @param spec the spec that was read
+     */
+    public void put(final URI source, final DLKerasNetworkLoader<?> loader, final DLKerasNetworkSpec spec) {
+        final File file = getLocalFile(source);
+        if (file == null) {
+            return;
+        }
+        final String key = createKey(source, loader, file);
+        if (key == null) {
+            return;
+        }
+        m_entries.put(key, spec);
+        writeEntry(getSlot(source, loader), key, spec);
+    }
+
+    private File getLocalFile(final URI source) {
+        if (m_cacheDir == null) {
+            return null;
+        }
+        try {
+            final File file = FileUtil.getFileFromURL(source.toURL());
+            return file != null && file.isFile() ? file : null;
+        } catch (final Exception ex) { // NOSONAR Caching is best effort.
+            return null;
+        }
+    }
+
+    /**
+     * @return the key or {@code null} if the content hash of the file could not be computed
+     */
+    private static String createKey(final URI source, final DLKerasNetworkLoader<?> loader, final File file) {
+        final String contentHash = computeContentHash(file);
+        if (contentHash == null) {
+            return null;
+        }
+        return getBackendId(loader) + "|" + DLUtils.Misc.getVersionOfSameBundle(loader.getClass()) + "|"
+            + DLKerasNetworkSpec.getKerasBundleVersion() + "|" + source + "|" + contentHash;
+    }
+
+    private static String getBackendId(final DLKerasNetworkLoader<?> loader) {
+        return loader.getClass().getName();
+    }
+
+    private File getSlot(final URI source, final DLKerasNetworkLoader<?> loader) {
+        return new File(m_cacheDir, hash(getBackendId(loader) + "|" + source) + ".bin");
+    }
+
+    private static DLKerasNetworkSpec readEntry(final File entryFile, final String key) {
+        if (!entryFile.isFile()) {
+            return null;
+        }
+        try (final ObjectInputStream in = new ObjectInputStream(Files.newInputStream(entryFile.toPath()))) {
+            final String storedKey = in.readUTF();
+            return key.equals(storedKey) ? (DLKerasNetworkSpec)in.readObject() : null;
+        } catch (final Exception ex) { // NOSONAR Entries written by other versions may not be readable anymore.
+            LOGGER.debug("Failed to read cached Keras network spec from '" + entryFile + "'.", ex);
+            return null;
+        }
+    }
+
+    private void writeEntry(final File entryFile, final String key, final DLKerasNetworkSpec spec) {
+        try {
+            Files.createDirectories(m_cacheDir.toPath());
+            final File tmpFile = File.createTempFile(entryFile.getName(), ".tmp", m_cacheDir);
+            try (final ObjectOutputStream out = new ObjectOutputStream(Files.newOutputStream(tmpFile.toPath()))) {
+                out.writeUTF(key);
+                out.writeObject(spec);
+            }
+            Files.move(tmpFile.toPath(), entryFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (final IOException ex) {
+            LOGGER.debug("Failed to write cached Keras network spec to '" + m_cacheDir + "'.", ex);
+        }
+    }
+
+    /**
+     * @return the content hash or {@code null} if it could not be computed
+     */
+    private static String computeContentHash(final File file) {
+        try {
+            if (FilenameUtils.isExtension(file.getName().toLowerCase(), "h5")) {
+                final Map<String, String> attributes = DLKerasH5ConfigReader.readRootAttributes(file);
+                if (attributes.containsKey(DLKerasH5ConfigReader.MODEL_CONFIG_ATTRIBUTE)) {
+                    final StringBuilder sb = new StringBuilder();
+                    for (final Map.Entry<String, String> attribute : new TreeMap<>(attributes).entrySet()) {
+                        sb.append(attribute.getKey()).append('\0').append(attribute.getValue()).append('\0');
+                    }
+                    return "h5:" + hash(sb.toString());
+                }
+            }
+        } catch (final IOException ex) {
+            LOGGER.debug("Failed to read the configuration of Keras network file '" + file
+                + "' without Python. Falling back to hashing the entire file.", ex);
+        }
+        final MessageDigest digest = createDigest();
+        try (final InputStream in = Files.newInputStream(file.toPath())) {
+            final byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+            return "file:" + toHex(digest.digest());
+        } catch (final IOException ex) {
+            LOGGER.debug("Failed to hash Keras network file '" + file + "'.", ex);
+            return null;
+        }
+    }
+
+    private static String hash(final String value) {
+        return toHex(createDigest().digest(value.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException ex) {
+            // SHA-256 is guaranteed to be supported by every Java platform.
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static String toHex(final byte[] bytes) {
+        final StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (final byte b : bytes) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+}
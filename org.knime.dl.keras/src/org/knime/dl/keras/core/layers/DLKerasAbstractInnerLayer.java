@@ -51,7 +51,9 @@
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 
 import org.knime.dl.core.DLDefaultTensorId;
 import org.knime.dl.core.DLDefaultTensorSpec;
@@ -79,6 +81,16 @@ protected static void checkInputSpec(final boolean expression, final String mess
     
     private DLKerasDataFormat m_dataFormat;
 
+    /**
+     * Memoized result of the most recent output spec inference. It stays valid as long as the parameters of this
+     * layer and the output specs of its parents (compared by identity) do not change. The memoized specs of parents
+     * are trusted as they are, so checking the memo does not walk further upstream. Layers revalidate their own memo
+     * whenever their input specs are {@link #validateInputSpecs() validated} and drop it when they are re-parented.
+     * Layers are shared via port specs and may be queried by several threads at once, so the memo is immutable and
+     * replaced as a whole.
+     */
+    private volatile DLOutputSpecsMemo m_memo;
+
     public DLKerasAbstractInnerLayer(final String kerasIdentifier, final int numParents) {
         super(kerasIdentifier);
         m_parents = new DLKerasTensorSpecsOutput[numParents];
@@ -120,11 +132,14 @@ public void setParent(final int index, final DLKerasTensorSpecsOutput parent) {
         checkNotNull(parent);
         checkArgument(parent != this);
         m_parents[index] = parent;
+        // successors must not trust the memo anymore
+        m_memo = null;
     }
     
     @Override
     public final void setTensorIndexInParent(int parentIndex, int indexInParent) {
         m_indexInParents[parentIndex] = indexInParent;
+        m_memo = null;
     }
     
     @Override
@@ -134,6 +149,27 @@ public int getTensorIndexInParent(int parentIndex) {
 
     @Override
     public final List<DLTensorSpec> getOutputSpecs() throws DLInvalidTensorSpecException {
+        try (final DLKerasSpecInferencePass pass = DLKerasSpecInferencePass.open()) {
+            final DLOutputSpecsMemo memo = m_memo;
+            if (memo != null && memo.m_passToken == pass.getToken()) {
+                return memo.m_outputSpecs;
+            }
+            final String parameters = getBackendRepresentation(null);
+            final Object[] inputs = collectInputIdentities();
+            if (memo != null && parameters.equals(memo.m_parameters) && memo.isSameInputs(inputs)) {
+                m_memo = new DLOutputSpecsMemo(memo.m_outputSpecs, memo.m_parameters, memo.m_inputs, pass.getToken());
+                return memo.m_outputSpecs;
+            }
+            // Do not keep a stale memo if the inference fails.
+            m_memo = null;
+            final List<DLTensorSpec> outputSpecs = inferOutputSpecs();
+            // Parameters may depend on the inferred data format.
+            m_memo = new DLOutputSpecsMemo(outputSpecs, getBackendRepresentation(null), inputs, pass.getToken());
+            return outputSpecs;
+        }
+    }
+
+    private List<DLTensorSpec> inferOutputSpecs() throws DLInvalidTensorSpecException {
         final DLInputSpecsHelperStruct inputSpecs = collectInputSpecs();
         validateInputSpecs(inputSpecs.m_elementTypes, inputSpecs.m_shapes);
         final List<Class<?>> outputElementTypes = inferOutputElementTypes(inputSpecs.m_elementTypes);
@@ -143,13 +179,45 @@ public final List<DLTensorSpec> getOutputSpecs() throws DLInvalidTensorSpecExcep
             outputSpecs.add(DLDefaultTensorSpec.create(new DLDefaultTensorId("dummy"), "dummy", inputSpecs.m_batchSize,
                 outputShapes.get(i), outputElementTypes.get(i), inputSpecs.m_dimensionOrder));
         }
-        return outputSpecs;
+        return Collections.unmodifiableList(outputSpecs);
+    }
+
+    /**
+     * @return per parent: the parent's output specs, the index of the consumed tensor in the parent and the selected
+     *         input tensor spec
+     */
+    private Object[] collectInputIdentities() throws DLInvalidTensorSpecException {
+        final Object[] inputs = new Object[m_parents.length * 3];
+        for (int i = 0; i < m_parents.length; i++) {
+            inputs[i * 3] = m_parents[i] != null ? getTrustedOutputSpecs(m_parents[i]) : null;
+            inputs[i * 3 + 1] = m_indexInParents[i];
+            inputs[i * 3 + 2] = getInputTensorSpec(i);
+        }
+        return inputs;
+    }
+
+    /**
+     * @return the memoized output specs of the given parent if it is an inner layer that has a memo, its actual output
+     *         specs otherwise. Input layers and base network outputs answer the latter without walking upstream.
+     */
+    private static List<DLTensorSpec> getTrustedOutputSpecs(final DLKerasTensorSpecsOutput parent)
+        throws DLInvalidTensorSpecException {
+        if (parent instanceof DLKerasAbstractInnerLayer) {
+            final DLOutputSpecsMemo memo = ((DLKerasAbstractInnerLayer)parent).m_memo;
+            if (memo != null) {
+                return memo.m_outputSpecs;
+            }
+        }
+        return parent.getOutputSpecs();
     }
 
+    /**
+     * Validates the input specs of this layer and revalidates its memoized output specs, which its successors rely on.
+     */
     @Override
     public final void validateInputSpecs() throws DLInvalidTensorSpecException {
-        final DLInputSpecsHelperStruct inputSpecs = collectInputSpecs();
-        validateInputSpecs(inputSpecs.m_elementTypes, inputSpecs.m_shapes);
+        // Input specs are validated as part of the inference, a valid memo implies valid input specs.
+        getOutputSpecs();
     }
 
     @Override
@@ -230,4 +298,36 @@ private DLInputSpecsHelperStruct(final Long inputBatchSize, final List<Long[]> i
             m_dimensionOrder = inputDimensionOrder;
         }
     }
+
+    private static final class DLOutputSpecsMemo {
+
+        private final List<DLTensorSpec> m_outputSpecs;
+
+        private final String m_parameters;
+
+        private final Object[] m_inputs;
+
+        private final Object m_passToken;
+
+        private DLOutputSpecsMemo(final List<DLTensorSpec> outputSpecs, final String parameters, final Object[] inputs,
+            final Object passToken) {
+            m_outputSpecs = outputSpecs;
+            m_parameters = parameters;
+            m_inputs = inputs;
+            m_passToken = passToken;
+        }
+
+        private boolean isSameInputs(final Object[] inputs) {
+            if (m_inputs.length != inputs.length) {
+                return false;
+            }
+            for (int i = 0; i < inputs.length; i += 3) {
+                if (m_inputs[i] != inputs[i] || !Objects.equals(m_inputs[i + 1], inputs[i + 1])
+                    || !Objects.equals(m_inputs[i + 2], inputs[i + 2])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
 }
@@ -0,0 +1,385 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.keras.core.layers;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.node.NodeLogger;
+import org.knime.core.node.port.PortObjectSpecZipInputStream;
+import org.knime.core.node.port.PortObjectSpecZipOutputStream;
+import org.knime.core.node.port.PortUtil;
+import org.knime.core.util.FileUtil;
+import org.knime.dl.core.DLInvalidSourceException;
+import org.knime.dl.core.DLNetworkLocation;
+import org.knime.dl.keras.base.portobjects.DLKerasNetworkPortObjectSpec;
+import org.knime.dl.keras.core.DLKerasNetwork;
+import org.knime.dl.keras.core.DLKerasNetworkSpec;
+
+/**
+ * Content-addressed on-disk cache of materialized Keras networks. Entries are keyed by a hash of the layer graph (see
+ * {@link DLKerasNetworkGraphSerializer#writeContentTo(List, OutputStream)}), the contents of all base networks and the
+ * Keras back end. Each entry consists of the saved network file and its spec, which is stored via
+ * {@link DLKerasNetworkPortObjectSpec.Serializer}. The total size of the cache is bounded, least recently used entries
+ * are evicted first.
+ * <P>
+ * The cache directory is shared by all KNIME instances of a user. Entries are therefore written to temporary files and
+ * then atomically renamed, the network file first and the spec file last. An entry only counts as present once its
+ * spec file exists. Failing to read an entry (e.g. because another instance evicted it concurrently) is treated like a
+ * cache miss.
+ * <P>
+ * Note that a cache hit yields the weights of the network that was materialized first. Identical graphs hence share
+ * their initial weights.
+ *
+ * @author agent
+ */
+final class DLKerasMaterializationCache {
+
+    /**
+     * Set this VM option to the maximum size of the materialization cache in megabytes. A value of zero disables the
+     * cache.
+     */
+    static final String MATERIALIZATION_CACHE_SIZE_VM_OPT = "knime.dl.keras.materializationcachesize";
+
+    private static final long DEFAULT_MAX_SIZE_IN_MB = 1024;
+
+    private static final String CACHE_DIR_NAME = "dl-keras-materialization-cache";
+
+    private static final String NETWORK_FILE_EXTENSION = ".h5";
+
+    private static final String SPEC_FILE_EXTENSION = ".spec";
+
+    private static final String TMP_FILE_EXTENSION = ".tmp";
+
+    /**
+     * Temporary files older than this are considered leftovers of interrupted writes. Younger ones may still be in use
+     * by another KNIME instance.
+     */
+    private static final long STALE_TMP_FILE_AGE_IN_MS = 60 * 60 * 1000L;
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(DLKerasMaterializationCache.class);
+
+    private static final DLKerasMaterializationCache INSTANCE = createInstance();
+
+    static DLKerasMaterializationCache getInstance() {
+        return INSTANCE;
+    }
+
+    private static DLKerasMaterializationCache createInstance() {
+        long maxSizeInMB = DEFAULT_MAX_SIZE_IN_MB;
+        final String maxSizeProperty = System.getProperty(MATERIALIZATION_CACHE_SIZE_VM_OPT);
+        if (maxSizeProperty != null) {
+            try {
+                maxSizeInMB = Long.parseLong(maxSizeProperty.trim());
+            } catch (final NumberFormatException ex) {
+                LOGGER.warn("Invalid value for VM option '-D" + MATERIALIZATION_CACHE_SIZE_VM_OPT + "': '"
+                    + maxSizeProperty + "'. Using the default of " + DEFAULT_MAX_SIZE_IN_MB + " MB.", ex);
+            }
+        }
+        final String homeDir = KNIMEConstants.getKNIMEHomeDir();
+        final File cacheDir = maxSizeInMB > 0 && homeDir != null ? new File(homeDir, CACHE_DIR_NAME) : null;
+        return new DLKerasMaterializationCache(cacheDir, maxSizeInMB * 1024 * 1024);
+    }
+
+    private final File m_cacheDir;
+
+    private final long m_maxSize;
+
+    /**
+     * Content hashes of base network files, keyed by path and validated against size and modification time.
+     */
+    private final Map<String, FileHash> m_baseNetworkHashes = new ConcurrentHashMap<>();
+
+    /**
+     * @param cacheDir the cache directory, may be {@code null} in which case caching is disabled
+     * @param maxSize the maximum total size of all cache entries in bytes
+     */
+    DLKerasMaterializationCache(final File cacheDir, final long maxSize) {
+        m_cacheDir = cacheDir;
+        m_maxSize = maxSize;
+    }
+
+    /**
+     * Computes the cache key of the given network graph.
+     *
+     * @param outputLayers the output layers of the network graph
+     * @param backend the Keras back end that is used to materialize the graph
+     * @return the key or an empty optional if caching is disabled or the graph cannot be cached (e.g. because one of
+     *         its base networks is not available locally)
+     */
+    Optional<String> computeKey(final List<DLKerasLayer> outputLayers, final Class<?> backend) {
+        if (m_cacheDir == null) {
+            return Optional.empty();
+        }
+        final MessageDigest digest = createDigest();
+        try (final OutputStream out = new DigestOutputStream(OutputStream.nullOutputStream(), digest)) {
+            out.write(backend.getName().getBytes(StandardCharsets.UTF_8));
+            out.write(DLKerasNetworkSpec.getKerasBundleVersion().toString().getBytes(StandardCharsets.UTF_8));
+            final Map<Integer, DLKerasBaseNetworkTensorSpecOutput> baseNetworkOutputs =
+                DLKerasNetworkGraphSerializer.writeContentTo(outputLayers, out);
+            for (final Entry<Integer, DLKerasBaseNetworkTensorSpecOutput> entry : baseNetworkOutputs.entrySet()) {
+                final String baseNetworkHash = hashBaseNetwork(entry.getValue().getBaseNetworkSource());
+                if (baseNetworkHash == null) {
+                    return Optional.empty();
+                }
+                out.write((entry.getKey() + ":" + baseNetworkHash).getBytes(StandardCharsets.UTF_8));
+            }
+        } catch (final IOException ex) {
+            LOGGER.debug("Failed to compute the materialization cache key of a Keras layer graph.", ex);
+            return Optional.empty();
+        }
+        return Optional.of(toHex(digest.digest()));
+    }
+
+    /**
+     * Copies the cached network of the given key to the given location, if present.
+     *
+     * @param key the cache key, see {@link #computeKey(List, Class)}
+     * @param saveLocation the location to which the network is copied, must be a local file
+     * @return the network at the given location or an empty optional if there is no valid cache entry
+     */
+    synchronized Optional<DLKerasNetwork> get(final String key, final DLNetworkLocation saveLocation) {
+        final File networkFile = new File(m_cacheDir, key + NETWORK_FILE_EXTENSION);
+        final File specFile = new File(m_cacheDir, key + SPEC_FILE_EXTENSION);
+        if (!specFile.isFile()) {
+            return Optional.empty();
+        }
+        final DLKerasNetworkPortObjectSpec spec;
+        try {
+            spec = readSpec(specFile);
+        } catch (final IOException ex) {
+            LOGGER.debug("Failed to read the spec of cached materialized Keras network '" + key
+                + "'. Removing the entry.", ex);
+            specFile.delete();
+            networkFile.delete();
+            return Optional.empty();
+        }
+        try {
+            final File target = FileUtil.getFileFromURL(saveLocation.getURI().toURL());
+            // Copy rather than link: the network file of the port object must not share storage with the cache.
+            Files.copy(networkFile.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            final long now = System.currentTimeMillis();
+            networkFile.setLastModified(now);
+            specFile.setLastModified(now);
+            return Optional.of(spec.getNetworkSpec().create(saveLocation, false));
+        } catch (final IOException | DLInvalidSourceException ex) {
+            // The entry may have been evicted concurrently by another KNIME instance. Leave it alone.
+            LOGGER.debug("Failed to restore cached materialized Keras network '" + key + "'.", ex);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Adds the given materialized network to the cache and evicts least recently used entries if the cache exceeds
+     * its size limit.
+     *
+     * @param key the cache key, see {@link #computeKey(List, Class)}
+     * @param network the materialized network whose source must be a local file
+     */
+    synchronized void put(final String key, final DLKerasNetwork network) {
+        File tmpNetworkFile = null;
+        File tmpSpecFile = null;
+        try {
+            Files.createDirectories(m_cacheDir.toPath());
+            final File source = FileUtil.getFileFromURL(network.getSource().getURI().toURL());
+            tmpNetworkFile = File.createTempFile(key, TMP_FILE_EXTENSION, m_cacheDir);
+            Files.copy(source.toPath(), tmpNetworkFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            tmpSpecFile = File.createTempFile(key, TMP_FILE_EXTENSION, m_cacheDir);
+            writeSpec(new DLKerasNetworkPortObjectSpec(network.getSpec(), network.getClass()), tmpSpecFile);
+            // The spec file marks the entry as complete, so it is moved last.
+            moveAtomically(tmpNetworkFile.toPath(), new File(m_cacheDir, key + NETWORK_FILE_EXTENSION).toPath());
+            moveAtomically(tmpSpecFile.toPath(), new File(m_cacheDir, key + SPEC_FILE_EXTENSION).toPath());
+            evict();
+        } catch (final IOException ex) {
+            LOGGER.debug("Failed to cache materialized Keras network '" + key + "'.", ex);
+            if (tmpNetworkFile != null) {
+                tmpNetworkFile.delete();
+            }
+            if (tmpSpecFile != null) {
+                tmpSpecFile.delete();
+            }
+        }
+    }
+
+    private void evict() {
+        final File[] files = m_cacheDir.listFiles();
+        if (files == null) {
+            return;
+        }
+        final long now = System.currentTimeMillis();
+        long totalSize = 0;
+        for (final File file : files) {
+            if (file.getName().endsWith(TMP_FILE_EXTENSION) && now - file.lastModified() > STALE_TMP_FILE_AGE_IN_MS) {
+                // Leftovers of interrupted writes.
+                file.delete();
+            } else {
+                totalSize += file.length();
+            }
+        }
+        if (totalSize <= m_maxSize) {
+            return;
+        }
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        for (final File file : files) {
+            if (totalSize <= m_maxSize) {
+                break;
+            }
+            final String name = file.getName();
+            if (name.endsWith(NETWORK_FILE_EXTENSION)) {
+                // Evict the entire entry. The spec file is deleted first so that the entry no longer counts as
+                // present.
+                final File specFile = new File(m_cacheDir,
+                    name.substring(0, name.length() - NETWORK_FILE_EXTENSION.length()) + SPEC_FILE_EXTENSION);
+                totalSize -= file.length() + specFile.length();
+                specFile.delete();
+                file.delete();
+            }
+        }
+    }
+
+    private static DLKerasNetworkPortObjectSpec readSpec(final File specFile) throws IOException {
+        try (final PortObjectSpecZipInputStream in =
+            PortUtil.getPortObjectSpecZipInputStream(Files.newInputStream(specFile.toPath()))) {
+            return new DLKerasNetworkPortObjectSpec.Serializer().loadPortObjectSpec(in);
+        } catch (final RuntimeException ex) {
+            throw new IOException(ex);
+        }
+    }
+
+    private static void writeSpec(final DLKerasNetworkPortObjectSpec spec, final File specFile) throws IOException {
+        try (final PortObjectSpecZipOutputStream out =
+            PortUtil.getPortObjectSpecZipOutputStream(Files.newOutputStream(specFile.toPath()))) {
+            new DLKerasNetworkPortObjectSpec.Serializer().savePortObjectSpec(spec, out);
+        }
+    }
+
+    private static void moveAtomically(final Path source, final Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (final AtomicMoveNotSupportedException ex) { // NOSONAR
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private String hashBaseNetwork(final DLNetworkLocation source) throws IOException {
+        if (source == null) {
+            return null;
+        }
+        final File file = FileUtil.getFileFromURL(source.getURI().toURL());
+        if (file == null || !file.isFile()) {
+            return null;
+        }
+        final String path = file.getAbsolutePath();
+        final long size = file.length();
+        final long lastModified = file.lastModified();
+        final FileHash cached = m_baseNetworkHashes.get(path);
+        if (cached != null && cached.m_size == size && cached.m_lastModified == lastModified) {
+            return cached.m_hash;
+        }
+        final MessageDigest digest = createDigest();
+        try (final InputStream in = Files.newInputStream(file.toPath())) {
+            final byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        final String hash = toHex(digest.digest());
+        m_baseNetworkHashes.put(path, new FileHash(size, lastModified, hash));
+        return hash;
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException ex) {
+            // SHA-256 is guaranteed to be supported by every Java platform.
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static String toHex(final byte[] bytes) {
+        final StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (final byte b : bytes) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+
+    private static final class FileHash {
+
+        private final long m_size;
+
+        private final long m_lastModified;
+
+        private final String m_hash;
+
+        private FileHash(final long size, final long lastModified, final String hash) {
+            m_size = size;
+            m_lastModified = lastModified;
+            m_hash = hash;
+        }
+    }
+}
@@ -46,9 +46,11 @@
  */
 package org.knime.dl.keras.core.layers;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.OutputStream;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -160,14 +162,61 @@ public void visitBaseNetworkOutput(final DLKerasBaseNetworkTensorSpecOutput base
     public static Map<Integer, DLKerasBaseNetworkTensorSpecOutput> writeGraphTo(final List<DLKerasLayer> outputLayers,
         final ObjectOutputStream objOut) throws IOException {
         final NodeSettings graphSettings = new NodeSettings(CFG_KEY_GRAPH);
+        // Collects all base network specs. We have to serialize them outside the node settings.
+        final LinkedHashMap<Integer, DLKerasNetworkSpec> baseNetworkSpecs = new LinkedHashMap<>(2);
+        final Map<Integer, DLKerasBaseNetworkTensorSpecOutput> baseNetworkLayers =
+            writeGraphSettings(outputLayers, graphSettings, true);
+        // Collects all the base networks whose network location cannot be simply (de)serialized.
+        final LinkedHashMap<Integer, DLKerasBaseNetworkTensorSpecOutput> nonReferenceBaseNetworkLayers =
+            new LinkedHashMap<>(2);
+        for (final Entry<Integer, DLKerasBaseNetworkTensorSpecOutput> entry : baseNetworkLayers.entrySet()) {
+            final DLKerasBaseNetworkTensorSpecOutput baseNetworkOutput = entry.getValue();
+            if (!(baseNetworkOutput.getBaseNetworkSource() instanceof DLNetworkReferenceLocation)) {
+                nonReferenceBaseNetworkLayers.put(entry.getKey(), baseNetworkOutput);
+            }
+            baseNetworkSpecs.put(entry.getKey(), baseNetworkOutput.getBaseNetworkSpec());
+        }
+        // Write to stream.
+        objOut.writeInt(baseNetworkSpecs.size());
+        for (final Entry<Integer, DLKerasNetworkSpec> entry : baseNetworkSpecs.entrySet()) {
+            objOut.writeInt(entry.getKey());
+            objOut.writeObject(entry.getValue());
+        }
+        objOut.writeObject(graphSettings);
+        return nonReferenceBaseNetworkLayers;
+    }
+
+    /**
+     * Writes the structure and the layer parameters of the Keras network graph specified by the given output layers
+     * and their inputs (i.e. predecessor nodes) to a stream in a form that only depends on the content of the graph:
+     * runtime ids of layers are omitted, and base networks are only represented by their position in the graph, their
+     * output index and their source URI if the source is a reference. Clients that need to tell apart base networks
+     * with different contents have to consider their sources separately, see the returned map.
+     *
+     * @param outputLayers the output layers of the network to serialize
+     * @param out the stream to which to write the network graph, it is the client's responsibility to close it
+     * @return the base network outputs of the graph, mapped by their index in the graph
+     * @throws IOException if failed to write the network graph to stream
+     */
+    public static Map<Integer, DLKerasBaseNetworkTensorSpecOutput> writeContentTo(
+        final List<DLKerasLayer> outputLayers, final OutputStream out) throws IOException {
+        final NodeSettings graphSettings = new NodeSettings(CFG_KEY_GRAPH);
+        final Map<Integer, DLKerasBaseNetworkTensorSpecOutput> baseNetworkLayers =
+            writeGraphSettings(outputLayers, graphSettings, false);
+        final ByteArrayOutputStream graphXml = new ByteArrayOutputStream();
+        graphSettings.saveToXML(graphXml);
+        graphXml.writeTo(out);
+        return baseNetworkLayers;
+    }
+
+    private static Map<Integer, DLKerasBaseNetworkTensorSpecOutput> writeGraphSettings(
+        final List<DLKerasLayer> outputLayers, final NodeSettings graphSettings, final boolean writeRuntimeIds)
+        throws IOException {
         final AtomicInteger layerIndexCounter = new AtomicInteger();
         final Map<DLKerasTensorSpecsOutput, Integer> layerIndices = new HashMap<>();
         try {
             final TIntArrayList outputLayerIndices = new TIntArrayList(outputLayers.size());
-            // Collects all base network specs. We have to serialize them outside the node settings.
-            final LinkedHashMap<Integer, DLKerasNetworkSpec> baseNetworkSpecs = new LinkedHashMap<>(2);
-            // Collects all the base networks whose network location cannot be simply (de)serialized.
-            final LinkedHashMap<Integer, DLKerasBaseNetworkTensorSpecOutput> nonReferenceBaseNetworkLayers =
+            final LinkedHashMap<Integer, DLKerasBaseNetworkTensorSpecOutput> baseNetworkLayers =
                 new LinkedHashMap<>(2);
             new DLKerasNetworkGraphTopologicalOrderIterator(outputLayers).visitAll(new DLKerasLayerVisitor() {
 
@@ -209,10 +258,8 @@ public void visitBaseNetworkOutput(final DLKerasBaseNetworkTensorSpecOutput base
                     final DLNetworkLocation baseNetworkSource = baseNetworkOutput.getBaseNetworkSource();
                     if (baseNetworkSource instanceof DLNetworkReferenceLocation) {
                         layerSettings.addString(CFG_KEY_BASE_NETWORK_SOURCE, baseNetworkSource.getURI().toString());
-                    } else {
-                        nonReferenceBaseNetworkLayers.put(layerIndex, baseNetworkOutput);
                     }
-                    baseNetworkSpecs.put(layerIndex, baseNetworkOutput.getBaseNetworkSpec());
+                    baseNetworkLayers.put(layerIndex, baseNetworkOutput);
                 }
 
                 private NodeSettingsWO saveLayer(final DLKerasLayer layer)
@@ -225,7 +272,9 @@ private NodeSettingsWO saveLayer(final DLKerasLayer layer)
                         NodeSettingsStructs.createNodeSettingsInstance(
                             layerSettings.addNodeSettings(CFG_KEY_LAYER_PARAMS), layerInstance.struct());
                     Structs.shallowCopyUnsafe(layerInstance, settingsInstance);
-                    layerSettings.addString(CFG_KEY_LAYER_RUNTIME_ID, layer.getRuntimeId());
+                    if (writeRuntimeIds) {
+                        layerSettings.addString(CFG_KEY_LAYER_RUNTIME_ID, layer.getRuntimeId());
+                    }
                     return layerSettings;
                 }
 
@@ -239,14 +288,7 @@ private NodeSettingsWO createLayerSettings(final DLKerasTensorSpecsOutput layer)
                 }
             });
             graphSettings.addIntArray(CFG_KEY_OUTPUT_LAYERS, outputLayerIndices.toNativeArray());
-            // Write to stream.
-            objOut.writeInt(baseNetworkSpecs.size());
-            for (final Entry<Integer, DLKerasNetworkSpec> entry : baseNetworkSpecs.entrySet()) {
-                objOut.writeInt(entry.getKey());
-                objOut.writeObject(entry.getValue());
-            }
-            objOut.writeObject(graphSettings);
-            return nonReferenceBaseNetworkLayers;
+            return baseNetworkLayers;
         } catch (final Exception e) {
             throw new IOException("An exception occurred while saving the Keras layer graph. See log for details.", e);
         }
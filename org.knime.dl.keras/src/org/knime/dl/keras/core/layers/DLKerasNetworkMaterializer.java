@@ -53,6 +53,7 @@
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.StringJoiner;
 import java.util.function.Function;
@@ -111,6 +112,10 @@ public DLKerasNetworkMaterializer(final List<DLKerasLayer> outputLayers, final D
 
     /**
      * Materializes the Keras network graph.
+     * <P>
+     * Graphs that were already materialized before (in this or another KNIME instance on the same machine) are
+     * restored from the {@link DLKerasMaterializationCache}. Consequently, identical graphs start with identical
+     * initial weights instead of freshly initialized random ones.
      * @param context
      *
      * @return the materialized network
@@ -122,13 +127,6 @@ public DLKerasNetworkMaterializer(final List<DLKerasLayer> outputLayers, final D
      */
     public DLKerasNetwork materialize(final DLPythonContext context)
         throws DLInvalidEnvironmentException, DLInvalidSourceException, IOException {
-        final DLKerasNetworkSpecInferrer specInferrer = new DLKerasNetworkSpecInferrer(m_outputLayers);
-        specInferrer.inferNetworkSpec();
-        // Parse layer graph.
-        final DLKerasNetworkMaterializerParser parser =
-            new DLKerasNetworkMaterializerParser(specInferrer.getLayerToTensorMap());
-        new DLKerasNetworkGraphDepthFirstIterator(m_outputLayers).visitAll(parser);
-
         // TODO: Hard-coded for the moment.
         final Class<DLKerasTensorFlowNetwork> backend = DLKerasTensorFlowNetwork.class;
 
@@ -143,6 +141,25 @@ public DLKerasNetwork materialize(final DLPythonContext context)
         } catch (final DLCanceledExecutionException ex) { // NOSONAR
             // Cannot happen.
         }
+
+        // Identical graphs do not need to be materialized again. Note that this also means that identical graphs share
+        // the same initial (random) weights. The back end is checked beforehand to not defer environment problems.
+        final DLKerasMaterializationCache cache = DLKerasMaterializationCache.getInstance();
+        final Optional<String> cacheKey = cache.computeKey(m_outputLayers, backend);
+        if (cacheKey.isPresent()) {
+            final Optional<DLKerasNetwork> cached = cache.get(cacheKey.get(), m_saveLocation);
+            if (cached.isPresent()) {
+                return cached.get();
+            }
+        }
+
+        final DLKerasNetworkSpecInferrer specInferrer = new DLKerasNetworkSpecInferrer(m_outputLayers);
+        specInferrer.inferNetworkSpec();
+        // Parse layer graph.
+        final DLKerasNetworkMaterializerParser parser =
+            new DLKerasNetworkMaterializerParser(specInferrer.getLayerToTensorMap());
+        new DLKerasNetworkGraphDepthFirstIterator(m_outputLayers).visitAll(parser);
+
         final DLKerasAbstractCommands commands = ((DLKerasNetworkLoader<?>)loader).createCommands(context);
         // Load base networks (if any). Make base networks available on Python side for later. Collect base network
         // specs.We need the network specs (a) to reserve the layer names that are already present in the base
@@ -201,12 +218,17 @@ public DLKerasNetwork materialize(final DLPythonContext context)
         } catch (final DLInvalidDestinationException | DLCanceledExecutionException e) {
             throw new IOException(e);
         }
+        final DLKerasNetwork network;
         try {
-            return loader.fetch(handle, m_saveLocation, commands.getContext(DLNotCancelable.INSTANCE),
+            network = loader.fetch(handle, m_saveLocation, commands.getContext(DLNotCancelable.INSTANCE),
                 DLNotCancelable.INSTANCE);
         } catch (final DLInvalidSourceException | DLCanceledExecutionException e) {
             throw new IOException(e);
         }
+        if (cacheKey.isPresent()) {
+            cache.put(cacheKey.get(), network);
+        }
+        return network;
     }
 
     private static List<DLKerasNetworkSpec> retrieveBaseNetworkSpecs(
@@ -108,7 +108,15 @@ public DLKerasNetworkSpec inferNetworkSpec() {
         if (m_inferredSpec != null) {
             return m_inferredSpec;
         }
+        // Each layer validates its memoized specs at most once during this inference. Validating a memo does not walk
+        // upstream since the memos of parents are trusted, see DLKerasAbstractInnerLayer.
+        try (final DLKerasSpecInferencePass pass = DLKerasSpecInferencePass.open()) {
+            m_inferredSpec = inferNetworkSpecInternal();
+        }
+        return m_inferredSpec;
+    }
 
+    private DLKerasNetworkSpec inferNetworkSpecInternal() {
         final List<Function<DLKerasNetworkLayerNameGenerator, List<DLTensorSpec>>> inputSpecsToInfer =
             new ArrayList<>(5);
         final List<Function<DLKerasNetworkLayerNameGenerator, List<DLTensorSpec>>> hiddenSpecsToInfer =
@@ -208,9 +216,8 @@ public void visitBaseNetworkOutput(final DLKerasBaseNetworkTensorSpecOutput base
         Set<DLTensorSpec> nonOutputHiddenSpecs = Sets.difference(distinctHiddenSpecs, distinctOutputSpecs);
 
         // TODO: Only TensorFlow is supported at the moment.
-        m_inferredSpec = new DLKerasTensorFlowNetworkSpec(inputSpecs,
+        return new DLKerasTensorFlowNetworkSpec(inputSpecs,
             nonOutputHiddenSpecs.toArray(new DLTensorSpec[nonOutputHiddenSpecs.size()]), outputSpecs);
-        return m_inferredSpec;
     }
 
     private List<DLTensorSpec> inferTensorSpecs(final DLKerasNetworkLayerNameGenerator layerNameGen,
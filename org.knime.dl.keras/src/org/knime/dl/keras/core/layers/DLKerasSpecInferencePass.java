@@ -0,0 +1,98 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.keras.core.layers;
+
+/**
+ * Scope of a single tensor spec inference over a Keras network graph. The graph must not be modified while a pass is
+ * open. Within a pass, each layer validates its memoized output specs at most once; all further requests for its
+ * output specs (e.g. by its children) are answered directly from the memo. Passes are thread-confined and may be
+ * nested, in which case the outermost pass is in effect.
+ *
+ * @author agent
+ */
+final class DLKerasSpecInferencePass implements AutoCloseable {
+
+    private static final ThreadLocal<DLKerasSpecInferencePass> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Opens a new pass if none is open on the current thread, otherwise joins the open one.
+     *
+     * @return the pass, must be closed by the caller
+     */
+    static DLKerasSpecInferencePass open() {
+        final DLKerasSpecInferencePass current = CURRENT.get();
+        if (current != null) {
+            return new DLKerasSpecInferencePass(current.m_token, false);
+        }
+        final DLKerasSpecInferencePass pass = new DLKerasSpecInferencePass(new Object(), true);
+        CURRENT.set(pass);
+        return pass;
+    }
+
+    private final Object m_token;
+
+    private final boolean m_isOutermost;
+
+    private DLKerasSpecInferencePass(final Object token, final boolean isOutermost) {
+        m_token = token;
+        m_isOutermost = isOutermost;
+    }
+
+    /**
+     * @return an object that identifies this pass and all passes nested in it
+     */
+    Object getToken() {
+        return m_token;
+    }
+
+    @Override
+    public void close() {
+        if (m_isOutermost) {
+            CURRENT.remove();
+        }
+    }
+}
@@ -47,6 +47,7 @@
 package org.knime.dl.keras.core.layers.impl.core;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
@@ -96,9 +97,24 @@ public DLKerasDefaultInputLayer() {
         super("keras.layers.Input");
     }
 
+    /**
+     * Replaced as a whole, layers may be queried by several threads at once.
+     */
+    private volatile DLOutputSpecsMemo m_memo;
+
     @Override
     public List<DLTensorSpec> getOutputSpecs() {
-        return Arrays.asList(createTensorSpec());
+        // Return the same instance as long as the spec did not change. Child layers rely on this to reuse their own
+        // memoized specs.
+        final DLDefaultTensorSpec tensorSpec = createTensorSpec();
+        final DLKerasDataFormat dataFormat = m_dataFormat;
+        final DLOutputSpecsMemo memo = m_memo;
+        if (memo != null && memo.m_dataFormat == dataFormat && memo.m_outputSpecs.get(0).equals(tensorSpec)) {
+            return memo.m_outputSpecs;
+        }
+        final List<DLTensorSpec> outputSpecs = Collections.singletonList(tensorSpec);
+        m_memo = new DLOutputSpecsMemo(outputSpecs, dataFormat);
+        return outputSpecs;
     }
 
     private DLDefaultTensorSpec createTensorSpec() {
@@ -143,4 +159,16 @@ protected void populateParameters(final List<String> positionalParams, final Map
     private Long[] getShape() {
         return m_shape.getTuple();
     }
+
+    private static final class DLOutputSpecsMemo {
+
+        private final List<DLTensorSpec> m_outputSpecs;
+
+        private final DLKerasDataFormat m_dataFormat;
+
+        private DLOutputSpecsMemo(final List<DLTensorSpec> outputSpecs, final DLKerasDataFormat dataFormat) {
+            m_outputSpecs = outputSpecs;
+            m_dataFormat = dataFormat;
+        }
+    }
 }
@@ -75,4 +75,20 @@ public interface DLKerasTrainingConfig extends DLTrainingConfig {
 	 *         training process
 	 */
 	Collection<DLKerasCallback> getCallbacks();
+
+	/**
+	 * @return the number of training batches whose metrics are collected on the back end side before they are
+	 *         reported in a single message, always greater than zero
+	 */
+	default int getMetricsReportingBatches() {
+		return 1;
+	}
+
+	/**
+	 * @return the maximum time in milliseconds that collected training metrics are held back before they are reported,
+	 *         regardless of {@link #getMetricsReportingBatches()}
+	 */
+	default long getMetricsReportingInterval() {
+		return 1000;
+	}
 }
@@ -0,0 +1,191 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.python.core;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.knime.core.util.FileUtil;
+
+/**
+ * @author agent
+ */
+public final class DLPythonInstallationTestCacheTest {
+
+    private static final String BACKEND = "backend";
+
+    private File m_tmpDir;
+
+    private File m_cacheFile;
+
+    private DLPythonInstallationTestCache m_cache;
+
+    @Before
+    public void setUp() throws IOException {
+        m_tmpDir = FileUtil.createTempDir("dl-installation-test-cache-test");
+        m_cacheFile = new File(m_tmpDir, "cache.properties");
+        m_cache = new DLPythonInstallationTestCache(m_cacheFile);
+    }
+
+    @Test
+    public void testCacheHitForPythonExecutable() throws IOException {
+        final File executable = createEnvironment("env", false);
+        final List<String> commandLine = Collections.singletonList(executable.getPath());
+        assertFalse(m_cache.isCachedSuccess(BACKEND, "cmd", commandLine));
+        m_cache.putSuccess(BACKEND, "cmd", commandLine);
+        assertTrue(m_cache.isCachedSuccess(BACKEND, "cmd", commandLine));
+        assertFalse(m_cache.isCachedSuccess("other backend", "cmd", commandLine));
+        // persisted
+        assertTrue(new DLPythonInstallationTestCache(m_cacheFile).isCachedSuccess(BACKEND, "cmd", commandLine));
+    }
+
+    @Test
+    public void testInvalidationOnExecutableChange() throws IOException {
+        final File executable = createEnvironment("env", false);
+        final List<String> commandLine = Collections.singletonList(executable.getPath());
+        m_cache.putSuccess(BACKEND, "cmd", commandLine);
+        assertTrue(executable.setLastModified(executable.lastModified() + 10_000));
+        assertFalse(m_cache.isCachedSuccess(BACKEND, "cmd", commandLine));
+    }
+
+    @Test
+    public void testInvalidationOnPackageChange() throws IOException {
+        final File executable = createEnvironment("env", false);
+        final List<String> commandLine = Collections.singletonList(executable.getPath());
+        m_cache.putSuccess(BACKEND, "cmd", commandLine);
+        assertTrue(new File(getSitePackages("env"), "keras").mkdir());
+        assertFalse(m_cache.isCachedSuccess(BACKEND, "cmd", commandLine));
+    }
+
+    @Test
+    public void testExplicitInvalidation() throws IOException {
+        final File executable = createEnvironment("env", false);
+        final List<String> commandLine = Collections.singletonList(executable.getPath());
+        m_cache.putSuccess(BACKEND, "cmd", commandLine);
+        m_cache.invalidate(BACKEND, "cmd");
+        assertFalse(m_cache.isCachedSuccess(BACKEND, "cmd", commandLine));
+    }
+
+    @Test
+    public void testCacheHitForCondaEnvironmentDirectory() throws IOException {
+        createEnvironment("env", true);
+        final File envDir = new File(m_tmpDir, "env");
+        final List<String> commandLine = Arrays.asList("/path/to/conda", "run", "-p", envDir.getPath(), "python");
+        m_cache.putSuccess(BACKEND, "cmd", commandLine);
+        assertTrue(m_cache.isCachedSuccess(BACKEND, "cmd", commandLine));
+        final File history = new File(new File(envDir, "conda-meta"), "history");
+        assertTrue(history.setLastModified(history.lastModified() + 10_000));
+        assertFalse(m_cache.isCachedSuccess(BACKEND, "cmd", commandLine));
+    }
+
+    @Test
+    public void testCacheHitForStartScriptWithEnvironmentName() throws IOException {
+        createEnvironment("conda/envs/py3_knime", true);
+        final File script = new File(m_tmpDir, "start.sh");
+        writeScript(script, "#!/bin/bash\nsource \"" + new File(m_tmpDir, "conda/etc/profile.d/conda.sh").getPath()
+            + "\"\nconda activate py3_knime\npython \"$@\" 1>&1 2>&2\n");
+        final List<String> commandLine = Collections.singletonList(script.getPath());
+        m_cache.putSuccess(BACKEND, "cmd", commandLine);
+        assertTrue(m_cache.isCachedSuccess(BACKEND, "cmd", commandLine));
+        // editing the script invalidates the cached result
+        writeScript(script, "#!/bin/bash\nconda activate other\npython \"$@\"\n");
+        assertTrue(script.setLastModified(script.lastModified() + 10_000));
+        assertFalse(m_cache.isCachedSuccess(BACKEND, "cmd", commandLine));
+    }
+
+    @Test
+    public void testUnsupportedCommandIsNotCached() throws IOException {
+        final List<String> commandLine = Collections.singletonList("python3");
+        m_cache.putSuccess(BACKEND, "cmd", commandLine);
+        assertFalse(m_cache.isCachedSuccess(BACKEND, "cmd", commandLine));
+        assertFalse(m_cacheFile.exists());
+    }
+
+    @Test
+    public void testDisabledCache() throws IOException {
+        final DLPythonInstallationTestCache cache = new DLPythonInstallationTestCache(null);
+        final List<String> commandLine = Collections.singletonList(createEnvironment("env", false).getPath());
+        cache.putSuccess(BACKEND, "cmd", commandLine);
+        assertFalse(cache.isCachedSuccess(BACKEND, "cmd", commandLine));
+    }
+
+    /**
+     * @return the Python executable
+     */
+    private File createEnvironment(final String path, final boolean conda) throws IOException {
+        final File envDir = new File(m_tmpDir, path);
+        assertTrue(getSitePackages(path).mkdirs());
+        final File bin = new File(envDir, "bin");
+        assertTrue(bin.mkdirs());
+        final File executable = new File(bin, "python");
+        assertTrue(executable.createNewFile());
+        if (conda) {
+            final File condaMeta = new File(envDir, "conda-meta");
+            assertTrue(condaMeta.mkdirs());
+            assertTrue(new File(condaMeta, "history").createNewFile());
+        }
+        return executable;
+    }
+
+    private File getSitePackages(final String path) {
+        return new File(new File(new File(new File(m_tmpDir, path), "lib"), "python3.9"), "site-packages");
+    }
+
+    private static void writeScript(final File script, final String content) throws IOException {
+        Files.write(script.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+}
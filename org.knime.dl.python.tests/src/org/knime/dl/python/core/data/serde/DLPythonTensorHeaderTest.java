@@ -0,0 +1,129 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.python.core.data.serde;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.knime.dl.python.core.data.DLPythonBitBuffer;
+import org.knime.dl.python.core.data.DLPythonFloatBuffer;
+import org.knime.python.typeextension.Serializer;
+
+/**
+ * @author agent
+ */
+public class DLPythonTensorHeaderTest {
+
+	@Test
+	public void testFloatBufferRoundTripCarriesShape() throws IOException {
+		final long[] shape = { 2, 3, 4 };
+		final DLPythonFloatBuffer buffer = new DLPythonFloatBuffer(24);
+		for (int i = 0; i < 24; i++) {
+			buffer.put((float) i);
+		}
+		buffer.setShape(shape);
+
+		final byte[] bytes = createFloatSerializer().serialize(buffer);
+		Assert.assertEquals(DLPythonTensorHeader.getSize(shape.length) + 24 * Float.BYTES, bytes.length);
+		final DLPythonTensorHeader header = DLPythonTensorHeader.read(ByteBuffer.wrap(bytes),
+				DLPythonTensorHeader.TYPE_FLOAT);
+		Assert.assertArrayEquals(shape, header.getShape());
+		Assert.assertTrue(header.isBatched());
+
+		final DLPythonFloatBuffer deserialized = (DLPythonFloatBuffer) new DLPythonFloatBufferDeserializerFactory()
+				.createDeserializer().deserialize(bytes, null);
+		Assert.assertArrayEquals(shape, deserialized.getShape());
+		Assert.assertArrayEquals(buffer.toFloatArray(), deserialized.toFloatArray(), 0f);
+	}
+
+	@Test
+	public void testInconsistentShapeFallsBackToFlatBuffer() throws IOException {
+		final DLPythonFloatBuffer buffer = new DLPythonFloatBuffer(6);
+		buffer.putAll(new float[] { 1, 2, 3, 4, 5, 6 });
+		buffer.setShape(new long[] { 2, 2 });
+
+		final DLPythonTensorHeader header = DLPythonTensorHeader
+				.read(ByteBuffer.wrap(createFloatSerializer().serialize(buffer)), DLPythonTensorHeader.TYPE_FLOAT);
+		Assert.assertArrayEquals(new long[] { 6 }, header.getShape());
+		Assert.assertFalse(header.isBatched());
+	}
+
+	@Test
+	public void testBitBufferRoundTrip() throws IOException {
+		final DLPythonBitBuffer buffer = new DLPythonBitBuffer(70);
+		for (int i = 0; i < 70; i++) {
+			buffer.put(i % 3 == 0);
+		}
+		buffer.setShape(new long[] { 7, 10 });
+		@SuppressWarnings("unchecked")
+		final Serializer<DLPythonBitBuffer> serializer = (Serializer<DLPythonBitBuffer>) new DLPythonBitBufferSerializerFactory()
+				.createSerializer();
+
+		final DLPythonBitBuffer deserialized = (DLPythonBitBuffer) new DLPythonBitBufferDeserializerFactory()
+				.createDeserializer().deserialize(serializer.serialize(buffer), null);
+		Assert.assertArrayEquals(new long[] { 7, 10 }, deserialized.getShape());
+		Assert.assertEquals(70, deserialized.size());
+		for (int i = 0; i < 70; i++) {
+			Assert.assertEquals(i % 3 == 0, deserialized.readNextBit());
+		}
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testMismatchingElementTypeIsRejected() throws IOException {
+		final DLPythonFloatBuffer buffer = new DLPythonFloatBuffer(1);
+		buffer.put(1f);
+		DLPythonTensorHeader.read(ByteBuffer.wrap(createFloatSerializer().serialize(buffer)),
+				DLPythonTensorHeader.TYPE_DOUBLE);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Serializer<DLPythonFloatBuffer> createFloatSerializer() {
+		return (Serializer<DLPythonFloatBuffer>) new DLPythonFloatBufferSerializerFactory().createSerializer();
+	}
+}
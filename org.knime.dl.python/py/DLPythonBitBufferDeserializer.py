@@ -49,8 +49,11 @@ import sys
 import numpy as np
 
 sys.path.insert(0, os.path.dirname(os.path.abspath(__file__)))
-from DLPythonDataBuffers import DLPythonBitBuffer
+from DLPythonDataBuffers import DLPythonBitBuffer, DLPythonTensorHeader, TYPE_BIT
 
 def deserialize(bytes):
-	return DLPythonBitBuffer(np.frombuffer(bytes, dtype=np.bool_))
+	# the header is followed by the bits, packed in the layout of numpy.packbits
+	header = DLPythonTensorHeader.from_bytes(bytes, TYPE_BIT)
+	bits = np.unpackbits(np.frombuffer(bytes, dtype=np.uint8, offset=header.size))
+	return DLPythonBitBuffer(bits[:header.num_elements].astype(np.bool_).reshape(header.shape), header.batched)
 
@@ -49,12 +49,17 @@ import sys
 import numpy as np
 
 sys.path.insert(0, os.path.dirname(os.path.abspath(__file__)))
-from DLPythonDataBuffers import DLPythonBitBuffer
+from DLPythonDataBuffers import DLPythonBitBuffer, DLPythonTensorHeader, TYPE_BIT
 
 def serialize(value):
-	if not value.array.dtype == np.bool_:
-		value = DLPythonBitBuffer(value.array.astype(np.bool_))
+	array = np.ascontiguousarray(value.array, dtype=np.bool_)
+	packed = np.packbits(array.ravel())
+	# Java reads whole 64 bit words
+	words = np.zeros(((packed.size + 7) // 8) * 8, dtype=np.uint8)
+	words[:packed.size] = packed
 	buffer = BytesIO(bytes())
-	buffer.write(value.array.tobytes())
+	# the header is followed by the bits, packed in the layout of numpy.packbits
+	buffer.write(DLPythonTensorHeader.for_array(TYPE_BIT, array, value.batched).to_bytes())
+	buffer.write(words.tobytes())
 	return buffer.getvalue()
 
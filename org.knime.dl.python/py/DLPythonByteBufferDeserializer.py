@@ -49,8 +49,10 @@ import sys
 import numpy as np
 
 sys.path.insert(0, os.path.dirname(os.path.abspath(__file__)))
-from DLPythonDataBuffers import DLPythonByteBuffer
+from DLPythonDataBuffers import DLPythonByteBuffer, DLPythonTensorHeader, TYPE_BYTE
 
 def deserialize(bytes):
-	return DLPythonByteBuffer(np.frombuffer(bytes, dtype=np.int8))
+	header = DLPythonTensorHeader.from_bytes(bytes, TYPE_BYTE)
+	array = np.frombuffer(bytes, dtype=header.dtype(np.int8), offset=header.size).reshape(header.shape)
+	return DLPythonByteBuffer(array, header.batched)
 
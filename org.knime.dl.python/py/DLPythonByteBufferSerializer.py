@@ -49,12 +49,13 @@ import sys
 import numpy as np
 
 sys.path.insert(0, os.path.dirname(os.path.abspath(__file__)))
-from DLPythonDataBuffers import DLPythonByteBuffer
+from DLPythonDataBuffers import DLPythonByteBuffer, DLPythonTensorHeader, TYPE_BYTE
 
 def serialize(value):
 	if not value.array.dtype == np.int8:
-		value = DLPythonByteBuffer(value.array.astype(np.int8))
+		value = DLPythonByteBuffer(value.array.astype(np.int8), value.batched)
 	buffer = BytesIO(bytes())
+	buffer.write(DLPythonTensorHeader.for_array(TYPE_BYTE, value.array, value.batched).to_bytes())
 	buffer.write(value.array.tobytes())
 	return buffer.getvalue()
 
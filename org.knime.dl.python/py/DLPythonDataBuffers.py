@@ -43,14 +43,105 @@
 #  when such Node is propagated with or for interoperation with KNIME.
 # ------------------------------------------------------------------------
 
+import struct
+import sys
+
+import numpy as np
+
+# Binary tensor header that precedes the payload of each serialized buffer. Must be kept in sync with
+# org.knime.dl.python.core.data.serde.DLPythonTensorHeader. All header fields are little endian:
+# version (uint8), element type (uint8), byte order of the payload (uint8, 0: little endian, 1: big endian),
+# flags (uint8, bit 0: the first dimension is the batch dimension), rank (int32) and one int64 per dimension.
+_HEADER_VERSION = 1
+_HEADER_FORMAT = '<BBBBi'
+_HEADER_FIXED_SIZE = struct.calcsize(_HEADER_FORMAT)
+_HEADER_FLAG_BATCHED = 1
+
+TYPE_DOUBLE = 1
+TYPE_FLOAT = 2
+TYPE_LONG = 3
+TYPE_INT = 4
+TYPE_SHORT = 5
+TYPE_BYTE = 6
+TYPE_UNSIGNED_BYTE = 7
+TYPE_BIT = 8
+TYPE_STRING = 9
+
+
+class DLPythonTensorHeader(object):
+	def __init__(self, element_type, shape, batched=False, byte_order='<'):
+		"""
+		Creates a new tensor header.
+		:param element_type: The element type, one of the TYPE_* constants.
+		:param shape: The shape of the tensor.
+		:param batched: Whether the first dimension of the shape is the batch dimension.
+		:param byte_order: The byte order of the payload, '<' for little endian or '>' for big endian.
+		"""
+		self.element_type = element_type
+		self.shape = tuple(int(d) for d in shape)
+		self.batched = batched
+		self.byte_order = byte_order
+
+	@property
+	def size(self):
+		"""
+		The size of the header in bytes, i.e. the offset of the payload.
+		"""
+		return _HEADER_FIXED_SIZE + 8 * len(self.shape)
+
+	@property
+	def num_elements(self):
+		return int(np.prod(self.shape, dtype=np.int64))
+
+	def dtype(self, dtype):
+		"""
+		Returns the given numpy.dtype in the byte order of the payload.
+		"""
+		return np.dtype(dtype).newbyteorder(self.byte_order)
+
+	def to_bytes(self):
+		flags = _HEADER_FLAG_BATCHED if self.batched else 0
+		fixed = struct.pack(_HEADER_FORMAT, _HEADER_VERSION, self.element_type, 0 if self.byte_order == '<' else 1,
+			flags, len(self.shape))
+		return fixed + np.array(self.shape, dtype='<i8').tobytes()
+
+	@staticmethod
+	def for_array(element_type, array, batched=False):
+		"""
+		Creates the header for the given numpy.ndarray.
+		"""
+		byte_order = array.dtype.byteorder
+		if byte_order not in ('<', '>'):
+			# native or not applicable
+			byte_order = '<' if sys.byteorder == 'little' else '>'
+		return DLPythonTensorHeader(element_type, array.shape, batched, byte_order)
+
+	@staticmethod
+	def from_bytes(bytes, element_type):
+		"""
+		Reads the header at the start of the given bytes and checks its element type.
+		"""
+		version, actual_type, byte_order, flags, rank = struct.unpack_from(_HEADER_FORMAT, bytes)
+		if version != _HEADER_VERSION:
+			raise ValueError('Transmitted data has an unsupported tensor header version (' + str(version) + ').')
+		if actual_type != element_type:
+			raise ValueError('Transmitted data is of element type ' + str(actual_type) + ' but element type '
+				+ str(element_type) + ' was expected.')
+		shape = np.frombuffer(bytes, dtype='<i8', count=rank, offset=_HEADER_FIXED_SIZE)
+		return DLPythonTensorHeader(actual_type, shape, (flags & _HEADER_FLAG_BATCHED) != 0,
+			'<' if byte_order == 0 else '>')
+
+
 # base
 class DLPythonDataBuffer(object):  
-	def __init__(self, array):
+	def __init__(self, array, batched=False):
 		"""
 		Creates a new buffer that simply wraps a numpy.ndarray.
 		:param array: The numpy.ndarray.
+		:param batched: Whether the first dimension of the array is the batch dimension.
 		"""
 		self.array = array
+		self.batched = batched
 
 	def __len__(self):
 		return len(self.array)
@@ -62,81 +153,91 @@ class DLPythonDataBuffer(object):
 
 # double
 class DLPythonDoubleBuffer(DLPythonDataBuffer):
-	def __init__(self, array):
+	def __init__(self, array, batched=False):
 		"""
 		Creates a new double buffer that simply wraps a numpy.ndarray.
 		:param array: The numpy.ndarray.
+		:param batched: Whether the first dimension of the array is the batch dimension.
 		"""
-		super(DLPythonDoubleBuffer, self).__init__(array)
+		super(DLPythonDoubleBuffer, self).__init__(array, batched)
 
 # float
 class DLPythonFloatBuffer(DLPythonDataBuffer):
-	def __init__(self, array):
+	def __init__(self, array, batched=False):
 		"""
 		Creates a new float buffer that simply wraps a numpy.ndarray.
 		:param array: The numpy.ndarray.
+		:param batched: Whether the first dimension of the array is the batch dimension.
 		"""
-		super(DLPythonFloatBuffer, self).__init__(array)
+		super(DLPythonFloatBuffer, self).__init__(array, batched)
 
 # bit
 class DLPythonBitBuffer(DLPythonDataBuffer):
-	def __init__(self, array):
+	def __init__(self, array, batched=False):
 		"""
 		Creates a new bit buffer that simply wraps a numpy.ndarray.
 		:param array: The numpy.ndarray.
+		:param batched: Whether the first dimension of the array is the batch dimension.
 		"""
-		super(DLPythonBitBuffer, self).__init__(array)
+		super(DLPythonBitBuffer, self).__init__(array, batched)
 
 # byte
 class DLPythonByteBuffer(DLPythonDataBuffer):
-	def __init__(self, array):
+	def __init__(self, array, batched=False):
 		"""
 		Creates a new byte buffer that simply wraps a numpy.ndarray.
 		:param array: The numpy.ndarray.
+		:param batched: Whether the first dimension of the array is the batch dimension.
 		"""
-		super(DLPythonByteBuffer, self).__init__(array)
+		super(DLPythonByteBuffer, self).__init__(array, batched)
 
 # unsigned byte
 class DLPythonUnsignedByteBuffer(DLPythonDataBuffer):
-	def __init__(self, array):
+	def __init__(self, array, batched=False):
 		"""
 		Creates a new unsigned byte buffer that simply wraps a numpy.ndarray.
 		:param array: The numpy.ndarray.
+		:param batched: Whether the first dimension of the array is the batch dimension.
 		"""
-		super(DLPythonUnsignedByteBuffer, self).__init__(array)
+		super(DLPythonUnsignedByteBuffer, self).__init__(array, batched)
 
 # short
 class DLPythonShortBuffer(DLPythonDataBuffer):
-	def __init__(self, array):
+	def __init__(self, array, batched=False):
 		"""
 		Creates a new short buffer that simply wraps a numpy.ndarray.
 		:param array: The numpy.ndarray.
+		:param batched: Whether the first dimension of the array is the batch dimension.
 		"""
-		super(DLPythonShortBuffer, self).__init__(array)
+		super(DLPythonShortBuffer, self).__init__(array, batched)
 
 # int
 class DLPythonIntBuffer(DLPythonDataBuffer):
-	def __init__(self, array):
+	def __init__(self, array, batched=False):
 		"""
 		Creates a new int buffer that simply wraps a numpy.ndarray.
 		:param array: The numpy.ndarray.
+		:param batched: Whether the first dimension of the array is the batch dimension.
 		"""
-		super(DLPythonIntBuffer, self).__init__(array)
+		super(DLPythonIntBuffer, self).__init__(array, batched)
 
 # long
 class DLPythonLongBuffer(DLPythonDataBuffer):
-	def __init__(self, array):
+	def __init__(self, array, batched=False):
 		"""
 		Creates a new long buffer that simply wraps a numpy.ndarray.
 		:param array: The numpy.ndarray.
+		:param batched: Whether the first dimension of the array is the batch dimension.
 		"""
-		super(DLPythonLongBuffer, self).__init__(array)
+		super(DLPythonLongBuffer, self).__init__(array, batched)
 
 class DLPythonStringBuffer(DLPythonDataBuffer):
-	def __init__(self, array):
+	def __init__(self, array, batched=False):
 		"""
 		Creates a new string buffer that simply wraps a numpy.ndarray.
 		:param array: The numpy.ndarray.
+		:param batched: Whether the first dimension of the array is the batch dimension.
 		"""
-		super(DLPythonStringBuffer, self).__init__(array)
+		super(DLPythonStringBuffer, self).__init__(array, batched)
+
 
@@ -49,8 +49,10 @@ import sys
 import numpy as np
 
 sys.path.insert(0, os.path.dirname(os.path.abspath(__file__)))
-from DLPythonDataBuffers import DLPythonDoubleBuffer
+from DLPythonDataBuffers import DLPythonDoubleBuffer, DLPythonTensorHeader, TYPE_DOUBLE
 
 def deserialize(bytes):
-	return DLPythonDoubleBuffer(np.frombuffer(bytes, dtype=np.float64))
+	header = DLPythonTensorHeader.from_bytes(bytes, TYPE_DOUBLE)
+	array = np.frombuffer(bytes, dtype=header.dtype(np.float64), offset=header.size).reshape(header.shape)
+	return DLPythonDoubleBuffer(array, header.batched)
 
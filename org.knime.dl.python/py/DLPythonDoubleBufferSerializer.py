@@ -49,12 +49,13 @@ import sys
 import numpy as np
 
 sys.path.insert(0, os.path.dirname(os.path.abspath(__file__)))
-from DLPythonDataBuffers import DLPythonDoubleBuffer
+from DLPythonDataBuffers import DLPythonDoubleBuffer, DLPythonTensorHeader, TYPE_DOUBLE
 
 def serialize(value):
 	if not value.array.dtype == np.float64:
-		value = DLPythonDoubleBuffer(value.array.astype(np.float64))
+		value = DLPythonDoubleBuffer(value.array.astype(np.float64), value.batched)
 	buffer = BytesIO(bytes())
+	buffer.write(DLPythonTensorHeader.for_array(TYPE_DOUBLE, value.array, value.batched).to_bytes())
 	buffer.write(value.array.tobytes())
 	return buffer.getvalue()
 
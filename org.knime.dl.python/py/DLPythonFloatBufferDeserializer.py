@@ -49,8 +49,10 @@ import sys
 import numpy as np
 
 sys.path.insert(0, os.path.dirname(os.path.abspath(__file__)))
-from DLPythonDataBuffers import DLPythonFloatBuffer
+from DLPythonDataBuffers import DLPythonFloatBuffer, DLPythonTensorHeader, TYPE_FLOAT
 
 def deserialize(bytes):
-	return DLPythonFloatBuffer(np.frombuffer(bytes, dtype=np.float32))
+	header = DLPythonTensorHeader.from_bytes(bytes, TYPE_FLOAT)
+	array = np.frombuffer(bytes, dtype=header.dtype(np.float32), offset=header.size).reshape(header.shape)
+	return DLPythonFloatBuffer(array, header.batched)
 
@@ -49,12 +49,13 @@ import sys
 import numpy as np
 
 sys.path.insert(0, os.path.dirname(os.path.abspath(__file__)))
-from DLPythonDataBuffers import DLPythonFloatBuffer
+from DLPythonDataBuffers import DLPythonFloatBuffer, DLPythonTensorHeader, TYPE_FLOAT
 
 def serialize(value):
 	if not value.array.dtype == np.float32:
-		value = DLPythonFloatBuffer(value.array.astype(np.float32))
+		value = DLPythonFloatBuffer(value.array.astype(np.float32), value.batched)
 	buffer = BytesIO(bytes())
+	buffer.write(DLPythonTensorHeader.for_array(TYPE_FLOAT, value.array, value.batched).to_bytes())
 	buffer.write(value.array.tobytes())
 	return buffer.getvalue()
 
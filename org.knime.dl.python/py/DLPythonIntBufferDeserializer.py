@@ -49,8 +49,10 @@ import sys
 import numpy as np
 
 sys.path.insert(0, os.path.dirname(os.path.abspath(__file__)))
-from DLPythonDataBuffers import DLPythonIntBuffer
+from DLPythonDataBuffers import DLPythonIntBuffer, DLPythonTensorHeader, TYPE_INT
 
 def deserialize(bytes):
-	return DLPythonIntBuffer(np.frombuffer(bytes, dtype=np.int32))
+	header = DLPythonTensorHeader.from_bytes(bytes, TYPE_INT)
+	array = np.frombuffer(bytes, dtype=header.dtype(np.int32), offset=header.size).reshape(header.shape)
+	return DLPythonIntBuffer(array, header.batched)
 
@@ -49,12 +49,13 @@ import sys
 import numpy as np
 
 sys.path.insert(0, os.path.dirname(os.path.abspath(__file__)))
-from DLPythonDataBuffers import DLPythonIntBuffer
+from DLPythonDataBuffers import DLPythonIntBuffer, DLPythonTensorHeader, TYPE_INT
 
 def serialize(value):
 	if not value.array.dtype == np.int32:
-		value = DLPythonIntBuffer(value.array.astype(np.int32))
+		value = DLPythonIntBuffer(value.array.astype(np.int32), value.batched)
 	buffer = BytesIO(bytes())
+	buffer.write(DLPythonTensorHeader.for_array(TYPE_INT, value.array, value.batched).to_bytes())
 	buffer.write(value.array.tobytes())
 	return buffer.getvalue()
 
@@ -64,6 +64,29 @@ def global_workspace():
     return _instance.global_workspace
 
 
+def initiating_message_id():
+    """
+    Returns the id of the message that triggered the execution of the currently running code. Messages that are sent
+    to Java during this execution must reply to this id.
+    """
+    return global_workspace()['python_messaging_initiating_message_id']
+
+
+def kernel_commands():
+    """
+    Returns the commands object of the KNIME Python kernel, which gives access to its messaging. This accesses
+    internals of the kernel that are not part of its API.
+    """
+    try:
+        commands = global_workspace()['workspace']._commands
+        # fail here rather than on the first request
+        commands._messaging
+        return commands
+    except (KeyError, AttributeError):
+        raise RuntimeError("The KNIME Python kernel does not provide the expected internals. Requesting data from "
+                           "KNIME is not possible.")
+
+
 class DLPythonKernelGateway(object):
     def __init__(self, workspace):
         assert workspace is not None
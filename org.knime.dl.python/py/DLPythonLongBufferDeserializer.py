@@ -49,8 +49,10 @@ import sys
 import numpy as np
 
 sys.path.insert(0, os.path.dirname(os.path.abspath(__file__)))
-from DLPythonDataBuffers import DLPythonLongBuffer
+from DLPythonDataBuffers import DLPythonLongBuffer, DLPythonTensorHeader, TYPE_LONG
 
 def deserialize(bytes):
-	return DLPythonLongBuffer(np.frombuffer(bytes, dtype=np.int64))
+	header = DLPythonTensorHeader.from_bytes(bytes, TYPE_LONG)
+	array = np.frombuffer(bytes, dtype=header.dtype(np.int64), offset=header.size).reshape(header.shape)
+	return DLPythonLongBuffer(array, header.batched)
 
@@ -49,12 +49,13 @@ import sys
 import numpy as np
 
 sys.path.insert(0, os.path.dirname(os.path.abspath(__file__)))
-from DLPythonDataBuffers import DLPythonLongBuffer
+from DLPythonDataBuffers import DLPythonLongBuffer, DLPythonTensorHeader, TYPE_LONG
 
 def serialize(value):
 	if not value.array.dtype == np.int64:
-		value = DLPythonLongBuffer(value.array.astype(np.int64))
+		value = DLPythonLongBuffer(value.array.astype(np.int64), value.batched)
 	buffer = BytesIO(bytes())
+	buffer.write(DLPythonTensorHeader.for_array(TYPE_LONG, value.array, value.batched).to_bytes())
 	buffer.write(value.array.tobytes())
 	return buffer.getvalue()
 
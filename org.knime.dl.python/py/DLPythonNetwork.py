@@ -50,8 +50,12 @@
 
 import abc
 
+import DLPythonKernelGateway
+
 _networks = {}
 
+_execution_plans = {}
+
 _network_id_suffix = 0
 
 def get_network(identifier):
@@ -70,10 +74,20 @@ def add_network(network, identifier=None):
 def remove_network(identifier):
     if identifier in _networks:
         del _networks[identifier]
+        _execution_plans.pop(identifier, None)
         return True
     else:
         return False
 
+def register_execution_plan(network_identifier, output_identifiers):
+    _execution_plans[network_identifier] = DLPythonExecutionPlan(get_network(network_identifier), output_identifiers)
+
+def run_execution_plan(network_identifier, batch_size):
+    _execution_plans[network_identifier].run(batch_size)
+
+def remove_execution_plan(network_identifier):
+    return _execution_plans.pop(network_identifier, None) is not None
+
 def _get_next_network_id():
     global _network_id_suffix
     identifier = 'network_' + str(_network_id_suffix)
@@ -113,6 +127,28 @@ class DLPythonNetwork(object):
         raise NotImplementedError()
 
 
+class DLPythonExecutionPlan(object):
+    """
+    Executes a network on the inputs found in the global workspace and puts the outputs back there. Everything that
+    stays the same from batch to batch is resolved once when the plan is registered, so running a batch only requires
+    a minimal statement from Java.
+    """
+
+    def __init__(self, network, output_identifiers):
+        self._network = network
+        self._input_identifiers = [input_spec.identifier for input_spec in network.spec.input_specs]
+        self._output_identifiers = list(output_identifiers)
+
+    def run(self, batch_size):
+        workspace = DLPythonKernelGateway.global_workspace()
+        in_data = {}
+        for identifier in self._input_identifiers:
+            in_data[identifier] = workspace[identifier]
+        out_data = self._network.execute(in_data, batch_size, self._output_identifiers)
+        for name, data in out_data.items():
+            workspace[name] = data
+
+
 class DLPythonNetworkSpec(object):
     __metaclass__ = abc.ABCMeta
 
@@ -51,20 +51,30 @@
 import abc
 import warnings
 
+import numpy as np
+
 
 class DLPythonNetworkTrainingInputGenerator(object):
     __metaclass__ = abc.ABCMeta
 
-    def __init__(self, input_names, target_names, steps, batch_size):
+    def __init__(self, input_names, target_names, steps, batch_size, cache_size=0):
+        """
+        :param cache_size: The number of bytes that may be used to keep the fetched batches in memory. If all batches
+        fit, they are fetched only once and replayed in later passes. Otherwise, batches are fetched in each pass.
+        """
         assert len(input_names) > 0
         assert len(target_names) > 0
         assert steps > 0
         assert batch_size > 0
+        assert cache_size >= 0
         self._input_names = input_names
         self._target_names = target_names
         self._size = steps * batch_size
         self._batch_size = batch_size
         self._steps = steps
+        self._cache_size = cache_size
+        self._cache = {} if cache_size > 0 else None
+        self._cached_bytes = 0
 
     @property
     def input_names(self):
@@ -92,7 +102,7 @@ class DLPythonNetworkTrainingInputGenerator(object):
             if i == self._steps:
                 i = 0
             try:
-                batch = self._get_batch(i)
+                batch = self._get_cached_batch(i)
             except Exception as e:
                 warnings.warn("An exception of type " + str(type(e)) +
                               " occurred while fetching the next network input batch.\nCause: " + str(e))
@@ -103,3 +113,39 @@ class DLPythonNetworkTrainingInputGenerator(object):
     @abc.abstractmethod
     def _get_batch(self, batch_index):
         raise NotImplementedError()
+
+    def _get_cached_batch(self, batch_index):
+        if self._cache is None:
+            return self._get_batch(batch_index)
+        batch = self._cache.get(batch_index)
+        if batch is None:
+            # copy, the fetched arrays may be backed by transfer buffers that are reused for the next batch
+            batch = _copy_arrays(self._get_batch(batch_index))
+            self._cached_bytes += _num_bytes(batch)
+            if self._cached_bytes > self._cache_size:
+                # does not fit, fall back to fetching the batches in each pass
+                self._cache = None
+                self._cached_bytes = 0
+            else:
+                self._cache[batch_index] = batch
+        return batch
+
+
+def _copy_arrays(data):
+    if isinstance(data, np.ndarray):
+        return np.array(data, copy=True)
+    if isinstance(data, (list, tuple)):
+        return type(data)(_copy_arrays(d) for d in data)
+    if isinstance(data, dict):
+        return {k: _copy_arrays(v) for k, v in data.items()}
+    return data
+
+
+def _num_bytes(data):
+    if isinstance(data, np.ndarray):
+        return data.nbytes
+    if isinstance(data, (list, tuple)):
+        return sum(_num_bytes(d) for d in data)
+    if isinstance(data, dict):
+        return sum(_num_bytes(v) for v in data.values())
+    return 0
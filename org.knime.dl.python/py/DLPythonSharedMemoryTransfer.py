@@ -0,0 +1,128 @@
+# -*- coding: utf-8 -*-
+
+# ------------------------------------------------------------------------
+#  Copyright by KNIME AG, Zurich, Switzerland
+#  Website: http://www.knime.com; Email: contact@knime.com
+#
+#  This program is free software; you can redistribute it and/or modify
+#  it under the terms of the GNU General Public License, Version 3, as
+#  published by the Free Software Foundation.
+#
+#  This program is distributed in the hope that it will be useful, but
+#  WITHOUT ANY WARRANTY; without even the implied warranty of
+#  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+#  GNU General Public License for more details.
+#
+#  You should have received a copy of the GNU General Public License
+#  along with this program; if not, see <http://www.gnu.org/licenses>.
+#
+#  Additional permission under GNU GPL version 3 section 7:
+#
+#  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+#  Hence, KNIME and ECLIPSE are both independent programs and are not
+#  derived from each other. Should, however, the interpretation of the
+#  GNU GPL Version 3 ("License") under any applicable laws result in
+#  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+#  you the additional permission to use and propagate KNIME together with
+#  ECLIPSE with only the license terms in place for ECLIPSE applying to
+#  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+#  license terms of ECLIPSE themselves allow for the respective use and
+#  propagation of ECLIPSE together with KNIME.
+#
+#  Additional permission relating to nodes for KNIME that extend the Node
+#  Extension (and in particular that are based on subclasses of NodeModel,
+#  NodeDialog, and NodeView) and that only interoperate with KNIME through
+#  standard APIs ("Nodes"):
+#  Nodes are deemed to be separate and independent programs and to not be
+#  covered works.  Notwithstanding anything to the contrary in the
+#  License, the License does not apply to Nodes, you are not required to
+#  license Nodes under the License, and you are granted a license to
+#  prepare and propagate Nodes, in each case even if such Nodes are
+#  propagated with or for interoperation with KNIME.  The owner of a Node
+#  may freely choose the license terms applicable to such Node, including
+#  when such Node is propagated with or for interoperation with KNIME.
+# ------------------------------------------------------------------------
+
+'''
+Counterpart of org.knime.dl.python.core.data.DLPythonSharedMemoryTransfer: exchanges tensors with Java via
+memory-mapped files instead of serializing them through the kernel's socket connection.
+
+@author agent
+'''
+
+import numpy as np
+import pandas as pd
+
+from DLPythonDataBuffers import DLPythonBitBuffer
+from DLPythonDataBuffers import DLPythonByteBuffer
+from DLPythonDataBuffers import DLPythonDoubleBuffer
+from DLPythonDataBuffers import DLPythonFloatBuffer
+from DLPythonDataBuffers import DLPythonIntBuffer
+from DLPythonDataBuffers import DLPythonLongBuffer
+from DLPythonDataBuffers import DLPythonShortBuffer
+from DLPythonDataBuffers import DLPythonStringBuffer
+from DLPythonDataBuffers import DLPythonTensorHeader
+from DLPythonDataBuffers import DLPythonUnsignedByteBuffer
+from DLPythonDataBuffers import TYPE_BIT, TYPE_BYTE, TYPE_DOUBLE, TYPE_FLOAT, TYPE_INT, TYPE_LONG, TYPE_SHORT, \
+    TYPE_STRING, TYPE_UNSIGNED_BYTE
+
+_BUFFER_TYPES = {
+    'float32': DLPythonFloatBuffer,
+    'float64': DLPythonDoubleBuffer,
+    'int32': DLPythonIntBuffer,
+    'int64': DLPythonLongBuffer,
+    'int16': DLPythonShortBuffer,
+    'uint8': DLPythonUnsignedByteBuffer,
+    'int8': DLPythonByteBuffer,
+    'bool': DLPythonBitBuffer
+}
+
+_ELEMENT_TYPES = {
+    DLPythonFloatBuffer: TYPE_FLOAT,
+    DLPythonDoubleBuffer: TYPE_DOUBLE,
+    DLPythonIntBuffer: TYPE_INT,
+    DLPythonLongBuffer: TYPE_LONG,
+    DLPythonShortBuffer: TYPE_SHORT,
+    DLPythonUnsignedByteBuffer: TYPE_UNSIGNED_BYTE,
+    DLPythonByteBuffer: TYPE_BYTE,
+    DLPythonBitBuffer: TYPE_BIT,
+    DLPythonStringBuffer: TYPE_STRING
+}
+
+
+def _little_endian(dtype):
+    return np.dtype(dtype).newbyteorder('<')
+
+
+def read_input(identifier, path, dtype, count, shape):
+    """
+    Wraps the input tensor file written by Java without copying it.
+    :return: A data frame in the same format as the ones created by the serialization based transfer, i.e. a single
+    row that holds the tensor buffer and its shape.
+    """
+    if count > 0:
+        # copy-on-write: downstream code may modify the array without affecting the file
+        array = np.memmap(path, dtype=_little_endian(dtype), mode='c', shape=(count,))
+    else:
+        array = np.empty((0,), dtype=_little_endian(dtype))
+    buffer = _BUFFER_TYPES[dtype](array)
+    return pd.DataFrame([[buffer, list(shape)]], columns=[identifier, 'shape'], index=[identifier])
+
+
+def write_output(data, path, dtype):
+    """
+    Writes the tensor buffer of the given output data frame into a flat file that is read by Java.
+    """
+    array = data.iloc[0][0].array
+    np.ascontiguousarray(array, dtype=_little_endian(dtype)).tofile(path)
+
+
+def write_header(data, path):
+    """
+    Writes only the tensor header (and hence the shape) of the given output data frame into a small file that is read
+    by Java. This allows Java to allocate its output tensors without having to transfer the tensor's contents twice.
+    """
+    buffer = data.iloc[0][0]
+    header = DLPythonTensorHeader(_ELEMENT_TYPES[type(buffer)], buffer.array.shape, buffer.batched)
+    with open(path, 'wb') as f:
+        f.write(header.to_bytes())
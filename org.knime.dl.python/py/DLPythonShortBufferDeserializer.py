@@ -49,8 +49,10 @@ import sys
 import numpy as np
 
 sys.path.insert(0, os.path.dirname(os.path.abspath(__file__)))
-from DLPythonDataBuffers import DLPythonShortBuffer
+from DLPythonDataBuffers import DLPythonShortBuffer, DLPythonTensorHeader, TYPE_SHORT
 
 def deserialize(bytes):
-	return DLPythonShortBuffer(np.frombuffer(bytes, dtype=np.int16))
+	header = DLPythonTensorHeader.from_bytes(bytes, TYPE_SHORT)
+	array = np.frombuffer(bytes, dtype=header.dtype(np.int16), offset=header.size).reshape(header.shape)
+	return DLPythonShortBuffer(array, header.batched)
 
@@ -49,12 +49,13 @@ import sys
 import numpy as np
 
 sys.path.insert(0, os.path.dirname(os.path.abspath(__file__)))
-from DLPythonDataBuffers import DLPythonShortBuffer
+from DLPythonDataBuffers import DLPythonShortBuffer, DLPythonTensorHeader, TYPE_SHORT
 
 def serialize(value):
 	if not value.array.dtype == np.int16:
-		value = DLPythonShortBuffer(value.array.astype(np.int16))
+		value = DLPythonShortBuffer(value.array.astype(np.int16), value.batched)
 	buffer = BytesIO(bytes())
+	buffer.write(DLPythonTensorHeader.for_array(TYPE_SHORT, value.array, value.batched).to_bytes())
 	buffer.write(value.array.tobytes())
 	return buffer.getvalue()
 
@@ -49,19 +49,21 @@ import sys
 import numpy as np
 
 sys.path.insert(0, os.path.dirname(os.path.abspath(__file__)))
-from DLPythonDataBuffers import DLPythonStringBuffer
+from DLPythonDataBuffers import DLPythonStringBuffer, DLPythonTensorHeader, TYPE_STRING
 
 def deserialize(bytes):
-	n_values = np.frombuffer(bytes, dtype=np.int32, count=1)[0]
-	lengths = np.frombuffer(bytes, dtype=np.int32, count=n_values, offset=4) # first 4 bytes encode n_values
+	# the header is followed by the lengths of the strings and the strings themselves
+	header = DLPythonTensorHeader.from_bytes(bytes, TYPE_STRING)
+	n_values = header.num_elements
+	lengths = np.frombuffer(bytes, dtype='<i4', count=n_values, offset=header.size)
 	strings = []
-	offset = (n_values + 1) * 4 # an integer occupies 4 byte
+	offset = header.size + n_values * 4 # an integer occupies 4 byte
 	for i in range(n_values):
 		length = lengths[i]
 		str = bytes[offset:offset + length]
 		strings.append(str)
 		offset += length
 
-	buffer = DLPythonStringBuffer(np.array(strings))
+	buffer = DLPythonStringBuffer(np.array(strings).reshape(header.shape), header.batched)
 	return buffer
 
@@ -49,16 +49,17 @@ import sys
 import numpy as np
 
 sys.path.insert(0, os.path.dirname(os.path.abspath(__file__)))
-from DLPythonDataBuffers import DLPythonStringBuffer
+from DLPythonDataBuffers import DLPythonStringBuffer, DLPythonTensorHeader, TYPE_STRING
 
 def serialize(value):
 	if not value.array.dtype == np.object:
-		value = DLPythonStringBuffer(value.array.astype(np.object))
+		value = DLPythonStringBuffer(value.array.astype(np.object), value.batched)
 	array = value.array
-	array = array.ravel()
 	buffer = BytesIO(bytes())
-	buffer.write(len(array).to_bytes(4, 'little'))
-	lengths = np.array([len(s) for s in array], dtype=np.int32)
+	# the header is followed by the lengths of the strings and the strings themselves
+	buffer.write(DLPythonTensorHeader(TYPE_STRING, array.shape, value.batched).to_bytes())
+	array = array.ravel()
+	lengths = np.array([len(s) for s in array], dtype='<i4')
 	buffer.write(lengths.tobytes())
 	for str in array:
 		buffer.write(str)
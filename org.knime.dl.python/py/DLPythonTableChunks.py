@@ -0,0 +1,95 @@
+# -*- coding: utf-8 -*-
+
+# ------------------------------------------------------------------------
+#  Copyright by KNIME AG, Zurich, Switzerland
+#  Website: http://www.knime.com; Email: contact@knime.com
+#
+#  This program is free software; you can redistribute it and/or modify
+#  it under the terms of the GNU General Public License, Version 3, as
+#  published by the Free Software Foundation.
+#
+#  This program is distributed in the hope that it will be useful, but
+#  WITHOUT ANY WARRANTY; without even the implied warranty of
+#  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+#  GNU General Public License for more details.
+#
+#  You should have received a copy of the GNU General Public License
+#  along with this program; if not, see <http://www.gnu.org/licenses>.
+#
+#  Additional permission under GNU GPL version 3 section 7:
+#
+#  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+#  Hence, KNIME and ECLIPSE are both independent programs and are not
+#  derived from each other. Should, however, the interpretation of the
+#  GNU GPL Version 3 ("License") under any applicable laws result in
+#  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+#  you the additional permission to use and propagate KNIME together with
+#  ECLIPSE with only the license terms in place for ECLIPSE applying to
+#  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+#  license terms of ECLIPSE themselves allow for the respective use and
+#  propagation of ECLIPSE together with KNIME.
+#
+#  Additional permission relating to nodes for KNIME that extend the Node
+#  Extension (and in particular that are based on subclasses of NodeModel,
+#  NodeDialog, and NodeView) and that only interoperate with KNIME through
+#  standard APIs ("Nodes"):
+#  Nodes are deemed to be separate and independent programs and to not be
+#  covered works.  Notwithstanding anything to the contrary in the
+#  License, the License does not apply to Nodes, you are not required to
+#  license Nodes under the License, and you are granted a license to
+#  prepare and propagate Nodes, in each case even if such Nodes are
+#  propagated with or for interoperation with KNIME.  The owner of a Node
+#  may freely choose the license terms applicable to such Node, including
+#  when such Node is propagated with or for interoperation with KNIME.
+# ------------------------------------------------------------------------
+
+'''
+@author agent
+'''
+
+import DLPythonKernelGateway
+from messaging.AbstractTaskHandler import AbstractTaskHandler
+from messaging.Message import Message
+from messaging.Message import PayloadEncoder
+
+
+class DLPythonTableChunkIterator(object):
+    """
+    Iterates over the chunks of an input table. Each chunk is a data frame that is requested from Java only when it is
+    needed, so at most one chunk of the table resides in memory at a time (unless the consumer keeps references to the
+    chunks).
+    """
+
+    def __init__(self, table_name, chunk_variable_name, reply_to):
+        self._table_name = table_name
+        self._chunk_variable_name = chunk_variable_name
+        self._reply_to = str(reply_to)
+        self._commands = DLPythonKernelGateway.kernel_commands()
+        self._messaging = self._commands._messaging
+        self._exhausted = False
+
+    def __iter__(self):
+        return self
+
+    def __next__(self):
+        if self._exhausted:
+            raise StopIteration
+        workspace = DLPythonKernelGateway.global_workspace()
+        # Java does not transfer anything once the table is exhausted
+        workspace.pop(self._chunk_variable_name, None)
+        payload = PayloadEncoder().put_string(self._table_name).payload
+        self.request_from_java('request_table_chunk', payload)
+        chunk = workspace.pop(self._chunk_variable_name, None)
+        if chunk is None:
+            self._exhausted = True
+            raise StopIteration
+        return chunk
+
+    def request_from_java(self, message_category, payload):
+        message = Message(self._messaging.create_next_message_id(), self._reply_to, payload,
+                          {AbstractTaskHandler.FIELD_KEY_MESSAGE_TYPE: message_category})
+        self._commands.create_task(DLPythonTableChunkIterator._RequestTaskHandler(), message).get()
+
+    class _RequestTaskHandler(AbstractTaskHandler):
+        def _handle_success_message(self, message):
+            return None
@@ -49,8 +49,10 @@ import sys
 import numpy as np
 
 sys.path.insert(0, os.path.dirname(os.path.abspath(__file__)))
-from DLPythonDataBuffers import DLPythonUnsignedByteBuffer
+from DLPythonDataBuffers import DLPythonUnsignedByteBuffer, DLPythonTensorHeader, TYPE_UNSIGNED_BYTE
 
 def deserialize(bytes):
-	return DLPythonUnsignedByteBuffer(np.frombuffer(bytes, dtype=np.uint8))
+	header = DLPythonTensorHeader.from_bytes(bytes, TYPE_UNSIGNED_BYTE)
+	array = np.frombuffer(bytes, dtype=header.dtype(np.uint8), offset=header.size).reshape(header.shape)
+	return DLPythonUnsignedByteBuffer(array, header.batched)
 
@@ -54,14 +54,21 @@
 import java.util.Set;
 
 import org.knime.base.node.util.exttool.ExtToolOutputNodeModel;
+import org.knime.core.data.container.CloseableRowIterator;
 import org.knime.core.data.filestore.FileStore;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.ExecutionMonitor;
 import org.knime.core.node.InvalidSettingsException;
 import org.knime.core.node.NodeLogger;
 import org.knime.core.node.NodeSettingsRO;
 import org.knime.core.node.NodeSettingsWO;
 import org.knime.core.node.port.PortType;
 import org.knime.core.node.workflow.FlowVariable;
-import org.knime.core.node.workflow.FlowVariable.Type;
+import org.knime.core.node.workflow.VariableType;
+import org.knime.core.node.workflow.VariableType.BooleanType;
+import org.knime.core.node.workflow.VariableType.IntType;
+import org.knime.core.node.workflow.VariableType.StringType;
+import org.knime.core.node.workflow.VariableTypeRegistry;
 import org.knime.core.util.asynclose.AsynchronousCloseableTracker;
 import org.knime.dl.core.DLCancelable;
 import org.knime.dl.core.DLCanceledExecutionException;
@@ -83,6 +90,8 @@
 import org.knime.python2.config.PythonFlowVariableOptions;
 import org.knime.python2.config.PythonSourceCodeConfig;
 import org.knime.python2.extensions.serializationlibrary.SerializationOptions;
+import org.knime.python2.extensions.serializationlibrary.interfaces.TableChunker;
+import org.knime.python2.extensions.serializationlibrary.interfaces.impl.BufferedDataTableChunker;
 import org.knime.python2.kernel.PythonCancelable;
 import org.knime.python2.kernel.PythonCanceledExecutionException;
 import org.knime.python2.kernel.PythonIOException;
@@ -102,6 +111,22 @@
 
     private static final NodeLogger LOGGER = NodeLogger.getLogger(DLPythonNodeModel.class);
 
+    /**
+     * Name of the flow variable that switches the input table transfer to chunked mode. If the variable is set to
+     * <code>true</code> (as a boolean or string, or as a non-zero integer), the input table is not transferred into the
+     * workspace as a whole. Instead, the script iterates over the input table in data frames of at most the configured
+     * number of rows per chunk, using the variable that is named like the input table plus
+     * {@link #CHUNKED_INPUT_VARIABLE_SUFFIX}. Chunks are transferred on demand, so only one of them needs to fit into
+     * memory at a time. Chunked mode relies on internals of the KNIME Python kernel and fails if the installed version of
+     * the KNIME Python integration does not provide them.
+     */
+    public static final String CHUNKED_INPUT_FLOW_VARIABLE = "dl_python_chunked_input";
+
+    /**
+     * Suffix of the name of the variable via which scripts iterate over the chunks of an input table in chunked mode.
+     */
+    public static final String CHUNKED_INPUT_VARIABLE_SUFFIX = "_chunks";
+
     static final PythonCommand getDefaultPythonCommand() {
         return DLPythonPreferences.getPythonCommandPreference();
     }
@@ -207,6 +232,73 @@ protected void onDispose() {
         m_kernelShutdownTracker.waitForAllToClose();
     }
 
+    /**
+     * @return true if the input table is transferred in chunks, see {@link #CHUNKED_INPUT_FLOW_VARIABLE}
+     */
+    protected final boolean isChunkedInput() {
+        return isChunkedInput(getAvailableFlowVariables(VariableTypeRegistry.getInstance().getAllTypes())
+            .get(CHUNKED_INPUT_FLOW_VARIABLE));
+    }
+
+    /**
+     * @param variable the {@link #CHUNKED_INPUT_FLOW_VARIABLE} flow variable, may be <code>null</code>
+     * @return true if the flow variable is a boolean variable that is <code>true</code>, an integer variable that is
+     *         not zero or a string variable that is <code>"true"</code> (ignoring case), false otherwise
+     */
+    static boolean isChunkedInput(final FlowVariable variable) {
+        if (variable == null) {
+            return false;
+        }
+        final VariableType<?> type = variable.getVariableType();
+        if (type.equals(BooleanType.INSTANCE)) {
+            return variable.getValue(BooleanType.INSTANCE);
+        } else if (type.equals(IntType.INSTANCE)) {
+            return variable.getValue(IntType.INSTANCE) != 0;
+        } else if (type.equals(StringType.INSTANCE)) {
+            final String value = variable.getValue(StringType.INSTANCE).trim();
+            if (!value.equalsIgnoreCase("true") && !value.equalsIgnoreCase("false")) {
+                LOGGER.warn("Flow variable '" + CHUNKED_INPUT_FLOW_VARIABLE + "' has the unsupported value '" + value
+                    + "'. Expected 'true' or 'false'. The input table is transferred as a whole.");
+            }
+            return Boolean.parseBoolean(value);
+        } else {
+            LOGGER.warn("Flow variable '" + CHUNKED_INPUT_FLOW_VARIABLE + "' is of the unsupported type '" + type
+                + "'. Expected a boolean, integer or string flow variable. The input table is transferred as a whole.");
+            return false;
+        }
+    }
+
+    /**
+     * Executes the given source code on the given input table. The table is either transferred as a whole before
+     * execution or streamed in chunks during execution, depending on {@link #isChunkedInput()}.
+     *
+     * @param context the Python context
+     * @param code the source code
+     * @param inputTableName the name of the input table variable
+     * @param inputTable the input table
+     * @param exec the monitor of the table transfer
+     * @param cancelable to check if execution has been canceled
+     * @return stdout at index 0 and stderr at index 1
+     * @throws Exception if transferring the table or executing the source code failed
+     */
+    protected final String[] executeOnInputTable(final DLPythonContext context, final String code,
+        final String inputTableName, final BufferedDataTable inputTable, final ExecutionMonitor exec,
+        final DLCancelable cancelable) throws Exception {
+        if (!isChunkedInput()) {
+            context.getKernel().putDataTable(inputTableName, inputTable, exec);
+            return context.executeInKernel(code, cancelable);
+        }
+        try (final CloseableRowIterator rows = inputTable.iteratorFailProve()) {
+            final TableChunker tableChunker =
+                new BufferedDataTableChunker(inputTable.getDataTableSpec(), rows, inputTable.size());
+            final String[] output = context.executeInKernel(code,
+                Collections.singletonMap(inputTableName + CHUNKED_INPUT_VARIABLE_SUFFIX, tableChunker),
+                getConfig().getChunkSize(), cancelable);
+            exec.setProgress(1);
+            return output;
+        }
+    }
+
 	/**
 	 * Push new variables to the stack. Only pushes new variables to the stack if they are new or changed in type or
 	 * value.
@@ -134,9 +134,9 @@ protected PortObject[] execute(final PortObject[] inData, final ExecutionContext
 			final DLPythonNetwork network = portObject.getNetwork(getPythonCommand());
             setupNetwork(network, context, cancelable);
 			exec.createSubProgress(0.1).setProgress(1);
-			context.getKernel().putDataTable(DLPythonExecutorNodeConfig.getVariableNames().getInputTables()[0], inTable,
-					exec.createSubProgress(0.2));
-			final String[] output = context.executeInKernel(getConfig().getSourceCode(), cancelable);
+			final String[] output = executeOnInputTable(context, getConfig().getSourceCode(),
+					DLPythonExecutorNodeConfig.getVariableNames().getInputTables()[0], inTable,
+					exec.createSubProgress(0.2), cancelable);
 			updateStdoutStderr(output);
 			exec.createSubProgress(0.4).setProgress(1);
 			final Collection<FlowVariable> variables = context.getKernel()
@@ -171,10 +171,10 @@ protected PortObject[] execute(final PortObject[] inData, final ExecutionContext
 			String[] output = context.executeInKernel(loadBackendCode, cancelable);
 			updateStdoutStderr(output);
 			exec.createSubProgress(0.1).setProgress(1);
-			context.getKernel().putDataTable(DLPythonLearnerNodeConfig.getVariableNames().getInputTables()[0], inTable,
-					exec.createSubProgress(0.2));
 			final String outputNetworkName = DLPythonLearnerNodeConfig.getVariableNames().getGeneralOutputObjects()[0];
-			output = context.executeInKernel(getConfig().getSourceCode(), cancelable);
+			output = executeOnInputTable(context, getConfig().getSourceCode(),
+					DLPythonLearnerNodeConfig.getVariableNames().getInputTables()[0], inTable,
+					exec.createSubProgress(0.2), cancelable);
 			updateStdoutStderr(output);
 			checkExecutePostConditions(context, cancelable);
 			output = context.executeInKernel("import DLPythonNetwork\n" + //
@@ -50,32 +50,28 @@
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
-import java.util.concurrent.FutureTask;
-import java.util.concurrent.RunnableFuture;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
-import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
-import java.util.function.Function;
 import java.util.function.IntSupplier;
 import java.util.stream.Collectors;
 
 import org.knime.core.node.NodeLogger;
-import org.knime.core.util.ThreadUtils;
 import org.knime.core.util.Version;
 import org.knime.dl.core.DLCancelable;
 import org.knime.dl.core.DLCanceledExecutionException;
@@ -89,8 +85,10 @@
 import org.knime.dl.core.training.DLReportedMetric;
 import org.knime.dl.core.training.DLTrainingMonitor;
 import org.knime.dl.python.core.data.DLPythonDataBuffer;
+import org.knime.dl.python.core.data.DLPythonSharedMemoryTransfer;
 import org.knime.dl.python.core.data.serde.DLPythonDeserializer;
 import org.knime.dl.python.core.data.serde.DLPythonDeserializerFactory;
+import org.knime.dl.python.core.data.serde.DLPythonTensorHeader;
 import org.knime.dl.python.core.data.serde.DLSerializerFactory;
 import org.knime.dl.python.core.training.DLPythonTrainingStatus;
 import org.knime.dl.python.util.DLPythonSourceCodeBuilder;
@@ -115,7 +113,6 @@
 import org.knime.python2.extensions.serializationlibrary.interfaces.impl.TableSpecImpl;
 import org.knime.python2.kernel.Python2KernelBackend;
 import org.knime.python2.kernel.PythonCommands;
-import org.knime.python2.kernel.PythonExecutionMonitor;
 import org.knime.python2.kernel.PythonIOException;
 import org.knime.python2.kernel.PythonKernel;
 import org.knime.python2.kernel.PythonOutputListener;
@@ -124,11 +121,7 @@
 import org.knime.python2.kernel.messaging.DefaultMessage;
 import org.knime.python2.kernel.messaging.DefaultMessage.PayloadDecoder;
 import org.knime.python2.kernel.messaging.Message;
-import org.knime.python2.kernel.messaging.MessageHandler;
-import org.knime.python2.kernel.messaging.MessageHandlerCollection;
-import org.knime.python2.kernel.messaging.MessageSender;
 import org.knime.python2.kernel.messaging.PythonMessaging;
-import org.knime.python2.kernel.messaging.TaskHandler;
 import org.knime.python2.util.PythonUtils;
 
 import com.google.common.collect.Sets;
@@ -164,8 +157,6 @@ public abstract class DLPythonAbstractCommands implements DLPythonCommands {
 
     public static final String OUTPUT_TABLE_NAME = "output_table";
 
-    public static final String OUTPUT_SHAPES_NAME = "output_shapes";
-
     /** Name of the 'python version' DataFrame in python */
     public static final String PYTHON_VERSION_NAME = "python_version";
 
@@ -185,6 +176,25 @@ public abstract class DLPythonAbstractCommands implements DLPythonCommands {
 
     private final Map<DLTensorId, DLPythonTableChunker> m_tableChunkers = new HashMap<>();
 
+    /**
+     * Outputs of the most recent network execution that were already fetched from Python to read the shapes from
+     * their {@link DLPythonTensorHeader tensor headers}. Consumed by the next call to {@link #getNetworkOutputs}. Not
+     * used if the shared memory transfer is enabled, which only transfers the headers.
+     */
+    private final Map<DLTensorId, DLPythonSerializedOutput> m_fetchedOutputs = new HashMap<>();
+
+    /**
+     * The execution plan that was most recently registered in Python, <code>null</code> if none was registered yet.
+     * Network and requested outputs stay the same for all batches of an execution, so the plan is registered once
+     * and each batch only triggers it.
+     */
+    private DLPythonExecutionPlan m_executionPlan;
+
+    /**
+     * Lazily instantiated if the shared memory transfer is {@link DLPythonSharedMemoryTransfer#isEnabled() enabled}.
+     */
+    private DLPythonSharedMemoryTransfer m_sharedMemoryTransfer;
+
     /**
      * Set to <code>true</code> if the setup steps in {@link #getContext()} were successful.
      */
@@ -340,6 +350,10 @@ public void saveNetwork(final DLPythonNetworkHandle network, final String path,
     public void setNetworkInputs(final DLPythonNetworkHandle network,
         final Map<? extends DLTensorId, ? extends DLTensor<? extends DLWritableBuffer>> inputs,
         final DLCancelable cancelable) throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
+        if (isSharedMemoryTransferApplicable(inputs.values())) {
+            setNetworkInputsViaSharedMemory(inputs, cancelable);
+            return;
+        }
         for (final Entry<? extends DLTensorId, ? extends DLTensor<? extends DLWritableBuffer>> input : inputs
             .entrySet()) {
             final DLTensorId tensorIdentifier = input.getKey();
@@ -358,65 +372,48 @@ public void setNetworkInputs(final DLPythonNetworkHandle network,
     public void executeNetwork(final DLPythonNetworkHandle network, final Set<? extends DLTensorId> requestedOutputs,
         final long batchSize, final DLCancelable cancelable)
         throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
+        m_fetchedOutputs.clear();
+        if (m_executionPlan == null || !m_executionPlan.isFor(network, requestedOutputs)) {
+            m_executionPlan = registerExecutionPlan(network, requestedOutputs, cancelable);
+        }
+        getContext(cancelable).executeInKernel(m_executionPlan.getRunCode(batchSize), cancelable);
+    }
+
+    private DLPythonExecutionPlan registerExecutionPlan(final DLPythonNetworkHandle network,
+        final Set<? extends DLTensorId> requestedOutputs, final DLCancelable cancelable)
+        throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
         final String outputIdentifiers = requestedOutputs.stream().map((id) -> "'" + id.getIdentifierString() + "'")
             .collect(Collectors.joining(", ", "[", "]"));
+        // NB: The output shapes travel along with the outputs in their tensor headers.
         final DLPythonSourceCodeBuilder b = DLPythonUtils.createSourceCodeBuilder() //
             .a("import DLPythonNetwork") //
-            .n("network = DLPythonNetwork.get_network(").as(network.getIdentifier()).a(")") //
-            .n("in_data = {}") //
-            .n("for input_spec in network.spec.input_specs:") //
-            .n().t().a("in_data[input_spec.identifier] = globals()[input_spec.identifier]") //
-            .n("out_data = network.execute(in_data, ").a(batchSize).a(", ").a(outputIdentifiers).a(")") //
-            .n("import pandas as pd") //
-            .n("output_shapes = {}") //
-            .n("for name, data in out_data.items():") //
-            .n().t().a("shape = [list(data.iloc[0][0].array.shape)]").n().t()
-            .a("output_shapes[name] = [-1 if d is None else d for d in shape]") // replace None with -1
-            .n().t().a("globals()[name] = data").n("globals()[").as(OUTPUT_SHAPES_NAME)
-            .a("] = pd.DataFrame(output_shapes)");
+            .n("DLPythonNetwork.register_execution_plan(").as(network.getIdentifier()).a(", ")
+            /**/ .a(outputIdentifiers).a(")");
         getContext(cancelable).executeInKernel(b.toString(), cancelable);
+        return new DLPythonExecutionPlan(network, requestedOutputs);
     }
 
     @Override
     public <T extends DLTensorId> Map<T, long[]> getNetworkOutputShapes(final DLPythonNetworkHandle network,
         final Set<T> outputs, final DLCancelable cancelable)
         throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
+        if (DLPythonSharedMemoryTransfer.isEnabled()) {
+            return getNetworkOutputShapesViaSharedMemory(outputs, cancelable);
+        }
         final Map<T, long[]> shapes = new HashMap<>(outputs.size());
-        final Map<String, T> idMap =
-            outputs.stream().collect(Collectors.toMap(DLTensorId::getIdentifierString, Function.identity()));
-        getContext(cancelable).getDataFromKernel(OUTPUT_SHAPES_NAME,
-            (tableSpec, tableSize) -> new TableCreator<Object>() {
-
-                @Override
-                public void addRow(final Row row) {
-                    final String[] tensorNames = tableSpec.getColumnNames();
-                    for (int i = 0; i < tensorNames.length; i++) {
-                        final Cell shapeCell = row.getCell(i);
-                        try {
-                            final int[] intShape = shapeCell.getIntegerArrayValue();
-                            if (idMap.containsKey(tensorNames[i])) {
-                                shapes.put(idMap.get(tensorNames[i]),
-                                    Arrays.stream(intShape).mapToLong(d -> d).toArray());
-                            }
-                        } catch (final IllegalStateException e) {
-                            LOGGER.error(
-                                "An exception occurred while collecting output shapes from Python: " + e.getMessage(),
-                                e);
-                        }
-                    }
-                }
-
-                @Override
-                public TableSpec getTableSpec() {
-                    return tableSpec;
-                }
-
-                @Override
-                public Object getTable() {
-                    return null;
-                }
-
-            }, cancelable);
+        // The outputs are fetched only once, the next call to getNetworkOutputs deserializes the fetched bytes.
+        for (final T output : outputs) {
+            DLPythonSerializedOutput serialized = m_fetchedOutputs.get(output);
+            if (serialized == null) {
+                serialized = fetchSerializedOutput(output, cancelable);
+                m_fetchedOutputs.put(output, serialized);
+            }
+            try {
+                shapes.put(output, DLPythonTensorHeader.read(ByteBuffer.wrap(serialized.m_bytes)).getShape());
+            } catch (final IllegalStateException e) {
+                LOGGER.error("An exception occurred while collecting output shapes from Python: " + e.getMessage(), e);
+            }
+        }
         // ensure that we have a shape for each output tensor
         if (shapes.size() != outputs.size()) {
             throw new IllegalStateException(
@@ -431,58 +428,70 @@ public Object getTable() {
     public void getNetworkOutputs(final DLPythonNetworkHandle network,
         final Map<? extends DLTensorId, ? extends DLTensor<? extends DLReadableBuffer>> outputs,
         final DLCancelable cancelable) throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
+        if (isSharedMemoryTransferApplicable(outputs.values())) {
+            getNetworkOutputsViaSharedMemory(outputs, cancelable);
+            return;
+        }
         for (final Entry<? extends DLTensorId, ? extends DLTensor<? extends DLReadableBuffer>> output : outputs
             .entrySet()) {
             final DLTensorId tensorIdentifier = output.getKey();
             final DLTensor<? extends DLReadableBuffer> tensor = output.getValue();
-
-            getContext(cancelable).getDataFromKernel(tensorIdentifier.getIdentifierString(),
-                (tableSpec, tableSize) -> new TableCreator<DLTensor<? extends DLReadableBuffer>>() {
-
-                    @Override
-                    public void addRow(final Row row) {
-                        final String deserializerId =
-                            tableSpec.getColumnSerializers().get(tensorIdentifier.getIdentifierString());
-                        final DeserializerFactory deserializerFactory =
-                            PythonToKnimeExtensions.getExtension(deserializerId).getJavaDeserializerFactory();
-                        if (!(deserializerFactory instanceof DLPythonDeserializerFactory)) {
-                            LOGGER.coding(
-                                "Deep learning Python to KNIME serialization factory must implement DLSerializerFactory.");
-                        }
-                        final Deserializer deserializer = deserializerFactory.createDeserializer();
-                        if (!(deserializer instanceof DLPythonDeserializer)) {
-                            final String msg =
-                                "An exception occurred while collecting network output from Python. Unsupported deserializer.";
-                            LOGGER.error(msg);
-                            // TODO
-                            throw new RuntimeException(msg);
-                        }
-                        final Cell cell = row.getCell(0);
-                        try {
-                            ((DLPythonDeserializer)deserializer).deserialize(cell.getBytesValue(), tensor);
-                        } catch (final IllegalStateException e) {
-                            LOGGER.error(
-                                "An exception occurred while collecting network output from Python: " + e.getMessage(),
-                                e);
-                        }
-                    }
-
-                    @Override
-                    public TableSpec getTableSpec() {
-                        return tableSpec;
-                    }
-
-                    @Override
-                    public DLTensor<? extends DLReadableBuffer> getTable() {
-                        return tensor;
-                    }
-                }, cancelable);
+            DLPythonSerializedOutput serialized = m_fetchedOutputs.remove(tensorIdentifier);
+            if (serialized == null) {
+                serialized = fetchSerializedOutput(tensorIdentifier, cancelable);
+            }
+            final DeserializerFactory deserializerFactory =
+                PythonToKnimeExtensions.getExtension(serialized.m_deserializerId).getJavaDeserializerFactory();
+            if (!(deserializerFactory instanceof DLPythonDeserializerFactory)) {
+                LOGGER.coding(
+                    "Deep learning Python to KNIME serialization factory must implement DLSerializerFactory.");
+            }
+            final Deserializer deserializer = deserializerFactory.createDeserializer();
+            if (!(deserializer instanceof DLPythonDeserializer)) {
+                final String msg =
+                    "An exception occurred while collecting network output from Python. Unsupported deserializer.";
+                LOGGER.error(msg);
+                // TODO
+                throw new RuntimeException(msg);
+            }
+            try {
+                ((DLPythonDeserializer)deserializer).deserialize(serialized.m_bytes, tensor);
+            } catch (final IllegalStateException e) {
+                LOGGER.error("An exception occurred while collecting network output from Python: " + e.getMessage(),
+                    e);
+            }
         }
     }
 
+    private DLPythonSerializedOutput fetchSerializedOutput(final DLTensorId tensorIdentifier,
+        final DLCancelable cancelable) throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
+        final String identifier = tensorIdentifier.getIdentifierString();
+        return (DLPythonSerializedOutput)getContext(cancelable).getDataFromKernel(identifier,
+            (tableSpec, tableSize) -> new TableCreator<DLPythonSerializedOutput>() {
+
+                private DLPythonSerializedOutput m_output;
+
+                @Override
+                public void addRow(final Row row) {
+                    m_output = new DLPythonSerializedOutput(tableSpec.getColumnSerializers().get(identifier),
+                        row.getCell(0).getBytesValue());
+                }
+
+                @Override
+                public TableSpec getTableSpec() {
+                    return tableSpec;
+                }
+
+                @Override
+                public DLPythonSerializedOutput getTable() {
+                    return m_output;
+                }
+            }, cancelable).getTable();
+    }
+
     @Override
     public void trainNetwork(final DLPythonNetworkHandle network, final DLNetworkInputProvider trainingInputProvider,
-        final DLNetworkInputProvider validationInputProvider,
+        final DLNetworkInputProvider validationInputProvider, final long validationDataCacheSize,
         final DLTrainingMonitor<? extends DLPythonTrainingStatus> monitor)
         throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
         final DLPythonContext context = getContext(monitor);
@@ -522,7 +531,8 @@ public void trainNetwork(final DLPythonNetworkHandle network, final DLNetworkInp
         if (validationInputProvider != null) {
             b.n("validation_data_supplier = DLKerasNetworkTrainingInputGenerator(network, ")
                 .a(validationInputProvider.getNumBatches()).a(", network.spec.training_config.validation_batch_size, ")
-                .as("request_validation_data").a(", is_validation_data=True)");
+                .as("request_validation_data").a(", is_validation_data=True, cache_size=")
+                .a(validationDataCacheSize).a(")");
         } else {
             b.n("validation_data_supplier = None");
         }
@@ -535,13 +545,14 @@ public void trainNetwork(final DLPythonNetworkHandle network, final DLNetworkInp
         try {
             final DLPythonNetworkTrainingTaskHandler trainingTaskHandler = createNetworkTrainingTaskHandler(context,
                 monitor, trainingInputProvider, validationInputProvider, this::createSingleTensorTableChunker);
-            // NB: We use our own DLTrainingTask to make sure the message handler is not unregistered.
+            // NB: We use our own DLPythonMessagingTask to make sure the message handler is not unregistered.
             // Unregistering the handler can cause errors if requests for training data come in after the training is done.
             @SuppressWarnings("resource") // Closed by the kernel
             final PythonCommands pythonCommands = kernelBackend.getCommands();
             @SuppressWarnings("resource") // Closed by the kernel
             final PythonMessaging pythonMessaging = pythonCommands.getMessaging();
-            final DLTrainingTask trainingTask = new DLTrainingTask(pythonCommands.createExecuteCommand(b.toString()),
+            final DLPythonMessagingTask<Void> trainingTask = new DLPythonMessagingTask<>(
+                pythonCommands.createExecuteCommand(b.toString()),
                 trainingTaskHandler, pythonMessaging, pythonMessaging,
                 pythonMessaging::createNextMessageId, pythonCommands.getExecutor(),
                 pythonCommands.getMonitor());
@@ -569,11 +580,13 @@ public void trainNetwork(final DLPythonNetworkHandle network, final DLNetworkInp
      */
     @Override
     public synchronized void close() {
+        closeSharedMemoryTransfer();
         m_context.close();
     }
 
     @Override
     public Future<Void> asynchronousClose() throws Exception {
+        closeSharedMemoryTransfer();
         return m_context.asynchronousClose();
     }
 
@@ -639,6 +652,92 @@ protected Version getPythonVersion(final DLCancelable cancelable)
         return new Version(pythonVersion);
     }
 
+    private static boolean isSharedMemoryTransferApplicable(final Collection<? extends DLTensor<?>> tensors) {
+        return DLPythonSharedMemoryTransfer.isEnabled() && tensors.stream()
+            .allMatch(t -> t.getBuffer() instanceof DLPythonDataBuffer
+                && DLPythonSharedMemoryTransfer.supports((DLPythonDataBuffer<?>)t.getBuffer()));
+    }
+
+    private DLPythonSharedMemoryTransfer getSharedMemoryTransfer() throws IOException {
+        if (m_sharedMemoryTransfer == null) {
+            m_sharedMemoryTransfer = new DLPythonSharedMemoryTransfer();
+        }
+        return m_sharedMemoryTransfer;
+    }
+
+    private synchronized void closeSharedMemoryTransfer() {
+        if (m_sharedMemoryTransfer != null) {
+            m_sharedMemoryTransfer.close();
+            m_sharedMemoryTransfer = null;
+        }
+    }
+
+    private void setNetworkInputsViaSharedMemory(
+        final Map<? extends DLTensorId, ? extends DLTensor<? extends DLWritableBuffer>> inputs,
+        final DLCancelable cancelable) throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
+        final DLPythonSharedMemoryTransfer transfer = getSharedMemoryTransfer();
+        final DLPythonSourceCodeBuilder b = DLPythonUtils.createSourceCodeBuilder() //
+            .a("import DLPythonSharedMemoryTransfer");
+        for (final Entry<? extends DLTensorId, ? extends DLTensor<? extends DLWritableBuffer>> input : inputs
+            .entrySet()) {
+            final String identifier = input.getKey().getIdentifierString();
+            final DLTensor<? extends DLWritableBuffer> tensor = input.getValue();
+            final DLPythonDataBuffer<?> buffer = (DLPythonDataBuffer<?>)tensor.getBuffer();
+            final long[] shape = DLUtils.Shapes.getFixedShape(tensor.getSpec().getShape())
+                .orElseThrow(() -> new IllegalStateException("Execution spec does not contain fixed shape."));
+            final long count = buffer.size() - buffer.getNextReadPosition();
+            final Path path = transfer.writeInput(input.getKey(), buffer);
+            b.n("globals()[").as(identifier).a("] = DLPythonSharedMemoryTransfer.read_input(").as(identifier)
+                .a(", ").asr(path.toString()).a(", ").as(DLPythonSharedMemoryTransfer.getNumPyType(buffer))
+                .a(", ").a(count).a(", ").a(shape).a(")");
+        }
+        getContext(cancelable).executeInKernel(b.toString(), cancelable);
+    }
+
+    private <T extends DLTensorId> Map<T, long[]> getNetworkOutputShapesViaSharedMemory(final Set<T> outputs,
+        final DLCancelable cancelable) throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
+        // Only the tensor headers are transferred here, the contents follow in getNetworkOutputs. String outputs, which
+        // are not supported by the shared memory transfer, are fetched there via the serialization based transfer.
+        final DLPythonSharedMemoryTransfer transfer = getSharedMemoryTransfer();
+        final DLPythonSourceCodeBuilder b = DLPythonUtils.createSourceCodeBuilder() //
+            .a("import DLPythonSharedMemoryTransfer");
+        for (final T output : outputs) {
+            b.n("DLPythonSharedMemoryTransfer.write_header(globals()[").as(output.getIdentifierString()).a("], ")
+                .asr(transfer.getOutputHeaderPath(output).toString()).a(")");
+        }
+        getContext(cancelable).executeInKernel(b.toString(), cancelable);
+        final Map<T, long[]> shapes = new HashMap<>(outputs.size());
+        for (final T output : outputs) {
+            final Path headerPath = transfer.getOutputHeaderPath(output);
+            shapes.put(output, DLPythonTensorHeader.read(ByteBuffer.wrap(Files.readAllBytes(headerPath))).getShape());
+            Files.deleteIfExists(headerPath);
+        }
+        return shapes;
+    }
+
+    private void getNetworkOutputsViaSharedMemory(
+        final Map<? extends DLTensorId, ? extends DLTensor<? extends DLReadableBuffer>> outputs,
+        final DLCancelable cancelable) throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
+        final DLPythonSharedMemoryTransfer transfer = getSharedMemoryTransfer();
+        // outputs that were fetched in advance are superseded by the contents transferred below
+        outputs.keySet().forEach(m_fetchedOutputs::remove);
+        final DLPythonSourceCodeBuilder b = DLPythonUtils.createSourceCodeBuilder() //
+            .a("import DLPythonSharedMemoryTransfer");
+        for (final Entry<? extends DLTensorId, ? extends DLTensor<? extends DLReadableBuffer>> output : outputs
+            .entrySet()) {
+            final DLPythonDataBuffer<?> buffer = (DLPythonDataBuffer<?>)output.getValue().getBuffer();
+            b.n("DLPythonSharedMemoryTransfer.write_output(globals()[").as(output.getKey().getIdentifierString())
+                .a("], ").asr(transfer.getOutputPath(output.getKey()).toString()).a(", ")
+                .as(DLPythonSharedMemoryTransfer.getNumPyType(buffer)).a(")");
+        }
+        getContext(cancelable).executeInKernel(b.toString(), cancelable);
+        for (final Entry<? extends DLTensorId, ? extends DLTensor<? extends DLReadableBuffer>> output : outputs
+            .entrySet()) {
+            transfer.readOutput(transfer.getOutputPath(output.getKey()),
+                (DLPythonDataBuffer<?>)output.getValue().getBuffer());
+        }
+    }
+
     private TableChunker createSingleTensorTableChunker(final DLTensorId tensorId,
         final DLTensor<? extends DLWritableBuffer> tensor) throws IOException {
         DLPythonTableChunker tableChunker = m_tableChunkers.get(tensorId);
@@ -669,6 +768,8 @@ private static final class DLPythonTableChunker implements TableChunker {
 
         private final Row m_row;
 
+        private final long[] m_exampleShape;
+
         private DLPythonTableChunker(final DLTensor<? extends DLWritableBuffer> tensor) {
             // Create the serializer
             final KnimeToPythonExtension extension = KnimeToPythonExtensions.getExtensions().stream()
@@ -686,6 +787,7 @@ private DLPythonTableChunker(final DLTensor<? extends DLWritableBuffer> tensor)
             final long[] shape = DLUtils.Shapes.getFixedShape(tensor.getSpec().getShape())
                 .orElseThrow(() -> new IllegalStateException("Execution spec does not contain fixed shape."));
             final Cell shapeCell = new CellImpl(shape, getNotMissingForLength(shape.length));
+            m_exampleShape = shape;
 
             // Create the table spec
             final String identifier = tensor.getSpec().getIdentifier().getIdentifierString();
@@ -722,13 +824,69 @@ public TableSpec getTableSpec() {
         }
 
         private void resetWithNextTensor(final DLTensor<? extends DLWritableBuffer> tensor) throws IOException {
-            final Cell cell = new CellImpl(m_serializer.serialize((DLPythonDataBuffer<?>)tensor.getBuffer()));
+            final DLPythonDataBuffer<?> buffer = (DLPythonDataBuffer<?>)tensor.getBuffer();
+            // the last batch might be incomplete
+            final long exampleSize = tensor.getExampleSize();
+            if (exampleSize > 0) {
+                final long[] batchShape = new long[m_exampleShape.length + 1];
+                batchShape[0] = (buffer.size() - buffer.getNextReadPosition()) / exampleSize;
+                System.arraycopy(m_exampleShape, 0, batchShape, 1, m_exampleShape.length);
+                buffer.setShape(batchShape);
+            }
+            final Cell cell = new CellImpl(m_serializer.serialize(buffer));
             m_row.setCell(cell, 0);
             m_iterator.reset();
             m_hasNextChunk = true;
         }
     }
 
+    private static final class DLPythonExecutionPlan {
+
+        private final DLPythonNetworkHandle m_network;
+
+        private final Set<DLTensorId> m_requestedOutputs;
+
+        private long m_runCodeBatchSize = -1;
+
+        private String m_runCode;
+
+        private DLPythonExecutionPlan(final DLPythonNetworkHandle network,
+            final Set<? extends DLTensorId> requestedOutputs) {
+            m_network = network;
+            m_requestedOutputs = new HashSet<>(requestedOutputs);
+        }
+
+        private boolean isFor(final DLPythonNetworkHandle network, final Set<? extends DLTensorId> requestedOutputs) {
+            return m_network.getIdentifier().equals(network.getIdentifier())
+                && m_requestedOutputs.equals(requestedOutputs);
+        }
+
+        /**
+         * Only the batch size of the last batch differs from the others, so the code is rarely rebuilt.
+         */
+        private String getRunCode(final long batchSize) {
+            if (batchSize != m_runCodeBatchSize) {
+                m_runCode = DLPythonUtils.createSourceCodeBuilder() //
+                    .a("DLPythonNetwork.run_execution_plan(").as(m_network.getIdentifier()).a(", ").a(batchSize)
+                    .a(")").toString();
+                m_runCodeBatchSize = batchSize;
+            }
+            return m_runCode;
+        }
+    }
+
+    private static final class DLPythonSerializedOutput {
+
+        private final String m_deserializerId;
+
+        private final byte[] m_bytes;
+
+        private DLPythonSerializedOutput(final String deserializerId, final byte[] bytes) {
+            m_deserializerId = deserializerId;
+            m_bytes = bytes;
+        }
+    }
+
     private static final class DLPythonResettableTableIterator implements TableIterator {
 
         private final TableSpec m_tableSpec;
@@ -790,170 +948,6 @@ public String createReader() {
             return m_createReaderStatement;
         }
     }
-
-    /**
-     * COPIED FROM org.knime.python2.kernel.messaging.DefaultTaskFactory.DefaultTaks
-     * </p>
-     * Changes:
-     * <ul>
-     * <li>Replaced generic T by Void</li>
-     * <li>Removed code where the handler is unregisters itself. Requests for training data might come in after the
-     * training is done. In this case this MessageHandler must be still registered to handle the request.</li>
-     * </ul>
-     */
-    private static final class DLTrainingTask implements RunnableFuture<Void>, MessageHandler {
-
-        private static final int RECEIVE_QUEUE_LENGTH = 10;
-
-        private Message m_initiatingMessage;
-
-        private final FutureTask<Void> m_delegateTask = new FutureTask<>(ThreadUtils.callableWithContext(this::runInternal));
-
-        private final TaskHandler<Void> m_delegateTaskHandler;
-
-        private final MessageSender m_messageSender;
-
-        private final MessageHandlerCollection m_messageHandlers;
-
-        private final IntSupplier m_messageIdSupplier;
-
-        private final ExecutorService m_executor;
-
-        private final PythonExecutionMonitor m_monitor;
-
-        private final BlockingQueue<Message> m_receivedMessages = new ArrayBlockingQueue<>(RECEIVE_QUEUE_LENGTH);
-
-        private final List<String> m_registeredMessageCategories = new ArrayList<>(5);
-
-        private final AtomicBoolean m_isRunningOrDone = new AtomicBoolean(false);
-
-        private boolean m_isDone = false;
-
-        private Void m_result = null;
-
-        private String m_taskCategory = null;
-
-        private DLTrainingTask(final Message message, final TaskHandler<Void> taskHandler, final MessageSender sender,
-            final MessageHandlerCollection messageHandlers, final IntSupplier messageIdSupplier,
-            final ExecutorService executor, final PythonExecutionMonitor monitor) {
-            m_initiatingMessage = message;
-            m_delegateTaskHandler = taskHandler;
-            m_messageSender = sender;
-            m_messageHandlers = messageHandlers;
-            m_messageIdSupplier = messageIdSupplier;
-            m_executor = executor;
-            m_monitor = monitor;
-        }
-
-        @Override
-        public boolean isCancelled() {
-            return m_delegateTask.isCancelled();
-        }
-
-        @Override
-        public boolean isDone() {
-            return m_delegateTask.isDone();
-        }
-
-        @Override
-        public void run() {
-            if (m_isRunningOrDone.compareAndSet(false, true)) {
-                m_executor.submit(m_delegateTask);
-            }
-        }
-
-        @Override
-        public boolean cancel(final boolean mayInterruptIfRunning) {
-            return m_delegateTask.cancel(mayInterruptIfRunning);
-        }
-
-        @Override
-        public Void get() throws InterruptedException, ExecutionException {
-            run(); // Start task if not already running.
-            return m_delegateTask.get();
-        }
-
-        @Override
-        public Void get(final long timeout, final TimeUnit unit)
-            throws InterruptedException, ExecutionException, TimeoutException {
-            run(); // Start task if not already running.
-            return m_delegateTask.get(timeout, unit);
-        }
-
-        @Override
-        public boolean handle(final Message message) throws ExecutionException {
-            try {
-                LOGGER.debug("Java - Enqueue message for task, message: " + message + ", initiating message: "
-                    + m_initiatingMessage);
-                if (message == m_monitor.getPoisonPill()) {
-                    do {
-                        m_receivedMessages.clear();
-                    } while (!m_receivedMessages.offer(message));
-                } else {
-                    m_receivedMessages.put(message);
-                }
-                run(); // Start task if not already running.
-            } catch (final InterruptedException ex) {
-                Thread.currentThread().interrupt();
-                throw new ExecutionException(
-                    "Message handler was interrupted while handling message '" + message + "'.", ex);
-            }
-            return true;
-        }
-
-        private Void runInternal() throws Exception {
-            LOGGER.debug("Java - Run task, initiating message: " + m_initiatingMessage);
-            Message toSend = m_initiatingMessage;
-            while (!m_isDone && !Thread.interrupted()) {
-                if (toSend != null) {
-                    String messageCategory = Integer.toString(toSend.getId());
-                    if (m_taskCategory == null) {
-                        m_taskCategory = messageCategory;
-                    }
-                    if (!m_messageHandlers.registerMessageHandler(messageCategory, this)) {
-                        throw new IllegalStateException(
-                            "Message handler for category '" + messageCategory + "' is already registered.");
-                    } else {
-                        m_registeredMessageCategories.add(messageCategory);
-                    }
-                    m_messageSender.send(toSend);
-                }
-                LOGGER.debug("Java - Wait for message in task, initiating message: " + m_initiatingMessage);
-                final Message received = m_receivedMessages.take();
-                if (received == m_monitor.getPoisonPill()) {
-                    LOGGER.debug("Java - Received poison pill in task, initiating message: " + m_initiatingMessage);
-                    m_monitor.checkExceptions();
-                    throw new IllegalStateException("Java - Task terminated due to an unknown error.");
-                } else {
-                    LOGGER.debug("Java - Received message in task, message: " + received + ", initiating message: "
-                        + m_initiatingMessage);
-                    toSend =
-                        m_delegateTaskHandler.handle(received, m_messageHandlers, m_messageIdSupplier, this::setResult);
-                }
-            }
-            LOGGER.debug("Finishing task handler. Task category: '" + m_taskCategory + "', is done: " + m_isDone +
-                ", is interrupted: " + Thread.interrupted());
-            // Send pending message if any.
-            // This may happen if the act of responding to a message also marks (successful) termination of the task.
-            if (toSend != null) {
-                m_messageSender.send(toSend);
-            }
-
-            // NOTE: We do not unregister this message handler.
-            // Messages for requesting training data might come in after the task is done
-
-            // Message may contain heavy payload. Dereference to obviate memory leak.
-            m_initiatingMessage = null;
-
-            return m_result;
-        }
-
-        private void setResult(final Void result) {
-            m_result = result;
-            m_isDone = true;
-        }
-    }
-
     protected static class DLPythonNetworkTrainingTaskHandler extends AbstractTaskHandler<Void> {
 
         protected final DLPythonContext m_context;
@@ -1034,6 +1028,9 @@ protected boolean handleCustomMessage(final Message message, final IntSupplier r
                     case "batch_end":
                         handleBatchEnd(message);
                         break;
+                    case "batch_metrics":
+                        handleBatchMetrics(message);
+                        break;
                     default:
                         return false;
                 }
@@ -1135,5 +1132,29 @@ private void handleBatchEnd(final Message message) {
                 m_status.validationStarted().raise(null);
             }
         }
+
+        /**
+         * Handles the coalesced metrics of one or more consecutive batches. The payload is a sequence of big-endian
+         * floats that contains the values of all {@link #batchMetrics} (in order) for each reported batch.
+         */
+        private void handleBatchMetrics(final Message message) {
+            final FloatBuffer values = ByteBuffer.wrap(message.getPayload()).asFloatBuffer();
+            final int numBatches = values.remaining() / batchMetrics.size();
+            final List<Map<String, DLReportedMetric>> metrics = new ArrayList<>(numBatches);
+            for (int i = 0; i < numBatches; i++) {
+                final LinkedHashMap<String, DLReportedMetric> m = new LinkedHashMap<>(4);
+                for (final String name : batchMetrics.keySet()) {
+                    m.put(name, new DLReportedMetric(name, values.get()));
+                }
+                metrics.add(m);
+            }
+            m_status.batchesEnded().raise(metrics);
+            // Start validation phase if validation is enabled and we finished the last training batch of the
+            // epoch. Python always flushes its pending metrics at the end of an epoch.
+            if (m_validationInputProvider != null
+                && m_status.getCurrentBatchInEpoch() == m_status.getNumBatchesPerEpoch() - 1) {
+                m_status.validationStarted().raise(null);
+            }
+        }
     }
 }
@@ -56,7 +56,11 @@
 import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.apache.commons.io.IOUtils;
 import org.knime.dl.core.DLCancelable;
@@ -64,6 +68,7 @@
 import org.knime.dl.core.DLInvalidEnvironmentException;
 import org.knime.dl.core.DLUncheckedException;
 import org.knime.dl.python.prefs.DLPythonPreferences;
+import org.knime.dl.python.util.DLPythonSourceCodeBuilder;
 import org.knime.dl.python.util.DLPythonUtils;
 import org.knime.python.typeextension.PythonModuleExtensions;
 import org.knime.python2.PythonCommand;
@@ -74,11 +79,14 @@
 import org.knime.python2.kernel.Python2KernelBackend;
 import org.knime.python2.kernel.PythonCancelable;
 import org.knime.python2.kernel.PythonCanceledExecutionException;
+import org.knime.python2.kernel.PythonCommands;
 import org.knime.python2.kernel.PythonException;
 import org.knime.python2.kernel.PythonKernel;
 import org.knime.python2.kernel.PythonKernelCleanupException;
 import org.knime.python2.kernel.PythonKernelOptions;
 import org.knime.python2.kernel.PythonKernelQueue;
+import org.knime.python2.kernel.messaging.PythonMessaging;
+import org.knime.python2.util.PythonUtils;
 
 import com.google.common.base.Strings;
 
@@ -89,6 +97,11 @@
  */
 public abstract class DLPythonAbstractContext implements DLPythonContext {
 
+    /**
+     * Interval in milliseconds in which executions that answer requests from Python check for cancellation.
+     */
+    private static final long CANCELLATION_CHECK_INTERVAL = 200;
+
     private PythonKernel m_kernel;
 
     /**
@@ -197,6 +210,52 @@ public String[] executeAsyncInKernel(final String code, final DLCancelable cance
         return null;
     }
 
+    @Override
+    @SuppressWarnings("resource") // Kernel, back end, commands and messaging are closed in #close
+    public String[] executeInKernel(final String code, final Map<String, TableChunker> tableChunkers,
+        final int rowsPerChunk, final DLCancelable cancelable)
+        throws DLCanceledExecutionException, DLInvalidEnvironmentException, IOException {
+        final DLPythonSourceCodeBuilder b = DLPythonUtils.createSourceCodeBuilder() //
+            .a("import DLPythonKernelGateway") //
+            .n("DLPythonKernelGateway._instance = DLPythonKernelGateway.DLPythonKernelGateway(globals())") //
+            .n("from DLPythonTableChunks import DLPythonTableChunkIterator");
+        for (final String name : tableChunkers.keySet()) {
+            b.n(name).a(" = DLPythonTableChunkIterator(").as(name).a(", ")
+                .as(DLPythonChunkedInputTaskHandler.getChunkVariableName(name))
+                .a(", DLPythonKernelGateway.initiating_message_id())");
+        }
+        b.n(code);
+        final PythonCommands commands = getLegacyKernelBackend(getKernel()).getCommands();
+        final PythonMessaging messaging = commands.getMessaging();
+        final DLPythonMessagingTask<String[]> task = new DLPythonMessagingTask<>(
+            commands.createExecuteCommand(b.toString()),
+            new DLPythonChunkedInputTaskHandler(this, tableChunkers, rowsPerChunk, cancelable), messaging, messaging,
+            messaging::createNextMessageId, commands.getExecutor(), commands.getMonitor());
+        task.run();
+        try {
+            while (true) {
+                try {
+                    return task.get(CANCELLATION_CHECK_INTERVAL, TimeUnit.MILLISECONDS);
+                } catch (final TimeoutException ex) { // NOSONAR we only poll
+                    try {
+                        cancelable.checkCanceled();
+                    } catch (final DLCanceledExecutionException e) {
+                        task.cancel(true);
+                        throw e;
+                    }
+                }
+            }
+        } catch (final ExecutionException ex) {
+            final Throwable cause = PythonUtils.Misc.unwrapExecutionException(ex).orElse(ex);
+            throwNarrowedPythonException(cause instanceof Exception ? (Exception)cause : ex);
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new DLCanceledExecutionException();
+        }
+        // This cannot happen.
+        return null;
+    }
+
     @Override
     @SuppressWarnings("resource") // Kernel is closed in #close
     public void putDataInKernel(final String name, final TableChunker tableChunker, final int rowsPerChunk,
@@ -81,17 +81,30 @@ protected abstract DLPythonAbstractCommands createCommands(DLPythonContext conte
         throws DLInvalidEnvironmentException;
 
     /**
-     * This implementation performs no caching of any test results. The value of {@code forceRefresh} has no effect.
+     * This implementation caches successful test results persistently per back end and Python environment. A cached
+     * result is invalidated once the fingerprint of the environment (Python executable and installed packages)
+     * changes. Failed tests are not cached.
      * <P>
      * {@inheritDoc}
      *
-     * @param forceRefresh Has no effect.
+     * @param forceRefresh if {@code true}, the cache is bypassed and the test is run in any case
      */
     @Override
     public final void checkAvailability(final DLPythonContext context, final boolean forceRefresh,
         final int timeout, final DLCancelable cancelable)
         throws DLMissingDependencyException, DLInstallationTestTimeoutException {
-        new DLPythonInstallationTester().testInstallation(context, timeout, this, cancelable);
+        final String backendId = getNetworkType().getCanonicalName();
+        final DLPythonInstallationTestCache cache = DLPythonInstallationTestCache.getInstance();
+        if (!forceRefresh && cache.isCachedSuccess(backendId, context)) {
+            return;
+        }
+        try {
+            new DLPythonInstallationTester().testInstallation(context, timeout, this, cancelable);
+        } catch (final DLMissingDependencyException ex) {
+            cache.invalidate(backendId, context);
+            throw ex;
+        }
+        cache.putSuccess(backendId, context);
     }
 
     @Override
@@ -0,0 +1,177 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.python.core;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
+
+import org.knime.dl.core.DLCancelable;
+import org.knime.python2.extensions.serializationlibrary.interfaces.TableChunker;
+import org.knime.python2.extensions.serializationlibrary.interfaces.TableIterator;
+import org.knime.python2.extensions.serializationlibrary.interfaces.TableSpec;
+import org.knime.python2.kernel.messaging.AbstractTaskHandler;
+import org.knime.python2.kernel.messaging.DefaultMessage;
+import org.knime.python2.kernel.messaging.DefaultMessage.PayloadDecoder;
+import org.knime.python2.kernel.messaging.Message;
+
+/**
+ * Handles the execution of source code that consumes input tables chunk by chunk. Each time the Python side asks for
+ * the next chunk of a table (message type {@value #MESSAGE_TYPE_REQUEST_TABLE_CHUNK}, the table's name as payload),
+ * the next chunk is transferred into the workspace under the name returned by {@link #getChunkVariableName(String)}.
+ * Nothing is transferred once the table is exhausted. The result of the handled task is the output of the execution
+ * (stdout at index 0 and stderr at index 1).
+ *
+ * @author agent
+ */
+final class DLPythonChunkedInputTaskHandler extends AbstractTaskHandler<String[]> {
+
+    static final String MESSAGE_TYPE_REQUEST_TABLE_CHUNK = "request_table_chunk";
+
+    static String getChunkVariableName(final String tableName) {
+        return "_" + tableName + "_chunk";
+    }
+
+    private final DLPythonContext m_context;
+
+    private final Map<String, TableChunker> m_tableChunkers;
+
+    private final int m_rowsPerChunk;
+
+    private final DLCancelable m_cancelable;
+
+    DLPythonChunkedInputTaskHandler(final DLPythonContext context, final Map<String, TableChunker> tableChunkers,
+        final int rowsPerChunk, final DLCancelable cancelable) {
+        m_context = context;
+        m_tableChunkers = tableChunkers;
+        m_rowsPerChunk = rowsPerChunk;
+        m_cancelable = cancelable;
+    }
+
+    @Override
+    protected String[] handleSuccessMessage(final Message message) throws Exception {
+        final PayloadDecoder decoder = new PayloadDecoder(message.getPayload());
+        final String[] output = new String[2];
+        output[0] = decoder.getNextString();
+        output[1] = decoder.getNextString();
+        return output;
+    }
+
+    @Override
+    protected boolean handleCustomMessage(final Message message, final IntSupplier responseMessageIdSupplier,
+        final Consumer<Message> responseConsumer, final Consumer<String[]> resultConsumer) throws ExecutionException {
+        if (!MESSAGE_TYPE_REQUEST_TABLE_CHUNK.equals(message.getHeaderField(FIELD_KEY_MESSAGE_TYPE))) {
+            return false;
+        }
+        try {
+            final String tableName = new PayloadDecoder(message.getPayload()).getNextString();
+            final TableChunker tableChunker = m_tableChunkers.get(tableName);
+            if (tableChunker == null) {
+                throw new IllegalStateException("Python requested chunks of unknown table '" + tableName + "'.");
+            }
+            m_cancelable.checkCanceled();
+            if (tableChunker.hasNextChunk()) {
+                try {
+                    m_context.putDataInKernel(getChunkVariableName(tableName),
+                        new DLPythonSingleChunkTableChunker(tableChunker, m_rowsPerChunk), m_rowsPerChunk,
+                        m_cancelable);
+                } catch (final IOException ex) {
+                    throw new IOException("Transmitting input data to Python failed.", ex);
+                }
+            }
+            final HashMap<String, String> options = new HashMap<>(1);
+            options.put(FIELD_KEY_MESSAGE_TYPE, MESSAGE_TYPE_SUCCESS);
+            responseConsumer.accept(new DefaultMessage(responseMessageIdSupplier.getAsInt(),
+                Integer.toString(message.getId()), null, options));
+        } catch (final Exception ex) {
+            throw new ExecutionException(ex.getMessage(), ex);
+        }
+        return true;
+    }
+
+    /**
+     * Exposes exactly the next chunk of the underlying table chunker, so that a single transfer does not drain the
+     * whole table.
+     */
+    private static final class DLPythonSingleChunkTableChunker implements TableChunker {
+
+        private final TableChunker m_delegate;
+
+        private final int m_rowsPerChunk;
+
+        private boolean m_hasNextChunk = true;
+
+        private DLPythonSingleChunkTableChunker(final TableChunker delegate, final int rowsPerChunk) {
+            m_delegate = delegate;
+            m_rowsPerChunk = rowsPerChunk;
+        }
+
+        @Override
+        public boolean hasNextChunk() {
+            return m_hasNextChunk && m_delegate.hasNextChunk();
+        }
+
+        @Override
+        public TableIterator nextChunk(final int numRows) {
+            m_hasNextChunk = false;
+            return m_delegate.nextChunk(numRows);
+        }
+
+        @Override
+        public int getNumberRemainingRows() {
+            return m_hasNextChunk ? Math.min(m_delegate.getNumberRemainingRows(), m_rowsPerChunk) : 0;
+        }
+
+        @Override
+        public TableSpec getTableSpec() {
+            return m_delegate.getTableSpec();
+        }
+    }
+}
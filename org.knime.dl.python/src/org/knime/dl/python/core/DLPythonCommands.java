@@ -98,7 +98,9 @@ void executeNetwork(DLPythonNetworkHandle network, Set<? extends DLTensorId> req
 			throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException;
 
 	/**
-	 * Retrieves the shapes of the output tensors from python. </br>
+	 * Retrieves the shapes of the output tensors from python. The shapes are read from the tensor headers of the
+	 * serialized outputs, implementations may keep the fetched outputs for the subsequent call to
+	 * {@link #getNetworkOutputs(DLPythonNetworkHandle, Map, DLCancelable)}. </br>
 	 * <b>NOTE:</b> The first dimension of the returned shapes is the batch dimension, which is treated separately in
 	 * the rest of the DL framework. Unknown dimensions are encoded as -1.
 	 *
@@ -116,15 +118,30 @@ void getNetworkOutputs(DLPythonNetworkHandle network,
 			throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException;
 
 	/**
-	 * @param the network to train
+	 * Same as
+	 * {@link #trainNetwork(DLPythonNetworkHandle, DLNetworkInputProvider, DLNetworkInputProvider, long, DLTrainingMonitor)}
+	 * with a validation data cache size of zero, i.e. validation data is requested from the provider in each epoch.
+	 */
+	default void trainNetwork(final DLPythonNetworkHandle network, final DLNetworkInputProvider trainingInputProvider,
+			final DLNetworkInputProvider validationInputProvider,
+			final DLTrainingMonitor<? extends DLPythonTrainingStatus> monitor)
+			throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException {
+		trainNetwork(network, trainingInputProvider, validationInputProvider, 0, monitor);
+	}
+
+	/**
+	 * @param network the network to train
 	 * @param trainingInputProvider the training data provider
 	 * @param validationInputProvider the validation data provider, may be null in which case no validation will be
 	 *            performed during training
+	 * @param validationDataCacheSize the number of bytes Python may use to keep the validation data resident after the
+	 *            first epoch, zero to request the validation data from the provider in each epoch
 	 * @param monitor the monitor that tracks the progress of the training run. Can be used to report progress, check
 	 *            for cancellation or update the {@link DLTrainingStatus training status}.
 	 */
 	void trainNetwork(DLPythonNetworkHandle network, DLNetworkInputProvider trainingInputProvider,
-			DLNetworkInputProvider validationInputProvider, DLTrainingMonitor<? extends DLPythonTrainingStatus> monitor)
+			DLNetworkInputProvider validationInputProvider, long validationDataCacheSize,
+			DLTrainingMonitor<? extends DLPythonTrainingStatus> monitor)
 			throws DLInvalidEnvironmentException, IOException, DLCanceledExecutionException;
 
 	@Override
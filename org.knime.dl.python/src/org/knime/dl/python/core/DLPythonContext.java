@@ -48,6 +48,7 @@
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Map;
 import java.util.concurrent.Future;
 
 import org.knime.core.util.asynclose.AsynchronousCloseable;
@@ -101,6 +102,24 @@ String[] executeInKernel(final String code, DLCancelable cancelable)
     String[] executeAsyncInKernel(final String code, DLCancelable cancelable)
         throws DLCanceledExecutionException, DLInvalidEnvironmentException, IOException;
 
+    /**
+     * Executes the given source code while streaming the given tables into the kernel. Instead of being transferred
+     * as a whole up front, each table is exposed to the source code as an iterator of data frames (bound to a variable
+     * of the table's name) whose chunks are transferred on demand. This bounds the memory that the input data
+     * occupies on Python side to a single chunk per table.
+     *
+     * @param code the Python source code
+     * @param tableChunkers the tables to stream, keyed by the names of the iterator variables
+     * @param rowsPerChunk the maximum number of rows per chunk
+     * @param cancelable to check if execution has been canceled
+     * @return stdout and stderr in an array list
+     * @throws DLCanceledExecutionException if the execution has been canceled
+     * @throws DLInvalidEnvironmentException if execution failed, i.e. if the Python kernel returns an error output
+     * @throws IOException if an error occurred while communicating with the Python kernel
+     */
+    String[] executeInKernel(String code, Map<String, TableChunker> tableChunkers, int rowsPerChunk,
+        DLCancelable cancelable) throws DLCanceledExecutionException, DLInvalidEnvironmentException, IOException;
+
     void putDataInKernel(String name, final TableChunker tableChunker, final int rowsPerChunk, DLCancelable cancelable)
         throws IOException, DLCanceledExecutionException, DLInvalidEnvironmentException;
 
@@ -0,0 +1,382 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.python.core;
+
+import java.io.File;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.knime.core.data.util.memory.MemoryAlert;
+import org.knime.core.data.util.memory.MemoryAlertListener;
+import org.knime.core.data.util.memory.MemoryAlertSystem;
+import org.knime.core.node.NodeLogger;
+import org.knime.python2.PythonCommand;
+
+/**
+ * Keeps initialized Python kernels, with the executed network already loaded, alive between executions of the same
+ * network. Kernels are keyed by Python command, back end and network, and are shut down after having been idle for a
+ * while, if too many kernels are idle at the same time, or if memory gets low (see {@link MemoryAlertSystem}). Since
+ * idle kernels may hold on to GPU memory, which is not monitored by the memory alert system, idle kernels of other
+ * networks are shut down before a new kernel is started.
+ * <P>
+ * Pooling is disabled by default and can be enabled via VM option {@link #KERNEL_POOL_VM_OPT}. The idle timeout and
+ * the maximum number of idle kernels can be configured via VM options {@link #KERNEL_POOL_IDLE_TIMEOUT_VM_OPT} and
+ * {@link #KERNEL_POOL_MAX_IDLE_VM_OPT}.
+ *
+ * @author agent
+ */
+public final class DLPythonExecutionKernelPool {
+
+    /**
+     * Set to <code>true</code> to enable kernel pooling.
+     */
+    public static final String KERNEL_POOL_VM_OPT = "knime.dl.python.kernelpool";
+
+    /**
+     * The time in seconds after which an idle pooled kernel is shut down.
+     */
+    public static final String KERNEL_POOL_IDLE_TIMEOUT_VM_OPT = "knime.dl.python.kernelpool.idletimeout";
+
+    /**
+     * The maximum number of idle pooled kernels. The least recently released kernels are shut down first if there are
+     * more.
+     */
+    public static final String KERNEL_POOL_MAX_IDLE_VM_OPT = "knime.dl.python.kernelpool.maxidle";
+
+    private static final int DEFAULT_IDLE_TIMEOUT = 300;
+
+    private static final int DEFAULT_MAX_IDLE_KERNELS = 4;
+
+    /**
+     * The interval in seconds in which idle kernels are checked for having exceeded the idle timeout.
+     */
+    private static final int EVICTION_INTERVAL = 30;
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(DLPythonExecutionKernelPool.class);
+
+    private static final DLPythonExecutionKernelPool INSTANCE = new DLPythonExecutionKernelPool();
+
+    /**
+     * @return the singleton instance of this class
+     */
+    public static DLPythonExecutionKernelPool getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return <code>true</code> if kernel pooling was enabled via VM option {@link #KERNEL_POOL_VM_OPT},
+     *         <code>false</code> otherwise
+     */
+    public static boolean isEnabled() {
+        return Boolean.getBoolean(KERNEL_POOL_VM_OPT);
+    }
+
+    private static long getIdleTimeout() {
+        final String timeout = System.getProperty(KERNEL_POOL_IDLE_TIMEOUT_VM_OPT);
+        if (timeout != null) {
+            try {
+                final int parsedTimeout = Integer.parseInt(timeout);
+                if (parsedTimeout >= 0) {
+                    return TimeUnit.SECONDS.toMillis(parsedTimeout);
+                }
+            } catch (final NumberFormatException ex) {
+                // handled below
+            }
+            LOGGER.warn("The VM option -D" + KERNEL_POOL_IDLE_TIMEOUT_VM_OPT + " was set to a non-integer or negative "
+                + "value. Falling back to the default of " + DEFAULT_IDLE_TIMEOUT + " s.");
+        }
+        return TimeUnit.SECONDS.toMillis(DEFAULT_IDLE_TIMEOUT);
+    }
+
+    private static int getMaxIdleKernels() {
+        final String maxIdle = System.getProperty(KERNEL_POOL_MAX_IDLE_VM_OPT);
+        if (maxIdle != null) {
+            try {
+                final int parsedMaxIdle = Integer.parseInt(maxIdle);
+                if (parsedMaxIdle >= 0) {
+                    return parsedMaxIdle;
+                }
+            } catch (final NumberFormatException ex) {
+                // handled below
+            }
+            LOGGER.warn("The VM option -D" + KERNEL_POOL_MAX_IDLE_VM_OPT + " was set to a non-integer or negative "
+                + "value. Falling back to the default of " + DEFAULT_MAX_IDLE_KERNELS + " kernels.");
+        }
+        return DEFAULT_MAX_IDLE_KERNELS;
+    }
+
+    /**
+     * Idle entries, least recently released first.
+     */
+    private final LinkedList<Entry> m_idle = new LinkedList<>();
+
+    private final ScheduledExecutorService m_evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+        final Thread t = new Thread(r, "KNIME-DL-Python-Kernel-Pool-Evictor");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private boolean m_evictorStarted = false;
+
+    private DLPythonExecutionKernelPool() {
+        MemoryAlertSystem.getInstance().addListener(new MemoryAlertListener() {
+
+            @Override
+            protected boolean memoryAlert(final MemoryAlert alert) {
+                evictAll();
+                return false;
+            }
+        });
+    }
+
+    /**
+     * Removes an idle kernel that matches the given key from the pool. The caller takes over the responsibility for
+     * either {@link #release(Entry) releasing} the entry back into the pool or closing its commands.
+     * <P>
+     * If there is no matching kernel, the caller is expected to start a new one. All idle kernels of other keys are shut
+     * down in this case to free the (GPU) memory they hold.
+     *
+     * @param key the key
+     * @return the matching entry or <code>null</code> if there is none
+     */
+    public Entry acquire(final Key key) {
+        final List<Entry> evicted = new ArrayList<>();
+        synchronized (this) {
+            for (final Iterator<Entry> it = m_idle.descendingIterator(); it.hasNext();) {
+                final Entry entry = it.next();
+                if (entry.m_key.equals(key)) {
+                    it.remove();
+                    return entry;
+                }
+            }
+            evicted.addAll(m_idle);
+            m_idle.clear();
+        }
+        close(evicted);
+        return null;
+    }
+
+    /**
+     * Puts the given entry into the pool. The pool takes over the responsibility for closing its commands.
+     *
+     * @param entry the entry, must not currently be in the pool
+     */
+    public void release(final Entry entry) {
+        final List<Entry> evicted = new ArrayList<>(1);
+        final int maxIdleKernels = getMaxIdleKernels();
+        synchronized (this) {
+            entry.m_releasedAt = System.currentTimeMillis();
+            m_idle.addLast(entry);
+            while (m_idle.size() > maxIdleKernels) {
+                evicted.add(m_idle.removeFirst());
+            }
+            if (!m_evictorStarted) {
+                m_evictor.scheduleWithFixedDelay(this::evictExpired, EVICTION_INTERVAL, EVICTION_INTERVAL,
+                    TimeUnit.SECONDS);
+                m_evictorStarted = true;
+            }
+        }
+        close(evicted);
+    }
+
+    /**
+     * Shuts down all idle kernels.
+     */
+    public void evictAll() {
+        final List<Entry> evicted;
+        synchronized (this) {
+            evicted = new ArrayList<>(m_idle);
+            m_idle.clear();
+        }
+        close(evicted);
+    }
+
+    private void evictExpired() {
+        final long expiry = System.currentTimeMillis() - getIdleTimeout();
+        final List<Entry> evicted = new ArrayList<>(1);
+        synchronized (this) {
+            for (final Iterator<Entry> it = m_idle.iterator(); it.hasNext();) {
+                final Entry entry = it.next();
+                if (entry.m_releasedAt <= expiry) {
+                    it.remove();
+                    evicted.add(entry);
+                }
+            }
+        }
+        close(evicted);
+    }
+
+    private static void close(final List<Entry> entries) {
+        for (final Entry entry : entries) {
+            try {
+                entry.m_commands.asynchronousClose();
+            } catch (final Exception ex) {
+                LOGGER.debug("An exception occurred while shutting down a pooled Python kernel. Cause: "
+                    + ex.getMessage(), ex);
+            }
+        }
+    }
+
+    /**
+     * Identifies the Python kernels that may be reused for the execution of a network.
+     */
+    public static final class Key {
+
+        private final PythonCommand m_command;
+
+        private final String m_commandString;
+
+        private final String m_backend;
+
+        private final DLPythonNetwork m_network;
+
+        private final long m_sourceSize;
+
+        private final long m_sourceLastModified;
+
+        private final Map<String, String> m_environment;
+
+        /**
+         * @param context the context whose Python command is used to start the kernel
+         * @param backend identifies the back end, e.g. the type of the execution session
+         * @param network the executed network
+         * @param environment the additional environment variables that are set in the kernel
+         */
+        public Key(final DLPythonDefaultContext context, final String backend, final DLPythonNetwork network,
+            final Map<String, String> environment) {
+            m_command = context.getPythonCommand();
+            m_commandString = m_command.toString();
+            m_backend = backend + ":" + network.getClass().getName();
+            m_network = network;
+            // Guards against network files that have been overwritten in place since they were loaded.
+            final URI source = network.getSource().getURI();
+            final File sourceFile = "file".equals(source.getScheme()) ? new File(source) : null;
+            m_sourceSize = sourceFile != null ? sourceFile.length() : -1;
+            m_sourceLastModified = sourceFile != null ? sourceFile.lastModified() : -1;
+            m_environment = new TreeMap<>(environment);
+        }
+
+        /**
+         * @return a new context for the Python command of this key. Pooled kernels must outlive the context of the
+         *         execution that started them, so they get their own.
+         */
+        public DLPythonContext createContext() {
+            return new DLPythonDefaultContext(m_command);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(m_commandString, m_backend, m_network, m_sourceSize, m_sourceLastModified,
+                m_environment);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (obj == null || obj.getClass() != getClass()) {
+                return false;
+            }
+            final Key other = (Key)obj;
+            return other.m_commandString.equals(m_commandString) //
+                && other.m_backend.equals(m_backend) //
+                && other.m_network.equals(m_network) //
+                && other.m_sourceSize == m_sourceSize //
+                && other.m_sourceLastModified == m_sourceLastModified //
+                && other.m_environment.equals(m_environment);
+        }
+    }
+
+    /**
+     * An initialized kernel, represented by its commands, and the handle of the network loaded in it.
+     */
+    public static final class Entry {
+
+        private final Key m_key;
+
+        private final DLPythonCommands m_commands;
+
+        private final DLPythonNetworkHandle m_handle;
+
+        private long m_releasedAt;
+
+        /**
+         * @param key the key of the entry
+         * @param commands the commands of the kernel
+         * @param handle the handle of the network loaded in the kernel
+         */
+        public Entry(final Key key, final DLPythonCommands commands, final DLPythonNetworkHandle handle) {
+            m_key = key;
+            m_commands = commands;
+            m_handle = handle;
+        }
+
+        /**
+         * @return the commands of the kernel
+         */
+        public DLPythonCommands getCommands() {
+            return m_commands;
+        }
+
+        /**
+         * @return the handle of the network loaded in the kernel
+         */
+        public DLPythonNetworkHandle getHandle() {
+            return m_handle;
+        }
+    }
+}
@@ -0,0 +1,443 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.python.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.regex.Pattern;
+
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.node.NodeLogger;
+import org.knime.python2.PythonCommand;
+
+/**
+ * Persistent cache of successful installation tests of Python deep learning back ends. An entry is keyed by the
+ * back end and the Python command that was tested and stores a fingerprint of the tested environment. A cached result
+ * is only valid as long as the fingerprint of the environment does not change.
+ * <P>
+ * The environment is resolved from the command line of the Python command. Three kinds of commands are supported:
+ * <ul>
+ * <li>commands that invoke a Python executable directly,</li>
+ * <li>Conda commands that pass the directory of the Conda environment (recognized by its {@code conda-meta}
+ * directory),</li>
+ * <li>start scripts that mention the Python executable or the Conda environment (by path or, via
+ * {@code activate <name>}, by name).</li>
+ * </ul>
+ * The fingerprint consists of the paths and modification times of the start script, the Python executable and the
+ * Conda history of the environment, as well as of a hash of the listing of the environment's {@code site-packages}
+ * directories.
+ * <P>
+ * Failed or timed out tests are never cached. Environments that cannot be resolved are never cached either, their
+ * back ends are tested each time.
+ *
+ * @author agent
+ */
+final class DLPythonInstallationTestCache {
+
+    /**
+     * Set this VM option to {@code false} to disable the persistent installation test cache.
+     */
+    static final String INSTALLATION_TEST_CACHE_VM_OPT = "knime.dl.installationtestcache";
+
+    private static final String CACHE_FILE_NAME = "dl-installation-tests.properties";
+
+    /**
+     * Larger files are not considered to be start scripts.
+     */
+    private static final long MAX_START_SCRIPT_SIZE = 64 * 1024L;
+
+    private static final Pattern PYTHON_EXECUTABLE_NAME = Pattern.compile("python[0-9.]*(\\.exe)?",
+        Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern START_SCRIPT_TOKEN_SEPARATOR = Pattern.compile("[\\s\"'=;]+");
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(DLPythonInstallationTestCache.class);
+
+    private static final DLPythonInstallationTestCache INSTANCE = new DLPythonInstallationTestCache(
+        Boolean.parseBoolean(System.getProperty(INSTALLATION_TEST_CACHE_VM_OPT, "true")) ? getDefaultCacheFile()
+            : null);
+
+    static DLPythonInstallationTestCache getInstance() {
+        return INSTANCE;
+    }
+
+    private static File getDefaultCacheFile() {
+        final File homeDir = KNIMEConstants.getKNIMEHomeDir() != null ? new File(KNIMEConstants.getKNIMEHomeDir())
+            : null;
+        return homeDir != null ? new File(homeDir, CACHE_FILE_NAME) : null;
+    }
+
+    private final File m_cacheFile;
+
+    private Properties m_entries;
+
+    /**
+     * @param cacheFile the file to which the cache is persisted, may be {@code null} in which case caching is disabled
+     */
+    DLPythonInstallationTestCache(final File cacheFile) {
+        m_cacheFile = cacheFile;
+    }
+
+    /**
+     * @param backendId the identifier of the tested back end
+     * @param context the context in which the test would be run
+     * @return {@code true} if a successful test of the given back end in the environment of the given context is
+     *         cached and the environment did not change since
+     */
+    boolean isCachedSuccess(final String backendId, final DLPythonContext context) {
+        final PythonCommand command = getPythonCommand(context);
+        return command != null && isCachedSuccess(backendId, command.toString(), getCommandLine(command));
+    }
+
+    /**
+     * @param backendId the identifier of the tested back end
+     * @param command the identifier of the Python command
+     * @param commandLine the command line of the Python command
+     * @return {@code true} if a successful test of the given back end in the environment of the given command is
+     *         cached and the environment did not change since
+     */
+    synchronized boolean isCachedSuccess(final String backendId, final String command,
+        final List<String> commandLine) {
+        if (m_cacheFile == null) {
+            return false;
+        }
+        final String fingerprint = computeFingerprint(backendId, commandLine);
+        return fingerprint != null && fingerprint.equals(getEntries().getProperty(createKey(backendId, command)));
+    }
+
+    /**
+     * Records a successful test of the given back end in the environment of the given context.
+     *
+     * @param backendId the identifier of the tested back end
+     * @param context the context in which the test was run
+     */
+    void putSuccess(final String backendId, final DLPythonContext context) {
+        final PythonCommand command = getPythonCommand(context);
+        if (command != null) {
+            putSuccess(backendId, command.toString(), getCommandLine(command));
+        }
+    }
+
+    /**
+     * Records a successful test of the given back end in the environment of the given command.
+     *
+     * @param backendId the identifier of the tested back end
+     * @param command the identifier of the Python command
+     * @param commandLine the command line of the Python command
+     */
+    synchronized void putSuccess(final String backendId, final String command, final List<String> commandLine) {
+        if (m_cacheFile == null) {
+            return;
+        }
+        final String fingerprint = computeFingerprint(backendId, commandLine);
+        if (fingerprint == null) {
+            LOGGER.debug("Cannot resolve the Python environment of command '" + command
+                + "'. Its installation test results are not cached.");
+            return;
+        }
+        final String key = createKey(backendId, command);
+        if (!fingerprint.equals(getEntries().setProperty(key, fingerprint))) {
+            persist();
+        }
+    }
+
+    /**
+     * Removes the cached result of the given back end in the environment of the given context, if any.
+     *
+     * @param backendId the identifier of the tested back end
+     * @param context the context in which the test was run
+     */
+    void invalidate(final String backendId, final DLPythonContext context) {
+        final PythonCommand command = getPythonCommand(context);
+        if (command != null) {
+            invalidate(backendId, command.toString());
+        }
+    }
+
+    /**
+     * Removes the cached result of the given back end in the environment of the given command, if any.
+     *
+     * @param backendId the identifier of the tested back end
+     * @param command the identifier of the Python command
+     */
+    synchronized void invalidate(final String backendId, final String command) {
+        if (m_cacheFile != null && getEntries().remove(createKey(backendId, command)) != null) {
+            persist();
+        }
+    }
+
+    private Properties getEntries() {
+        if (m_entries == null) {
+            m_entries = new Properties();
+            if (m_cacheFile.isFile()) {
+                try (final InputStream in = Files.newInputStream(m_cacheFile.toPath())) {
+                    m_entries.load(in);
+                } catch (final IOException | IllegalArgumentException ex) {
+                    LOGGER.debug("Failed to read the deep learning installation test cache from '" + m_cacheFile
+                        + "'. The cache will be rebuilt.", ex);
+                    m_entries.clear();
+                }
+            }
+        }
+        return m_entries;
+    }
+
+    private void persist() {
+        try {
+            final File parent = m_cacheFile.getParentFile();
+            if (parent != null) {
+                Files.createDirectories(parent.toPath());
+            }
+            final File tmpFile = File.createTempFile(CACHE_FILE_NAME, ".tmp", parent);
+            try (final OutputStream out = Files.newOutputStream(tmpFile.toPath())) {
+                m_entries.store(out, "KNIME Deep Learning installation test cache");
+            }
+            Files.move(tmpFile.toPath(), m_cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (final IOException ex) {
+            LOGGER.debug("Failed to write the deep learning installation test cache to '" + m_cacheFile + "'.", ex);
+        }
+    }
+
+    private static String createKey(final String backendId, final String command) {
+        return backendId + "|" + command;
+    }
+
+    private static PythonCommand getPythonCommand(final DLPythonContext context) {
+        return context instanceof DLPythonAbstractContext ? ((DLPythonAbstractContext)context).getPythonCommand()
+            : null;
+    }
+
+    private static List<String> getCommandLine(final PythonCommand command) {
+        try {
+            return command.createProcessBuilder().command();
+        } catch (final RuntimeException ex) { // NOSONAR Fingerprinting is best effort.
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * @return the fingerprint or {@code null} if the environment could not be resolved
+     */
+    private static String computeFingerprint(final String backendId, final List<String> commandLine) {
+        final DLPythonEnvironment environment = resolveEnvironment(commandLine);
+        if (environment == null) {
+            return null;
+        }
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException ex) {
+            return null;
+        }
+        update(digest, backendId);
+        update(digest, environment.m_startScript);
+        update(digest, environment.m_executable);
+        update(digest, environment.m_directory);
+        update(digest, new File(new File(environment.m_directory, "conda-meta"), "history"));
+        for (final File sitePackages : findSitePackages(environment.m_directory)) {
+            update(digest, sitePackages.getAbsolutePath());
+            final String[] listing = sitePackages.list();
+            if (listing != null) {
+                Arrays.sort(listing);
+                for (final String entry : listing) {
+                    update(digest, entry);
+                }
+            }
+        }
+        final StringBuilder sb = new StringBuilder();
+        for (final byte b : digest.digest()) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+
+    private static void update(final MessageDigest digest, final File file) {
+        if (file != null && file.exists()) {
+            update(digest, file.getAbsolutePath());
+            update(digest, Long.toString(file.lastModified()));
+        } else {
+            update(digest, "");
+        }
+    }
+
+    private static void update(final MessageDigest digest, final String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte)0);
+    }
+
+    /**
+     * @return the environment or {@code null} if it could not be resolved
+     */
+    private static DLPythonEnvironment resolveEnvironment(final List<String> commandLine) {
+        final DLPythonEnvironment environment = resolveEnvironment(commandLine, null);
+        if (environment != null) {
+            return environment;
+        }
+        for (final String element : commandLine) {
+            final File file = new File(element);
+            if (file.isFile() && file.length() <= MAX_START_SCRIPT_SIZE) {
+                final DLPythonEnvironment scriptEnvironment = resolveEnvironmentFromStartScript(file);
+                if (scriptEnvironment != null) {
+                    return scriptEnvironment;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static DLPythonEnvironment resolveEnvironment(final List<String> tokens, final File startScript) {
+        for (final String token : tokens) {
+            final File file = new File(token);
+            if (file.isFile() && PYTHON_EXECUTABLE_NAME.matcher(file.getName()).matches()) {
+                return DLPythonEnvironment.fromExecutable(file.getAbsoluteFile(), startScript);
+            } else if (isCondaEnvironment(file)) {
+                return DLPythonEnvironment.fromDirectory(file.getAbsoluteFile(), startScript);
+            }
+        }
+        return null;
+    }
+
+    private static DLPythonEnvironment resolveEnvironmentFromStartScript(final File startScript) {
+        final List<String> tokens;
+        try {
+            tokens = Arrays.asList(START_SCRIPT_TOKEN_SEPARATOR
+                .split(new String(Files.readAllBytes(startScript.toPath()), StandardCharsets.UTF_8)));
+        } catch (final IOException ex) { // NOSONAR Fingerprinting is best effort.
+            return null;
+        }
+        final DLPythonEnvironment environment = resolveEnvironment(tokens, startScript);
+        if (environment != null) {
+            return environment;
+        }
+        // "activate <name>": look for the named environment in the "envs" directories of the Conda installations
+        // that are referenced by the script.
+        final int activate = tokens.indexOf("activate");
+        if (activate < 0 || activate + 1 >= tokens.size()) {
+            return null;
+        }
+        final String name = tokens.get(activate + 1);
+        for (final String token : tokens) {
+            for (File dir = new File(token).getAbsoluteFile(); dir != null; dir = dir.getParentFile()) {
+                final File candidate = new File(new File(dir, "envs"), name);
+                if (isCondaEnvironment(candidate)) {
+                    return DLPythonEnvironment.fromDirectory(candidate, startScript);
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean isCondaEnvironment(final File dir) {
+        return new File(dir, "conda-meta").isDirectory();
+    }
+
+    private static List<File> findSitePackages(final File envDir) {
+        final List<File> sitePackages = new ArrayList<>();
+        final File windowsSitePackages = new File(new File(envDir, "Lib"), "site-packages");
+        if (windowsSitePackages.isDirectory()) {
+            sitePackages.add(windowsSitePackages);
+        }
+        final File[] libDirs = new File(envDir, "lib").listFiles((dir, name) -> name.startsWith("python"));
+        if (libDirs != null) {
+            Arrays.sort(libDirs);
+            for (final File libDir : libDirs) {
+                final File posixSitePackages = new File(libDir, "site-packages");
+                if (posixSitePackages.isDirectory()) {
+                    sitePackages.add(posixSitePackages);
+                }
+            }
+        }
+        return sitePackages;
+    }
+
+    private static final class DLPythonEnvironment {
+
+        /**
+         * Conda environments and virtual environments place the executable either in a {@code bin} directory below
+         * the environment's root (POSIX) or directly in the root (Windows).
+         */
+        private static DLPythonEnvironment fromExecutable(final File executable, final File startScript) {
+            File directory = executable.getParentFile();
+            if (directory != null && (directory.getName().equals("bin") || directory.getName().equals("Scripts"))) {
+                directory = directory.getParentFile();
+            }
+            return directory != null ? new DLPythonEnvironment(directory, executable, startScript) : null;
+        }
+
+        private static DLPythonEnvironment fromDirectory(final File directory, final File startScript) {
+            File executable = new File(new File(directory, "bin"), "python");
+            if (!executable.isFile()) {
+                executable = new File(directory, "python.exe");
+            }
+            return new DLPythonEnvironment(directory, executable.isFile() ? executable : null, startScript);
+        }
+
+        private final File m_directory;
+
+        private final File m_executable;
+
+        private final File m_startScript;
+
+        private DLPythonEnvironment(final File directory, final File executable, final File startScript) {
+            m_directory = directory;
+            m_executable = executable;
+            m_startScript = startScript;
+        }
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.python.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntSupplier;
+
+import org.knime.core.node.NodeLogger;
+import org.knime.core.util.ThreadUtils;
+import org.knime.python2.kernel.PythonExecutionMonitor;
+import org.knime.python2.kernel.messaging.Message;
+import org.knime.python2.kernel.messaging.MessageHandler;
+import org.knime.python2.kernel.messaging.MessageHandlerCollection;
+import org.knime.python2.kernel.messaging.MessageSender;
+import org.knime.python2.kernel.messaging.TaskHandler;
+
+/**
+ * COPIED FROM org.knime.python2.kernel.messaging.DefaultTaskFactory.DefaultTaks
+ * </p>
+ * Changes:
+ * <ul>
+ * <li>Removed code where the handler is unregisters itself. Requests for training data might come in after the
+ * training is done. In this case this MessageHandler must be still registered to handle the request.</li>
+ * </ul>
+ * Used for all executions that need to answer requests from Python while the executed code is still running, i.e.
+ * network training and scripts that consume their input tables in chunks.
+ *
+ * @param <T> the result type of the task
+ * @author agent
+ */
+final class DLPythonMessagingTask<T> implements RunnableFuture<T>, MessageHandler {
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(DLPythonMessagingTask.class);
+
+    private static final int RECEIVE_QUEUE_LENGTH = 10;
+
+    private Message m_initiatingMessage;
+
+    private final FutureTask<T> m_delegateTask = new FutureTask<>(ThreadUtils.callableWithContext(this::runInternal));
+
+    private final TaskHandler<T> m_delegateTaskHandler;
+
+    private final MessageSender m_messageSender;
+
+    private final MessageHandlerCollection m_messageHandlers;
+
+    private final IntSupplier m_messageIdSupplier;
+
+    private final ExecutorService m_executor;
+
+    private final PythonExecutionMonitor m_monitor;
+
+    private final BlockingQueue<Message> m_receivedMessages = new ArrayBlockingQueue<>(RECEIVE_QUEUE_LENGTH);
+
+    private final List<String> m_registeredMessageCategories = new ArrayList<>(5);
+
+    private final AtomicBoolean m_isRunningOrDone = new AtomicBoolean(false);
+
+    private boolean m_isDone = false;
+
+    private T m_result = null;
+
+    private String m_taskCategory = null;
+
+    DLPythonMessagingTask(final Message message, final TaskHandler<T> taskHandler, final MessageSender sender,
+        final MessageHandlerCollection messageHandlers, final IntSupplier messageIdSupplier,
+        final ExecutorService executor, final PythonExecutionMonitor monitor) {
+        m_initiatingMessage = message;
+        m_delegateTaskHandler = taskHandler;
+        m_messageSender = sender;
+        m_messageHandlers = messageHandlers;
+        m_messageIdSupplier = messageIdSupplier;
+        m_executor = executor;
+        m_monitor = monitor;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return m_delegateTask.isCancelled();
+    }
+
+    @Override
+    public boolean isDone() {
+        return m_delegateTask.isDone();
+    }
+
+    @Override
+    public void run() {
+        if (m_isRunningOrDone.compareAndSet(false, true)) {
+            m_executor.submit(m_delegateTask);
+        }
+    }
+
+    @Override
+    public boolean cancel(final boolean mayInterruptIfRunning) {
+        return m_delegateTask.cancel(mayInterruptIfRunning);
+    }
+
+    @Override
+    public T get() throws InterruptedException, ExecutionException {
+        run(); // Start task if not already running.
+        return m_delegateTask.get();
+    }
+
+    @Override
+    public T get(final long timeout, final TimeUnit unit)
+        throws InterruptedException, ExecutionException, TimeoutException {
+        run(); // Start task if not already running.
+        return m_delegateTask.get(timeout, unit);
+    }
+
+    @Override
+    public boolean handle(final Message message) throws ExecutionException {
+        try {
+            LOGGER.debug("Java - Enqueue message for task, message: " + message + ", initiating message: "
+                + m_initiatingMessage);
+            if (message == m_monitor.getPoisonPill()) {
+                do {
+                    m_receivedMessages.clear();
+                } while (!m_receivedMessages.offer(message));
+            } else {
+                m_receivedMessages.put(message);
+            }
+            run(); // Start task if not already running.
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ExecutionException(
+                "Message handler was interrupted while handling message '" + message + "'.", ex);
+        }
+        return true;
+    }
+
+    private T runInternal() throws Exception {
+        LOGGER.debug("Java - Run task, initiating message: " + m_initiatingMessage);
+        Message toSend = m_initiatingMessage;
+        while (!m_isDone && !Thread.interrupted()) {
+            if (toSend != null) {
+                String messageCategory = Integer.toString(toSend.getId());
+                if (m_taskCategory == null) {
+                    m_taskCategory = messageCategory;
+                }
+                if (!m_messageHandlers.registerMessageHandler(messageCategory, this)) {
+                    throw new IllegalStateException(
+                        "Message handler for category '" + messageCategory + "' is already registered.");
+                } else {
+                    m_registeredMessageCategories.add(messageCategory);
+                }
+                m_messageSender.send(toSend);
+            }
+            LOGGER.debug("Java - Wait for message in task, initiating message: " + m_initiatingMessage);
+            final Message received = m_receivedMessages.take();
+            if (received == m_monitor.getPoisonPill()) {
+                LOGGER.debug("Java - Received poison pill in task, initiating message: " + m_initiatingMessage);
+                m_monitor.checkExceptions();
+                throw new IllegalStateException("Java - Task terminated due to an unknown error.");
+            } else {
+                LOGGER.debug("Java - Received message in task, message: " + received + ", initiating message: "
+                    + m_initiatingMessage);
+                toSend =
+                    m_delegateTaskHandler.handle(received, m_messageHandlers, m_messageIdSupplier, this::setResult);
+            }
+        }
+        LOGGER.debug("Finishing task handler. Task category: '" + m_taskCategory + "', is done: " + m_isDone +
+            ", is interrupted: " + Thread.interrupted());
+        // Send pending message if any.
+        // This may happen if the act of responding to a message also marks (successful) termination of the task.
+        if (toSend != null) {
+            m_messageSender.send(toSend);
+        }
+
+        // NOTE: We do not unregister this message handler.
+        // Messages for requesting training data might come in after the task is done
+
+        // Message may contain heavy payload. Dereference to obviate memory leak.
+        m_initiatingMessage = null;
+
+        return m_result;
+    }
+
+    private void setResult(final T result) {
+        m_result = result;
+        m_isDone = true;
+    }
+}
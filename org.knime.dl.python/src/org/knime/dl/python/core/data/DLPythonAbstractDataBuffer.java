@@ -74,6 +74,8 @@
 
 	protected final B m_buffer;
 
+	private long[] m_shape;
+
 	/**
 	 * Creates a new instance of this buffer.
 	 *
@@ -128,6 +130,16 @@ public void resetWrite() {
 		m_buffer.resetWrite();
 	}
 
+	@Override
+	public long[] getShape() {
+		return m_shape;
+	}
+
+	@Override
+	public void setShape(final long[] shape) {
+		m_shape = shape;
+	}
+
 	@Override
 	public void close() {
 		m_buffer.close();
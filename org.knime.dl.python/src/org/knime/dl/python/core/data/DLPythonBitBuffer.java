@@ -52,19 +52,20 @@
 import java.nio.BufferUnderflowException;
 
 import org.knime.core.data.DataType;
-import org.knime.dl.core.data.DLDefaultBitBuffer;
+import org.knime.dl.core.data.DLPackedBitBuffer;
 import org.knime.dl.core.data.DLReadableBitBuffer;
 import org.knime.dl.core.data.DLWritableBitBuffer;
 
 /**
- * Bit type implementation of {@link DLPythonAbstractDataBuffer}.
+ * Bit type implementation of {@link DLPythonAbstractDataBuffer}. Values are stored packed, see
+ * {@link DLPackedBitBuffer}.
  *
  * @author Benjamin Wilhelm, KNIME GmbH, Konstanz, Germany
  * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
  * @author Christian Dietz, KNIME GmbH, Konstanz, Germany
  */
 @SuppressWarnings("serial") // not intended for serialization
-public class DLPythonBitBuffer extends DLPythonAbstractDataBuffer<DLDefaultBitBuffer, boolean[]>
+public class DLPythonBitBuffer extends DLPythonAbstractDataBuffer<DLPackedBitBuffer, long[]>
     implements DLWritableBitBuffer, DLReadableBitBuffer {
 
     /**
@@ -78,7 +79,7 @@ public class DLPythonBitBuffer extends DLPythonAbstractDataBuffer<DLDefaultBitBu
      * @param capacity the immutable capacity of the buffer
      */
     public DLPythonBitBuffer(final long capacity) {
-        super(new DLDefaultBitBuffer(capacity));
+        super(new DLPackedBitBuffer(capacity));
     }
 
     @Override
@@ -96,6 +97,11 @@ public void readToBitArray(boolean[] dest, int destPos, int length) {
         m_buffer.readToBitArray(dest, destPos, length);
     }
 
+    @Override
+    public void readToWordArray(final long[] dest, final int length) {
+        m_buffer.readToWordArray(dest, length);
+    }
+
     @Override
     public byte readNextByte() throws BufferUnderflowException {
         return m_buffer.readNextByte();
@@ -195,4 +201,10 @@ public void put(final boolean value) throws BufferOverflowException {
     public void putAll(final boolean[] values) throws BufferOverflowException {
         m_buffer.putAll(values);
     }
+
+    @Override
+    public void putWords(final long[] words, final long numBits)
+        throws IllegalArgumentException, BufferOverflowException {
+        m_buffer.putWords(words, numBits);
+    }
 }
@@ -2,6 +2,7 @@
 
 import org.knime.core.data.DataValue;
 import org.knime.dl.core.data.DLWrappingDataBuffer;
+import org.knime.dl.python.core.data.serde.DLPythonTensorHeader;
 
 /**
  * @author Marcel Wiedenmann, KNIME GmbH, Konstanz, Germany
@@ -9,5 +10,19 @@
  */
 public interface DLPythonDataBuffer<S> extends DLWrappingDataBuffer<S>, DataValue {
 
-	// NB: marker interface
+	/**
+	 * Returns the shape that is transmitted along with the contents of this buffer, see {@link DLPythonTensorHeader}.
+	 *
+	 * @return the shape including the batch dimension, or <code>null</code> if the contents are transmitted as a flat
+	 *         buffer
+	 */
+	long[] getShape();
+
+	/**
+	 * Sets the shape that is transmitted along with the contents of this buffer, see {@link DLPythonTensorHeader}.
+	 *
+	 * @param shape the shape including the batch dimension, or <code>null</code> to transmit the contents as a flat
+	 *            buffer
+	 */
+	void setShape(long[] shape);
 }
@@ -0,0 +1,392 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.python.core.data;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.knime.core.node.NodeLogger;
+import org.knime.dl.core.DLTensorId;
+import org.knime.dl.util.DLUtils;
+
+/**
+ * Transfers tensors between Java and Python via memory-mapped files instead of serializing them through the kernel's
+ * socket connection. Input tensors are written into files that are mapped on the Java side and wrapped via
+ * <code>numpy.memmap</code> on the Python side, which avoids the intermediate byte array and the copies on the Python
+ * side. Output tensors are written by Python via <code>numpy.ndarray.tofile</code> and read back in bulk.
+ * <P>
+ * Files are created in <code>/dev/shm</code> if available (i.e. they never hit the disk), and in the default temporary
+ * directory otherwise. All data is stored flat and in little-endian byte order. Transfers are not subject to the
+ * 2^31-1 byte limit of the serialization based transfer.
+ * <P>
+ * The transfer is opt-in and can be enabled via VM option {@link #SHARED_MEMORY_TRANSFER_VM_OPT}. Instances of this
+ * class are not thread-safe.
+ *
+ * @author agent
+ */
+public final class DLPythonSharedMemoryTransfer implements AutoCloseable {
+
+    /**
+     * @see #isEnabled()
+     */
+    public static final String SHARED_MEMORY_TRANSFER_VM_OPT = "knime.dl.python.sharedmemorytransfer";
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(DLPythonSharedMemoryTransfer.class);
+
+    private static final String SHARED_MEMORY_DIR = "/dev/shm";
+
+    private static final String TEMP_DIR_PREFIX = "knime-dl-";
+
+    /**
+     * Must be a multiple of the largest element size.
+     */
+    private static final int MAX_REGION_SIZE = 1 << 30;
+
+    /**
+     * Chunk size used when reading output files.
+     */
+    private static final int READ_CHUNK_SIZE = 1 << 20;
+
+    /**
+     * @return <code>true</code> if the shared memory transfer was enabled by the user via VM option
+     *         {@link #SHARED_MEMORY_TRANSFER_VM_OPT}, <code>false</code> otherwise
+     */
+    public static boolean isEnabled() {
+        return Boolean.getBoolean(SHARED_MEMORY_TRANSFER_VM_OPT);
+    }
+
+    /**
+     * @param buffer the buffer to check
+     * @return <code>true</code> if the given buffer can be transferred via this class, <code>false</code> otherwise
+     *         (e.g. for buffers of non-primitive element type)
+     */
+    public static boolean supports(final DLPythonDataBuffer<?> buffer) {
+        return getNumPyType(buffer) != null;
+    }
+
+    /**
+     * @param buffer the buffer
+     * @return the NumPy dtype that corresponds to the element type of the given buffer, <code>null</code> if the
+     *         buffer is not supported
+     */
+    public static String getNumPyType(final DLPythonDataBuffer<?> buffer) {
+        if (buffer instanceof DLPythonFloatBuffer) {
+            return "float32";
+        } else if (buffer instanceof DLPythonDoubleBuffer) {
+            return "float64";
+        } else if (buffer instanceof DLPythonIntBuffer) {
+            return "int32";
+        } else if (buffer instanceof DLPythonLongBuffer) {
+            return "int64";
+        } else if (buffer instanceof DLPythonShortBuffer) {
+            return "int16";
+        } else if (buffer instanceof DLPythonUnsignedByteBuffer) {
+            return "uint8";
+        } else if (buffer instanceof DLPythonByteBuffer) {
+            return "int8";
+        } else if (buffer instanceof DLPythonBitBuffer) {
+            return "bool";
+        }
+        return null;
+    }
+
+    private static int getElementSize(final DLPythonDataBuffer<?> buffer, final Object storage) {
+        if (buffer instanceof DLPythonBitBuffer) {
+            // bits are stored packed into long words but transferred as one byte each (NumPy's bool)
+            return Byte.BYTES;
+        } else if (storage instanceof double[] || storage instanceof long[]) {
+            return Long.BYTES;
+        } else if (storage instanceof float[] || storage instanceof int[]) {
+            return Integer.BYTES;
+        } else if (storage instanceof short[]) {
+            return Short.BYTES;
+        } else if (storage instanceof byte[]) {
+            return Byte.BYTES;
+        }
+        throw new IllegalArgumentException(
+            "Storage type '" + storage.getClass().getSimpleName() + "' is not supported by the shared memory transfer.");
+    }
+
+    private final Path m_directory;
+
+    private final Map<DLTensorId, DLMappedInputFile> m_inputFiles = new HashMap<>();
+
+    private ByteBuffer m_readBuffer;
+
+    private int m_fileCounter = 0;
+
+    /**
+     * Creates a new instance along with a new directory that holds the transferred tensors. The directory is deleted
+     * on {@link #close()}.
+     *
+     * @throws IOException if creating the directory failed
+     */
+    public DLPythonSharedMemoryTransfer() throws IOException {
+        final Path sharedMemoryDir = Paths.get(SHARED_MEMORY_DIR);
+        if (Files.isDirectory(sharedMemoryDir) && Files.isWritable(sharedMemoryDir)) {
+            m_directory = Files.createTempDirectory(sharedMemoryDir, TEMP_DIR_PREFIX);
+        } else {
+            m_directory = Files.createTempDirectory(TEMP_DIR_PREFIX);
+        }
+    }
+
+    /**
+     * Writes the unread contents of the given buffer into the memory-mapped input file of the given tensor.
+     *
+     * @param tensorId the tensor id
+     * @param buffer the buffer to write, must be {@link #supports(DLPythonDataBuffer) supported}
+     * @return the path of the file that contains the written contents
+     * @throws IOException if writing the file failed
+     */
+    public Path writeInput(final DLTensorId tensorId, final DLPythonDataBuffer<?> buffer) throws IOException {
+        final long readPos = buffer.getNextReadPosition();
+        final long size = buffer.size() - readPos;
+        final Object storage = buffer.getStorageForReading(readPos, size);
+        final int elementSize = getElementSize(buffer, storage);
+        final long numBytes = size * elementSize;
+        DLMappedInputFile file = m_inputFiles.get(tensorId);
+        if (file == null || file.m_capacity < numBytes) {
+            if (file != null) {
+                file.close();
+            }
+            file = new DLMappedInputFile(m_directory.resolve("in_" + m_fileCounter++ + ".bin"), numBytes);
+            m_inputFiles.put(tensorId, file);
+        }
+        long written = 0;
+        for (final MappedByteBuffer region : file.m_regions) {
+            if (written == numBytes) {
+                break;
+            }
+            region.clear();
+            final int regionElements = (int)(Math.min(region.capacity(), numBytes - written) / elementSize);
+            putIntoRegion(buffer, storage, (int)(readPos + written / elementSize), regionElements, region);
+            written += (long)regionElements * elementSize;
+        }
+        return file.m_path;
+    }
+
+    /**
+     * @param tensorId the tensor id
+     * @return the path of the file into which Python is expected to write the output tensor of the given id
+     */
+    public Path getOutputPath(final DLTensorId tensorId) {
+        return m_directory.resolve(getOutputFileName(tensorId) + ".bin");
+    }
+
+    /**
+     * @param tensorId the tensor id
+     * @return the path of the file into which Python is expected to write only the tensor header (and hence the shape)
+     *         of the output tensor of the given id
+     */
+    public Path getOutputHeaderPath(final DLTensorId tensorId) {
+        return m_directory.resolve(getOutputFileName(tensorId) + ".header");
+    }
+
+    /**
+     * Appends the contents of the given output file, as written by Python, to the given buffer.
+     *
+     * @param path the path of the output file, see {@link #getOutputPath(DLTensorId)}
+     * @param buffer the buffer to fill, must be {@link #supports(DLPythonDataBuffer) supported}
+     * @throws IOException if reading the file failed
+     */
+    public void readOutput(final Path path, final DLPythonDataBuffer<?> buffer) throws IOException {
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long writeStart = buffer.size();
+            // probe the element size, the actual length is only known after having opened the file
+            final int elementSize = getElementSize(buffer, buffer.getStorageForReading(0, 0));
+            final long numElements = channel.size() / elementSize;
+            final Object storage = buffer.getStorageForWriting(writeStart, numElements);
+            if (m_readBuffer == null) {
+                m_readBuffer = ByteBuffer.allocateDirect(READ_CHUNK_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            }
+            long read = 0;
+            while (read < numElements) {
+                m_readBuffer.clear();
+                final int chunkElements = (int)Math.min(READ_CHUNK_SIZE / elementSize, numElements - read);
+                m_readBuffer.limit(chunkElements * elementSize);
+                while (m_readBuffer.hasRemaining()) {
+                    if (channel.read(m_readBuffer) < 0) {
+                        throw new IOException("Unexpected end of output file '" + path + "'.");
+                    }
+                }
+                m_readBuffer.flip();
+                getFromChunk(m_readBuffer, buffer, storage, (int)(writeStart + read), chunkElements);
+                read += chunkElements;
+            }
+        }
+    }
+
+    /**
+     * Unmaps (as far as possible) and deletes all files of this instance.
+     */
+    @Override
+    public void close() {
+        m_inputFiles.values().forEach(DLMappedInputFile::close);
+        m_inputFiles.clear();
+        m_readBuffer = null;
+        if (!FileUtils.deleteQuietly(m_directory.toFile())) {
+            // files that are still mapped by Python (Windows) are deleted as soon as possible
+            LOGGER.debug("Could not delete shared memory transfer directory '" + m_directory + "'.");
+            m_directory.toFile().deleteOnExit();
+            final File[] remainingFiles = m_directory.toFile().listFiles();
+            if (remainingFiles != null) {
+                // files registered last are deleted first
+                Arrays.stream(remainingFiles).forEach(File::deleteOnExit);
+            }
+        }
+    }
+
+    private static String getOutputFileName(final DLTensorId tensorId) {
+        return "out_" + Integer.toHexString(tensorId.getIdentifierString().hashCode()) + "_"
+            + tensorId.getIdentifierString().replaceAll("[^A-Za-z0-9_]", "_");
+    }
+
+    private static void putIntoRegion(final DLPythonDataBuffer<?> buffer, final Object storage, final int offset,
+        final int length, final ByteBuffer region) {
+        if (buffer instanceof DLPythonBitBuffer) {
+            final long[] words = (long[])storage;
+            for (int i = offset; i < offset + length; i++) {
+                region.put((words[i >>> 6] & (1L << i)) != 0 ? (byte)1 : (byte)0);
+            }
+        } else if (storage instanceof float[]) {
+            region.asFloatBuffer().put((float[])storage, offset, length);
+        } else if (storage instanceof double[]) {
+            region.asDoubleBuffer().put((double[])storage, offset, length);
+        } else if (storage instanceof int[]) {
+            region.asIntBuffer().put((int[])storage, offset, length);
+        } else if (storage instanceof long[]) {
+            region.asLongBuffer().put((long[])storage, offset, length);
+        } else if (storage instanceof short[]) {
+            region.asShortBuffer().put((short[])storage, offset, length);
+        } else {
+            region.put((byte[])storage, offset, length);
+        }
+    }
+
+    private static void getFromChunk(final ByteBuffer chunk, final DLPythonDataBuffer<?> buffer,
+        final Object storage, final int offset, final int length) {
+        if (buffer instanceof DLPythonBitBuffer) {
+            final long[] words = (long[])storage;
+            for (int i = offset; i < offset + length; i++) {
+                // the storage may still contain the bits of a previous batch
+                if (chunk.get() != 0) {
+                    words[i >>> 6] |= 1L << i;
+                } else {
+                    words[i >>> 6] &= ~(1L << i);
+                }
+            }
+        } else if (storage instanceof float[]) {
+            chunk.asFloatBuffer().get((float[])storage, offset, length);
+        } else if (storage instanceof double[]) {
+            chunk.asDoubleBuffer().get((double[])storage, offset, length);
+        } else if (storage instanceof int[]) {
+            chunk.asIntBuffer().get((int[])storage, offset, length);
+        } else if (storage instanceof long[]) {
+            chunk.asLongBuffer().get((long[])storage, offset, length);
+        } else if (storage instanceof short[]) {
+            chunk.asShortBuffer().get((short[])storage, offset, length);
+        } else {
+            chunk.get((byte[])storage, offset, length);
+        }
+    }
+
+    /**
+     * A file that is mapped into memory in regions of at most {@link #MAX_REGION_SIZE} bytes. Files are only ever
+     * replaced, never truncated, since Python may still hold a mapping of the previous contents.
+     */
+    private static final class DLMappedInputFile {
+
+        private final Path m_path;
+
+        private final long m_capacity;
+
+        private final List<MappedByteBuffer> m_regions;
+
+        private DLMappedInputFile(final Path path, final long capacity) throws IOException {
+            m_path = path;
+            m_capacity = capacity;
+            m_regions = new ArrayList<>((int)(capacity / MAX_REGION_SIZE) + 1);
+            try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                for (long offset = 0; offset < capacity; offset += MAX_REGION_SIZE) {
+                    final MappedByteBuffer region =
+                        channel.map(MapMode.READ_WRITE, offset, Math.min(MAX_REGION_SIZE, capacity - offset));
+                    region.order(ByteOrder.LITTLE_ENDIAN);
+                    m_regions.add(region);
+                }
+            }
+        }
+
+        private void close() {
+            // Java's mappings must be released explicitly, otherwise the file cannot be deleted on Windows
+            m_regions.forEach(DLUtils.Files::unmap);
+            m_regions.clear();
+            try {
+                Files.deleteIfExists(m_path);
+            } catch (final IOException e) {
+                // Python may still map the file (Windows), deleted as soon as possible
+                LOGGER.debug("Could not delete shared memory transfer file '" + m_path + "'.", e);
+                m_path.toFile().deleteOnExit();
+            }
+        }
+    }
+}
@@ -49,10 +49,13 @@
 package org.knime.dl.python.core.data.serde;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
 import org.knime.core.data.DataCell;
 import org.knime.core.data.filestore.FileStoreFactory;
 import org.knime.dl.core.DLTensor;
+import org.knime.dl.core.data.DLPackedBitBuffer;
 import org.knime.dl.python.core.data.DLPythonBitBuffer;
 import org.knime.python.typeextension.Deserializer;
 import org.knime.python.typeextension.DeserializerFactory;
@@ -86,37 +89,33 @@ public Deserializer createDeserializer() {
             @Override
             public DataCell deserialize(final byte[] bytes, final FileStoreFactory fileStoreFactory)
                 throws IOException {
-                // TODO: we serialize to a flat buffer for now
-                // final int numDimensions = buffer.getInt();
-                // final long[] shape = new long[numDimensions];
-                // for (int i = 0; i < numDimensions; i++) {
-                // shape[i] = buffer.getLong();
-                // }
-                final DLPythonBitBuffer value = new DLPythonBitBuffer(bytes.length);
-                final boolean[] storage = value.getStorageForWriting(0, bytes.length);
-                writeToStorage(bytes, storage, 0, bytes.length);
+                final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                final DLPythonTensorHeader header = DLPythonTensorHeader.read(buffer, DLPythonTensorHeader.TYPE_BIT);
+                final long numBits = header.getNumElements();
+                final DLPythonBitBuffer value = new DLPythonBitBuffer(numBits);
+                value.putWords(readWords(buffer, numBits), numBits);
+                value.setShape(header.getShape());
                 return value;
             }
 
             @Override
             public void deserialize(final byte[] bytes, final DLTensor<DLPythonBitBuffer> data) {
-                // TODO: we serialize to a flat buffer for now
-                // final int numDimensions = buffer.getInt();
-                // final long[] shape = new long[numDimensions];
-                // for (int i = 0; i < numDimensions; i++) {
-                // shape[i] = buffer.getLong();
-                // }
-                final DLPythonBitBuffer tensorBuffer = data.getBuffer();
-                final int writeStart = (int)tensorBuffer.size();
-                final boolean[] storage = tensorBuffer.getStorageForWriting(writeStart, bytes.length);
-                writeToStorage(bytes, storage, writeStart, bytes.length);
+                final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                final long numBits =
+                    DLPythonTensorHeader.read(buffer, DLPythonTensorHeader.TYPE_BIT).getNumElements();
+                data.getBuffer().putWords(readWords(buffer, numBits), numBits);
             }
 
-            private void writeToStorage(final byte[] bytes, final boolean[] storage, final int start,
-                final int length) {
-                for (int i = start; i < start + length; i++) {
-                    storage[i] = bytes[i] != 0;
+            /**
+             * Inverse of the packing in {@link DLPythonBitBufferSerializerFactory}.
+             */
+            private long[] readWords(final ByteBuffer buffer, final long numBits) {
+                buffer.order(ByteOrder.BIG_ENDIAN);
+                final long[] words = new long[DLPackedBitBuffer.getNumWords(numBits)];
+                for (int i = 0; i < words.length; i++) {
+                    words[i] = Long.reverse(buffer.getLong());
                 }
+                return words;
             }
         };
     }
@@ -48,9 +48,11 @@
  */
 package org.knime.dl.python.core.data.serde;
 
-import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
 import org.knime.dl.core.data.DLBuffer;
+import org.knime.dl.core.data.DLPackedBitBuffer;
 import org.knime.dl.python.core.data.DLPythonBitBuffer;
 import org.knime.python.typeextension.Serializer;
 import org.knime.python.typeextension.SerializerFactory;
@@ -77,26 +79,20 @@ public DLPythonBitBufferSerializerFactory() {
 
     @Override
     public Serializer<? extends DLPythonBitBuffer> createSerializer() {
-
         return value -> {
-            // TODO: we serialize to flat buffers for now
-            // final int numDimensions = value.getNumDimensions();
-            // final long[] shape = value.getShape();
             final long size = value.size() - value.getNextReadPosition();
-            final long numBytes = size;
-            if (numBytes > Integer.MAX_VALUE) {
-                throw new IOException(
-                    "Transmitting data to Python failed. Buffer size exceeds the limit of 2^31-1 bytes.");
+            final int numWords = DLPackedBitBuffer.getNumWords(size);
+            final long[] words = new long[numWords];
+            value.readToWordArray(words, (int)size);
+            // The header is followed by the packed bits. Reversing the words and writing them in big-endian byte
+            // order yields the layout of numpy.packbits (bit 0 is the most significant bit of the first byte).
+            final ByteBuffer buffer = DLPythonTensorHeader.allocate(DLPythonTensorHeader.TYPE_BIT, value, size,
+                (long)numWords * Long.BYTES);
+            buffer.order(ByteOrder.BIG_ENDIAN);
+            for (final long word : words) {
+                buffer.putLong(Long.reverse(word));
             }
-            // Create the target array
-            final byte[] target = new byte[(int)numBytes];
-            value.readToByteArray(target, 0, (int)size);
-            // TODO: we serialize to flat buffers for now
-            // buffer.putInt(numDimensions);
-            // for (final long dim : shape) {
-            // buffer.putLong(dim);
-            // }
-            return target;
+            return buffer.array();
         };
     }
 
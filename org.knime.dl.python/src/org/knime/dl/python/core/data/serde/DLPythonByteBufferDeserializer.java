@@ -66,37 +66,37 @@
 
     private final Function<Integer, B> m_bufferCreator;
 
-    public DLPythonByteBufferDeserializer(final Function<Integer, B> bufferCreator) {
+    private final byte m_elementType;
+
+    /**
+     * @param bufferCreator creates a buffer of the given capacity
+     * @param elementType the element type that is expected in the {@link DLPythonTensorHeader tensor header}
+     */
+    public DLPythonByteBufferDeserializer(final Function<Integer, B> bufferCreator, final byte elementType) {
         m_bufferCreator = bufferCreator;
+        m_elementType = elementType;
     }
 
     @Override
     public DataCell deserialize(final byte[] bytes, final FileStoreFactory fileStoreFactory) throws IOException {
         final ByteBuffer buffer = ByteBuffer.wrap(bytes);
-        // TODO: we serialize to a flat buffer for now
-        // final int numDimensions = buffer.getInt();
-        // final long[] shape = new long[numDimensions];
-        // for (int i = 0; i < numDimensions; i++) {
-        // shape[i] = buffer.getLong();
-        // }
-        final B value = m_bufferCreator.apply(buffer.capacity() / Byte.BYTES);
-        buffer.get(value.getStorageForWriting(0, buffer.limit()));
+        final DLPythonTensorHeader header = DLPythonTensorHeader.read(buffer, m_elementType);
+        final int numBytes = buffer.remaining();
+        final B value = m_bufferCreator.apply(numBytes);
+        buffer.get(value.getStorageForWriting(0, numBytes));
+        value.setShape(header.getShape());
         return value;
     }
 
     @Override
     public void deserialize(final byte[] bytes, final DLTensor<B> data) {
         final ByteBuffer buffer = ByteBuffer.wrap(bytes);
-        // TODO: we serialize to a flat buffer for now
-        // final int numDimensions = buffer.getInt();
-        // final long[] shape = new long[numDimensions];
-        // for (int i = 0; i < numDimensions; i++) {
-        // shape[i] = buffer.getLong();
-        // }
+        DLPythonTensorHeader.read(buffer, m_elementType);
         final B tensorBuffer = data.getBuffer();
         final int writeStart = (int)tensorBuffer.size();
-        final byte[] tensorStorage = tensorBuffer.getStorageForWriting(writeStart, buffer.limit());
-        buffer.get(tensorStorage, writeStart, buffer.limit());
+        final int numBytes = buffer.remaining();
+        final byte[] tensorStorage = tensorBuffer.getStorageForWriting(writeStart, numBytes);
+        buffer.get(tensorStorage, writeStart, numBytes);
     }
 
 }
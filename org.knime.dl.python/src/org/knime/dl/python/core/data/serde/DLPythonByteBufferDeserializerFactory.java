@@ -76,7 +76,7 @@ public DLPythonByteBufferDeserializerFactory() {
      */
     @Override
     public Deserializer createDeserializer() {
-        return new DLPythonByteBufferDeserializer<>(DLPythonByteBuffer::new);
+        return new DLPythonByteBufferDeserializer<>(DLPythonByteBuffer::new, DLPythonTensorHeader.TYPE_BYTE);
     }
 
     /**
@@ -60,27 +60,21 @@
  */
 public class DLPythonByteBufferSerializer<B extends DLPythonAbstractByteBuffer<? extends DLAbstractByteBuffer>> implements Serializer<B> {
 
+    private final byte m_elementType;
+
+    /**
+     * @param elementType the element type that is written to the {@link DLPythonTensorHeader tensor header}
+     */
+    public DLPythonByteBufferSerializer(final byte elementType) {
+        m_elementType = elementType;
+    }
+
     @Override
     public byte[] serialize(final B value) throws IOException {
-        // TODO: we serialize to flat buffers for now
-        // final int numDimensions = value.getNumDimensions();
-        // final long[] shape = value.getShape();
         final long size = value.size() - value.getNextReadPosition();
-        final long numBytes = /*
-                               * Integer.BYTES + numDimensions * Long.BYTES +
-                               */ size * Byte.BYTES;
-        if (numBytes > Integer.MAX_VALUE) {
-            throw new IOException(
-                "Transmitting data to Python failed. Buffer size exceeds the limit of 2^31-1 bytes.");
-        }
         final byte[] tensorStorage = value.getStorageForReading(value.getNextReadPosition(), size);
-        final ByteBuffer buffer = ByteBuffer.allocate((int)numBytes);
+        final ByteBuffer buffer = DLPythonTensorHeader.allocate(m_elementType, value, size, size * Byte.BYTES);
         buffer.put(tensorStorage, (int)value.getNextReadPosition(), (int)size);
-        // TODO: we serialize to flat buffers for now
-        // buffer.putInt(numDimensions);
-        // for (final long dim : shape) {
-        // buffer.putLong(dim);
-        // }
         return buffer.array();
     }
 }
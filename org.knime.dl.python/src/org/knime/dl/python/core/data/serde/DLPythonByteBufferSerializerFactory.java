@@ -75,7 +75,7 @@ public DLPythonByteBufferSerializerFactory() {
 
     @Override
     public Serializer<? extends DLPythonByteBuffer> createSerializer() {
-        return new DLPythonByteBufferSerializer<>();
+        return new DLPythonByteBufferSerializer<>(DLPythonTensorHeader.TYPE_BYTE);
     }
 
     @Override
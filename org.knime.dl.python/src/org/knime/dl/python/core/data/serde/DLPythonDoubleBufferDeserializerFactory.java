@@ -50,7 +50,6 @@
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.nio.DoubleBuffer;
 
 import org.knime.core.data.DataCell;
@@ -90,29 +89,18 @@ public Deserializer createDeserializer() {
 			public DataCell deserialize(final byte[] bytes, final FileStoreFactory fileStoreFactory)
 					throws IOException {
 				final ByteBuffer buffer = ByteBuffer.wrap(bytes);
-				buffer.order(ByteOrder.LITTLE_ENDIAN);
-				// TODO: we serialize to a flat buffer for now
-				// final int numDimensions = buffer.getInt();
-				// final long[] shape = new long[numDimensions];
-				// for (int i = 0; i < numDimensions; i++) {
-				// shape[i] = buffer.getLong();
-				// }
+				final DLPythonTensorHeader header = DLPythonTensorHeader.read(buffer, DLPythonTensorHeader.TYPE_DOUBLE);
 				final DoubleBuffer doubleBuffer = buffer.asDoubleBuffer();
-				final DLPythonDoubleBuffer value = new DLPythonDoubleBuffer(buffer.capacity() / Double.BYTES);
+				final DLPythonDoubleBuffer value = new DLPythonDoubleBuffer(doubleBuffer.limit());
 				doubleBuffer.get(value.getStorageForWriting(0, doubleBuffer.limit()));
+				value.setShape(header.getShape());
 				return value;
 			}
 
 			@Override
 			public void deserialize(final byte[] bytes, final DLTensor<DLPythonDoubleBuffer> data) {
 				final ByteBuffer buffer = ByteBuffer.wrap(bytes);
-				buffer.order(ByteOrder.LITTLE_ENDIAN);
-				// TODO: we serialize to a flat buffer for now
-				// final int numDimensions = buffer.getInt();
-				// final long[] shape = new long[numDimensions];
-				// for (int i = 0; i < numDimensions; i++) {
-				// shape[i] = buffer.getLong();
-				// }
+				DLPythonTensorHeader.read(buffer, DLPythonTensorHeader.TYPE_DOUBLE);
 				final DoubleBuffer doubleBuffer = buffer.asDoubleBuffer();
 				final DLPythonDoubleBuffer tensorBuffer = data.getBuffer();
 				final int writeStart = (int) tensorBuffer.size();
@@ -48,9 +48,7 @@
  */
 package org.knime.dl.python.core.data.serde;
 
-import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 
 import org.knime.dl.core.data.DLBuffer;
 import org.knime.dl.python.core.data.DLPythonLongBuffer;
@@ -78,28 +76,12 @@ public DLPythonLongBufferSerializerFactory() {
 
 	@Override
 	public Serializer<? extends DLPythonLongBuffer> createSerializer() {
-
 		return value -> {
-			// TODO: we serialize to flat buffers for now
-			// final int numDimensions = value.getNumDimensions();
-			// final long[] shape = value.getShape();
 			final long size = value.size() - value.getNextReadPosition();
-			final long numBytes = /*
-									 * Integer.BYTES + numDimensions * Long.BYTES +
-									 */ size * Long.BYTES;
-			if (numBytes > Integer.MAX_VALUE) {
-				throw new IOException(
-						"Transmitting data to Python failed. Buffer size exceeds the limit of 2^31-1 bytes.");
-			}
 			final long[] tensorStorage = value.getStorageForReading(value.getNextReadPosition(), size);
-			final ByteBuffer buffer = ByteBuffer.allocate((int) numBytes);
-			buffer.order(ByteOrder.LITTLE_ENDIAN);
+			final ByteBuffer buffer = DLPythonTensorHeader.allocate(DLPythonTensorHeader.TYPE_LONG, value, size,
+					size * Long.BYTES);
 			buffer.asLongBuffer().put(tensorStorage, (int) value.getNextReadPosition(), (int) size);
-			// TODO: we serialize to flat buffers for now
-			// buffer.putInt(numDimensions);
-			// for (final long dim : shape) {
-			// buffer.putLong(dim);
-			// }
 			return buffer.array();
 		};
 	}
@@ -50,7 +50,6 @@
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.nio.ShortBuffer;
 
 import org.knime.core.data.DataCell;
@@ -91,29 +90,18 @@ public Deserializer createDeserializer() {
             public DataCell deserialize(final byte[] bytes, final FileStoreFactory fileStoreFactory)
                 throws IOException {
                 final ByteBuffer buffer = ByteBuffer.wrap(bytes);
-                buffer.order(ByteOrder.LITTLE_ENDIAN);
-                // TODO: we serialize to a flat buffer for now
-                // final int numDimensions = buffer.getInt();
-                // final long[] shape = new long[numDimensions];
-                // for (int i = 0; i < numDimensions; i++) {
-                // shape[i] = buffer.getLong();
-                // }
+                final DLPythonTensorHeader header = DLPythonTensorHeader.read(buffer, DLPythonTensorHeader.TYPE_SHORT);
                 final ShortBuffer shortBuffer = buffer.asShortBuffer();
-                final DLPythonShortBuffer value = new DLPythonShortBuffer(buffer.capacity() / Short.BYTES);
+                final DLPythonShortBuffer value = new DLPythonShortBuffer(shortBuffer.limit());
                 shortBuffer.get(value.getStorageForWriting(0, shortBuffer.limit()));
+                value.setShape(header.getShape());
                 return value;
             }
 
             @Override
             public void deserialize(final byte[] bytes, final DLTensor<DLPythonShortBuffer> data) {
                 final ByteBuffer buffer = ByteBuffer.wrap(bytes);
-                buffer.order(ByteOrder.LITTLE_ENDIAN);
-                // TODO: we serialize to a flat buffer for now
-                // final int numDimensions = buffer.getInt();
-                // final long[] shape = new long[numDimensions];
-                // for (int i = 0; i < numDimensions; i++) {
-                // shape[i] = buffer.getLong();
-                // }
+                DLPythonTensorHeader.read(buffer, DLPythonTensorHeader.TYPE_SHORT);
                 final ShortBuffer shortBuffer = buffer.asShortBuffer();
                 final DLPythonShortBuffer tensorBuffer = data.getBuffer();
                 final int writeStart = (int)tensorBuffer.size();
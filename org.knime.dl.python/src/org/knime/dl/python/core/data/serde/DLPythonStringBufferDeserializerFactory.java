@@ -48,7 +48,6 @@
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 
 import org.knime.core.data.DataCell;
 import org.knime.core.data.filestore.FileStoreFactory;
@@ -90,33 +89,34 @@ public Deserializer createDeserializer() {
 
             @Override
             public DataCell deserialize(byte[] bytes, FileStoreFactory fileStoreFactory) throws IOException {
-                final int[] lengths = getLengths(bytes);
-                final DLPythonStringBuffer buffer = new DLPythonStringBuffer(lengths.length);
-                readStrings(bytes, buffer, lengths);
-                return buffer;
+                final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                final DLPythonTensorHeader header = DLPythonTensorHeader.read(buffer, DLPythonTensorHeader.TYPE_STRING);
+                final int[] lengths = getLengths(buffer, header);
+                final DLPythonStringBuffer value = new DLPythonStringBuffer(lengths.length);
+                readStrings(buffer, value, lengths);
+                value.setShape(header.getShape());
+                return value;
             }
 
             @Override
             public void deserialize(byte[] bytes, DLTensor<DLPythonStringBuffer> data) {
-                final int[] lengths = getLengths(bytes);
-                final DLPythonStringBuffer buffer = data.getBuffer();
-                readStrings(bytes, buffer, lengths);
+                final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                final DLPythonTensorHeader header = DLPythonTensorHeader.read(buffer, DLPythonTensorHeader.TYPE_STRING);
+                final int[] lengths = getLengths(buffer, header);
+                readStrings(buffer, data.getBuffer(), lengths);
             }
 
-            private void readStrings(byte[] bytes, DLPythonStringBuffer buffer, int[] lengths) {
-                int nValues = lengths.length;
-                int offset = Integer.BYTES * (nValues + 1);
-                for (int i = 0; i < nValues; i++) {
-                    int length = lengths[i];
-                    buffer.put(new String(bytes, offset, length, Charsets.UTF_8));
+            private void readStrings(ByteBuffer buffer, DLPythonStringBuffer value, int[] lengths) {
+                final byte[] bytes = buffer.array();
+                int offset = buffer.position();
+                for (int length : lengths) {
+                    value.put(new String(bytes, offset, length, Charsets.UTF_8));
                     offset += length;
                 }
             }
 
-            private int[] getLengths(byte[] bytes) {
-                final ByteBuffer buffer = ByteBuffer.wrap(bytes);
-                buffer.order(ByteOrder.LITTLE_ENDIAN);
-                int nValues = buffer.getInt();
+            private int[] getLengths(ByteBuffer buffer, DLPythonTensorHeader header) {
+                int nValues = (int)header.getNumElements();
                 int[] lengths = new int[nValues];
                 for (int i = 0; i < nValues; i++) {
                     lengths[i] = buffer.getInt();
@@ -46,8 +46,8 @@
  */
 package org.knime.dl.python.core.data.serde;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.util.Arrays;
 
 import org.knime.dl.core.data.DLBuffer;
@@ -84,22 +84,21 @@ public Serializer<? extends DLPythonStringBuffer> createSerializer() {
         return DLPythonStringBufferSerializerFactory::createBytes;
     }
 
-    private static byte[] createBytes(DLPythonStringBuffer value) {
+    private static byte[] createBytes(DLPythonStringBuffer value) throws IOException {
         // Note that casting to int should be fine because the data is stored in a array which is indexed by int
         final int nextRead = (int)value.getNextReadPosition();
         final int size = (int)(value.size() - nextRead);
         String[] storage = value.getStorageForReading(nextRead, size);
         final byte[][] values = new byte[size][];
         final int[] lengths = new int[size];
-        int totalLength = (size + 1) * Integer.BYTES;
+        long totalLength = (long)size * Integer.BYTES;
         for (int i = 0; i < size; i++) {
             values[i] = storage[nextRead + i].getBytes(Charsets.UTF_8);
             lengths[i] = values[i].length;
             totalLength += lengths[i];
         }
-        ByteBuffer buffer = ByteBuffer.allocate(totalLength);
-        buffer.order(ByteOrder.LITTLE_ENDIAN);
-        buffer.putInt(size);
+        // the header is followed by the lengths of the encoded strings and the strings themselves
+        ByteBuffer buffer = DLPythonTensorHeader.allocate(DLPythonTensorHeader.TYPE_STRING, value, size, totalLength);
         Arrays.stream(lengths).forEachOrdered(buffer::putInt);
         Arrays.stream(values).forEachOrdered(buffer::put);
         return buffer.array();
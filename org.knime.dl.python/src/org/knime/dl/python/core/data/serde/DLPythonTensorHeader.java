@@ -0,0 +1,298 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.python.core.data.serde;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+import org.knime.dl.python.core.data.DLPythonDataBuffer;
+
+/**
+ * Binary header that precedes the payload of each serialized {@link DLPythonDataBuffer buffer} in both directions of
+ * the Java-Python transfer. Its layout must be kept in sync with <code>DLPythonDataBuffers.py</code>:
+ * <ul>
+ * <li>format version (1 byte)</li>
+ * <li>element type (1 byte), see the <code>TYPE_*</code> constants</li>
+ * <li>byte order of the payload (1 byte), 0 for little endian and 1 for big endian</li>
+ * <li>flags (1 byte), bit 0 is set if the first dimension is the batch dimension</li>
+ * <li>rank (4 bytes)</li>
+ * <li>one dimension per rank (8 bytes each)</li>
+ * </ul>
+ * All header fields are little endian. The header size is a multiple of eight bytes which keeps the payload aligned.
+ *
+ * @author agent
+ */
+public final class DLPythonTensorHeader {
+
+	/**
+	 * Element type of double buffers.
+	 */
+	public static final byte TYPE_DOUBLE = 1;
+
+	/**
+	 * Element type of float buffers.
+	 */
+	public static final byte TYPE_FLOAT = 2;
+
+	/**
+	 * Element type of long buffers.
+	 */
+	public static final byte TYPE_LONG = 3;
+
+	/**
+	 * Element type of int buffers.
+	 */
+	public static final byte TYPE_INT = 4;
+
+	/**
+	 * Element type of short buffers.
+	 */
+	public static final byte TYPE_SHORT = 5;
+
+	/**
+	 * Element type of byte buffers.
+	 */
+	public static final byte TYPE_BYTE = 6;
+
+	/**
+	 * Element type of unsigned byte buffers.
+	 */
+	public static final byte TYPE_UNSIGNED_BYTE = 7;
+
+	/**
+	 * Element type of bit buffers.
+	 */
+	public static final byte TYPE_BIT = 8;
+
+	/**
+	 * Element type of string buffers.
+	 */
+	public static final byte TYPE_STRING = 9;
+
+	private static final byte VERSION = 1;
+
+	private static final byte LITTLE_ENDIAN = 0;
+
+	private static final byte BIG_ENDIAN = 1;
+
+	private static final byte FLAG_BATCHED = 1;
+
+	private static final int FIXED_SIZE = 4 * Byte.BYTES + Integer.BYTES;
+
+	/**
+	 * Allocates a little endian byte buffer that holds the header for the given buffer followed by the given number of
+	 * payload bytes. The shape of the header is the {@link DLPythonDataBuffer#getShape() shape} of the buffer if
+	 * present and consistent with the number of transmitted elements, a flat shape otherwise.
+	 *
+	 * @param elementType the element type, see the <code>TYPE_*</code> constants
+	 * @param value the buffer to serialize
+	 * @param size the number of elements to transmit
+	 * @param payloadBytes the size of the payload in bytes
+	 * @return the byte buffer, positioned at the start of the payload
+	 * @throws IOException if header and payload exceed the limit of 2^31-1 bytes
+	 */
+	public static ByteBuffer allocate(final byte elementType, final DLPythonDataBuffer<?> value, final long size,
+			final long payloadBytes) throws IOException {
+		final long[] shape = value.getShape();
+		final boolean batched = shape != null && getNumElements(shape) == size;
+		return allocate(elementType, batched ? shape : new long[] { size }, batched, payloadBytes);
+	}
+
+	/**
+	 * Allocates a little endian byte buffer that holds the given header followed by the given number of payload bytes.
+	 *
+	 * @param elementType the element type, see the <code>TYPE_*</code> constants
+	 * @param shape the shape
+	 * @param batched <code>true</code> if the first dimension of the shape is the batch dimension
+	 * @param payloadBytes the size of the payload in bytes
+	 * @return the byte buffer, positioned at the start of the payload
+	 * @throws IOException if header and payload exceed the limit of 2^31-1 bytes
+	 */
+	public static ByteBuffer allocate(final byte elementType, final long[] shape, final boolean batched,
+			final long payloadBytes) throws IOException {
+		final long numBytes = getSize(shape.length) + payloadBytes;
+		if (numBytes > Integer.MAX_VALUE) {
+			throw new IOException("Transmitting data to Python failed. Buffer size exceeds the limit of 2^31-1 bytes.");
+		}
+		final ByteBuffer buffer = ByteBuffer.allocate((int) numBytes);
+		buffer.order(ByteOrder.LITTLE_ENDIAN);
+		buffer.put(VERSION);
+		buffer.put(elementType);
+		buffer.put(LITTLE_ENDIAN);
+		buffer.put(batched ? FLAG_BATCHED : 0);
+		buffer.putInt(shape.length);
+		for (final long dim : shape) {
+			buffer.putLong(dim);
+		}
+		return buffer;
+	}
+
+	/**
+	 * Reads the header at the current position of the given byte buffer and checks its element type. Afterwards, the
+	 * byte buffer is positioned at the start of the payload and its byte order is the one of the payload.
+	 *
+	 * @param buffer the byte buffer
+	 * @param expectedElementType the expected element type, see the <code>TYPE_*</code> constants
+	 * @return the header
+	 * @throws IllegalStateException if the header is malformed or of another element type
+	 */
+	public static DLPythonTensorHeader read(final ByteBuffer buffer, final byte expectedElementType) {
+		final DLPythonTensorHeader header = read(buffer);
+		if (header.m_elementType != expectedElementType) {
+			throw new IllegalStateException("Transmitted data is of element type " + header.m_elementType
+					+ " but element type " + expectedElementType + " was expected.");
+		}
+		return header;
+	}
+
+	/**
+	 * Reads the header at the current position of the given byte buffer. Afterwards, the byte buffer is positioned at
+	 * the start of the payload and its byte order is the one of the payload.
+	 *
+	 * @param buffer the byte buffer
+	 * @return the header
+	 * @throws IllegalStateException if the header is malformed
+	 */
+	public static DLPythonTensorHeader read(final ByteBuffer buffer) {
+		buffer.order(ByteOrder.LITTLE_ENDIAN);
+		if (buffer.remaining() < FIXED_SIZE) {
+			throw new IllegalStateException("Transmitted data does not contain a tensor header.");
+		}
+		final byte version = buffer.get();
+		if (version != VERSION) {
+			throw new IllegalStateException("Transmitted data has an unsupported tensor header version (" + version
+					+ "). Please make sure that the installed KNIME Deep Learning extensions are of the same version.");
+		}
+		final byte elementType = buffer.get();
+		final ByteOrder byteOrder = buffer.get() == BIG_ENDIAN ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+		final boolean batched = (buffer.get() & FLAG_BATCHED) != 0;
+		final int rank = buffer.getInt();
+		if (rank < 0 || buffer.remaining() < (long) rank * Long.BYTES) {
+			throw new IllegalStateException("Transmitted data contains a malformed tensor header.");
+		}
+		final long[] shape = new long[rank];
+		for (int i = 0; i < rank; i++) {
+			shape[i] = buffer.getLong();
+		}
+		buffer.order(byteOrder);
+		return new DLPythonTensorHeader(elementType, shape, batched, byteOrder);
+	}
+
+	/**
+	 * @param rank the rank of the shape
+	 * @return the size in bytes of a header of the given rank
+	 */
+	public static int getSize(final int rank) {
+		return FIXED_SIZE + rank * Long.BYTES;
+	}
+
+	private static long getNumElements(final long[] shape) {
+		long numElements = 1;
+		for (final long dim : shape) {
+			numElements *= dim;
+		}
+		return numElements;
+	}
+
+	private final byte m_elementType;
+
+	private final long[] m_shape;
+
+	private final boolean m_batched;
+
+	private final ByteOrder m_byteOrder;
+
+	private DLPythonTensorHeader(final byte elementType, final long[] shape, final boolean batched,
+			final ByteOrder byteOrder) {
+		m_elementType = elementType;
+		m_shape = shape;
+		m_batched = batched;
+		m_byteOrder = byteOrder;
+	}
+
+	/**
+	 * @return the element type, see the <code>TYPE_*</code> constants
+	 */
+	public byte getElementType() {
+		return m_elementType;
+	}
+
+	/**
+	 * @return the shape, including the batch dimension if {@link #isBatched() batched}
+	 */
+	public long[] getShape() {
+		return m_shape.clone();
+	}
+
+	/**
+	 * @return <code>true</code> if the first dimension of the shape is the batch dimension
+	 */
+	public boolean isBatched() {
+		return m_batched;
+	}
+
+	/**
+	 * @return the byte order of the payload
+	 */
+	public ByteOrder getByteOrder() {
+		return m_byteOrder;
+	}
+
+	/**
+	 * @return the number of elements of the payload, i.e. the product of the dimensions of the shape
+	 */
+	public long getNumElements() {
+		return getNumElements(m_shape);
+	}
+
+	@Override
+	public String toString() {
+		return "type " + m_elementType + ", shape " + Arrays.toString(m_shape) + (m_batched ? " (batched)" : "");
+	}
+}
@@ -78,7 +78,8 @@ public DLPythonUnsignedByteBufferDeserializerFactory() {
      */
     @Override
     public Deserializer createDeserializer() {
-        return new DLPythonByteBufferDeserializer<>(DLPythonUnsignedByteBuffer::new);
+        return new DLPythonByteBufferDeserializer<>(DLPythonUnsignedByteBuffer::new,
+            DLPythonTensorHeader.TYPE_UNSIGNED_BYTE);
     }
 
     /**
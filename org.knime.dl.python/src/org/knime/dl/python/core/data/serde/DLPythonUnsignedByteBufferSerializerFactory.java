@@ -75,7 +75,7 @@ public DLPythonUnsignedByteBufferSerializerFactory() {
 
     @Override
     public Serializer<? extends DLPythonUnsignedByteBuffer> createSerializer() {
-        return new DLPythonByteBufferSerializer<>();
+        return new DLPythonByteBufferSerializer<>(DLPythonTensorHeader.TYPE_UNSIGNED_BYTE);
     }
 
     @Override
@@ -48,13 +48,24 @@
  */
 package org.knime.dl.python.core.execution;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang3.ArrayUtils;
+import org.knime.core.node.NodeLogger;
+import org.knime.core.util.ThreadUtils;
 import org.knime.core.util.asynclose.AsynchronousCloseable;
 import org.knime.dl.core.DLCanceledExecutionException;
 import org.knime.dl.core.DLInvalidEnvironmentException;
@@ -64,6 +75,7 @@
 import org.knime.dl.core.DLTensorFactory;
 import org.knime.dl.core.DLTensorId;
 import org.knime.dl.core.DLTensorSpec;
+import org.knime.dl.core.data.DLReadableBuffer;
 import org.knime.dl.core.data.DLWritableBuffer;
 import org.knime.dl.core.execution.DLAbstractNetworkExecutionSession;
 import org.knime.dl.core.execution.DLExecutionMonitor;
@@ -72,6 +84,8 @@
 import org.knime.dl.core.training.DLTrainingMonitor;
 import org.knime.dl.python.core.DLPythonCommands;
 import org.knime.dl.python.core.DLPythonContext;
+import org.knime.dl.python.core.DLPythonDefaultContext;
+import org.knime.dl.python.core.DLPythonExecutionKernelPool;
 import org.knime.dl.python.core.DLPythonNetwork;
 import org.knime.dl.python.core.DLPythonNetworkHandle;
 import org.knime.dl.python.core.DLPythonNetworkLoaderRegistry;
@@ -83,6 +97,22 @@
 public abstract class DLPythonAbstractNetworkExecutionSession<N extends DLPythonNetwork, C extends DLPythonCommands>
 	extends DLAbstractNetworkExecutionSession<N> implements DLPythonNetworkExecutionSession {
 
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(DLPythonAbstractNetworkExecutionSession.class);
+
+    private static final long PIPELINE_POLL_INTERVAL_MS = 100;
+
+    private static final long PIPELINE_TERMINATION_TIMEOUT_MIN = 1;
+
+    /**
+     * Marks the end of the input in pipelined execution. Compared by identity.
+     */
+    private static final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> END_OF_INPUT = new HashMap<>(0);
+
+    /**
+     * Marks the end of the output in pipelined execution. Compared by identity.
+     */
+    private static final Map<DLTensorId, DLTensor<? extends DLReadableBuffer>> END_OF_OUTPUT = new HashMap<>(0);
+
     private final DLPythonContext m_context;
 
     /**
@@ -93,6 +123,16 @@
 
 	private DLPythonNetworkHandle m_handle;
 
+	/**
+	 * Non-<code>null</code> if the kernel of this session is shared via {@link DLPythonExecutionKernelPool}.
+	 */
+	private DLPythonExecutionKernelPool.Key m_poolKey;
+
+	/**
+	 * Only set after a successful execution. Kernels of failed executions are not handed back to the pool.
+	 */
+	private boolean m_releaseToPool;
+
     private final Map<String, String> m_additionalEnvVars;
 
     protected DLPythonAbstractNetworkExecutionSession(final DLPythonContext context, final N network,
@@ -112,7 +152,7 @@ protected DLPythonAbstractNetworkExecutionSession(final DLPythonContext context,
 	@Override
 	public void close() throws Exception {
 		super.close();
-		if (m_commands != null) {
+		if (m_commands != null && !releaseToPool()) {
 			m_commands.close();
 		}
 	}
@@ -120,63 +160,77 @@ public void close() throws Exception {
 	@Override
 	public Future<Void> asynchronousClose() throws Exception {
 	    super.close();
-	    if (m_commands != null) {
+	    if (m_commands != null && !releaseToPool()) {
 	        return m_commands.asynchronousClose();
 	    } else {
 	        return AsynchronousCloseable.alreadyClosed();
 	    }
 	}
 
+	private boolean releaseToPool() {
+		if (!m_releaseToPool) {
+			return false;
+		}
+		DLPythonExecutionKernelPool.getInstance()
+			.release(new DLPythonExecutionKernelPool.Entry(m_poolKey, m_commands, m_handle));
+		m_commands = null;
+		m_releaseToPool = false;
+		return true;
+	}
+
 	@Override
 	protected void executeInternal(final DLExecutionMonitor monitor) throws DLCanceledExecutionException, Exception {
+		m_releaseToPool = false;
 		if (m_commands == null) {
-			m_commands = createCommands(m_context);
-            @SuppressWarnings("resource") // Closed in #close
-            final DLPythonContext context = m_commands.getContext(monitor);
-            for (final Entry<String, String> var : m_additionalEnvVars.entrySet()) {
-                context.setEnvironmentVariable(var.getKey(), var.getValue(), monitor);
-            }
-            m_handle = DLPythonNetworkLoaderRegistry.getInstance().getNetworkLoader((Class<N>)m_network.getClass())
-                .orElseThrow(
-                    () -> new DLMissingExtensionException("Python back end '" + m_network.getClass().getCanonicalName()
-                        + "' could not be found. Are you missing a KNIME Deep Learning extension?"))
-                .load(m_network, m_commands.getContext(monitor), false, monitor);
+			final DLPythonExecutionKernelPool.Entry pooled = acquirePooledKernel();
+			if (pooled != null) {
+				m_commands = (C)pooled.getCommands();
+				m_handle = pooled.getHandle();
+			} else {
+				m_commands = createCommands(m_poolKey != null ? m_poolKey.createContext() : m_context);
+				@SuppressWarnings("resource") // Closed in #close
+				final DLPythonContext context = m_commands.getContext(monitor);
+				for (final Entry<String, String> var : m_additionalEnvVars.entrySet()) {
+					context.setEnvironmentVariable(var.getKey(), var.getValue(), monitor);
+				}
+				m_handle = DLPythonNetworkLoaderRegistry.getInstance().getNetworkLoader((Class<N>)m_network.getClass())
+					.orElseThrow(() -> new DLMissingExtensionException(
+						"Python back end '" + m_network.getClass().getCanonicalName()
+							+ "' could not be found. Are you missing a KNIME Deep Learning extension?"))
+					.load(m_network, m_commands.getContext(monitor), false, monitor);
+			}
 		}
+		if (m_pipelineDepth > 1) {
+			executePipelined(monitor);
+		} else {
+			executeSequentially(monitor);
+		}
+		m_releaseToPool = m_poolKey != null;
+	}
+
+	/**
+	 * Computes {@link #m_poolKey} if pooling is applicable and tries to acquire a matching kernel.
+	 */
+	private DLPythonExecutionKernelPool.Entry acquirePooledKernel() {
+		if (!DLPythonExecutionKernelPool.isEnabled() || !(m_context instanceof DLPythonDefaultContext)
+			|| m_context.isKernelOpen()) {
+			return null;
+		}
+		m_poolKey = new DLPythonExecutionKernelPool.Key((DLPythonDefaultContext)m_context, getClass().getName(),
+			m_network, m_additionalEnvVars);
+		return DLPythonExecutionKernelPool.getInstance().acquire(m_poolKey);
+	}
+
+	private void executeSequentially(final DLExecutionMonitor monitor)
+		throws DLCanceledExecutionException, Exception {
 		final DLExecutionStatus status = monitor.getExecutionStatus();
-		long currentInBatchSize = m_expectedBatchSize;
         while (m_inputPreparer.hasNext()) {
 			monitor.checkCanceled();
             m_inputPreparer.prepareNext(m_input);
 			monitor.checkCanceled();
-            if (!m_inputPreparer.hasNext()) {
-				// last batch might be incomplete
-				final DLTensor<? extends DLWritableBuffer> tensor = m_input.values().stream().findAny().get();
-				currentInBatchSize = tensor.getBuffer().size() / tensor.getExampleSize();
-			}
-			m_commands.setNetworkInputs(m_handle, m_input, monitor);
-			monitor.checkCanceled();
-			m_commands.executeNetwork(m_handle, m_requestedOutputs, currentInBatchSize, monitor);
-			monitor.checkCanceled();
-			for (final DLTensor<?> input : m_input.values()) {
-				input.getBuffer().reset();
-			}
+			executeBatch(m_input, monitor);
 			if (m_output == null) {
-				m_output = new HashMap<>(m_requestedOutputs.size());
-				final DLTensorSpec[] outputSpecs = ArrayUtils.addAll(m_network.getSpec().getOutputSpecs(),
-						m_network.getSpec().getHiddenOutputSpecs());
-				final Map<DLTensorId, long[]> outputShapes = m_commands.getNetworkOutputShapes(m_handle,
-						m_requestedOutputs, monitor);
-				for (final DLTensorSpec spec : outputSpecs) {
-					if (m_requestedOutputs.contains(spec.getIdentifier())) {
-						final long[] outShape = outputShapes.get(spec.getIdentifier());
-						final long outBatchSize = outShape[0];
-						final long[] outShapeWithoutBatchSize = new long[outShape.length - 1];
-						System.arraycopy(outShape, 1, outShapeWithoutBatchSize, 0, outShapeWithoutBatchSize.length);
-						final DLTensorSpec executionSpec = m_tensorFactory.createExecutionTensorSpec(spec, outBatchSize,
-								outShapeWithoutBatchSize);
-						m_output.put(spec.getIdentifier(), m_tensorFactory.createReadableTensor(executionSpec));
-					}
-				}
+				m_output = createOutputTensors(getOutputShapes(monitor));
 			}
 			m_commands.getNetworkOutputs(m_handle, m_output, monitor);
 			monitor.checkCanceled();
@@ -188,6 +242,170 @@ protected void executeInternal(final DLExecutionMonitor monitor) throws DLCancel
 		}
 	}
 
+	/**
+	 * Keeps up to {@link #m_pipelineDepth} batches in flight using rotating sets of pre-allocated input and output
+	 * tensors: batch N+1 is prepared on a producer thread and the outputs of batch N-1 are consumed on a consumer
+	 * thread while batch N is transferred to and executed in Python on the calling thread. Kernel communication stays
+	 * confined to the calling thread. Batches are consumed in the order in which they were prepared.
+	 */
+	private void executePipelined(final DLExecutionMonitor monitor) throws DLCanceledExecutionException, Exception {
+		final DLExecutionStatus status = monitor.getExecutionStatus();
+		final BlockingQueue<Map<DLTensorId, DLTensor<? extends DLWritableBuffer>>> freeInputs =
+			new ArrayBlockingQueue<>(m_pipelineDepth);
+		final BlockingQueue<Map<DLTensorId, DLTensor<? extends DLWritableBuffer>>> preparedInputs =
+			new ArrayBlockingQueue<>(m_pipelineDepth + 1);
+		final BlockingQueue<Map<DLTensorId, DLTensor<? extends DLReadableBuffer>>> freeOutputs =
+			new ArrayBlockingQueue<>(m_pipelineDepth);
+		final BlockingQueue<Map<DLTensorId, DLTensor<? extends DLReadableBuffer>>> filledOutputs =
+			new ArrayBlockingQueue<>(m_pipelineDepth + 1);
+		final List<DLTensor<?>> additionalTensors = new ArrayList<>();
+		freeInputs.add(m_input);
+		for (int i = 1; i < m_pipelineDepth; i++) {
+			final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input = createInputTensors();
+			additionalTensors.addAll(input.values());
+			freeInputs.add(input);
+		}
+		final ExecutorService executor = Executors.newFixedThreadPool(2, r -> {
+			final Thread thread = new Thread(r, "KNIME-DL-Execution-Pipeline");
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			final Callable<Void> produce = () -> {
+				while (m_inputPreparer.hasNext()) {
+					monitor.checkCanceled();
+					final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input = freeInputs.take();
+					m_inputPreparer.prepareNext(input);
+					preparedInputs.put(input);
+				}
+				preparedInputs.put(END_OF_INPUT);
+				return null;
+			};
+			final Callable<Void> consume = () -> {
+				Map<DLTensorId, DLTensor<? extends DLReadableBuffer>> output;
+				while ((output = filledOutputs.take()) != END_OF_OUTPUT) {
+					monitor.checkCanceled();
+					m_outputConsumer.accept(output);
+					for (final DLTensor<?> tensor : output.values()) {
+						tensor.getBuffer().reset();
+					}
+					freeOutputs.put(output);
+					status.batchEnded().raise(null);
+				}
+				return null;
+			};
+			final Future<Void> producer = executor.submit(ThreadUtils.callableWithContext(produce));
+			final Future<Void> consumer = executor.submit(ThreadUtils.callableWithContext(consume));
+			Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input;
+			while ((input = take(preparedInputs, producer)) != END_OF_INPUT) {
+				monitor.checkCanceled();
+				executeBatch(input, monitor);
+				freeInputs.put(input);
+				if (m_output == null) {
+					final Map<DLTensorId, long[]> outputShapes = getOutputShapes(monitor);
+					m_output = createOutputTensors(outputShapes);
+					freeOutputs.add(m_output);
+					for (int i = 1; i < m_pipelineDepth; i++) {
+						final Map<DLTensorId, DLTensor<? extends DLReadableBuffer>> output =
+							createOutputTensors(outputShapes);
+						additionalTensors.addAll(output.values());
+						freeOutputs.add(output);
+					}
+				}
+				final Map<DLTensorId, DLTensor<? extends DLReadableBuffer>> output = take(freeOutputs, consumer);
+				m_commands.getNetworkOutputs(m_handle, output, monitor);
+				monitor.checkCanceled();
+				filledOutputs.put(output);
+			}
+			filledOutputs.put(END_OF_OUTPUT);
+			getPipelineStageResult(consumer);
+		} finally {
+			executor.shutdownNow();
+			// input preparation and output consumption do not necessarily respond to interrupts, the pipeline stages
+			// must have finished before the tensors they may still be working on can be closed
+			if (awaitTermination(executor)) {
+				additionalTensors.forEach(DLTensor::close);
+			}
+		}
+	}
+
+	private static boolean awaitTermination(final ExecutorService executor) {
+		try {
+			if (!executor.awaitTermination(PIPELINE_TERMINATION_TIMEOUT_MIN, TimeUnit.MINUTES)) {
+				LOGGER.warn("Execution pipeline did not terminate in time.");
+				return false;
+			}
+			return true;
+		} catch (final InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	private void executeBatch(final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input,
+		final DLExecutionMonitor monitor) throws DLCanceledExecutionException, Exception {
+		// last batch might be incomplete
+		final DLTensor<? extends DLWritableBuffer> tensor = input.values().stream().findAny().get();
+		final long currentInBatchSize = tensor.getBuffer().size() / tensor.getExampleSize();
+		m_commands.setNetworkInputs(m_handle, input, monitor);
+		monitor.checkCanceled();
+		m_commands.executeNetwork(m_handle, m_requestedOutputs, currentInBatchSize, monitor);
+		monitor.checkCanceled();
+		for (final DLTensor<?> in : input.values()) {
+			in.getBuffer().reset();
+		}
+	}
+
+	private Map<DLTensorId, long[]> getOutputShapes(final DLExecutionMonitor monitor) throws Exception {
+		return m_commands.getNetworkOutputShapes(m_handle, m_requestedOutputs, monitor);
+	}
+
+	private Map<DLTensorId, DLTensor<? extends DLReadableBuffer>>
+		createOutputTensors(final Map<DLTensorId, long[]> outputShapes) {
+		final Map<DLTensorId, DLTensor<? extends DLReadableBuffer>> output =
+			new HashMap<>(m_requestedOutputs.size());
+		final DLTensorSpec[] outputSpecs = ArrayUtils.addAll(m_network.getSpec().getOutputSpecs(),
+				m_network.getSpec().getHiddenOutputSpecs());
+		for (final DLTensorSpec spec : outputSpecs) {
+			if (m_requestedOutputs.contains(spec.getIdentifier())) {
+				final long[] outShape = outputShapes.get(spec.getIdentifier());
+				final long outBatchSize = outShape[0];
+				final long[] outShapeWithoutBatchSize = new long[outShape.length - 1];
+				System.arraycopy(outShape, 1, outShapeWithoutBatchSize, 0, outShapeWithoutBatchSize.length);
+				final DLTensorSpec executionSpec = m_tensorFactory.createExecutionTensorSpec(spec, outBatchSize,
+						outShapeWithoutBatchSize);
+				output.put(spec.getIdentifier(), m_tensorFactory.createReadableTensor(executionSpec));
+			}
+		}
+		return output;
+	}
+
+	/**
+	 * Takes the next element from the given queue while watching the pipeline stage that feeds it. Rethrows the
+	 * stage's failure instead of blocking forever if the stage terminated exceptionally.
+	 */
+	private static <T> T take(final BlockingQueue<T> queue, final Future<Void> stage) throws Exception {
+		T element;
+		while ((element = queue.poll(PIPELINE_POLL_INTERVAL_MS, TimeUnit.MILLISECONDS)) == null) {
+			if (stage.isDone()) {
+				getPipelineStageResult(stage);
+			}
+		}
+		return element;
+	}
+
+	private static void getPipelineStageResult(final Future<Void> stage) throws Exception {
+		try {
+			stage.get();
+		} catch (final ExecutionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof Exception) {
+				throw (Exception)cause;
+			}
+			throw e;
+		}
+	}
+
     @Override
     public void setKernelEnvironmentVariable(final String name, final String value) {
         m_additionalEnvVars.put(name, value);
@@ -190,7 +190,8 @@ protected void trainInternal(final DLTrainingMonitor<? extends S> monitor)
                 .load(m_network, m_commands.getContext(monitor), true, monitor);
 			setNetworkTrainingConfig(m_handle, m_trainingConfig, monitor);
 		}
-		m_commands.trainNetwork(m_handle, m_trainingInputProvider, m_validationInputProvider, monitor);
+		m_commands.trainNetwork(m_handle, m_trainingInputProvider, m_validationInputProvider,
+			m_validationDataCacheSize, monitor);
 	}
 
     @Override
@@ -60,6 +60,12 @@
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.OptionalLong;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.knime.core.data.DataColumnSpec;
@@ -91,6 +97,7 @@
 import org.knime.core.node.streamable.RowOutput;
 import org.knime.core.node.streamable.StreamableOperator;
 import org.knime.core.node.util.filter.column.DataColumnSpecFilterConfiguration;
+import org.knime.core.util.ThreadUtils;
 import org.knime.core.util.UniqueNameGenerator;
 import org.knime.core.util.asynclose.AsynchronousCloseableTracker;
 import org.knime.dl.base.nodes.DLConfigurationUtility;
@@ -122,6 +129,7 @@
 import org.knime.dl.core.execution.DLKnimeExecutionMonitor;
 import org.knime.dl.core.execution.DLKnimeNetworkExecutionInputPreparer;
 import org.knime.dl.core.execution.DLKnimeNetworkOutputConsumer;
+import org.knime.dl.core.execution.DLKnimeParallelExecutionDispatcher;
 import org.knime.dl.core.execution.DLNetworkExecutionSession;
 import org.knime.dl.core.execution.DLNetworkOutputConsumer;
 import org.knime.dl.util.DLUtils;
@@ -150,6 +158,8 @@
 
     private static final NodeLogger LOGGER = NodeLogger.getLogger(DLAbstractExecutorNodeModel.class);
 
+    private static final long SESSION_TERMINATION_TIMEOUT_MIN = 1;
+
     static DLExecutorGeneralConfig createGeneralModelConfig() {
         return new DLExecutorGeneralConfig("<none>", null, 100);
     }
@@ -333,6 +343,9 @@ protected void saveSettingsTo(final NodeSettingsWO settings) {
 
     @Override
     protected void validateSettings(final NodeSettingsRO settings) throws InvalidSettingsException {
+        // load into a throwaway config to check the general settings (e.g. their value ranges) without altering ours
+        createGeneralModelConfig().loadFromSettings(settings);
+
         m_inputCfgs.clear();
         final NodeSettingsRO inputSettings = settings.getNodeSettings(CFG_KEY_INPUTS);
         for (final String tensorIdString : inputSettings) {
@@ -544,6 +557,13 @@ private <N extends DLNetwork> void executeInternal(final PortObject portObject,
         final LinkedHashMap<DLTensorId, DLTensorToDataCellConverterFactory<?, ?>> outputConverterForTensorId =
             createOutputConverterMap();
 
+        final int numSessions = m_generalCfg.getParallelSessionsEntry().getValue();
+        if (numSessions > 1) {
+            executeInParallel(network, rowInput, rowOutput, exec, numSessions, batchSize, isPredefinedBatchSize,
+                keepInputColumns, columnsForTensorId, inputConverterForTensorId, outputConverterForTensorId);
+            return;
+        }
+
         final C context = getContext(m_generalCfg.getContextEntry().getValue());
         try (final DLRowInputRowIterator rowIterator = new DLRowInputRowIterator(rowInput, columnsForTensorId);
                 final DLKnimeNetworkExecutionInputPreparer inputPreparer = new DLKnimeNetworkExecutionInputPreparer(
@@ -553,6 +573,7 @@ private <N extends DLNetwork> void executeInternal(final PortObject portObject,
                 final DLNetworkExecutionSession session =
                     createExecutionSession(context, network, batchSize, columnsForTensorId, outputConverterForTensorId,
                         rowIterator.peek(), inputPreparer, outputConsumer)) {
+            session.setPipelineDepth(m_generalCfg.getPipelineDepthEntry().getValue());
             final DLKnimeExecutionMonitor monitor = createExecutionMonitor(exec, inputPreparer.getNumBatches());
             session.run(monitor);
             m_sessionShutdownTracker.closeAsynchronously(session);
@@ -567,6 +588,136 @@ private <N extends DLNetwork> void executeInternal(final PortObject portObject,
         }
     }
 
+    /**
+     * Shards the input rows across several execution sessions that run concurrently, each with its own context. Batches
+     * are handed to whichever session asks for input next, results are reassembled in the original row order.
+     */
+    private <N extends DLNetwork> void executeInParallel(final N network, final RowInput rowInput,
+        final RowOutput rowOutput, final ExecutionContext exec, final int numSessions, final int batchSize,
+        final boolean isPredefinedBatchSize, final boolean keepInputColumns,
+        final LinkedHashMap<DLTensorId, int[]> columnsForTensorId,
+        final LinkedHashMap<DLTensorId, DLDataValueToTensorConverterFactory<?, ?>> inputConverterForTensorId,
+        final LinkedHashMap<DLTensorId, DLTensorToDataCellConverterFactory<?, ?>> outputConverterForTensorId)
+        throws Exception {
+        final List<C> contexts = new ArrayList<>(numSessions);
+        final List<AutoCloseable> resources = new ArrayList<>(2 * numSessions);
+        final List<DLNetworkExecutionSession> sessions = new ArrayList<>(numSessions);
+        boolean sessionsHandedOver = false;
+        // true as long as no worker has been started
+        boolean workersTerminated = true;
+        final ExecutorService executor = Executors.newFixedThreadPool(numSessions, r -> {
+            final Thread thread = new Thread(r, "KNIME-DL-Execution-Session");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try (final DLRowInputRowIterator rowIterator = new DLRowInputRowIterator(rowInput, columnsForTensorId);
+                final DLKnimeParallelExecutionDispatcher dispatcher = new DLKnimeParallelExecutionDispatcher(
+                    rowIterator, rowInput.getDataTableSpec(), columnsForTensorId, batchSize, numSessions,
+                    rowOutput)) {
+            final DataRow firstRow = rowIterator.peek();
+            final OptionalLong numBatches = rowInput instanceof DataTableRowInput
+                ? OptionalLong.of((long)Math.ceil(((DataTableRowInput)rowInput).getRowCount() / (double)batchSize))
+                : OptionalLong.empty();
+            final DLExecutionStatus status = createExecutionMonitor(exec, numBatches).getExecutionStatus();
+            final List<Callable<Void>> tasks = new ArrayList<>(numSessions);
+            for (int i = 0; i < numSessions; i++) {
+                final C context = getContext(m_generalCfg.getContextEntry().getValue());
+                contexts.add(context);
+                final DLKnimeParallelExecutionDispatcher.Worker worker = dispatcher.createWorker();
+                final DLKnimeNetworkExecutionInputPreparer inputPreparer = new DLKnimeNetworkExecutionInputPreparer(
+                    worker.getRowIterator(), batchSize, isPredefinedBatchSize, inputConverterForTensorId);
+                resources.add(inputPreparer);
+                final DLKnimeNetworkOutputConsumer outputConsumer = new DLKnimeNetworkOutputConsumer(
+                    worker.getRowOutput(), inputPreparer.getBaseRows()::remove, keepInputColumns,
+                    outputConverterForTensorId, exec);
+                resources.add(outputConsumer);
+                final DLNetworkExecutionSession session = createExecutionSession(context, network, batchSize,
+                    columnsForTensorId, outputConverterForTensorId, firstRow, inputPreparer, outputConsumer);
+                sessions.add(session);
+                session.setPipelineDepth(m_generalCfg.getPipelineDepthEntry().getValue());
+                // sessions report their progress to the shared status, one at a time
+                final DLExecutionStatus sessionStatus = new DLDefaultExecutionStatus();
+                sessionStatus.batchEnded().addListener((src, v) -> {
+                    synchronized (status) {
+                        status.batchEnded().raise(null);
+                    }
+                });
+                final DLKnimeExecutionMonitor sessionMonitor = new DLKnimeExecutionMonitor(exec, sessionStatus);
+                tasks.add(() -> {
+                    try {
+                        session.run(sessionMonitor);
+                    } catch (final Exception e) {
+                        dispatcher.abort();
+                        throw e;
+                    }
+                    return null;
+                });
+            }
+            final List<Future<Void>> futures = new ArrayList<>(numSessions);
+            boolean completed = false;
+            try {
+                for (final Callable<Void> task : tasks) {
+                    futures.add(executor.submit(ThreadUtils.callableWithContext(task)));
+                }
+                for (final Future<Void> future : futures) {
+                    try {
+                        future.get();
+                    } catch (final ExecutionException e) {
+                        dispatcher.abort();
+                        futures.forEach(f -> f.cancel(true));
+                        final Throwable cause = e.getCause();
+                        throw cause instanceof Exception ? (Exception)cause : e;
+                    }
+                }
+                completed = true;
+            } finally {
+                if (!completed) {
+                    // unblock the workers that are waiting for reassembly
+                    dispatcher.abort();
+                }
+                executor.shutdownNow();
+                // sessions do not necessarily respond to interrupts, they must have finished before the dispatcher and
+                // the resources they are working on can be closed
+                workersTerminated = awaitTermination(executor);
+            }
+            for (final DLNetworkExecutionSession session : sessions) {
+                m_sessionShutdownTracker.closeAsynchronously(session);
+            }
+            sessionsHandedOver = true;
+        } catch (final CanceledExecutionException | DLCanceledExecutionException e) {
+            throw e;
+        } catch (final Exception e) {
+            handleGeneralException(e);
+        } finally {
+            executor.shutdownNow();
+            if (workersTerminated) {
+                if (!sessionsHandedOver) {
+                    resources.addAll(sessions);
+                }
+                resources.addAll(contexts.stream().filter(AutoCloseable.class::isInstance)
+                    .map(AutoCloseable.class::cast).collect(Collectors.toList()));
+                for (final AutoCloseable resource : resources) {
+                    try {
+                        resource.close();
+                    } catch (final Exception e) {
+                        LOGGER.debug("Error while closing execution resource.", e);
+                    }
+                }
+            } else {
+                LOGGER.warn("Execution sessions did not terminate in time. Their resources are left open.");
+            }
+        }
+    }
+
+    private static boolean awaitTermination(final ExecutorService executor) {
+        try {
+            return executor.awaitTermination(SESSION_TERMINATION_TIMEOUT_MIN, TimeUnit.MINUTES);
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
     @Override
     protected void onDispose() {
         m_sessionShutdownTracker.waitForAllToClose();
@@ -57,6 +57,7 @@
 import org.knime.dl.base.settings.AbstractConfigEntry;
 import org.knime.dl.base.settings.ConfigEntry;
 import org.knime.dl.base.settings.DLGeneralConfig;
+import org.knime.dl.base.settings.DefaultConfigEntry;
 import org.knime.dl.base.settings.SettingsModelConfigEntries;
 import org.knime.dl.core.DLNetwork;
 import org.knime.dl.core.execution.DLExecutionContext;
@@ -73,6 +74,16 @@
  */
 class DLExecutorGeneralConfig extends AbstractConfig implements DLGeneralConfig<DLExecutionContext<?, ?>> {
 
+    /**
+     * The maximum number of batches that may be in flight at the same time per execution session.
+     */
+    static final int MAX_PIPELINE_DEPTH = 8;
+
+    /**
+     * The maximum number of execution sessions that may run in parallel, each of which holds its own back end process.
+     */
+    static final int MAX_PARALLEL_SESSIONS = 64;
+
     private static final String CFG_KEY_ROOT = "general_settings";
 
     private static final String CFG_KEY_EXEC_CTX = "backend";
@@ -81,6 +92,10 @@ class DLExecutorGeneralConfig extends AbstractConfig implements DLGeneralConfig<
 
     private static final String CFG_KEY_KEEP_INPUT_COLS = "keep_input_columns";
 
+    private static final String CFG_KEY_PIPELINE_DEPTH = "pipeline_depth";
+
+    private static final String CFG_KEY_PARALLEL_SESSIONS = "parallel_sessions";
+
     @SuppressWarnings("rawtypes") // java limitation
     DLExecutorGeneralConfig(final String defaultBackendName, final String defaultBackendId,
         final int defaultBatchSize) {
@@ -114,6 +129,10 @@ public void loadSettingsFrom(final NodeSettingsRO settings) throws InvalidSettin
         put(SettingsModelConfigEntries.createIntegerBoundedConfigEntry(CFG_KEY_BATCH_SIZE, defaultBatchSize, 1,
             Integer.MAX_VALUE));
         put(SettingsModelConfigEntries.createBooleanConfigEntry(CFG_KEY_KEEP_INPUT_COLS, false));
+        // backward compatibility: settings that lack the entry process batches sequentially as before
+        put(new DLBoundedIntegerConfigEntry(CFG_KEY_PIPELINE_DEPTH, 2, 1, MAX_PIPELINE_DEPTH, 1));
+        // backward compatibility: settings that lack the entry execute in a single session as before
+        put(new DLBoundedIntegerConfigEntry(CFG_KEY_PARALLEL_SESSIONS, 1, 1, MAX_PARALLEL_SESSIONS, 1));
     }
 
     ConfigEntry<Integer> getBatchSizeEntry() {
@@ -130,6 +149,55 @@ public ConfigEntry<Boolean> getKeepInputColumnsEntry() {
         return get(CFG_KEY_KEEP_INPUT_COLS, Boolean.class);
     }
 
+    ConfigEntry<Integer> getPipelineDepthEntry() {
+        return get(CFG_KEY_PIPELINE_DEPTH, Integer.class);
+    }
+
+    ConfigEntry<Integer> getParallelSessionsEntry() {
+        return get(CFG_KEY_PARALLEL_SESSIONS, Integer.class);
+    }
+
+    /**
+     * An integer entry whose loaded value must lie within a given range. Falls back to a given value if the entry is
+     * missing, i.e. if the settings were saved by a version that did not know the entry yet.
+     */
+    private static final class DLBoundedIntegerConfigEntry extends DefaultConfigEntry<Integer> {
+
+        private final int m_minValue;
+
+        private final int m_maxValue;
+
+        private final int m_missingValue;
+
+        private DLBoundedIntegerConfigEntry(final String entryKey, final int defaultValue, final int minValue,
+            final int maxValue, final int missingValue) {
+            super(entryKey, Integer.class, defaultValue);
+            m_minValue = minValue;
+            m_maxValue = maxValue;
+            m_missingValue = missingValue;
+        }
+
+        @Override
+        protected void loadEntry(final NodeSettingsRO settings) throws InvalidSettingsException {
+            final int value = settings.getInt(m_key);
+            if (value < m_minValue || value > m_maxValue) {
+                throw new InvalidSettingsException("The value of '" + m_key + "' must be in the range [" + m_minValue
+                    + ", " + m_maxValue + "], but was " + value + ".");
+            }
+            m_value = value;
+        }
+
+        @Override
+        protected boolean handleFailureToLoadConfigEntry(final NodeSettingsRO settings, final Exception cause) {
+            if (settings.containsKey(m_key)) {
+                // the entry exists but is invalid
+                return false;
+            }
+            m_value = m_missingValue;
+            return true;
+        }
+    }
+
     static Collection<DLExecutionContext<?, ?>> // NOSONAR Internal API. Types will be checked at a later point in time.
     getAvailableExecutionContexts(final Class<? extends DLNetwork> networkType) {
         return DLExecutionContextRegistry.getInstance().getExecutionContextsForNetworkType(networkType);
@@ -92,6 +92,14 @@ class DLExecutorGeneralPanel extends AbstractGridBagDialogComponentGroup {
         addNumberSpinnerRowComponent(
             ConfigUtil.toSettingsModelIntegerBounded(m_cfg.getBatchSizeEntry(), 1, Integer.MAX_VALUE),
             "Input batch size", 100);
+        addNumberSpinnerRowComponent(
+            ConfigUtil.toSettingsModelIntegerBounded(m_cfg.getPipelineDepthEntry(), 1,
+                DLExecutorGeneralConfig.MAX_PIPELINE_DEPTH),
+            "Batches in flight", 1);
+        addNumberSpinnerRowComponent(
+            ConfigUtil.toSettingsModelIntegerBounded(m_cfg.getParallelSessionsEntry(), 1,
+                DLExecutorGeneralConfig.MAX_PARALLEL_SESSIONS),
+            "Parallel sessions", 1);
         addCheckboxRow(ConfigUtil.toSettingsModelBoolean(m_cfg.getKeepInputColumnsEntry()),
             "Keep input columns in output table", true);
     }
@@ -49,13 +49,17 @@
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.nio.BufferOverflowException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
+import org.knime.core.data.DataRow;
 import org.knime.core.data.DataValue;
 import org.knime.dl.core.data.DLWritableBuffer;
+import org.knime.dl.core.data.convert.DLDataValueToTensorBatchConverter;
 import org.knime.dl.core.data.convert.DLDataValueToTensorConverter;
 import org.knime.dl.core.data.convert.DLDataValueToTensorConverterFactory;
 
@@ -114,6 +118,91 @@ protected final void writeDataValuesInTensors(final Map<DLTensorId, List<DataVal
 		}
 	}
 
+	/**
+	 * Writes the given rows in the tensors. Tensors whose converters support
+	 * {@link DLDataValueToTensorBatchConverter batch-wise conversion} are filled column-wise in one go, all other
+	 * tensors are filled row by row.
+	 *
+	 * @param rows the rows which to write in the tensors, only the first <code>numRows</code> entries are considered
+	 * @param numRows the number of rows to write
+	 * @param tensors the tensors in which to write the rows
+	 * @throws DLBufferOverflowExceptionForTensor if writing in a tensor exceeds its buffer's capacity. The affected
+	 *             tensor can be retrieved via {@link DLBufferOverflowExceptionForTensor#getTensor()}.
+	 */
+	protected final void writeRowsInTensors(final DataRow[] rows, final int numRows,
+			final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> tensors)
+			throws DLBufferOverflowExceptionForTensor {
+		final Map<DLTensorId, int[]> columns = m_iterator.getColumnsForTensors().orElse(null);
+		final List<DLTensorId> rowWise = new ArrayList<>(tensors.size());
+		if (columns != null) {
+			for (int i = 0; i < numRows; i++) {
+				m_iterator.validate(rows[i]);
+			}
+		}
+		for (final Entry<DLTensorId, DLTensor<? extends DLWritableBuffer>> entry : tensors.entrySet()) {
+			final DLTensorId identifier = entry.getKey();
+			final DLTensor<? extends DLWritableBuffer> tensor = entry.getValue();
+			final DLDataValueToTensorConverter<?, ?> converter = m_converters.get(identifier);
+			if (columns == null || !(converter instanceof DLDataValueToTensorBatchConverter)) {
+				rowWise.add(identifier);
+				continue;
+			}
+			try {
+				if (!((DLDataValueToTensorBatchConverter) converter).convertBatch(rows, numRows,
+						columns.get(identifier), tensor)) {
+					rowWise.add(identifier);
+				}
+			} catch (final BufferOverflowException ex) {
+				throw new DLBufferOverflowExceptionForTensor(ex, tensor);
+			}
+		}
+		if (!rowWise.isEmpty()) {
+			// rows were validated above if column indices are available, so they can be grouped without validation
+			final Map<DLTensorId, List<DataValue>> dataValues = columns != null
+					? createDataValueLists(columns, rowWise)
+					: null;
+			for (int i = 0; i < numRows; i++) {
+				final Map<DLTensorId, List<DataValue>> rowValues;
+				if (dataValues != null) {
+					groupWithoutValidation(rows[i], columns, dataValues);
+					rowValues = dataValues;
+				} else {
+					rowValues = m_iterator.groupByTensor(rows[i]);
+				}
+				for (final DLTensorId identifier : rowWise) {
+					final DLTensor<? extends DLWritableBuffer> tensor = tensors.get(identifier);
+					final DLDataValueToTensorConverter converter = m_converters.get(identifier);
+					try {
+						converter.convert(rowValues.get(identifier), tensor);
+					} catch (final BufferOverflowException ex) {
+						throw new DLBufferOverflowExceptionForTensor(ex, tensor);
+					}
+				}
+			}
+		}
+	}
+
+	private static Map<DLTensorId, List<DataValue>> createDataValueLists(final Map<DLTensorId, int[]> columns,
+			final List<DLTensorId> identifiers) {
+		final Map<DLTensorId, List<DataValue>> dataValues = new HashMap<>(identifiers.size());
+		for (final DLTensorId identifier : identifiers) {
+			final int numColumns = columns.get(identifier).length;
+			dataValues.put(identifier, new ArrayList<>(Collections.nCopies(numColumns, (DataValue) null)));
+		}
+		return dataValues;
+	}
+
+	private static void groupWithoutValidation(final DataRow row, final Map<DLTensorId, int[]> columns,
+			final Map<DLTensorId, List<DataValue>> dataValues) {
+		for (final Entry<DLTensorId, List<DataValue>> entry : dataValues.entrySet()) {
+			final int[] tensorColumns = columns.get(entry.getKey());
+			final List<DataValue> values = entry.getValue();
+			for (int i = 0; i < tensorColumns.length; i++) {
+				values.set(i, row.getCell(tensorColumns[i]));
+			}
+		}
+	}
+
 	/**
 	 * Thrown by {@link DLAbstractKnimeNetworkInputPreparer#writeDataValuesInTensors(Map, Map)} if a
 	 * <code>BufferOverflowException</code> occurs while filling a tensor.
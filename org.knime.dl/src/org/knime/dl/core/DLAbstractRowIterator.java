@@ -54,6 +54,7 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Optional;
 
 import org.knime.core.data.DataCell;
 import org.knime.core.data.DataRow;
@@ -91,15 +92,32 @@ public final Map<DLTensorId, List<DataValue>> groupByTensor(final DataRow row) {
 			final int[] columns = entry.getValue();
 			final List<DataValue> list = m_temp.get(entry.getKey());
 			for (int i = 0; i < columns.length; i++) {
-				final int column = columns[i];
-				final DataCell cell = row.getCell(column);
-				if (cell.isMissing()) {
-					throw new DLInvalidNetworkInputException("Missing cell in input row '" + row.getKey()
-							+ "', column '" + m_tableSpec.getColumnSpec(column).getName() + "'.");
-				}
-				list.set(i, cell);
+				list.set(i, getNonMissingCell(row, columns[i]));
 			}
 		}
 		return m_temp;
 	}
+
+	@Override
+	public final Optional<Map<DLTensorId, int[]>> getColumnsForTensors() {
+		return Optional.of(Collections.unmodifiableMap(m_columns));
+	}
+
+	@Override
+	public final void validate(final DataRow row) {
+		for (final int[] columns : m_columns.values()) {
+			for (final int column : columns) {
+				getNonMissingCell(row, column);
+			}
+		}
+	}
+
+	private DataCell getNonMissingCell(final DataRow row, final int column) {
+		final DataCell cell = row.getCell(column);
+		if (cell.isMissing()) {
+			throw new DLInvalidNetworkInputException("Missing cell in input row '" + row.getKey() + "', column '"
+					+ m_tableSpec.getColumnSpec(column).getName() + "'.");
+		}
+		return cell;
+	}
 }
@@ -0,0 +1,246 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.core;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.knime.core.data.DataRow;
+import org.knime.core.data.container.CloseableRowIterator;
+import org.knime.core.data.container.filter.TableFilter;
+import org.knime.core.node.BufferedDataTable;
+
+/**
+ * Shuffles the rows of a data table on the fly, without materializing a shuffled copy of the table.
+ * <P>
+ * The table is split into blocks of consecutive rows and into a few stripes of consecutive blocks. Each stripe is read
+ * sequentially, starting at a random block and wrapping around at its end, while the blocks of all stripes are
+ * interleaved in random order. Rows pass through a bounded in-memory shuffle buffer from which they are drawn at
+ * random. Rows are available as soon as the buffer has been filled, so each pass over the table starts right away.
+ * Since cursors only move forward, a pass opens at most two cursors per stripe. Its cost therefore stays linear in the
+ * number of rows, even for tables that do not support random access. The result is not a uniform permutation of all
+ * rows as produced by {@link DLShuffleDataTableRowIterator}. Its quality improves with the size of the buffer.
+ *
+ * @author agent
+ */
+public final class DLBlockShuffleDataTableRowIterator extends DLAbstractDataTableRowIterator {
+
+	/**
+	 * The shuffle buffer holds the rows of this many blocks at a time.
+	 */
+	private static final int BLOCKS_PER_BUFFER = 4;
+
+	/**
+	 * The number of stripes, i.e. of cursors that are read from in an interleaved fashion.
+	 */
+	static final int NUM_STRIPES = 8;
+
+	private final Random m_random;
+
+	private final int m_bufferSize;
+
+	private final long m_blockSize;
+
+	/**
+	 * @param input the data table
+	 * @param columns a map specifying which columns belong to which tensor
+	 * @param seed seed for random number generator
+	 * @param bufferSize the number of rows that are kept in memory for shuffling
+	 */
+	public DLBlockShuffleDataTableRowIterator(final BufferedDataTable input, final Map<DLTensorId, int[]> columns,
+			final long seed, final int bufferSize) {
+		super(input, columns);
+		checkArgument(bufferSize > 0, "Shuffle buffer size must be greater than zero.");
+		m_random = new Random(seed);
+		m_bufferSize = bufferSize;
+		m_blockSize = Math.max(1, bufferSize / BLOCKS_PER_BUFFER);
+		m_iterator = makeNewIterator();
+	}
+
+	@Override
+	protected CloseableRowIterator makeNewIterator() {
+		return new DLBlockShuffleIterator();
+	}
+
+	private final class DLBlockShuffleIterator extends CloseableRowIterator {
+
+		// Per stripe: the start of the stripe, the index of the next row to read, the row at which reading started in
+		// this pass (a random block of the stripe), the end of the stripe (exclusive), the number of blocks not yet read
+		// and the cursor (opened lazily).
+		private final long[] m_stripeStarts = new long[NUM_STRIPES];
+
+		private final long[] m_nextRows = new long[NUM_STRIPES];
+
+		private final long[] m_firstRows = new long[NUM_STRIPES];
+
+		private final long[] m_stripeEnds = new long[NUM_STRIPES];
+
+		private final int[] m_remainingBlocks = new int[NUM_STRIPES];
+
+		private final CloseableRowIterator[] m_cursors = new CloseableRowIterator[NUM_STRIPES];
+
+		private int m_numRemainingBlocks;
+
+		private int m_currentStripe = -1;
+
+		private long m_remainingRowsInBlock = 0;
+
+		private final DataRow[] m_buffer;
+
+		private int m_numBuffered = 0;
+
+		private DLBlockShuffleIterator() {
+			final long numRows = getInputTable().size();
+			final long numBlocks = (numRows + m_blockSize - 1) / m_blockSize;
+			checkArgument(numBlocks <= Integer.MAX_VALUE, "Too many rows to shuffle with a shuffle buffer size of "
+					+ m_bufferSize + ". Please increase the shuffle buffer size.");
+			m_numRemainingBlocks = (int) numBlocks;
+			for (int i = 0; i < NUM_STRIPES; i++) {
+				final long firstBlock = numBlocks * i / NUM_STRIPES;
+				final long endBlock = numBlocks * (i + 1) / NUM_STRIPES;
+				m_remainingBlocks[i] = (int) (endBlock - firstBlock);
+				m_stripeStarts[i] = firstBlock * m_blockSize;
+				m_stripeEnds[i] = Math.min(endBlock * m_blockSize, numRows);
+				// A random start block per pass keeps the position of a row within the pass from being correlated with
+				// its position within the table.
+				final long startBlock =
+						m_remainingBlocks[i] > 0 ? firstBlock + m_random.nextInt(m_remainingBlocks[i]) : firstBlock;
+				m_firstRows[i] = Math.min(startBlock * m_blockSize, m_stripeEnds[i]);
+				m_nextRows[i] = m_firstRows[i];
+			}
+			m_buffer = new DataRow[(int) Math.min(m_bufferSize, Math.max(numRows, 1))];
+		}
+
+		@Override
+		public boolean hasNext() {
+			fillBuffer();
+			return m_numBuffered > 0;
+		}
+
+		@Override
+		public DataRow next() {
+			fillBuffer();
+			if (m_numBuffered == 0) {
+				throw new NoSuchElementException();
+			}
+			final int i = m_random.nextInt(m_numBuffered);
+			final DataRow row = m_buffer[i];
+			m_numBuffered--;
+			m_buffer[i] = m_buffer[m_numBuffered];
+			m_buffer[m_numBuffered] = null;
+			return row;
+		}
+
+		@Override
+		public void close() {
+			for (int i = 0; i < NUM_STRIPES; i++) {
+				closeCursor(i);
+				m_remainingBlocks[i] = 0;
+			}
+			m_numRemainingBlocks = 0;
+			m_remainingRowsInBlock = 0;
+			m_numBuffered = 0;
+		}
+
+		private void fillBuffer() {
+			DataRow row;
+			while (m_numBuffered < m_buffer.length && (row = readNextRow()) != null) {
+				m_buffer[m_numBuffered++] = row;
+			}
+		}
+
+		private DataRow readNextRow() {
+			if (m_remainingRowsInBlock == 0) {
+				if (m_numRemainingBlocks == 0) {
+					return null;
+				}
+				// Draw the stripe of the next block with a probability proportional to its number of remaining blocks.
+				// This makes every interleaving of the stripes' blocks equally likely.
+				int block = m_random.nextInt(m_numRemainingBlocks);
+				int stripe = 0;
+				while (block >= m_remainingBlocks[stripe]) {
+					block -= m_remainingBlocks[stripe];
+					stripe++;
+				}
+				m_remainingBlocks[stripe]--;
+				m_numRemainingBlocks--;
+				m_currentStripe = stripe;
+				if (m_nextRows[stripe] == m_stripeEnds[stripe]) {
+					// wrap around to the blocks in front of the start block
+					m_nextRows[stripe] = m_stripeStarts[stripe];
+				}
+				// reading either ends at the end of the stripe or, after having wrapped around, at the start block
+				final long segmentEnd =
+						m_nextRows[stripe] < m_firstRows[stripe] ? m_firstRows[stripe] : m_stripeEnds[stripe];
+				m_remainingRowsInBlock = Math.min(m_blockSize, segmentEnd - m_nextRows[stripe]);
+				if (m_cursors[stripe] == null) {
+					m_cursors[stripe] = getInputTable()
+							.filter(TableFilter.filterRangeOfRows(m_nextRows[stripe], segmentEnd - 1));
+				}
+				m_nextRows[stripe] += m_remainingRowsInBlock;
+			}
+			final DataRow row = m_cursors[m_currentStripe].next();
+			m_remainingRowsInBlock--;
+			if (m_remainingRowsInBlock == 0 && (m_remainingBlocks[m_currentStripe] == 0
+					|| m_nextRows[m_currentStripe] == m_stripeEnds[m_currentStripe])) {
+				// either the stripe or the segment up to its end is exhausted
+				closeCursor(m_currentStripe);
+			}
+			return row;
+		}
+
+		private void closeCursor(final int stripe) {
+			if (m_cursors[stripe] != null) {
+				m_cursors[stripe].close();
+				m_cursors[stripe] = null;
+			}
+		}
+	}
+}
@@ -50,6 +50,7 @@
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Optional;
 
 import org.knime.core.data.DataRow;
 import org.knime.core.data.DataValue;
@@ -80,6 +81,25 @@ public interface DLRowIterator extends Iterator<DataRow>, AutoCloseable {
 	 */
 	Map<DLTensorId, List<DataValue>> groupByTensor(DataRow row);
 
+	/**
+	 * Returns the indices of the columns whose values are grouped by {@link #groupByTensor(DataRow)}, per tensor. This
+	 * allows converting whole batches of rows without grouping each of them.
+	 *
+	 * @return the column indices per tensor, empty if not available
+	 */
+	default Optional<Map<DLTensorId, int[]>> getColumnsForTensors() {
+		return Optional.empty();
+	}
+
+	/**
+	 * Validates the given row in the same way as {@link #groupByTensor(DataRow)} does, without grouping its values.
+	 *
+	 * @throws DLInvalidNetworkInputException if the row is not valid, e.g. if it contains missing cells
+	 */
+	default void validate(final DataRow row) {
+		groupByTensor(row);
+	}
+
 	/**
 	 * @throws UnsupportedOperationException if the iterator does not support reset, e.g. when streaming
 	 */
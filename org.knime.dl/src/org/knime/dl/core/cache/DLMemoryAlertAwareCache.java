@@ -0,0 +1,832 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.core.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.function.ToLongFunction;
+
+import org.knime.core.data.util.memory.MemoryAlert;
+import org.knime.core.data.util.memory.MemoryAlertListener;
+import org.knime.core.data.util.memory.MemoryAlertSystem;
+import org.knime.core.node.NodeLogger;
+import org.knime.core.util.FileUtil;
+
+/**
+ * Cache for expensive objects like loaded networks that is bounded by the estimated size of its entries in bytes
+ * rather than by their number. If the cache exceeds its budget, entries are evicted according to its
+ * {@link EvictionPolicy}. Values are only softly referenced, so the garbage collector can still reclaim them if the
+ * estimates turn out to be too low. A memory alert from {@link MemoryAlertSystem} does not clear the whole cache but
+ * only drops the least recently used entries until part of the memory held by the cache is released, so frequently
+ * used entries survive memory pressure.
+ * <P>
+ * Entries whose values are {@link Serializable} and that are evicted because the cache exceeds its budget can be
+ * spilled to disk. Spilling happens asynchronously, entries are restored from disk on their next access. The disk tier
+ * has its own budget and evicts its least recently used entries first. Entries dropped due to memory alerts are never
+ * spilled.
+ * <P>
+ * The memory budget, the eviction policy and the disk budget can be configured via VM options
+ * {@link #CACHE_SIZE_VM_OPT}, {@link #CACHE_EVICTION_POLICY_VM_OPT} and {@link #CACHE_DISK_SIZE_VM_OPT}.
+ *
+ * @author agent
+ */
+public final class DLMemoryAlertAwareCache {
+
+	/**
+	 * Set this VM option to the memory budget of the cache in megabytes. Defaults to a quarter of the maximum heap
+	 * size.
+	 */
+	public static final String CACHE_SIZE_VM_OPT = "knime.dl.cache.size";
+
+	/**
+	 * Set this VM option to the name of the {@link EvictionPolicy} of the cache. Defaults to
+	 * {@link EvictionPolicy#LRU}.
+	 */
+	public static final String CACHE_EVICTION_POLICY_VM_OPT = "knime.dl.cache.evictionpolicy";
+
+	/**
+	 * Set this VM option to the budget of the disk tier of the cache in megabytes. A value of zero, the default,
+	 * disables spilling to disk.
+	 */
+	public static final String CACHE_DISK_SIZE_VM_OPT = "knime.dl.cache.disksize";
+
+	/**
+	 * The fraction of the memory held by the cache that is released upon a memory alert.
+	 */
+	private static final double MEMORY_ALERT_RELEASE_FRACTION = 0.5;
+
+	/**
+	 * Values whose size cannot be estimated are weighted such that the cache holds at most this many of them.
+	 */
+	private static final int MAX_NUM_UNESTIMATED_ENTRIES = 20;
+
+	private static final long BYTES_PER_MB = 1024 * 1024;
+
+	private static final String SPILL_FILE_EXTENSION = ".bin";
+
+	private static final NodeLogger LOGGER = NodeLogger.getLogger(DLMemoryAlertAwareCache.class);
+
+	private static final DLMemoryAlertAwareCache INSTANCE = createInstance();
+
+	/**
+	 * @return the singleton instance of this class
+	 */
+	public static DLMemoryAlertAwareCache getInstance() {
+		return INSTANCE;
+	}
+
+	private static DLMemoryAlertAwareCache createInstance() {
+		final long maxSize = getSizeInMB(CACHE_SIZE_VM_OPT, Runtime.getRuntime().maxMemory() / 4 / BYTES_PER_MB)
+			* BYTES_PER_MB;
+		final long maxDiskSize = getSizeInMB(CACHE_DISK_SIZE_VM_OPT, 0) * BYTES_PER_MB;
+		EvictionPolicy policy = EvictionPolicy.LRU;
+		final String policyProperty = System.getProperty(CACHE_EVICTION_POLICY_VM_OPT);
+		if (policyProperty != null) {
+			try {
+				policy = EvictionPolicy.valueOf(policyProperty.trim().toUpperCase());
+			} catch (final IllegalArgumentException ex) {
+				LOGGER.warn("Invalid value for VM option '-D" + CACHE_EVICTION_POLICY_VM_OPT + "': '" + policyProperty
+					+ "'. Using the default of " + EvictionPolicy.LRU + ".", ex);
+			}
+		}
+		File diskDir = null;
+		Executor spillExecutor = null;
+		if (maxDiskSize > 0) {
+			try {
+				diskDir = FileUtil.createTempDir("knime-dl-cache");
+				spillExecutor = Executors.newSingleThreadExecutor(r -> {
+					final Thread t = new Thread(r, "KNIME-DL-Cache-Spiller");
+					t.setDaemon(true);
+					return t;
+				});
+			} catch (final IOException ex) {
+				LOGGER.warn("Failed to create the disk tier of the deep learning cache. Spilling to disk is disabled.",
+					ex);
+			}
+		}
+		final DLMemoryAlertAwareCache cache =
+			new DLMemoryAlertAwareCache(maxSize, policy, diskDir, maxDiskSize, spillExecutor);
+		MemoryAlertSystem.getInstance().addListener(new MemoryAlertListener() {
+
+			@Override
+			protected boolean memoryAlert(final MemoryAlert alert) {
+				cache.releaseMemory();
+				return false;
+			}
+		});
+		return cache;
+	}
+
+	private static long getSizeInMB(final String vmOption, final long defaultSizeInMB) {
+		final String property = System.getProperty(vmOption);
+		if (property != null) {
+			try {
+				final long size = Long.parseLong(property.trim());
+				if (size >= 0) {
+					return size;
+				}
+			} catch (final NumberFormatException ex) {
+				// handled below
+			}
+			LOGGER.warn("Invalid value for VM option '-D" + vmOption + "': '" + property + "'. Using the default of "
+				+ defaultSizeInMB + " MB.");
+		}
+		return defaultSizeInMB;
+	}
+
+	private final long m_maxSize;
+
+	private final EvictionPolicy m_policy;
+
+	/**
+	 * <code>null</code> if spilling to disk is disabled.
+	 */
+	private final File m_diskDir;
+
+	private final long m_maxDiskSize;
+
+	/**
+	 * <code>null</code> if spilling to disk is disabled.
+	 */
+	private final Executor m_spillExecutor;
+
+	/**
+	 * Least recently used first.
+	 */
+	private final LinkedHashMap<UUID, CacheEntry> m_entries = new LinkedHashMap<>(16, 0.75f, true);
+
+	/**
+	 * Receives the entries whose values were reclaimed by the garbage collector.
+	 */
+	private final ReferenceQueue<Object> m_collected = new ReferenceQueue<>();
+
+	/**
+	 * Evicted entries that are about to be spilled to disk. They are still served from memory until then.
+	 */
+	private final Map<UUID, PendingSpill> m_pendingSpills = new HashMap<>();
+
+	/**
+	 * Least recently used first.
+	 */
+	private final LinkedHashMap<UUID, SpilledEntry> m_spilledEntries = new LinkedHashMap<>(16, 0.75f, true);
+
+	/**
+	 * Keys whose spilled entries are currently being read from disk. Removing or replacing an entry in the meantime
+	 * removes its key, which discards the restored value.
+	 */
+	private final Set<UUID> m_restoring = new HashSet<>();
+
+	/**
+	 * Values that are currently being loaded via {@link #get(UUID, Callable, ToLongFunction)}.
+	 */
+	private final Map<UUID, FutureTask<Object>> m_loading = new HashMap<>();
+
+	private long m_size;
+
+	private long m_diskSize;
+
+	private long m_hitCount;
+
+	private long m_diskHitCount;
+
+	private long m_missCount;
+
+	private long m_evictionCount;
+
+	private long m_collectedCount;
+
+	private long m_spillCount;
+
+	/**
+	 * @param maxSize the memory budget in bytes
+	 * @param policy the policy that selects the entries to evict if the memory budget is exceeded
+	 * @param diskDir the directory of the disk tier, may be <code>null</code> in which case spilling is disabled
+	 * @param maxDiskSize the budget of the disk tier in bytes
+	 * @param spillExecutor executes the spilling of evicted entries, may be <code>null</code> in which case spilling
+	 *            is disabled
+	 */
+	DLMemoryAlertAwareCache(final long maxSize, final EvictionPolicy policy, final File diskDir,
+		final long maxDiskSize, final Executor spillExecutor) {
+		m_maxSize = maxSize;
+		m_policy = policy;
+		final boolean spill = diskDir != null && maxDiskSize > 0 && spillExecutor != null;
+		m_diskDir = spill ? diskDir : null;
+		m_maxDiskSize = maxDiskSize;
+		m_spillExecutor = spill ? spillExecutor : null;
+	}
+
+	/**
+	 * Associates value with key in this cache. If the cache previously contained a value associated with key, the old
+	 * value is replaced by value. The size of the value is estimated, see {@link #estimateSize(Object)}.
+	 *
+	 * @param key the key
+	 * @param value the value
+	 */
+	public void put(final UUID key, final Object value) {
+		put(key, value, estimateSize(value));
+	}
+
+	/**
+	 * Associates value with key in this cache. If the cache previously contained a value associated with key, the old
+	 * value is replaced by value.
+	 *
+	 * @param key the key
+	 * @param value the value
+	 * @param size the estimated size of the value in bytes
+	 */
+	public synchronized void put(final UUID key, final Object value, final long size) {
+		purgeCollected();
+		removeOtherTiers(key);
+		add(key, value, size);
+	}
+
+	/**
+	 * Returns the value associated with key in this cache, or <code>Optional.empty</code> if there is no cached value
+	 * for key. Values that were spilled to disk are restored.
+	 *
+	 * @param key the key
+	 * @return the value associated with key
+	 */
+	public Optional<Object> get(final UUID key) {
+		final SpilledEntry spilled;
+		synchronized (this) {
+			purgeCollected();
+			final Object value = getFromMemory(key);
+			if (value != null) {
+				m_hitCount++;
+				return Optional.of(value);
+			}
+			spilled = m_spilledEntries.remove(key);
+			if (spilled == null) {
+				m_missCount++;
+				return Optional.empty();
+			}
+			m_diskSize -= spilled.m_fileSize;
+			m_restoring.add(key);
+		}
+		// NB: Other lookups do not wait for the disk.
+		final Object restored = readSpilled(key, spilled);
+		synchronized (this) {
+			if (!m_restoring.remove(key) || restored == null) {
+				final Object value = getFromMemory(key);
+				if (value != null) {
+					m_hitCount++;
+					return Optional.of(value);
+				}
+				m_missCount++;
+				return Optional.empty();
+			}
+			m_diskHitCount++;
+			add(key, restored, spilled.m_size);
+			return Optional.of(restored);
+		}
+	}
+
+	/**
+	 * Returns the value associated with key in this cache, obtaining that value from valueLoader if necessary. The
+	 * size of a loaded value is estimated, see {@link #estimateSize(Object)}.
+	 *
+	 * @param key the key
+	 * @param valueLoader loads the value if it is not cached
+	 * @return the value associated with key
+	 * @throws ExecutionException if loading the value failed
+	 */
+	public <V> V get(final UUID key, final Callable<V> valueLoader) throws ExecutionException {
+		return get(key, valueLoader, this::estimateSize);
+	}
+
+	/**
+	 * Returns the value associated with key in this cache, obtaining that value from valueLoader if necessary.
+	 * Concurrent calls for the same key load the value only once.
+	 *
+	 * @param key the key
+	 * @param valueLoader loads the value if it is not cached
+	 * @param sizeEstimator estimates the size of a loaded value in bytes
+	 * @return the value associated with key
+	 * @throws ExecutionException if loading the value failed
+	 */
+	@SuppressWarnings("unchecked")
+	public <V> V get(final UUID key, final Callable<V> valueLoader, final ToLongFunction<? super V> sizeEstimator)
+		throws ExecutionException {
+		final Optional<Object> cached = get(key);
+		if (cached.isPresent()) {
+			return (V)cached.get();
+		}
+		final FutureTask<Object> task;
+		final boolean load;
+		synchronized (this) {
+			final Object value = getFromMemory(key);
+			if (value != null) {
+				return (V)value;
+			}
+			final FutureTask<Object> loading = m_loading.get(key);
+			load = loading == null;
+			if (load) {
+				task = new FutureTask<>(valueLoader::call);
+				m_loading.put(key, task);
+			} else {
+				task = loading;
+			}
+		}
+		try {
+			if (load) {
+				task.run();
+			}
+			final V value = (V)task.get();
+			if (load) {
+				synchronized (this) {
+					put(key, value, sizeEstimator.applyAsLong(value));
+					m_loading.remove(key);
+				}
+			}
+			return value;
+		} catch (final InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new ExecutionException("Interrupted while waiting for cache entry '" + key + "' to be loaded.", ex);
+		} finally {
+			if (load) {
+				synchronized (this) {
+					m_loading.remove(key);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Removes the cache entry associated with the specified key, including its spilled copy if any.
+	 *
+	 * @param key the key
+	 */
+	public synchronized void remove(final UUID key) {
+		purgeCollected();
+		final CacheEntry entry = m_entries.remove(key);
+		if (entry != null) {
+			m_size -= entry.m_size;
+			entry.clear();
+		}
+		removeOtherTiers(key);
+	}
+
+	/**
+	 * Removes the entries whose values were reclaimed by the garbage collector and evicts entries until the cache fits
+	 * its budget.
+	 */
+	public synchronized void cleanUp() {
+		purgeCollected();
+		evict(m_maxSize, m_policy, null, true);
+	}
+
+	/**
+	 * Drops the least recently used entries until {@link #MEMORY_ALERT_RELEASE_FRACTION} of the memory held by the
+	 * cache is released, as well as all entries that are waiting to be spilled. Nothing is spilled to disk, so this
+	 * neither blocks on I/O nor allocates. Called upon memory alerts.
+	 */
+	synchronized void releaseMemory() {
+		purgeCollected();
+		final long sizeBefore = m_size;
+		final int numEntriesBefore = m_entries.size();
+		m_pendingSpills.clear();
+		evict((long)(m_size * (1 - MEMORY_ALERT_RELEASE_FRACTION)), EvictionPolicy.LRU, null, false);
+		if (LOGGER.isDebugEnabled()) {
+			LOGGER.debug("Released " + (sizeBefore - m_size) + " bytes held by "
+				+ (numEntriesBefore - m_entries.size()) + " cache entries due to low memory.");
+		}
+	}
+
+	/**
+	 * @return a snapshot of the statistics of this cache
+	 */
+	public synchronized Stats getStats() {
+		purgeCollected();
+		return new Stats(m_hitCount, m_diskHitCount, m_missCount, m_evictionCount, m_collectedCount, m_spillCount,
+			m_entries.size(), m_size, m_spilledEntries.size(), m_diskSize);
+	}
+
+	/**
+	 * Estimates the size of values for which no estimate was given. Byte arrays are weighted by their length, all other
+	 * values by a fraction of the memory budget such that the cache holds at most
+	 * {@value #MAX_NUM_UNESTIMATED_ENTRIES} of them.
+	 */
+	private long estimateSize(final Object value) {
+		if (value instanceof byte[]) {
+			return ((byte[])value).length;
+		}
+		return m_maxSize / MAX_NUM_UNESTIMATED_ENTRIES;
+	}
+
+	/**
+	 * Looks up the value in memory, including the entries that are waiting to be spilled. Must be called while
+	 * holding the lock.
+	 *
+	 * @return the value or <code>null</code> if it is not in memory
+	 */
+	private Object getFromMemory(final UUID key) {
+		final CacheEntry entry = m_entries.get(key);
+		if (entry != null) {
+			final Object value = entry.get();
+			if (value != null) {
+				entry.m_numAccesses++;
+				return value;
+			}
+			m_entries.remove(key);
+			m_size -= entry.m_size;
+			m_collectedCount++;
+		}
+		final PendingSpill pending = m_pendingSpills.remove(key);
+		if (pending != null) {
+			add(key, pending.m_value, pending.m_size);
+			return pending.m_value;
+		}
+		return null;
+	}
+
+	private void add(final UUID key, final Object value, final long size) {
+		final CacheEntry previous = m_entries.put(key, new CacheEntry(key, value, size, m_collected));
+		if (previous != null) {
+			m_size -= previous.m_size;
+			previous.clear();
+		}
+		m_size += size;
+		// NB: The new entry is only evicted if it exceeds the budget on its own.
+		evict(m_maxSize, m_policy, key, true);
+	}
+
+	private void removeOtherTiers(final UUID key) {
+		m_pendingSpills.remove(key);
+		m_restoring.remove(key);
+		final SpilledEntry spilled = m_spilledEntries.remove(key);
+		if (spilled != null) {
+			m_diskSize -= spilled.m_fileSize;
+			spilled.m_file.delete();
+		}
+	}
+
+	private void purgeCollected() {
+		Reference<?> reference;
+		while ((reference = m_collected.poll()) != null) {
+			final CacheEntry entry = (CacheEntry)reference;
+			// NB: The entry may already have been removed or replaced.
+			if (m_entries.remove(entry.m_key, entry)) {
+				m_size -= entry.m_size;
+				m_collectedCount++;
+			}
+		}
+	}
+
+	private void evict(final long targetSize, final EvictionPolicy policy, final UUID retainedKey,
+		final boolean spill) {
+		while (m_size > targetSize && !m_entries.isEmpty()) {
+			UUID victim = selectVictim(policy, retainedKey);
+			if (victim == null) {
+				victim = retainedKey;
+			}
+			final CacheEntry entry = m_entries.remove(victim);
+			m_size -= entry.m_size;
+			m_evictionCount++;
+			final Object value = entry.get();
+			entry.clear();
+			if (spill && value != null) {
+				scheduleSpill(victim, value, entry.m_size);
+			}
+		}
+	}
+
+	/**
+	 * @return the key of the entry to evict next, <code>null</code> if there is no entry other than the retained one
+	 */
+	private UUID selectVictim(final EvictionPolicy policy, final UUID retainedKey) {
+		UUID victim = null;
+		long victimNumAccesses = Long.MAX_VALUE;
+		// NB: Iterating does not count as access, entries are iterated least recently used first.
+		for (final Entry<UUID, CacheEntry> entry : m_entries.entrySet()) {
+			if (entry.getKey().equals(retainedKey)) {
+				continue;
+			}
+			if (policy == EvictionPolicy.LRU) {
+				return entry.getKey();
+			}
+			if (entry.getValue().m_numAccesses < victimNumAccesses) {
+				victim = entry.getKey();
+				victimNumAccesses = entry.getValue().m_numAccesses;
+			}
+		}
+		return victim;
+	}
+
+	private void scheduleSpill(final UUID key, final Object value, final long size) {
+		if (m_spillExecutor == null || !(value instanceof Serializable)) {
+			return;
+		}
+		final PendingSpill pending = new PendingSpill(value, size);
+		m_pendingSpills.put(key, pending);
+		m_spillExecutor.execute(() -> spill(key, pending));
+	}
+
+	/**
+	 * Writes the given pending entry to disk without holding the lock. Does nothing if the entry was accessed,
+	 * replaced or dropped in the meantime.
+	 */
+	private void spill(final UUID key, final PendingSpill pending) {
+		synchronized (this) {
+			if (m_pendingSpills.get(key) != pending) {
+				return;
+			}
+		}
+		File file = null;
+		try {
+			file = File.createTempFile(key.toString(), SPILL_FILE_EXTENSION, m_diskDir);
+			try (final ObjectOutputStream out =
+				new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(file.toPath())))) {
+				out.writeObject(pending.m_value);
+			}
+		} catch (final IOException ex) {
+			LOGGER.debug("Failed to spill cache entry '" + key + "' to disk.", ex);
+			if (file != null) {
+				file.delete();
+			}
+			synchronized (this) {
+				m_pendingSpills.remove(key, pending);
+			}
+			return;
+		}
+		synchronized (this) {
+			if (!m_pendingSpills.remove(key, pending)) {
+				file.delete();
+				return;
+			}
+			final SpilledEntry spilled = new SpilledEntry(file, pending.m_size);
+			m_spilledEntries.put(key, spilled);
+			m_diskSize += spilled.m_fileSize;
+			m_spillCount++;
+			for (final Iterator<SpilledEntry> it = m_spilledEntries.values().iterator(); m_diskSize > m_maxDiskSize
+				&& it.hasNext();) {
+				final SpilledEntry evicted = it.next();
+				it.remove();
+				m_diskSize -= evicted.m_fileSize;
+				evicted.m_file.delete();
+			}
+		}
+	}
+
+	private static Object readSpilled(final UUID key, final SpilledEntry spilled) {
+		try (final ObjectInputStream in =
+			new ObjectInputStream(new BufferedInputStream(Files.newInputStream(spilled.m_file.toPath())))) {
+			return in.readObject();
+		} catch (final IOException | ClassNotFoundException ex) {
+			LOGGER.debug("Failed to restore spilled cache entry '" + key + "'. Removing the entry.", ex);
+			return null;
+		} finally {
+			spilled.m_file.delete();
+		}
+	}
+
+	/**
+	 * Selects the entries that are evicted if the cache exceeds its memory budget.
+	 */
+	public enum EvictionPolicy {
+
+		/**
+		 * Evicts the least recently used entries first.
+		 */
+		LRU,
+
+		/**
+		 * Evicts the least frequently used entries first. Ties are broken by recency.
+		 */
+		LFU;
+	}
+
+	/**
+	 * Immutable snapshot of the statistics of a {@link DLMemoryAlertAwareCache}.
+	 */
+	public static final class Stats {
+
+		private final long m_hitCount;
+
+		private final long m_diskHitCount;
+
+		private final long m_missCount;
+
+		private final long m_evictionCount;
+
+		private final long m_collectedCount;
+
+		private final long m_spillCount;
+
+		private final int m_numEntries;
+
+		private final long m_size;
+
+		private final int m_numSpilledEntries;
+
+		private final long m_diskSize;
+
+		private Stats(final long hitCount, final long diskHitCount, final long missCount, final long evictionCount,
+			final long collectedCount, final long spillCount, final int numEntries, final long size,
+			final int numSpilledEntries, final long diskSize) {
+			m_hitCount = hitCount;
+			m_diskHitCount = diskHitCount;
+			m_missCount = missCount;
+			m_evictionCount = evictionCount;
+			m_collectedCount = collectedCount;
+			m_spillCount = spillCount;
+			m_numEntries = numEntries;
+			m_size = size;
+			m_numSpilledEntries = numSpilledEntries;
+			m_diskSize = diskSize;
+		}
+
+		/**
+		 * @return the number of lookups that were served from memory
+		 */
+		public long getHitCount() {
+			return m_hitCount;
+		}
+
+		/**
+		 * @return the number of lookups that were served from the disk tier
+		 */
+		public long getDiskHitCount() {
+			return m_diskHitCount;
+		}
+
+		/**
+		 * @return the number of lookups that were served neither from memory nor from the disk tier
+		 */
+		public long getMissCount() {
+			return m_missCount;
+		}
+
+		/**
+		 * @return the number of entries that were evicted from memory, including the ones spilled to disk
+		 */
+		public long getEvictionCount() {
+			return m_evictionCount;
+		}
+
+		/**
+		 * @return the number of entries whose values were reclaimed by the garbage collector
+		 */
+		public long getCollectedCount() {
+			return m_collectedCount;
+		}
+
+		/**
+		 * @return the number of evicted entries that were spilled to disk
+		 */
+		public long getSpillCount() {
+			return m_spillCount;
+		}
+
+		/**
+		 * @return the number of entries in memory
+		 */
+		public int getNumEntries() {
+			return m_numEntries;
+		}
+
+		/**
+		 * @return the estimated size of the entries in memory in bytes
+		 */
+		public long getSize() {
+			return m_size;
+		}
+
+		/**
+		 * @return the number of entries in the disk tier
+		 */
+		public int getNumSpilledEntries() {
+			return m_numSpilledEntries;
+		}
+
+		/**
+		 * @return the size of the entries in the disk tier in bytes
+		 */
+		public long getDiskSize() {
+			return m_diskSize;
+		}
+
+		@Override
+		public String toString() {
+			return "hits: " + m_hitCount + ", disk hits: " + m_diskHitCount + ", misses: " + m_missCount
+				+ ", evictions: " + m_evictionCount + ", collected: " + m_collectedCount + ", spills: " + m_spillCount
+				+ ", entries: " + m_numEntries + " (" + m_size + " bytes), spilled entries: " + m_numSpilledEntries
+				+ " (" + m_diskSize + " bytes)";
+		}
+	}
+
+	/**
+	 * Softly references its value, so the garbage collector can reclaim it.
+	 */
+	private static final class CacheEntry extends SoftReference<Object> {
+
+		private final UUID m_key;
+
+		private final long m_size;
+
+		private long m_numAccesses;
+
+		private CacheEntry(final UUID key, final Object value, final long size, final ReferenceQueue<Object> queue) {
+			super(value, queue);
+			m_key = key;
+			m_size = size;
+		}
+	}
+
+	private static final class PendingSpill {
+
+		private final Object m_value;
+
+		private final long m_size;
+
+		private PendingSpill(final Object value, final long size) {
+			m_value = value;
+			m_size = size;
+		}
+	}
+
+	private static final class SpilledEntry {
+
+		private final File m_file;
+
+		private final long m_fileSize;
+
+		/**
+		 * The estimated size of the value once it is restored.
+		 */
+		private final long m_size;
+
+		private SpilledEntry(final File file, final long size) {
+			m_file = file;
+			m_fileSize = file.length();
+			m_size = size;
+		}
+	}
+}
@@ -52,57 +52,22 @@
 import java.util.UUID;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Semaphore;
 
-import org.knime.core.data.util.memory.MemoryAlert;
-import org.knime.core.data.util.memory.MemoryAlertListener;
 import org.knime.core.data.util.memory.MemoryAlertSystem;
-import org.knime.core.node.NodeLogger;
-
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
 
 /**
- * Wrapper for a Guava Cache that listens to memory alerts from {@link MemoryAlertSystem} and cleans the cache if memory
- * gets low.
+ * Cache that listens to memory alerts from {@link MemoryAlertSystem} and cleans the cache if memory gets low. Formerly
+ * a wrapper for a Guava cache, all calls are now delegated to {@link DLMemoryAlertAwareCache#getInstance()}.
+ *
+ * @deprecated use {@link DLMemoryAlertAwareCache} instead
  */
+@Deprecated
 public class DLMemoryAlertAwareGuavaCache {
 
-	private static final NodeLogger LOGGER = NodeLogger.getLogger(DLMemoryAlertAwareGuavaCache.class);
-
 	// NB: instantiation as static is OK, as cache is not expensive.
 	public final static DLMemoryAlertAwareGuavaCache CACHE = new DLMemoryAlertAwareGuavaCache();
 
-	// TODO make property on property page
-	private final boolean m_enableVerbose = false;
-
-	private Cache<UUID, Object> m_cache;
-
-	private final Semaphore m_gate = new Semaphore(1);
-
-	private final int m_cacheSize = 20;
-
 	private DLMemoryAlertAwareGuavaCache() {
-		if (m_enableVerbose) {
-			m_cache = CacheBuilder.newBuilder().maximumSize(m_cacheSize).softValues().recordStats().build();
-		} else {
-			m_cache = CacheBuilder.newBuilder().maximumSize(m_cacheSize).softValues().build();
-		}
-
-		MemoryAlertSystem.getInstance().addListener(new MemoryAlertListener() {
-			@Override
-			protected boolean memoryAlert(final MemoryAlert alert) {
-				if (m_enableVerbose) {
-					LOGGER.debug(getClass().getName() + " released memory for " + m_cache.size() + " models");
-				}
-				if (m_gate.tryAcquire()) {
-					m_cache.invalidateAll();
-					m_cache.cleanUp();
-					m_gate.release();
-				}
-				return false;
-			}
-		});
 	}
 
 	/**
@@ -113,11 +78,7 @@ protected boolean memoryAlert(final MemoryAlert alert) {
 	 * @param value
 	 */
 	public void put(final UUID key, final Object value) {
-		m_cache.put(key, value);
-		if (m_enableVerbose) {
-			LOGGER.debug("Put: " + m_cache.stats());
-			LOGGER.debug("Cache size: " + m_cache.size());
-		}
+		DLMemoryAlertAwareCache.getInstance().put(key, value);
 	}
 
 	/**
@@ -128,12 +89,7 @@ public void put(final UUID key, final Object value) {
 	 * @return the value associated with key
 	 */
 	public Optional<Object> get(final UUID key) {
-		final Object o = m_cache.getIfPresent(key);
-		if (m_enableVerbose) {
-			LOGGER.debug("Get: " + m_cache.stats());
-			LOGGER.debug("Cache size: " + m_cache.size());
-		}
-		return o == null ? Optional.empty() : Optional.of(o);
+		return DLMemoryAlertAwareCache.getInstance().get(key);
 	}
 
 	/**
@@ -144,17 +100,8 @@ public Optional<Object> get(final UUID key) {
 	 * @return the value associated with key
 	 * @throws ExecutionException
 	 */
-	@SuppressWarnings("unchecked")
 	public <V> V get(final UUID key, final Callable<V> valueLoader) throws ExecutionException {
-		// NB: guava takes care about synchronization.
-		// see:
-		// https://google.github.io/guava/releases/21.0/api/docs/com/google/common/cache/Cache.html
-		final V o = (V) m_cache.get(key, valueLoader);
-		if (m_enableVerbose) {
-			LOGGER.debug("GetOrLoad: " + m_cache.stats());
-			LOGGER.debug("Cache size: " + m_cache.size());
-		}
-		return o;
+		return DLMemoryAlertAwareCache.getInstance().get(key, valueLoader);
 	}
 
 	/**
@@ -163,21 +110,13 @@ public <V> V get(final UUID key, final Callable<V> valueLoader) throws Execution
 	 * @param key
 	 */
 	public void remove(final UUID key) {
-		m_cache.invalidate(key);
-		if (m_enableVerbose) {
-			LOGGER.debug("Remove: " + m_cache.stats());
-			LOGGER.debug("Cache size: " + m_cache.size());
-		}
+		DLMemoryAlertAwareCache.getInstance().remove(key);
 	}
 
 	/**
 	 * Cleans up the cache, i.e. removes all invalidated objects.
 	 */
-	public synchronized void cleanUp() {
-		// NB: semaphore to avoid redundant cleanUps
-		if (m_gate.tryAcquire()) {
-			m_cache.cleanUp();
-			m_gate.release();
-		}
+	public void cleanUp() {
+		DLMemoryAlertAwareCache.getInstance().cleanUp();
 	}
 }
@@ -0,0 +1,359 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.core.data;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+
+/**
+ * Bit type implementation of {@link DLWrappingDataBuffer} that stores its values packed into an array of words, i.e.
+ * 64 values per <code>long</code>. Value <code>i</code> is stored in bit <code>i % 64</code> (counted from the least
+ * significant bit) of word <code>i / 64</code>, which is also the layout of
+ * {@link org.knime.core.data.vector.bitvector.DenseBitVector}. Compared to {@link DLDefaultBitBuffer}, this buffer
+ * needs an eighth of the memory and allows copying bit vectors word-wise via {@link #putWords(long[], long)}.
+ * <P>
+ * The bits of the storage beyond the buffer's {@link #size() size} are undefined.
+ *
+ * @author agent
+ */
+public class DLPackedBitBuffer extends DLAbstractFlatWrappingDataBuffer<long[]>
+    implements DLWritableBitBuffer, DLReadableBitBuffer {
+
+    /**
+     * @param numBits the number of bits
+     * @return the number of words that are needed to store the given number of bits
+     */
+    public static int getNumWords(final long numBits) {
+        checkArgument(numBits >= 0 && numBits <= (long)Integer.MAX_VALUE * Long.SIZE);
+        return (int)((numBits + Long.SIZE - 1) >>> 6);
+    }
+
+    /**
+     * Creates a new instance of this buffer.
+     *
+     * @param capacity the immutable capacity of the buffer
+     */
+    public DLPackedBitBuffer(final long capacity) {
+        super(capacity);
+    }
+
+    @Override
+    public void setStorage(final long[] storage, final long storageSize) throws IllegalArgumentException {
+        checkArgument(storage.length == getNumWords(m_capacity),
+            "Input storage capacity does not match buffer capacity.");
+        m_storage = storage;
+        m_nextWrite = (int)storageSize;
+        resetRead();
+    }
+
+    @Override
+    public void zeroPad(final long length) throws IllegalArgumentException, BufferOverflowException {
+        checkArgument(length > 0);
+        checkOverflow(m_nextWrite + length <= m_capacity);
+        for (int i = 0; i < length; i++) {
+            set(m_nextWrite++, false);
+        }
+    }
+
+    @Override
+    public boolean readNextBit() throws BufferUnderflowException {
+        checkUnderflow(m_nextRead < m_nextWrite);
+        return get(m_nextRead++);
+    }
+
+    @Override
+    public boolean[] toBitArray() {
+        final boolean[] tmp = new boolean[m_capacity];
+        for (int i = 0; i < m_capacity; i++) {
+            tmp[i] = get(i);
+        }
+        return tmp;
+    }
+
+    @Override
+    public void readToBitArray(final boolean[] dest, final int destPos, final int length) {
+        checkArgument(destPos >= 0);
+        checkArgument(length > 0);
+        checkUnderflow(m_nextRead + length <= m_nextWrite);
+        for (int i = 0; i < length; i++) {
+            dest[destPos + i] = get(m_nextRead + i);
+        }
+        m_nextRead += length;
+    }
+
+    @Override
+    public void readToWordArray(final long[] dest, final int length) {
+        checkArgument(length >= 0);
+        checkArgument(dest.length >= getNumWords(length));
+        checkUnderflow(m_nextRead + length <= m_nextWrite);
+        for (int k = 0; k < getNumWords(length); k++) {
+            final int srcPos = m_nextRead + k * Long.SIZE;
+            final int srcWord = srcPos >>> 6;
+            final int shift = srcPos & (Long.SIZE - 1);
+            long word = m_storage[srcWord] >>> shift;
+            if (shift != 0 && srcWord + 1 < m_storage.length) {
+                word |= m_storage[srcWord + 1] << (Long.SIZE - shift);
+            }
+            dest[k] = mask(word, Math.min(Long.SIZE, length - k * Long.SIZE));
+        }
+        m_nextRead += length;
+    }
+
+    @Override
+    public byte readNextByte() throws BufferUnderflowException {
+        checkUnderflow(m_nextRead < m_nextWrite);
+        return (byte)(get(m_nextRead++) ? 1 : 0);
+    }
+
+    @Override
+    public byte[] toByteArray() {
+        final byte[] tmp = new byte[m_capacity];
+        for (int i = 0; i < m_capacity; i++) {
+            tmp[i] = (byte)(get(i) ? 1 : 0);
+        }
+        return tmp;
+    }
+
+    @Override
+    public void readToByteArray(final byte[] dest, final int destPos, final int length) {
+        checkArgument(destPos >= 0);
+        checkArgument(length > 0);
+        checkUnderflow(m_nextRead + length <= m_nextWrite);
+        for (int i = 0; i < length; i++) {
+            dest[destPos + i] = (byte)(get(m_nextRead + i) ? 1 : 0);
+        }
+        m_nextRead += length;
+    }
+
+    @Override
+    public short readNextShort() throws BufferUnderflowException {
+        checkUnderflow(m_nextRead < m_nextWrite);
+        return (short)(get(m_nextRead++) ? 1 : 0);
+    }
+
+    @Override
+    public short[] toShortArray() {
+        final short[] tmp = new short[m_capacity];
+        for (int i = 0; i < m_capacity; i++) {
+            tmp[i] = (short)(get(i) ? 1 : 0);
+        }
+        return tmp;
+    }
+
+    @Override
+    public void readToShortArray(final short[] dest, final int destPos, final int length) {
+        checkArgument(destPos >= 0);
+        checkArgument(length > 0);
+        checkUnderflow(m_nextRead + length <= m_nextWrite);
+        for (int i = 0; i < length; i++) {
+            dest[destPos + i] = (short)(get(m_nextRead + i) ? 1 : 0);
+        }
+        m_nextRead += length;
+    }
+
+    @Override
+    public int readNextInt() throws BufferUnderflowException {
+        checkUnderflow(m_nextRead < m_nextWrite);
+        return get(m_nextRead++) ? 1 : 0;
+    }
+
+    @Override
+    public int[] toIntArray() {
+        final int[] tmp = new int[m_capacity];
+        for (int i = 0; i < m_capacity; i++) {
+            tmp[i] = get(i) ? 1 : 0;
+        }
+        return tmp;
+    }
+
+    @Override
+    public void readToIntArray(final int[] dest, final int destPos, final int length) {
+        checkArgument(destPos >= 0);
+        checkArgument(length > 0);
+        checkUnderflow(m_nextRead + length <= m_nextWrite);
+        for (int i = 0; i < length; i++) {
+            dest[destPos + i] = get(m_nextRead + i) ? 1 : 0;
+        }
+        m_nextRead += length;
+    }
+
+    @Override
+    public long readNextLong() throws BufferUnderflowException {
+        checkUnderflow(m_nextRead < m_nextWrite);
+        return get(m_nextRead++) ? 1L : 0L;
+    }
+
+    @Override
+    public long[] toLongArray() {
+        final long[] tmp = new long[m_capacity];
+        for (int i = 0; i < m_capacity; i++) {
+            tmp[i] = get(i) ? 1L : 0L;
+        }
+        return tmp;
+    }
+
+    @Override
+    public void readToLongArray(final long[] dest, final int destPos, final int length) {
+        checkArgument(destPos >= 0);
+        checkArgument(length > 0);
+        checkUnderflow(m_nextRead + length <= m_nextWrite);
+        for (int i = 0; i < length; i++) {
+            dest[destPos + i] = get(m_nextRead + i) ? 1L : 0L;
+        }
+        m_nextRead += length;
+    }
+
+    @Override
+    public float readNextFloat() throws BufferUnderflowException {
+        checkUnderflow(m_nextRead < m_nextWrite);
+        return get(m_nextRead++) ? 1f : 0f;
+    }
+
+    @Override
+    public float[] toFloatArray() {
+        final float[] tmp = new float[m_capacity];
+        for (int i = 0; i < m_capacity; i++) {
+            tmp[i] = get(i) ? 1f : 0f;
+        }
+        return tmp;
+    }
+
+    @Override
+    public void readToFloatArray(final float[] dest, final int destPos, final int length) {
+        checkArgument(destPos >= 0);
+        checkArgument(length > 0);
+        checkUnderflow(m_nextRead + length <= m_nextWrite);
+        for (int i = 0; i < length; i++) {
+            dest[destPos + i] = get(m_nextRead + i) ? 1f : 0f;
+        }
+        m_nextRead += length;
+    }
+
+    @Override
+    public double readNextDouble() throws BufferUnderflowException {
+        checkUnderflow(m_nextRead < m_nextWrite);
+        return get(m_nextRead++) ? 1. : 0.;
+    }
+
+    @Override
+    public double[] toDoubleArray() {
+        final double[] tmp = new double[m_capacity];
+        for (int i = 0; i < m_capacity; i++) {
+            tmp[i] = get(i) ? 1. : 0.;
+        }
+        return tmp;
+    }
+
+    @Override
+    public void readToDoubleArray(final double[] dest, final int destPos, final int length) {
+        checkArgument(destPos >= 0);
+        checkArgument(length > 0);
+        checkUnderflow(m_nextRead + length <= m_nextWrite);
+        for (int i = 0; i < length; i++) {
+            dest[destPos + i] = get(m_nextRead + i) ? 1. : 0.;
+        }
+        m_nextRead += length;
+    }
+
+    @Override
+    public void put(final boolean value) throws BufferOverflowException {
+        checkOverflow(m_nextWrite < m_capacity);
+        set(m_nextWrite++, value);
+    }
+
+    @Override
+    public void putAll(final boolean[] values) throws BufferOverflowException {
+        checkOverflow(m_nextWrite + values.length <= m_capacity);
+        for (final boolean value : values) {
+            set(m_nextWrite++, value);
+        }
+    }
+
+    @Override
+    public void putWords(final long[] words, final long numBits)
+        throws IllegalArgumentException, BufferOverflowException {
+        checkArgument(numBits >= 0 && numBits <= (long)words.length * Long.SIZE,
+            "Number of bits exceeds the number of bits in the given words.");
+        checkOverflow(m_nextWrite + numBits <= m_capacity);
+        for (int k = 0; k < getNumWords(numBits); k++) {
+            final int numWordBits = (int)Math.min(Long.SIZE, numBits - (long)k * Long.SIZE);
+            final long word = mask(words[k], numWordBits);
+            final int destPos = m_nextWrite + k * Long.SIZE;
+            final int destWord = destPos >>> 6;
+            final int shift = destPos & (Long.SIZE - 1);
+            // keeps the already written bits, the bits beyond the buffer's size are undefined anyway
+            m_storage[destWord] = (m_storage[destWord] & ((1L << shift) - 1)) | (word << shift);
+            if (shift + numWordBits > Long.SIZE) {
+                m_storage[destWord + 1] = word >>> (Long.SIZE - shift);
+            }
+        }
+        m_nextWrite += numBits;
+    }
+
+    @Override
+    protected long[] createStorage() {
+        return new long[getNumWords(m_capacity)];
+    }
+
+    private boolean get(final int index) {
+        return (m_storage[index >>> 6] & (1L << index)) != 0;
+    }
+
+    private void set(final int index, final boolean value) {
+        if (value) {
+            m_storage[index >>> 6] |= 1L << index;
+        } else {
+            m_storage[index >>> 6] &= ~(1L << index);
+        }
+    }
+
+    private static long mask(final long word, final int numBits) {
+        return numBits == Long.SIZE ? word : word & ((1L << numBits) - 1);
+    }
+}
@@ -47,6 +47,7 @@
 package org.knime.dl.core.data;
 
 import java.nio.BufferUnderflowException;
+import java.util.Arrays;
 
 /**
  * A {@link DLReadableBuffer readable} bit buffer.
@@ -82,4 +83,28 @@ public interface DLReadableBitBuffer extends DLReadableByteBuffer {
      * @throws BufferUnderflowException if the buffer's {@link #size() size} is exceeded.
      */
     void readToBitArray(boolean[] dest, int destPos, int length);
+
+    /**
+     * Reads <b>length</b> values from the buffer into the <b>dest</b> array of words starting from the next value in
+     * the buffer. Value <code>i</code> is stored in bit <code>i % 64</code> (counted from the least significant bit)
+     * of word <code>i / 64</code>, see {@link DLWritableBitBuffer#putWords(long[], long)}. Unused bits of the last
+     * written word are cleared.
+     * <P>
+     * The default implementation reads the bits one by one. Implementations that store their bits packed should
+     * override this method.
+     *
+     * @param dest destination array, must hold at least <code>(length + 63) / 64</code> words
+     * @param length number of elements to read from the buffer
+     * @throws BufferUnderflowException if the buffer's {@link #size() size} is exceeded.
+     */
+    default void readToWordArray(final long[] dest, final int length) {
+        if (length > 0) {
+            Arrays.fill(dest, 0, ((length - 1) >>> 6) + 1, 0L);
+        }
+        for (int i = 0; i < length; i++) {
+            if (readNextBit()) {
+                dest[i >>> 6] |= 1L << i;
+            }
+        }
+    }
 }
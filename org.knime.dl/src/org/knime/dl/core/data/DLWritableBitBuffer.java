@@ -25,4 +25,27 @@ public interface DLWritableBitBuffer extends DLWritableBuffer {
 	 * @throws BufferOverflowException if the buffer's {@link #getCapacity() capacity} is exceeded.
 	 */
 	void putAll(boolean[] values) throws BufferOverflowException;
+
+	/**
+	 * Copies the given number of bits from an array of words into the buffer. Bit <code>i</code> is stored in bit
+	 * <code>i % 64</code> (counted from the least significant bit) of word <code>i / 64</code>, which is the layout
+	 * of {@link org.knime.core.data.vector.bitvector.DenseBitVector#getAllBits()}.
+	 * <P>
+	 * The default implementation writes the bits one by one. Implementations that store their bits packed should
+	 * override this method.
+	 *
+	 * @param words the words
+	 * @param numBits the number of bits to copy, must not exceed <code>64 * words.length</code>
+	 * @throws IllegalArgumentException if <b>numBits</b> exceeds the number of bits in <b>words</b>
+	 * @throws BufferOverflowException if the buffer's {@link #getCapacity() capacity} is exceeded.
+	 */
+	default void putWords(final long[] words, final long numBits)
+			throws IllegalArgumentException, BufferOverflowException {
+		if (numBits < 0 || numBits > (long) words.length * Long.SIZE) {
+			throw new IllegalArgumentException("Number of bits exceeds the number of bits in the given words.");
+		}
+		for (long i = 0; i < numBits; i++) {
+			put((words[(int) (i >>> 6)] & (1L << i)) != 0);
+		}
+	}
 }
@@ -52,10 +52,13 @@
 import java.util.OptionalLong;
 
 import org.knime.core.data.DataColumnSpec;
+import org.knime.core.data.DataRow;
 import org.knime.core.data.ExtensibleUtilityFactory;
 import org.knime.core.data.vector.bitvector.BitVectorValue;
+import org.knime.core.data.vector.bitvector.DenseBitVectorCell;
 import org.knime.dl.core.DLTensor;
 import org.knime.dl.core.DLTensorSpec;
+import org.knime.dl.core.data.DLPackedBitBuffer;
 import org.knime.dl.core.data.DLWritableBitBuffer;
 
 /**
@@ -88,16 +91,7 @@ public OptionalLong getDestCount(final List<DataColumnSpec> spec) {
 
 	@Override
 	public DLDataValueToTensorConverter<BitVectorValue, DLWritableBitBuffer> createConverter() {
-		return new DLAbstractTensorDataValueToTensorConverter<BitVectorValue, DLWritableBitBuffer>() {
-
-			@Override
-			public void convertInternal(final BitVectorValue input, final DLTensor<DLWritableBitBuffer> output) {
-				final DLWritableBitBuffer buffer = output.getBuffer();
-				for (int i = 0; i < input.length(); i++) {
-					buffer.put(input.get(i));
-				}
-			}
-		};
+		return new DLBatchConverter();
 	}
 
 	@Override
@@ -108,4 +102,44 @@ protected long[] getDataShapeInternal(final BitVectorValue input, final DLTensor
 		}
 		return new long[]{input.length()};
 	}
+
+	private static final class DLBatchConverter
+		extends DLAbstractTensorDataValueToTensorConverter<BitVectorValue, DLWritableBitBuffer>
+		implements DLDataValueToTensorBatchConverter<BitVectorValue, DLWritableBitBuffer> {
+
+		@Override
+		public void convertInternal(final BitVectorValue input, final DLTensor<DLWritableBitBuffer> output) {
+			output.getBuffer().putWords(toWords(input), input.length());
+		}
+
+		@Override
+		public boolean convertBatch(final DataRow[] rows, final int numRows, final int[] columns,
+				final DLTensor<DLWritableBitBuffer> output) {
+			if (columns.length != 1) {
+				// let the row-wise conversion report the error
+				return false;
+			}
+			final int column = columns[0];
+			final DLWritableBitBuffer buffer = output.getBuffer();
+			for (int r = 0; r < numRows; r++) {
+				final BitVectorValue input = (BitVectorValue) rows[r].getCell(column);
+				buffer.putWords(toWords(input), input.length());
+			}
+			return true;
+		}
+
+		/**
+		 * Dense bit vectors are copied word-wise, all other bit vectors only need to be visited at their set bits.
+		 */
+		private static long[] toWords(final BitVectorValue input) {
+			if (input instanceof DenseBitVectorCell) {
+				return ((DenseBitVectorCell) input).getBitVectorCopy().getAllBits();
+			}
+			final long[] words = new long[DLPackedBitBuffer.getNumWords(input.length())];
+			for (long i = input.nextSetBit(0); i >= 0; i = input.nextSetBit(i + 1)) {
+				words[(int) (i >>> 6)] |= 1L << i;
+			}
+			return words;
+		}
+	}
 }
@@ -52,7 +52,9 @@
 
 import org.knime.core.data.DataCell;
 import org.knime.core.data.DataColumnSpec;
+import org.knime.core.data.DataRow;
 import org.knime.core.data.DataValue;
+import org.knime.core.data.DoubleValue;
 import org.knime.core.data.collection.CollectionDataValue;
 import org.knime.dl.core.DLTensor;
 import org.knime.dl.core.DLTensorSpec;
@@ -110,6 +112,9 @@ public OptionalLong getDestCount(final List<DataColumnSpec> spec) {
 	@Override
 	public DLDataValueToTensorConverter<CollectionDataValue, O> createConverter() {
 		final DLDataValueToTensorConverter<IE, O> elementConverter = m_elementConverterFactory.createConverter();
+		if (m_elementConverterFactory instanceof DLDoubleValueToFloatTensorConverterFactory) {
+			return new DLDoubleCollectionToFloatTensorBatchConverter<>(elementConverter);
+		}
 		return new DLAbstractTensorDataValueToTensorConverter<CollectionDataValue, O>() {
 
 			@Override
@@ -142,4 +147,52 @@ public boolean equals(final Object obj) {
 	protected long[] getDataShapeInternal(final CollectionDataValue input, final DLTensorSpec tensorSpec) {
 		return m_elementConverterFactory.getDataShape(input.stream().map(e -> (IE) e).collect(Collectors.toList()), tensorSpec);
 	}
+
+	/**
+	 * Converts collections of {@link DoubleValue double values} into float tensors. Supports batch-wise conversion.
+	 */
+	private static final class DLDoubleCollectionToFloatTensorBatchConverter<IE extends DataValue, O extends DLWritableBuffer>
+		extends DLAbstractTensorDataValueToTensorConverter<CollectionDataValue, O>
+		implements DLDataValueToTensorBatchConverter<CollectionDataValue, O> {
+
+		private final DLDataValueToTensorConverter<IE, O> m_elementConverter;
+
+		private DLDoubleCollectionToFloatTensorBatchConverter(final DLDataValueToTensorConverter<IE, O> elementConverter) {
+			m_elementConverter = elementConverter;
+		}
+
+		@Override
+		public void convertInternal(final CollectionDataValue input, final DLTensor<O> output) {
+			final Iterable<? extends IE> casted = ((Iterable<? extends IE>) input);
+			m_elementConverter.convert(casted, output);
+		}
+
+		@Override
+		public boolean convertBatch(final DataRow[] rows, final int numRows, final int[] columns,
+				final DLTensor<O> output) {
+			if (columns.length != 1) {
+				// let the row-wise conversion report the error
+				return false;
+			}
+			final int column = columns[0];
+			long length = 0;
+			for (int r = 0; r < numRows; r++) {
+				length += ((CollectionDataValue) rows[r].getCell(column)).size();
+			}
+			final O buffer = output.getBuffer();
+			int pos = (int) buffer.size();
+			final float[] storage = DLDataValueToTensorBatchConverter.getStorageForAppending(buffer, float[].class,
+					length);
+			if (storage == null) {
+				return false;
+			}
+			for (int r = 0; r < numRows; r++) {
+				for (final DataCell element : (CollectionDataValue) rows[r].getCell(column)) {
+					// explicitly lossy cast
+					storage[pos++] = (float) ((DoubleValue) element).getDoubleValue();
+				}
+			}
+			return true;
+		}
+	}
 }
@@ -0,0 +1,110 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.core.data.convert;
+
+import java.nio.BufferOverflowException;
+
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataValue;
+import org.knime.dl.core.DLTensor;
+import org.knime.dl.core.data.DLWrappingDataBuffer;
+import org.knime.dl.core.data.DLWritableBuffer;
+
+/**
+ * A {@link DLDataValueToTensorConverter} that is additionally able to convert a whole batch of rows at once by writing
+ * directly into the storage of the output tensor's buffer. Callers fall back to
+ * {@link #convert(Iterable, DLTensor)}, row by row, if batch-wise conversion is not supported for a given output.
+ *
+ * @param <I> the input {@link DataValue} type
+ * @param <O> the output {@link DLWritableBuffer buffer type}
+ * @author agent
+ */
+public interface DLDataValueToTensorBatchConverter<I extends DataValue, O extends DLWritableBuffer>
+	extends DLDataValueToTensorConverter<I, O> {
+
+	/**
+	 * Returns the storage of the given buffer for appending the given number of elements to it, if the buffer exposes
+	 * a storage of the given type.
+	 *
+	 * @param buffer the buffer
+	 * @param storageType the expected storage type, e.g. <code>float[]</code>
+	 * @param length the number of elements that will be appended
+	 * @return the storage or <code>null</code> if the buffer does not expose a storage of the given type. The first
+	 *         element to write is at index {@link DLWritableBuffer#size() size} of the buffer, as it was before
+	 *         calling this method.
+	 * @throws BufferOverflowException if appending the given number of elements exceeds the buffer's capacity
+	 */
+	static <S> S getStorageForAppending(final DLWritableBuffer buffer, final Class<S> storageType,
+			final long length) throws BufferOverflowException {
+		if (!(buffer instanceof DLWrappingDataBuffer)) {
+			return null;
+		}
+		final DLWrappingDataBuffer<?> wrappingBuffer = (DLWrappingDataBuffer<?>) buffer;
+		final long start = wrappingBuffer.size();
+		// Probing does not change the buffer's size.
+		if (!storageType.isInstance(wrappingBuffer.getStorageForWriting(start, 0))) {
+			return null;
+		}
+		return storageType.cast(wrappingBuffer.getStorageForWriting(start, length));
+	}
+
+	/**
+	 * Appends the values of the given columns of the given rows to the output tensor, in row-major order. This is
+	 * equivalent to calling {@link #convert(Iterable, DLTensor)} for the values of each row in turn. The rows must not
+	 * contain missing cells in the given columns.
+	 *
+	 * @param rows the rows to convert, only the first <code>numRows</code> entries are considered
+	 * @param numRows the number of rows to convert
+	 * @param columns the indices of the columns to convert
+	 * @param output the output tensor
+	 * @return <code>true</code> if the rows were converted, <code>false</code> if batch-wise conversion is not
+	 *         supported for the given arguments. In the latter case, the output tensor is left untouched.
+	 * @throws BufferOverflowException if converting the rows exceeds the capacity of the output tensor's buffer
+	 */
+	boolean convertBatch(DataRow[] rows, int numRows, int[] columns, DLTensor<O> output)
+			throws BufferOverflowException;
+}
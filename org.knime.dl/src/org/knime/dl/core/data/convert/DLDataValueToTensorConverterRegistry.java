@@ -48,12 +48,15 @@
  */
 package org.knime.dl.core.data.convert;
 
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import org.eclipse.core.runtime.IConfigurationElement;
@@ -100,6 +103,19 @@ public static synchronized DLDataValueToTensorConverterRegistry getInstance() {
     /** Map of all converters (also deprecated converters */
     private final HashMap<String, DLDataValueToTensorConverterFactory<?, ?>> m_allConverters = new HashMap<>();
 
+	/**
+	 * Index of resolved lookups. Source types form an open set, so entries are added on first lookup rather than
+	 * upfront. All caches are cleared whenever a converter factory is registered.
+	 */
+	private final ConcurrentHashMap<Class<? extends DLWritableBuffer>, List<DLDataValueToTensorConverterFactory<? extends DataValue, ?>>> m_factoriesForBufferType = new ConcurrentHashMap<>();
+
+	private final ConcurrentHashMap<DLLookupKey, List<DLDataValueToTensorConverterFactory<? extends DataValue, ?>>> m_factoriesForTypes = new ConcurrentHashMap<>();
+
+	private final ConcurrentHashMap<DLLookupKey, Optional<DLDataValueToTensorConverterFactory<? extends DataValue, ?>>> m_preferredFactories = new ConcurrentHashMap<>();
+
+	/** Collection wrappers of the element converter factories, keyed by the identifier of the element factory. */
+	private final ConcurrentHashMap<String, DLCollectionDataValueToTensorConverterFactory<?, ?>> m_collectionFactories = new ConcurrentHashMap<>();
+
 	/**
 	 * Creates a new registry instance.
 	 */
@@ -115,19 +131,18 @@ private DLDataValueToTensorConverterRegistry() {
      * which convert into a specific destination buffer. Doesn't return deprecated converters.
      *
      * @param bufferType the destination type
-     * @return all deep learning converter factories that allow conversion into the destination type
+     * @return all deep learning converter factories that allow conversion into the destination type, the returned list
+     *         is unmodifiable
      */
 	public List<DLDataValueToTensorConverterFactory<? extends DataValue, ?>> getConverterFactoriesForBufferType(
 			final Class<? extends DLWritableBuffer> bufferType) {
-		final HashSet<DLDataValueToTensorConverterFactory<?, ?>> convs = new HashSet<>();
-		for (final DLDataValueToTensorConverterFactory<?, ?> candidate : m_converters.values()) {
-			if (candidate.getBufferType().isAssignableFrom(bufferType)) {
-				convs.add(candidate);
-				convs.add(new DLCollectionDataValueToTensorConverterFactory<>(candidate));
-			}
+		List<DLDataValueToTensorConverterFactory<? extends DataValue, ?>> convs = m_factoriesForBufferType
+				.get(bufferType);
+		if (convs == null) {
+			convs = resolveConverterFactoriesForBufferType(bufferType);
+			m_factoriesForBufferType.putIfAbsent(bufferType, convs);
 		}
-		return convs.stream().sorted(Comparator.comparing(DLDataValueToTensorConverterFactory::getIdentifier))
-				.collect(Collectors.toList());
+		return convs;
 	}
 
 	/**
@@ -136,25 +151,19 @@ private DLDataValueToTensorConverterRegistry() {
      *
      * @param sourceType the source type
      * @param bufferType the destination type
-     * @return all deep learning converter factories that allow conversion of the source type into the destination type
+     * @return all deep learning converter factories that allow conversion of the source type into the destination
+     *         type, the returned list is unmodifiable
      */
 	public final List<DLDataValueToTensorConverterFactory<? extends DataValue, ?>> getConverterFactories(
 			final DataType sourceType, final Class<? extends DLWritableBuffer> bufferType) {
-		final HashSet<DLDataValueToTensorConverterFactory<?, ?>> convs = new HashSet<>();
-		for (final DLDataValueToTensorConverterFactory<?, ?> candidate : m_converters.values()) {
-			if (candidate.getBufferType().isAssignableFrom(bufferType)
-					&& sourceType.isCompatible(candidate.getSourceType())) {
-				convs.add(candidate);
-			}
-		}
-		if (sourceType.isCollectionType()) {
-			for (final DLDataValueToTensorConverterFactory<? extends DataValue, ?> conv : getConverterFactories(
-					sourceType.getCollectionElementType(), bufferType)) {
-				convs.add(new DLCollectionDataValueToTensorConverterFactory<>(conv));
-			}
+		final DLLookupKey key = new DLLookupKey(sourceType, bufferType);
+		List<DLDataValueToTensorConverterFactory<? extends DataValue, ?>> convs = m_factoriesForTypes.get(key);
+		if (convs == null) {
+			// NB: Not computeIfAbsent as resolving a collection type recursively looks up its element type.
+			convs = resolveConverterFactories(sourceType, bufferType);
+			m_factoriesForTypes.putIfAbsent(key, convs);
 		}
-		return convs.stream().sorted(Comparator.comparing(DLDataValueToTensorConverterFactory::getIdentifier))
-				.collect(Collectors.toList());
+		return convs;
 	}
 
 	/**
@@ -169,29 +178,13 @@ private DLDataValueToTensorConverterRegistry() {
      */
 	public final Optional<DLDataValueToTensorConverterFactory<? extends DataValue, ?>> getPreferredConverterFactory(
 			final DataType sourceType, final Class<? extends DLWritableBuffer> bufferType) {
-		final List<DLDataValueToTensorConverterFactory<? extends DataValue, ?>> convs = getConverterFactories(
-				sourceType, bufferType);
-		DLDataValueToTensorConverterFactory<?, ?> sourceMatch = null;
-		final DataType theSourceType = sourceType.isCollectionType() ? sourceType.getCollectionElementType()
-				: sourceType;
-		for (final DLDataValueToTensorConverterFactory<? extends DataValue, ?> conv : convs) {
-			final Class<? extends DataValue> theConvSourceType;
-			if (conv instanceof DLCollectionDataValueToTensorConverterFactory) {
-				final DLCollectionDataValueToTensorConverterFactory<?, ?> casted = (DLCollectionDataValueToTensorConverterFactory<?, ?>) conv;
-				theConvSourceType = casted.getSourceElementType();
-			} else {
-				theConvSourceType = conv.getSourceType();
-			}
-			if (theSourceType.getPreferredValueClass().equals(theConvSourceType)) {
-				if (conv.getBufferType() == bufferType) {
-					return Optional.of(conv);
-				}
-				if (sourceMatch == null || sourceMatch.getBufferType().isAssignableFrom(conv.getBufferType())) {
-					sourceMatch = conv;
-				}
-			}
+		final DLLookupKey key = new DLLookupKey(sourceType, bufferType);
+		Optional<DLDataValueToTensorConverterFactory<? extends DataValue, ?>> conv = m_preferredFactories.get(key);
+		if (conv == null) {
+			conv = resolvePreferredConverterFactory(sourceType, bufferType);
+			m_preferredFactories.putIfAbsent(key, conv);
 		}
-		return sourceMatch != null ? Optional.of(sourceMatch) : convs.stream().findFirst();
+		return conv;
 	}
 
 	/**
@@ -210,7 +203,7 @@ private DLDataValueToTensorConverterRegistry() {
             final Optional<DLDataValueToTensorConverterFactory<?, ?>> conv =
                 getConverterFactory(extractElementConverter(identifier));
 			if (conv.isPresent()) {
-				return Optional.of(new DLCollectionDataValueToTensorConverterFactory<>(conv.get()));
+				return Optional.of(getCollectionConverterFactory(conv.get()));
 			} else {
 				return Optional.empty();
 			}
@@ -243,6 +236,80 @@ public final boolean isDeprecated(final String identifier) {
 
     // :access methods
 
+    // resolution:
+
+	private List<DLDataValueToTensorConverterFactory<? extends DataValue, ?>> resolveConverterFactoriesForBufferType(
+			final Class<? extends DLWritableBuffer> bufferType) {
+		final HashSet<DLDataValueToTensorConverterFactory<?, ?>> convs = new HashSet<>();
+		for (final DLDataValueToTensorConverterFactory<?, ?> candidate : m_converters.values()) {
+			if (candidate.getBufferType().isAssignableFrom(bufferType)) {
+				convs.add(candidate);
+				convs.add(getCollectionConverterFactory(candidate));
+			}
+		}
+		return sortedUnmodifiable(convs);
+	}
+
+	private List<DLDataValueToTensorConverterFactory<? extends DataValue, ?>> resolveConverterFactories(
+			final DataType sourceType, final Class<? extends DLWritableBuffer> bufferType) {
+		final HashSet<DLDataValueToTensorConverterFactory<?, ?>> convs = new HashSet<>();
+		for (final DLDataValueToTensorConverterFactory<?, ?> candidate : m_converters.values()) {
+			if (candidate.getBufferType().isAssignableFrom(bufferType)
+					&& sourceType.isCompatible(candidate.getSourceType())) {
+				convs.add(candidate);
+			}
+		}
+		if (sourceType.isCollectionType()) {
+			for (final DLDataValueToTensorConverterFactory<? extends DataValue, ?> conv : getConverterFactories(
+					sourceType.getCollectionElementType(), bufferType)) {
+				convs.add(getCollectionConverterFactory(conv));
+			}
+		}
+		return sortedUnmodifiable(convs);
+	}
+
+	private Optional<DLDataValueToTensorConverterFactory<? extends DataValue, ?>> resolvePreferredConverterFactory(
+			final DataType sourceType, final Class<? extends DLWritableBuffer> bufferType) {
+		final List<DLDataValueToTensorConverterFactory<? extends DataValue, ?>> convs = getConverterFactories(
+				sourceType, bufferType);
+		DLDataValueToTensorConverterFactory<?, ?> sourceMatch = null;
+		final DataType theSourceType = sourceType.isCollectionType() ? sourceType.getCollectionElementType()
+				: sourceType;
+		for (final DLDataValueToTensorConverterFactory<? extends DataValue, ?> conv : convs) {
+			final Class<? extends DataValue> theConvSourceType;
+			if (conv instanceof DLCollectionDataValueToTensorConverterFactory) {
+				final DLCollectionDataValueToTensorConverterFactory<?, ?> casted = (DLCollectionDataValueToTensorConverterFactory<?, ?>) conv;
+				theConvSourceType = casted.getSourceElementType();
+			} else {
+				theConvSourceType = conv.getSourceType();
+			}
+			if (theSourceType.getPreferredValueClass().equals(theConvSourceType)) {
+				if (conv.getBufferType() == bufferType) {
+					return Optional.of(conv);
+				}
+				if (sourceMatch == null || sourceMatch.getBufferType().isAssignableFrom(conv.getBufferType())) {
+					sourceMatch = conv;
+				}
+			}
+		}
+		return sourceMatch != null ? Optional.of(sourceMatch) : convs.stream().findFirst();
+	}
+
+	private DLCollectionDataValueToTensorConverterFactory<?, ?> getCollectionConverterFactory(
+			final DLDataValueToTensorConverterFactory<?, ?> elementConverterFactory) {
+		return m_collectionFactories.computeIfAbsent(elementConverterFactory.getIdentifier(),
+				id -> new DLCollectionDataValueToTensorConverterFactory<>(elementConverterFactory));
+	}
+
+	private void clearCaches() {
+		m_factoriesForBufferType.clear();
+		m_factoriesForTypes.clear();
+		m_preferredFactories.clear();
+		m_collectionFactories.clear();
+	}
+
+	// :resolution
+
     // static helpers:
 
     private static boolean isCollectionConverter(final String identifier) {
@@ -254,6 +321,13 @@ private static String extractElementConverter(final String identifier) {
             identifier.length() - 1);
     }
 
+	private static List<DLDataValueToTensorConverterFactory<? extends DataValue, ?>> sortedUnmodifiable(
+			final HashSet<DLDataValueToTensorConverterFactory<?, ?>> convs) {
+		return Collections.unmodifiableList(
+				convs.stream().sorted(Comparator.comparing(DLDataValueToTensorConverterFactory::getIdentifier))
+						.collect(Collectors.toList()));
+	}
+
     // :static helpers
 
 	// registration:
@@ -292,6 +366,39 @@ private synchronized void registerConverterInternal(final DLDataValueToTensorCon
         if (!deprecated) {
             m_converters.put(id, converter);
         }
+        clearCaches();
 	}
 	// :registration
+
+	private static final class DLLookupKey {
+
+		private final DataType m_sourceType;
+
+		private final Class<? extends DLWritableBuffer> m_bufferType;
+
+		private final int m_hashCode;
+
+		private DLLookupKey(final DataType sourceType, final Class<? extends DLWritableBuffer> bufferType) {
+			m_sourceType = sourceType;
+			m_bufferType = bufferType;
+			m_hashCode = Objects.hash(sourceType, bufferType);
+		}
+
+		@Override
+		public int hashCode() {
+			return m_hashCode;
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (obj == this) {
+				return true;
+			}
+			if (obj == null || obj.getClass() != getClass()) {
+				return false;
+			}
+			final DLLookupKey other = (DLLookupKey) obj;
+			return other.m_bufferType == m_bufferType && other.m_sourceType.equals(m_sourceType);
+		}
+	}
 }
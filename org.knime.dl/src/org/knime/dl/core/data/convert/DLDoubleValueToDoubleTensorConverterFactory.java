@@ -52,6 +52,7 @@
 import java.util.OptionalLong;
 
 import org.knime.core.data.DataColumnSpec;
+import org.knime.core.data.DataRow;
 import org.knime.core.data.DoubleValue;
 import org.knime.core.data.ExtensibleUtilityFactory;
 import org.knime.dl.core.DLTensor;
@@ -86,7 +87,7 @@ public OptionalLong getDestCount(final List<DataColumnSpec> spec) {
 
 	@Override
 	public DLDataValueToTensorConverter<DoubleValue, DLWritableDoubleBuffer> createConverter() {
-		return new DLAbstractScalarDataValueToTensorConverter<DoubleValue, DLWritableDoubleBuffer>() {
+		return new DLAbstractScalarDataValueToTensorBatchConverter<DoubleValue, DLWritableDoubleBuffer>() {
 
 			@Override
 			public void convert(final Iterable<? extends DoubleValue> input,
@@ -96,6 +97,25 @@ public void convert(final Iterable<? extends DoubleValue> input,
 					buf.put(val.getDoubleValue());
 				}
 			}
+
+			@Override
+			public boolean convertBatch(final DataRow[] rows, final int numRows, final int[] columns,
+					final DLTensor<DLWritableDoubleBuffer> output) {
+				final DLWritableDoubleBuffer buf = output.getBuffer();
+				int pos = (int) buf.size();
+				final double[] storage = DLDataValueToTensorBatchConverter.getStorageForAppending(buf,
+						double[].class, (long) numRows * columns.length);
+				if (storage == null) {
+					return false;
+				}
+				for (int r = 0; r < numRows; r++) {
+					final DataRow row = rows[r];
+					for (final int column : columns) {
+						storage[pos++] = ((DoubleValue) row.getCell(column)).getDoubleValue();
+					}
+				}
+				return true;
+			}
 		};
 	}
 }
@@ -52,6 +52,7 @@
 import java.util.OptionalLong;
 
 import org.knime.core.data.DataColumnSpec;
+import org.knime.core.data.DataRow;
 import org.knime.core.data.DoubleValue;
 import org.knime.core.data.ExtensibleUtilityFactory;
 import org.knime.dl.core.DLTensor;
@@ -86,7 +87,7 @@ public OptionalLong getDestCount(final List<DataColumnSpec> spec) {
 
 	@Override
 	public DLDataValueToTensorConverter<DoubleValue, DLWritableFloatBuffer> createConverter() {
-		return new DLAbstractScalarDataValueToTensorConverter<DoubleValue, DLWritableFloatBuffer>() {
+		return new DLAbstractScalarDataValueToTensorBatchConverter<DoubleValue, DLWritableFloatBuffer>() {
 
 			@Override
 			public void convert(final Iterable<? extends DoubleValue> input,
@@ -97,6 +98,26 @@ public void convert(final Iterable<? extends DoubleValue> input,
 					buf.put((float) val.getDoubleValue());
 				}
 			}
+
+			@Override
+			public boolean convertBatch(final DataRow[] rows, final int numRows, final int[] columns,
+					final DLTensor<DLWritableFloatBuffer> output) {
+				final DLWritableFloatBuffer buf = output.getBuffer();
+				int pos = (int) buf.size();
+				final float[] storage = DLDataValueToTensorBatchConverter.getStorageForAppending(buf, float[].class,
+						(long) numRows * columns.length);
+				if (storage == null) {
+					return false;
+				}
+				for (int r = 0; r < numRows; r++) {
+					final DataRow row = rows[r];
+					for (final int column : columns) {
+						// explicitly lossy cast
+						storage[pos++] = (float) ((DoubleValue) row.getCell(column)).getDoubleValue();
+					}
+				}
+				return true;
+			}
 		};
 	}
 }
@@ -52,6 +52,7 @@
 import java.util.OptionalLong;
 
 import org.knime.core.data.DataColumnSpec;
+import org.knime.core.data.DataRow;
 import org.knime.core.data.ExtensibleUtilityFactory;
 import org.knime.core.data.IntValue;
 import org.knime.dl.core.DLTensor;
@@ -86,7 +87,7 @@ public OptionalLong getDestCount(final List<DataColumnSpec> spec) {
 
 	@Override
 	public DLDataValueToTensorConverter<IntValue, DLWritableIntBuffer> createConverter() {
-		return new DLAbstractScalarDataValueToTensorConverter<IntValue, DLWritableIntBuffer>() {
+		return new DLAbstractScalarDataValueToTensorBatchConverter<IntValue, DLWritableIntBuffer>() {
 
 			@Override
 			public void convert(final Iterable<? extends IntValue> input, final DLTensor<DLWritableIntBuffer> output) {
@@ -95,6 +96,25 @@ public void convert(final Iterable<? extends IntValue> input, final DLTensor<DLW
 					buf.put(val.getIntValue());
 				}
 			}
+
+			@Override
+			public boolean convertBatch(final DataRow[] rows, final int numRows, final int[] columns,
+					final DLTensor<DLWritableIntBuffer> output) {
+				final DLWritableIntBuffer buf = output.getBuffer();
+				int pos = (int) buf.size();
+				final int[] storage = DLDataValueToTensorBatchConverter.getStorageForAppending(buf, int[].class,
+						(long) numRows * columns.length);
+				if (storage == null) {
+					return false;
+				}
+				for (int r = 0; r < numRows; r++) {
+					final DataRow row = rows[r];
+					for (final int column : columns) {
+						storage[pos++] = ((IntValue) row.getCell(column)).getIntValue();
+					}
+				}
+				return true;
+			}
 		};
 	}
 }
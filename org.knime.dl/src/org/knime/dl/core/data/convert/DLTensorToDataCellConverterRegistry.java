@@ -55,6 +55,7 @@
 import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.core.runtime.IConfigurationElement;
 import org.knime.core.data.DataCell;
@@ -104,6 +105,15 @@ public static synchronized DLTensorToDataCellConverterRegistry getInstance() {
     /** Map of all converters (also deprecated converters */
     private final HashMap<String, DLTensorToDataCellConverterFactory<?, ?>> m_allConverters = new HashMap<>();
 
+	/**
+	 * Non deprecated converters per source buffer type. Whether a converter also gets a list wrapper depends on the
+	 * source spec, so only the buffer type matching is cached. Cleared whenever a converter factory is registered.
+	 */
+	private final ConcurrentHashMap<Class<? extends DLReadableBuffer>, List<DLTensorToDataCellConverterFactory<?, ?>>> m_candidatesForSourceType = new ConcurrentHashMap<>();
+
+	/** List wrappers of the element converter factories, keyed by the identifier of the element factory. */
+	private final ConcurrentHashMap<String, DLTensorToListCellConverterFactory<?, ?>> m_listFactories = new ConcurrentHashMap<>();
+
 	/**
 	 * Creates a new registry instance.
 	 */
@@ -125,18 +135,16 @@ private DLTensorToDataCellConverterRegistry() {
 	public final List<DLTensorToDataCellConverterFactory<?, ? extends DataCell>> getFactoriesForSourceType(
 			final Class<? extends DLReadableBuffer> sourceType, final DLTensorSpec sourceSpec) {
 		final ArrayList<DLTensorToDataCellConverterFactory<?, ? extends DataCell>> convs = new ArrayList<>();
-		for (final DLTensorToDataCellConverterFactory<?, ?> candidate : m_converters.values()) {
+		for (final DLTensorToDataCellConverterFactory<?, ?> candidate : getCandidatesForSourceType(sourceType)) {
 		    try {
-		        if (candidate.getBufferType().isAssignableFrom(sourceType)) {
-		            final OptionalLong destCount = candidate.getDestCount(sourceSpec);
-		            convs.add(candidate);
-		            // TODO: Figure out whether this is the best we can do
-		            // Currently a missing destCount is a direct indicator that the converter
-		            // can have multiple outputs
-		            if (!destCount.isPresent() || destCount.getAsLong() > 1) {
-		                // if we have multiple outputs, we can also output a list
-		                convs.add(new DLTensorToListCellConverterFactory<>(candidate));
-		            }
+		        final OptionalLong destCount = candidate.getDestCount(sourceSpec);
+		        convs.add(candidate);
+		        // TODO: Figure out whether this is the best we can do
+		        // Currently a missing destCount is a direct indicator that the converter
+		        // can have multiple outputs
+		        if (!destCount.isPresent() || destCount.getAsLong() > 1) {
+		            // if we have multiple outputs, we can also output a list
+		            convs.add(getListConverterFactory(candidate));
 		        }
 		    } catch (Throwable t) {
 		        LOGGER.warn("An unexpected error occurred in DLTensorToDataCellConverter '"
@@ -190,7 +198,7 @@ private DLTensorToDataCellConverterRegistry() {
             final Optional<DLTensorToDataCellConverterFactory<?, ?>> conv =
                 getConverterFactory(extractElementConverter(identifier));
 			if (conv.isPresent()) {
-				return Optional.of(new DLTensorToListCellConverterFactory<>(conv.get()));
+				return Optional.of(getListConverterFactory(conv.get()));
 			} else {
 				return Optional.empty();
 			}
@@ -223,6 +231,41 @@ public final boolean isDeprecated(final String identifier) {
 
     // :access methods
 
+    // resolution:
+
+	private List<DLTensorToDataCellConverterFactory<?, ?>> getCandidatesForSourceType(
+			final Class<? extends DLReadableBuffer> sourceType) {
+		List<DLTensorToDataCellConverterFactory<?, ?>> candidates = m_candidatesForSourceType.get(sourceType);
+		if (candidates == null) {
+			candidates = new ArrayList<>();
+			for (final DLTensorToDataCellConverterFactory<?, ?> candidate : m_converters.values()) {
+			    try {
+			        if (candidate.getBufferType().isAssignableFrom(sourceType)) {
+			            candidates.add(candidate);
+			        }
+			    } catch (Throwable t) {
+			        LOGGER.warn("An unexpected error occurred in DLTensorToDataCellConverter '"
+			                + candidate.getIdentifier() + "'.", t);
+			    }
+			}
+			m_candidatesForSourceType.putIfAbsent(sourceType, candidates);
+		}
+		return candidates;
+	}
+
+	private DLTensorToListCellConverterFactory<?, ?> getListConverterFactory(
+			final DLTensorToDataCellConverterFactory<?, ?> elementConverterFactory) {
+		return m_listFactories.computeIfAbsent(elementConverterFactory.getIdentifier(),
+				id -> new DLTensorToListCellConverterFactory<>(elementConverterFactory));
+	}
+
+	private void clearCaches() {
+		m_candidatesForSourceType.clear();
+		m_listFactories.clear();
+	}
+
+	// :resolution
+
     // static helpers:
 
     private static boolean isCollectionConverter(final String identifier) {
@@ -271,6 +314,7 @@ private synchronized void registerConverterInternal(final DLTensorToDataCellConv
         if (!deprecated) {
             m_converters.put(id, converter);
         }
+        clearCaches();
 	}
 	// :registration
 }
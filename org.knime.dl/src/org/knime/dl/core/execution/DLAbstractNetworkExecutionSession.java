@@ -124,6 +124,11 @@ private static boolean areOutputSpecsValid(final DLNetwork network, final Set<DL
 	 */
 	protected Map<DLTensorId, DLTensor<? extends DLReadableBuffer>> m_output;
 
+	/**
+	 * The number of batches that may be in flight at the same time. Defaults to one, i.e. sequential execution.
+	 */
+	protected int m_pipelineDepth = 1;
+
 	protected DLAbstractNetworkExecutionSession(final N network, final Set<DLTensorSpec> executionInputSpecs,
 			final Set<DLTensorId> requestedOutputs, final DLNetworkInputPreparer inputPreparer,
 			final DLNetworkOutputConsumer outputConsumer, final DLTensorFactory tensorFactory) {
@@ -154,14 +159,30 @@ public N getNetwork() {
 	public void run(final DLExecutionMonitor monitor) throws DLCanceledExecutionException, Exception {
 		// lazily preallocate input tensors
 		if (m_input == null) {
-			m_input = new HashMap<>(m_executionInputSpecs.size());
-			for (final DLTensorSpec spec : m_executionInputSpecs) {
-				m_input.put(spec.getIdentifier(), m_tensorFactory.createWritableTensor(spec));
-			}
+			m_input = createInputTensors();
 		}
 		executeInternal(monitor);
 	}
 
+	/**
+	 * Allocates a new set of input tensors according to the execution input specs of this session. The caller is
+	 * responsible for {@link DLTensor#close() closing} the returned tensors.
+	 */
+	protected Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> createInputTensors() {
+		final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input = new HashMap<>(
+				m_executionInputSpecs.size());
+		for (final DLTensorSpec spec : m_executionInputSpecs) {
+			input.put(spec.getIdentifier(), m_tensorFactory.createWritableTensor(spec));
+		}
+		return input;
+	}
+
+	@Override
+	public void setPipelineDepth(final int depth) {
+		checkArgument(depth >= 1, "Pipeline depth must be at least one.");
+		m_pipelineDepth = depth;
+	}
+
 	@Override
 	public void close() throws Exception {
 		if (m_input != null) {
@@ -46,11 +46,11 @@
  */
 package org.knime.dl.core.execution;
 
-import java.util.ArrayDeque;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.OptionalLong;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.knime.core.data.DataRow;
 import org.knime.dl.core.DLAbstractKnimeNetworkInputPreparer;
@@ -71,6 +71,10 @@ public final class DLKnimeNetworkExecutionInputPreparer extends DLAbstractKnimeN
 
 	private final boolean m_isPredefinedBatchSize;
 
+	/**
+	 * Filled by {@link #prepareNext(Map)} and drained by the output consumer. Both may run on different threads if
+	 * the execution session is pipelined.
+	 */
 	private final Queue<DataRow> m_baseRows;
 
 	/**
@@ -89,7 +93,7 @@ public DLKnimeNetworkExecutionInputPreparer(final DLRowIterator iterator, final
 			final Map<DLTensorId, DLDataValueToTensorConverterFactory<?, ?>> converters) {
 		super(iterator, batchSize, converters);
 		m_isPredefinedBatchSize = isPredefinedBatchSize;
-		m_baseRows = new ArrayDeque<>(batchSize);
+		m_baseRows = new ConcurrentLinkedQueue<>();
 	}
 
     public OptionalLong getNumBatches() {
@@ -113,7 +117,8 @@ public boolean hasNext() {
     @Override
     public void prepareNext(final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input)
         throws DLCanceledExecutionException {
-		long i;
+		final DataRow[] rows = new DataRow[m_batchSize];
+		int i;
 		for (i = 0; i < m_batchSize; i++) {
 			if (!m_iterator.hasNext()) {
 				// last batch will be incomplete, handled below
@@ -121,22 +126,23 @@ public void prepareNext(final Map<DLTensorId, DLTensor<? extends DLWritableBuffe
 			}
 			final DataRow row = m_iterator.next();
 			m_baseRows.add(row);
-			try {
-				writeDataValuesInTensors(m_iterator.groupByTensor(row), input);
-			} catch (final DLBufferOverflowExceptionForTensor e) {
-				final DLTensor<?> tensor = e.getTensor();
-				// must be present
-				final long exampleSize = DLUtils.Shapes.getFixedSize(tensor.getSpec().getShape()).getAsLong();
-				// must be present
-				final long batchSize = tensor.getSpec().getBatchSize().getAsLong();
-				throw new DLInvalidNetworkInputException(
-						"Node input data size exceeds the expected size of network input '" + tensor.getSpec().getName()
-								+ "'. Neuron count is " + exampleSize + ", batch size is " + batchSize
-								+ ". Thus, expected input data size is " + exampleSize * batchSize
-								+ ". Please check the column selection for this input "
-								+ "and validate the node's input data.",
-						e);
-			}
+			rows[i] = row;
+		}
+		try {
+			writeRowsInTensors(rows, i, input);
+		} catch (final DLBufferOverflowExceptionForTensor e) {
+			final DLTensor<?> tensor = e.getTensor();
+			// must be present
+			final long exampleSize = DLUtils.Shapes.getFixedSize(tensor.getSpec().getShape()).getAsLong();
+			// must be present
+			final long batchSize = tensor.getSpec().getBatchSize().getAsLong();
+			throw new DLInvalidNetworkInputException(
+					"Node input data size exceeds the expected size of network input '" + tensor.getSpec().getName()
+							+ "'. Neuron count is " + exampleSize + ", batch size is " + batchSize
+							+ ". Thus, expected input data size is " + exampleSize * batchSize
+							+ ". Please check the column selection for this input "
+							+ "and validate the node's input data.",
+					e);
 		}
 		// check if tensors were filled correctly
 		for (final Entry<DLTensorId, DLTensor<? extends DLWritableBuffer>> entry : input.entrySet()) {
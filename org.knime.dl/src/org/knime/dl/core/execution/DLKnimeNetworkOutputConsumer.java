@@ -142,17 +142,6 @@ public void accept(final Map<DLTensorId, DLTensor<? extends DLReadableBuffer>> t
 		final DLTensor<? extends DLReadableBuffer> tensor = tensors.values().iterator().next();
 		final long batchSize = tensor.getBuffer().size() / tensor.getExampleSize();
 		for (int r = 0; r < batchSize; r++) {
-			int c = 0;
-	        for (final Entry<DLTensorId, DLKnimeOutputConsumerHelperStruct> entry : m_helpers.entrySet()) {
-	            final DLKnimeOutputConsumerHelperStruct helper = entry.getValue();
-				final DataCell[] temp = helper.m_temp;
-				// casting is fine here as we are already performing exact multiplication in the initialize method
-				final int o = (int) (r * helper.m_numOutputElements);
-				for (int i = 0; i < helper.m_numOutputElements; i++) {
-					m_temp[c + i] = temp[o + i];
-				}
-				c += helper.m_numOutputElements;
-			}
 			DataRow baseRow;
 			try {
 				baseRow = m_baseRows.get();
@@ -160,11 +149,22 @@ public void accept(final Map<DLTensorId, DLTensor<? extends DLReadableBuffer>> t
 				// this should only occur in case of incomplete last batches and pre-defined batch size
 				break;
 			}
+			// appended column rows keep a reference to the cell array, so each of them needs its own array - default
+			// rows copy their cells and can share one
+			final DataCell[] cells = m_append ? new DataCell[m_temp.length] : m_temp;
+			int c = 0;
+	        for (final Entry<DLTensorId, DLKnimeOutputConsumerHelperStruct> entry : m_helpers.entrySet()) {
+	            final DLKnimeOutputConsumerHelperStruct helper = entry.getValue();
+				// casting is fine here as we are already performing exact multiplication in the initialize method
+				final int numOutputElements = (int) helper.m_numOutputElements;
+				System.arraycopy(helper.m_temp, r * numOutputElements, cells, c, numOutputElements);
+				c += numOutputElements;
+			}
 			try {
 				if (m_append) {
-					m_output.push(new AppendedColumnRow(baseRow, m_temp.clone()));
+					m_output.push(new AppendedColumnRow(baseRow, cells));
 				} else {
-					m_output.push(new DefaultRow(baseRow.getKey(), m_temp));
+					m_output.push(new DefaultRow(baseRow.getKey(), cells));
 				}
 			} catch (final InterruptedException ex) {
 				Thread.currentThread().interrupt();
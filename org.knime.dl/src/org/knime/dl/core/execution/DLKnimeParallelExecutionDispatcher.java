@@ -0,0 +1,337 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.core.execution;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.node.streamable.RowOutput;
+import org.knime.dl.core.DLAbstractRowIterator;
+import org.knime.dl.core.DLRowIterator;
+import org.knime.dl.core.DLTensorId;
+
+/**
+ * Distributes the rows of a single input across several execution sessions that run concurrently, and reassembles
+ * their results in the original row order.
+ * <P>
+ * Each session is fed by a {@link Worker worker}. Whenever a worker's {@link Worker#getRowIterator() row iterator}
+ * runs dry, it takes the next batch of rows off the shared input. Rows that are pushed to a worker's
+ * {@link Worker#getRowOutput() row output} are collected per batch and forwarded to the shared output as soon as all
+ * preceding batches have been forwarded. The number of batches that wait for reassembly is bounded.
+ *
+ * @author agent
+ */
+public final class DLKnimeParallelExecutionDispatcher implements AutoCloseable {
+
+	private final DLRowIterator m_input;
+
+	private final DataTableSpec m_inputSpec;
+
+	private final Map<DLTensorId, int[]> m_columns;
+
+	private final int m_batchSize;
+
+	private final int m_maxPendingBatches;
+
+	private final RowOutput m_output;
+
+	/**
+	 * Batches whose results are complete but that cannot be forwarded yet because a preceding batch is still being
+	 * processed.
+	 */
+	private final TreeMap<Long, List<DataRow>> m_completedBatches = new TreeMap<>();
+
+	private long m_nextBatchToDispatch = 0;
+
+	private long m_nextBatchToForward = 0;
+
+	private boolean m_aborted = false;
+
+	/**
+	 * @param input the shared input. Is not closed by this instance.
+	 * @param inputSpec the spec of the shared input
+	 * @param columns the input columns per tensor, see {@link DLRowIterator#groupByTensor(DataRow)}
+	 * @param batchSize the number of rows that are dispatched to a worker at a time
+	 * @param numWorkers the number of workers that will be created
+	 * @param output the shared output. Is closed when this instance is closed.
+	 */
+	public DLKnimeParallelExecutionDispatcher(final DLRowIterator input, final DataTableSpec inputSpec,
+			final Map<DLTensorId, int[]> columns, final int batchSize, final int numWorkers, final RowOutput output) {
+		checkArgument(batchSize > 0, "Batch size must be greater than zero.");
+		checkArgument(numWorkers > 0, "Number of workers must be greater than zero.");
+		m_input = checkNotNull(input);
+		m_inputSpec = checkNotNull(inputSpec);
+		m_columns = checkNotNull(columns);
+		m_batchSize = batchSize;
+		m_maxPendingBatches = 4 * numWorkers;
+		m_output = checkNotNull(output);
+	}
+
+	/**
+	 * Creates a new worker. Each worker must be used by a single execution session only.
+	 *
+	 * @return the worker
+	 */
+	public Worker createWorker() {
+		return new Worker();
+	}
+
+	/**
+	 * Wakes up all workers that wait for the next batch and lets their row iterators report that there are no more
+	 * rows. Must be called if any of the sessions failed, as the batches of the failed session will never complete.
+	 */
+	public synchronized void abort() {
+		m_aborted = true;
+		notifyAll();
+	}
+
+	/**
+	 * Closes the shared output.
+	 *
+	 * @throws IllegalStateException if results are left that could not be forwarded to the output because a
+	 *             preceding batch did not complete
+	 */
+	@Override
+	public void close() throws Exception {
+		synchronized (this) {
+			if (!m_aborted && !m_completedBatches.isEmpty()) {
+				throw new IllegalStateException("Results of batch " + m_nextBatchToForward + " are missing.");
+			}
+			m_completedBatches.clear();
+		}
+		m_output.close();
+	}
+
+	private synchronized boolean dispatchNextBatch(final Worker worker) throws InterruptedException {
+		// Only workers that have no batch in flight wait for reassembly to catch up. A worker with batches in flight
+		// could be the one that holds up reassembly.
+		while (worker.m_batchesInFlight.isEmpty() && !m_aborted
+				&& m_nextBatchToDispatch - m_nextBatchToForward >= m_maxPendingBatches) {
+			wait();
+		}
+		if (m_aborted) {
+			return false;
+		}
+		int numRows = 0;
+		while (numRows < m_batchSize && m_input.hasNext()) {
+			worker.m_rowIterator.m_rows.add(m_input.next());
+			numRows++;
+		}
+		if (numRows == 0) {
+			return false;
+		}
+		worker.m_batchesInFlight.add(new DLBatchInFlight(m_nextBatchToDispatch++, numRows));
+		return true;
+	}
+
+	private synchronized void completeBatch(final long batchIndex, final List<DataRow> rows)
+			throws InterruptedException {
+		m_completedBatches.put(batchIndex, rows);
+		Entry<Long, List<DataRow>> next;
+		while ((next = m_completedBatches.firstEntry()) != null && next.getKey() == m_nextBatchToForward) {
+			m_completedBatches.pollFirstEntry();
+			for (final DataRow row : next.getValue()) {
+				m_output.push(row);
+			}
+			m_nextBatchToForward++;
+			notifyAll();
+		}
+	}
+
+	/**
+	 * Provides the input rows of one execution session and collects its output rows.
+	 */
+	public final class Worker {
+
+		/**
+		 * Batches that were dispatched to this worker and whose output rows are not complete yet, in dispatch order.
+		 * Filled by the thread that prepares the session's input and drained by the thread that consumes its output.
+		 */
+		private final Queue<DLBatchInFlight> m_batchesInFlight = new ConcurrentLinkedQueue<>();
+
+		private final DLWorkerRowIterator m_rowIterator = new DLWorkerRowIterator(this);
+
+		private final DLWorkerRowOutput m_rowOutput = new DLWorkerRowOutput(this);
+
+		private Worker() {
+		}
+
+		/**
+		 * @return the iterator that provides the input rows of this worker. Does not know its size and cannot be
+		 *         reset.
+		 */
+		public DLRowIterator getRowIterator() {
+			return m_rowIterator;
+		}
+
+		/**
+		 * @return the output to which the output rows of this worker must be pushed, one output row per input row and
+		 *         in the order of the input rows. Closing it has no effect, see
+		 *         {@link DLKnimeParallelExecutionDispatcher#close()}.
+		 */
+		public RowOutput getRowOutput() {
+			return m_rowOutput;
+		}
+	}
+
+	private static final class DLBatchInFlight {
+
+		private final long m_index;
+
+		private final int m_numRows;
+
+		private DLBatchInFlight(final long index, final int numRows) {
+			m_index = index;
+			m_numRows = numRows;
+		}
+	}
+
+	private final class DLWorkerRowIterator extends DLAbstractRowIterator {
+
+		private final Worker m_worker;
+
+		/**
+		 * The rows of the current batch that have not been returned yet.
+		 */
+		private final Queue<DataRow> m_rows = new ArrayDeque<>();
+
+		private DLWorkerRowIterator(final Worker worker) {
+			super(m_inputSpec, DLKnimeParallelExecutionDispatcher.this.m_columns);
+			m_worker = worker;
+		}
+
+		@Override
+		public long size() {
+			throw new UnsupportedOperationException("Iterator has no size information about its underlying data.");
+		}
+
+		@Override
+		public boolean hasNext() {
+			if (!m_rows.isEmpty()) {
+				return true;
+			}
+			try {
+				return dispatchNextBatch(m_worker);
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return false;
+			}
+		}
+
+		@Override
+		public DataRow peek() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			return m_rows.peek();
+		}
+
+		@Override
+		public DataRow next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			return m_rows.poll();
+		}
+
+		@Override
+		public void reset() {
+			throw new UnsupportedOperationException("Cannot reset an iterator that runs over a shared input.");
+		}
+
+		@Override
+		public void close() {
+			m_rows.clear();
+		}
+	}
+
+	private final class DLWorkerRowOutput extends RowOutput {
+
+		private final Worker m_worker;
+
+		private List<DataRow> m_rows;
+
+		private DLWorkerRowOutput(final Worker worker) {
+			m_worker = worker;
+		}
+
+		@Override
+		public void push(final DataRow row) throws InterruptedException {
+			final DLBatchInFlight batch = m_worker.m_batchesInFlight.peek();
+			if (batch == null) {
+				throw new IllegalStateException("More output rows than input rows.");
+			}
+			if (m_rows == null) {
+				m_rows = new ArrayList<>(batch.m_numRows);
+			}
+			m_rows.add(row);
+			if (m_rows.size() == batch.m_numRows) {
+				m_worker.m_batchesInFlight.poll();
+				final List<DataRow> rows = m_rows;
+				m_rows = null;
+				completeBatch(batch.m_index, rows);
+			}
+		}
+
+		@Override
+		public void close() {
+			// the shared output is closed by the dispatcher
+		}
+	}
+}
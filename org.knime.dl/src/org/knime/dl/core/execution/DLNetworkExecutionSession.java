@@ -60,4 +60,16 @@
 public interface DLNetworkExecutionSession extends DLNetworkSession {
 
 	void run(DLExecutionMonitor monitor) throws DLCanceledExecutionException, Exception;
+
+	/**
+	 * Sets the number of batches that may be in flight at the same time during {@link #run(DLExecutionMonitor)}. A
+	 * depth of one processes each batch strictly in sequence. Greater depths allow preparing the next batch and
+	 * consuming the previous batch while the current batch is executed. Sessions that do not support pipelined
+	 * execution ignore this setting.
+	 *
+	 * @param depth the pipeline depth, must be at least one
+	 */
+	default void setPipelineDepth(final int depth) {
+		// no op, sequential execution
+	}
 }
@@ -155,6 +155,23 @@ private static boolean doExecInputsSpecsMatchConfig(final DLTrainingConfig train
 	 */
 	protected Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> m_validationInput;
 
+	/**
+	 * The number of training data batches that are prepared ahead of their request. Zero if batches are prepared on
+	 * request.
+	 */
+	protected int m_trainingDataQueueSize = 0;
+
+	/**
+	 * The number of bytes the back end may use to keep the validation data resident across epochs. Zero if validation
+	 * data is transferred in each epoch.
+	 */
+	protected long m_validationDataCacheSize = 0;
+
+	/**
+	 * Initialized during the first training data request if {@link #m_trainingDataQueueSize} is greater than zero.
+	 */
+	private DLNetworkInputPrefetcher m_trainingInputPrefetcher;
+
 	/**
 	 * @param network the network to train
 	 * @param trainingConfig the training configuration that specifies how the network will be trained
@@ -190,12 +207,21 @@ public long getNumBatches() {
 			@Override
 			public Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> get(final long batchIndex)
 					throws DLCanceledExecutionException, DLInvalidNetworkInputException {
+				if (m_trainingDataQueueSize > 0) {
+					if (m_trainingInputPrefetcher == null) {
+						m_trainingInputPrefetcher = new DLNetworkInputPrefetcher(trainingInputPreparer,
+								DLAbstractNetworkTrainingSession.this::createTrainingInputTensors,
+								m_trainingDataQueueSize);
+					}
+					return m_trainingInputPrefetcher.get(batchIndex);
+				}
 				trainingInputPreparer.prepare(m_trainingInput, batchIndex);
 				return m_trainingInput;
 			}
 
 			@Override
 			public void close() throws Exception {
+				closeTrainingInputPrefetcher();
 				trainingInputPreparer.close();
 			}
 		};
@@ -248,15 +274,24 @@ public DLTrainingConfig getTrainingConfig() {
 		return m_trainingConfig;
 	}
 
+	@Override
+	public void setTrainingDataQueueSize(final int queueSize) {
+		checkArgument(queueSize >= 0, "Training data queue size must not be negative.");
+		m_trainingDataQueueSize = queueSize;
+	}
+
+	@Override
+	public void setValidationDataCacheSize(final long cacheSize) {
+		checkArgument(cacheSize >= 0, "Validation data cache size must not be negative.");
+		m_validationDataCacheSize = cacheSize;
+	}
+
 	@Override
 	public void run(final DLTrainingMonitor<? extends S> monitor) throws DLCanceledExecutionException, Exception {
 		monitor.getTrainingStatus().trainingStarted().raise(null);
 		// lazily preallocate training input/target tensors
 		if (m_trainingInput == null) {
-			m_trainingInput = new HashMap<>(m_executionInputSpecs.size());
-			for (final DLTensorSpec spec : m_executionInputSpecs) {
-				m_trainingInput.put(spec.getIdentifier(), m_tensorFactory.createWritableTensor(spec));
-			}
+			m_trainingInput = createTrainingInputTensors();
 		}
 		// lazily preallocate validation input/target tensors
 		if (m_doValidation && m_validationInput == null) {
@@ -274,8 +309,29 @@ public void run(final DLTrainingMonitor<? extends S> monitor) throws DLCanceledE
 		monitor.getTrainingStatus().trainingEnded().raise(null);
 	}
 
+	/**
+	 * Creates a new set of training input/target tensors according to {@link #m_executionInputSpecs}. The caller is
+	 * responsible for {@link DLTensor#close() closing} the returned tensors.
+	 */
+	protected Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> createTrainingInputTensors() {
+		final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input = new HashMap<>(
+				m_executionInputSpecs.size());
+		for (final DLTensorSpec spec : m_executionInputSpecs) {
+			input.put(spec.getIdentifier(), m_tensorFactory.createWritableTensor(spec));
+		}
+		return input;
+	}
+
+	private void closeTrainingInputPrefetcher() {
+		if (m_trainingInputPrefetcher != null) {
+			m_trainingInputPrefetcher.close();
+			m_trainingInputPrefetcher = null;
+		}
+	}
+
 	@Override
 	public void close() throws Exception {
+		closeTrainingInputPrefetcher();
 		if (m_trainingInput != null) {
 			m_trainingInput.values().forEach(DLTensor::close);
 		}
@@ -52,6 +52,7 @@
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 import org.knime.dl.core.DLDefaultEvent;
@@ -89,6 +90,8 @@ public abstract class DLAbstractTrainingStatus implements DLTrainingStatus {
 
 	private final DLEvent<Map<String, DLReportedMetric>> m_batchEnded = new DLDefaultEvent<>();
 
+	private final DLEvent<List<Map<String, DLReportedMetric>>> m_batchesEnded = new DLDefaultEvent<>();
+
 	private final DLEvent<Void> m_validationStarted = new DLDefaultEvent<>();
 
 	private final DLEvent<Map<String, DLReportedMetric>> m_validationEnded = new DLDefaultEvent<>();
@@ -124,6 +127,7 @@ protected DLAbstractTrainingStatus() {
 			m_currentEpoch++;
 		});
 		m_batchStarted.addListener((src, v) -> m_currentBatchInEpoch++);
+		m_batchesEnded.addListener((src, metrics) -> m_currentBatchInEpoch += metrics.size());
 	}
 
 	@Override
@@ -198,6 +202,11 @@ public DLEvent<Map<String, DLReportedMetric>> batchEnded() {
 		return m_batchEnded;
 	}
 
+	@Override
+	public DLEvent<List<Map<String, DLReportedMetric>>> batchesEnded() {
+		return m_batchesEnded;
+	}
+
 	@Override
 	public DLEvent<Void> validationStarted() {
 		return m_validationStarted;
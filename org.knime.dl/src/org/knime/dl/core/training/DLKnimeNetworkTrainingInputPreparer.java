@@ -46,8 +46,10 @@
  */
 package org.knime.dl.core.training;
 
+import java.io.IOException;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Random;
 
 import org.knime.core.data.DataRow;
 import org.knime.core.node.NodeLogger;
@@ -68,6 +70,30 @@ public final class DLKnimeNetworkTrainingInputPreparer extends DLAbstractKnimeNe
 
 	private static final NodeLogger LOGGER = NodeLogger.getLogger(DLKnimeNetworkTrainingInputPreparer.class);
 
+	private boolean m_cacheEnabled = false;
+
+	/**
+	 * Shuffles the cached examples before each epoch, <code>null</code> if they are replayed in table order.
+	 */
+	private Random m_cacheRandom;
+
+	/**
+	 * Non-null after the first batch was prepared if the cache is enabled and supports the tensors.
+	 */
+	private DLTrainingExampleCache m_cache;
+
+	/**
+	 * Non-null as soon as batches are prepared from the cache.
+	 */
+	private int[] m_cacheOrder;
+
+	private int m_cachePosition;
+
+	/**
+	 * The number of rows read since the iterator was last reset.
+	 */
+	private long m_numRowsSinceReset = 0;
+
 	/**
 	 * @param iterator provides the input data rows that are used by this instance to prepare (fill) the network tensors
 	 *            fed to {@link #prepare(Map, long)}. The iterator must know its size and must be resettable. It must be
@@ -89,6 +115,20 @@ public DLKnimeNetworkTrainingInputPreparer(final DLRowIterator iterator, final i
 		}
 	}
 
+	/**
+	 * Enables caching the converted training examples in a temporary file. The examples are converted once, during the
+	 * first epoch, and later epochs assemble their batches from the cache without reading the input data rows. The
+	 * cache is only used if all tensors are supported, otherwise each epoch reads and converts the rows as usual. Must
+	 * be called before the first batch is prepared.
+	 *
+	 * @param random the random number generator that is used to shuffle the cached examples before each epoch,
+	 *            <code>null</code> to replay them in table order
+	 */
+	public void enableExampleCache(final Random random) {
+		m_cacheEnabled = true;
+		m_cacheRandom = random;
+	}
+
 	@Override
 	public long getNumBatches() {
 		// TODO: only valid if we don't crop the last batch. This has to be taken into consideration if we want to add
@@ -99,28 +139,35 @@ public long getNumBatches() {
 	@Override
 	public void prepare(final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input, final long batchIndex)
 			throws DLCanceledExecutionException, DLInvalidNetworkInputException {
-		for (long i = 0; i < m_batchSize; i++) {
+		if (m_cache != null && m_cache.isComplete()) {
+			prepareFromCache(input);
+			return;
+		}
+		final DataRow[] rows = new DataRow[m_batchSize];
+		for (int i = 0; i < m_batchSize; i++) {
 			if (!m_iterator.hasNext()) {
 				// continue at the beginning of the table to fill up incomplete batch
 				m_iterator.reset();
+				m_numRowsSinceReset = 0;
 			}
-			final DataRow row = m_iterator.next();
-			try {
-				writeDataValuesInTensors(m_iterator.groupByTensor(row), input);
-			} catch (final DLBufferOverflowExceptionForTensor ex) {
-				final DLTensor<?> tensor = ex.getTensor();
-				// must be present
-				final long exampleSize = DLUtils.Shapes.getFixedSize(tensor.getSpec().getShape()).getAsLong();
-				// must be present
-				final long batchSize = tensor.getSpec().getBatchSize().getAsLong();
-				throw new DLInvalidNetworkInputException(
-						"Node training data size for input/target '" + tensor.getSpec().getName()
-								+ "' exceeds the expected size. Neuron count of this input/target is " + exampleSize
-								+ ", batch size is " + batchSize + ". Thus, expected training data size is "
-								+ exampleSize * batchSize + ". Please check the column selection for this input/target "
-								+ "and validate the node's training data.",
-						ex);
-			}
+			rows[i] = m_iterator.next();
+			m_numRowsSinceReset++;
+		}
+		try {
+			writeRowsInTensors(rows, m_batchSize, input);
+		} catch (final DLBufferOverflowExceptionForTensor ex) {
+			final DLTensor<?> tensor = ex.getTensor();
+			// must be present
+			final long exampleSize = DLUtils.Shapes.getFixedSize(tensor.getSpec().getShape()).getAsLong();
+			// must be present
+			final long batchSize = tensor.getSpec().getBatchSize().getAsLong();
+			throw new DLInvalidNetworkInputException(
+					"Node training data size for input/target '" + tensor.getSpec().getName()
+							+ "' exceeds the expected size. Neuron count of this input/target is " + exampleSize
+							+ ", batch size is " + batchSize + ". Thus, expected training data size is "
+							+ exampleSize * batchSize + ". Please check the column selection for this input/target "
+							+ "and validate the node's training data.",
+					ex);
 		}
 		// check if tensors were filled correctly
 		for (final Entry<DLTensorId, DLTensor<? extends DLWritableBuffer>> entry : input.entrySet()) {
@@ -138,5 +185,75 @@ public void prepare(final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>>
 						+ "and validate the node's training data.");
 			}
 		}
+		if (m_cacheEnabled) {
+			writeToCache(input);
+		}
+	}
+
+	@Override
+	public void close() throws Exception {
+		if (m_cache != null) {
+			m_cache.close();
+			m_cache = null;
+		}
+		super.close();
+	}
+
+	private void writeToCache(final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input) {
+		if (m_cache == null) {
+			m_cache = createCache(input);
+			if (m_cache == null) {
+				m_cacheEnabled = false;
+				return;
+			}
+		}
+		// examples of the second pass that complete the last batch of the first epoch are not cached
+		m_cache.write(input, m_batchSize);
+	}
+
+	private DLTrainingExampleCache createCache(final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input) {
+		if (m_iterator.size() > Integer.MAX_VALUE) {
+			return null;
+		}
+		try {
+			return DLTrainingExampleCache.create(input, m_iterator.size()).orElse(null);
+		} catch (final IOException ex) {
+			LOGGER.warn("Creating the training data cache failed. Training data will be converted in each epoch.", ex);
+			return null;
+		}
+	}
+
+	private void prepareFromCache(final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> input) {
+		if (m_cacheOrder == null) {
+			m_cacheOrder = new int[(int) m_iterator.size()];
+			for (int i = 0; i < m_cacheOrder.length; i++) {
+				m_cacheOrder[i] = i;
+			}
+			if (m_cacheRandom != null) {
+				shuffleCacheOrder();
+				m_cachePosition = 0;
+			} else {
+				// continue where the rows of the second pass left off, if any
+				m_cachePosition = (int) (m_numRowsSinceReset % m_cacheOrder.length);
+			}
+		}
+		for (int i = 0; i < m_batchSize; i++) {
+			if (m_cachePosition == m_cacheOrder.length) {
+				if (m_cacheRandom != null) {
+					shuffleCacheOrder();
+				}
+				m_cachePosition = 0;
+			}
+			m_cache.read(input, m_cacheOrder[m_cachePosition++]);
+		}
+	}
+
+	private void shuffleCacheOrder() {
+		for (int i = m_cacheOrder.length - 1; i > 0; i--) {
+			final int j = m_cacheRandom.nextInt(i + 1);
+			final int tmp = m_cacheOrder[i];
+			m_cacheOrder[i] = m_cacheOrder[j];
+			m_cacheOrder[j] = tmp;
+		}
 	}
 }
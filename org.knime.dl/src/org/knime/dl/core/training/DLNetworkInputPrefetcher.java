@@ -0,0 +1,245 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.core.training;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.knime.core.node.NodeLogger;
+import org.knime.core.util.ThreadUtils;
+import org.knime.dl.core.DLCanceledExecutionException;
+import org.knime.dl.core.DLInvalidNetworkInputException;
+import org.knime.dl.core.DLNetworkFixedSizeInputPreparer;
+import org.knime.dl.core.DLTensor;
+import org.knime.dl.core.DLTensorId;
+import org.knime.dl.core.data.DLWritableBuffer;
+
+/**
+ * Prepares the batches of a {@link DLNetworkFixedSizeInputPreparer} ahead of their request on a background thread.
+ * Batches are prepared in ascending order, which is the order in which training data is requested. Prefetching stops
+ * at the final batch of an epoch and only resumes once the first batch of the next epoch is requested, so no data is
+ * prepared for an epoch that never starts. Prepared batches are kept in a ring of pre-allocated tensor sets.
+ * <P>
+ * The tensors returned by {@link #get(long)} remain valid until the next call of {@link #get(long)} or
+ * {@link #close()}.
+ *
+ * @author agent
+ */
+final class DLNetworkInputPrefetcher implements AutoCloseable {
+
+	private static final NodeLogger LOGGER = NodeLogger.getLogger(DLNetworkInputPrefetcher.class);
+
+	private static final long POLL_INTERVAL_MS = 100;
+
+	private final DLNetworkFixedSizeInputPreparer m_preparer;
+
+	private final List<Map<DLTensorId, DLTensor<? extends DLWritableBuffer>>> m_tensorSets;
+
+	private final BlockingQueue<Map<DLTensorId, DLTensor<? extends DLWritableBuffer>>> m_free;
+
+	private final BlockingQueue<PreparedBatch> m_prepared;
+
+	private final ExecutorService m_executor;
+
+	/**
+	 * Released once per epoch by the request of its first batch.
+	 */
+	private final Semaphore m_epochStarts = new Semaphore(0);
+
+	private Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> m_inUse;
+
+	private volatile boolean m_closed;
+
+	/**
+	 * @param preparer the preparer whose batches are prefetched, must not be used by anyone else while this instance
+	 *            is open
+	 * @param tensorSetCreator creates the tensor sets into which batches are prepared. The created tensors are closed
+	 *            by this instance.
+	 * @param queueSize the number of batches that are prepared ahead of their request, must be at least one
+	 */
+	DLNetworkInputPrefetcher(final DLNetworkFixedSizeInputPreparer preparer,
+			final Supplier<Map<DLTensorId, DLTensor<? extends DLWritableBuffer>>> tensorSetCreator,
+			final int queueSize) {
+		checkArgument(queueSize >= 1, "Queue size must be at least one.");
+		m_preparer = preparer;
+		// One additional set is in use by the caller.
+		m_tensorSets = new ArrayList<>(queueSize + 1);
+		m_free = new ArrayBlockingQueue<>(queueSize + 1);
+		for (int i = 0; i < queueSize + 1; i++) {
+			final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> tensorSet = tensorSetCreator.get();
+			m_tensorSets.add(tensorSet);
+			m_free.add(tensorSet);
+		}
+		m_prepared = new ArrayBlockingQueue<>(queueSize + 1);
+		m_executor = Executors.newSingleThreadExecutor(r -> {
+			final Thread t = new Thread(r, "KNIME-DL-Training-Data-Prefetcher");
+			t.setDaemon(true);
+			return t;
+		});
+		m_executor.execute(ThreadUtils.runnableWithContext(this::prefetch));
+	}
+
+	/**
+	 * @param batchIndex the index of the requested batch, must be the successor of the previously requested batch or
+	 *            zero if the previously requested batch was the final one (or if this is the first request)
+	 * @return the prepared batch
+	 * @throws DLCanceledExecutionException if preparing the batch has been canceled
+	 * @throws DLInvalidNetworkInputException if the input data of the batch is invalid
+	 * @throws IllegalStateException if the batch index is not the expected one
+	 */
+	Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> get(final long batchIndex)
+			throws DLCanceledExecutionException, DLInvalidNetworkInputException {
+		if (m_inUse != null) {
+			for (final DLTensor<? extends DLWritableBuffer> tensor : m_inUse.values()) {
+				tensor.getBuffer().reset();
+			}
+			m_free.add(m_inUse);
+			m_inUse = null;
+		}
+		if (batchIndex == 0) {
+			m_epochStarts.release();
+		}
+		final PreparedBatch batch = takePrepared();
+		if (batch.m_failure != null) {
+			if (batch.m_failure instanceof DLCanceledExecutionException) {
+				throw (DLCanceledExecutionException) batch.m_failure;
+			} else if (batch.m_failure instanceof DLInvalidNetworkInputException) {
+				throw (DLInvalidNetworkInputException) batch.m_failure;
+			} else if (batch.m_failure instanceof RuntimeException) {
+				throw (RuntimeException) batch.m_failure;
+			}
+			throw new IllegalStateException(batch.m_failure.getMessage(), batch.m_failure);
+		}
+		if (batch.m_index != batchIndex) {
+			m_free.add(batch.m_tensors);
+			throw new IllegalStateException("Requested training data batch " + batchIndex + " but prefetched batch "
+					+ batch.m_index + ". Training data must be requested in order. This is an implementation error.");
+		}
+		m_inUse = batch.m_tensors;
+		return m_inUse;
+	}
+
+	@Override
+	public void close() {
+		m_closed = true;
+		m_executor.shutdownNow();
+		try {
+			if (!m_executor.awaitTermination(1, TimeUnit.MINUTES)) {
+				LOGGER.warn("Training data prefetcher did not terminate in time.");
+				return;
+			}
+		} catch (final InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			return;
+		}
+		for (final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> tensorSet : m_tensorSets) {
+			tensorSet.values().forEach(DLTensor::close);
+		}
+	}
+
+	private PreparedBatch takePrepared() throws DLCanceledExecutionException {
+		try {
+			PreparedBatch batch;
+			while ((batch = m_prepared.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS)) == null) {
+				if (m_closed) {
+					throw new DLCanceledExecutionException("Training data prefetcher has been closed.");
+				}
+			}
+			return batch;
+		} catch (final InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new DLCanceledExecutionException("Waiting for training data has been interrupted.");
+		}
+	}
+
+	private void prefetch() {
+		final long numBatches = m_preparer.getNumBatches();
+		try {
+			while (!m_closed) {
+				m_epochStarts.acquire();
+				for (long batchIndex = 0; batchIndex < numBatches && !m_closed; batchIndex++) {
+					final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> tensorSet = m_free.take();
+					try {
+						m_preparer.prepare(tensorSet, batchIndex);
+					} catch (final Exception ex) {
+						m_prepared.put(new PreparedBatch(batchIndex, null, ex));
+						return;
+					}
+					m_prepared.put(new PreparedBatch(batchIndex, tensorSet, null));
+				}
+			}
+		} catch (final InterruptedException ex) {
+			// closed
+		}
+	}
+
+	private static final class PreparedBatch {
+
+		private final long m_index;
+
+		private final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> m_tensors;
+
+		private final Exception m_failure;
+
+		private PreparedBatch(final long index, final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> tensors,
+				final Exception failure) {
+			m_index = index;
+			m_tensors = tensors;
+			m_failure = failure;
+		}
+	}
+}
@@ -60,4 +60,27 @@
 	DLTrainingConfig getTrainingConfig();
 
 	void run(DLTrainingMonitor<? extends S> monitor) throws DLCanceledExecutionException, Exception;
+
+	/**
+	 * Sets the number of training data batches that are prepared in the background ahead of their request during
+	 * {@link #run(DLTrainingMonitor)}. A queue size of zero prepares each batch on request. Sessions that do not
+	 * support prefetching ignore this setting.
+	 *
+	 * @param queueSize the queue size, must not be negative
+	 */
+	default void setTrainingDataQueueSize(final int queueSize) {
+		// no op, batches are prepared on request
+	}
+
+	/**
+	 * Sets the number of bytes that may be used to keep the validation data resident in the back end after it has been
+	 * transferred in the first epoch. Later epochs then replay the validation data without preparing and transferring
+	 * it again. If the validation data does not fit, it is prepared and transferred in each epoch. A size of zero
+	 * disables caching. Sessions that do not support caching ignore this setting.
+	 *
+	 * @param cacheSize the cache size in bytes, must not be negative
+	 */
+	default void setValidationDataCacheSize(final long cacheSize) {
+		// no op, validation data is transferred in each epoch
+	}
 }
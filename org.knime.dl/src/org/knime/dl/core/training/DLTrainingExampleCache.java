@@ -0,0 +1,310 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ */
+package org.knime.dl.core.training;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.knime.core.node.NodeLogger;
+import org.knime.core.util.FileUtil;
+import org.knime.dl.core.DLTensor;
+import org.knime.dl.core.DLTensorId;
+import org.knime.dl.core.data.DLReadableBitBuffer;
+import org.knime.dl.core.data.DLWrappingDataBuffer;
+import org.knime.dl.core.data.DLWritableBuffer;
+import org.knime.dl.util.DLUtils;
+
+/**
+ * Stores converted training examples as fixed-size binary records in a memory-mapped temporary file. A record holds
+ * the contents of all input and target tensors for one example, in the tensors' storage format. Once all examples were
+ * written, batches can be assembled by copying records into the tensors' storage, without accessing the training data
+ * table.
+ * <P>
+ * Only tensors whose buffers expose a primitive array storage with one array element per tensor element are supported,
+ * see {@link #create(Map, long)}. Instances of this class are not thread-safe.
+ * <P>
+ * Java offers no public API to unmap a {@link MappedByteBuffer}. As long as a mapping exists, the underlying file
+ * cannot be deleted on Windows. {@link #close()} therefore tries to release the mappings explicitly. If that is not
+ * possible on the running JVM, the file is only deleted once the mappings were garbage collected, at the latest when
+ * the JVM exits.
+ *
+ * @author agent
+ */
+final class DLTrainingExampleCache implements AutoCloseable {
+
+	private static final NodeLogger LOGGER = NodeLogger.getLogger(DLTrainingExampleCache.class);
+
+	/**
+	 * Records never span regions.
+	 */
+	private static final int MAX_REGION_SIZE = 1 << 30;
+
+	/**
+	 * Creates a cache for the given number of examples of the given tensors.
+	 *
+	 * @param tensors the tensors, determine the layout of the records
+	 * @param numExamples the number of examples to cache
+	 * @return the cache, empty if any of the tensors is not supported or if a record would exceed the maximum region
+	 *         size
+	 * @throws IOException if creating the cache file failed
+	 */
+	static Optional<DLTrainingExampleCache> create(final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> tensors,
+			final long numExamples) throws IOException {
+		return create(tensors, numExamples, MAX_REGION_SIZE);
+	}
+
+	/**
+	 * @param maxRegionSize the maximum size of a memory-mapped region of the cache file in bytes
+	 * @see #create(Map, long)
+	 */
+	static Optional<DLTrainingExampleCache> create(final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> tensors,
+			final long numExamples, final int maxRegionSize) throws IOException {
+		final DLTensorId[] ids = tensors.keySet().toArray(new DLTensorId[0]);
+		final int[] exampleSizes = new int[ids.length];
+		final int[] offsets = new int[ids.length];
+		long recordSize = 0;
+		for (int i = 0; i < ids.length; i++) {
+			final DLTensor<? extends DLWritableBuffer> tensor = tensors.get(ids[i]);
+			final DLWritableBuffer buffer = tensor.getBuffer();
+			// bits are stored packed, examples are not necessarily aligned to storage elements
+			if (!(buffer instanceof DLWrappingDataBuffer) || buffer instanceof DLReadableBitBuffer) {
+				LOGGER.debug("Training data of tensor '" + ids[i] + "' cannot be cached.");
+				return Optional.empty();
+			}
+			final int elementSize = getElementSize(((DLWrappingDataBuffer<?>) buffer).getStorageForReading(0, 0));
+			if (elementSize < 0) {
+				LOGGER.debug("Training data of tensor '" + ids[i] + "' cannot be cached.");
+				return Optional.empty();
+			}
+			exampleSizes[i] = (int) tensor.getExampleSize();
+			offsets[i] = (int) recordSize;
+			recordSize += tensor.getExampleSize() * elementSize;
+		}
+		if (recordSize == 0 || recordSize > maxRegionSize) {
+			LOGGER.debug("Training examples of " + recordSize + " bytes cannot be cached.");
+			return Optional.empty();
+		}
+		return Optional.of(new DLTrainingExampleCache(ids, exampleSizes, offsets, (int) recordSize, numExamples,
+				maxRegionSize));
+	}
+
+	/**
+	 * @return the size of an element of the given storage in bytes, -1 if the storage is not supported
+	 */
+	private static int getElementSize(final Object storage) {
+		if (storage instanceof double[] || storage instanceof long[]) {
+			return Long.BYTES;
+		} else if (storage instanceof float[] || storage instanceof int[]) {
+			return Integer.BYTES;
+		} else if (storage instanceof short[]) {
+			return Short.BYTES;
+		} else if (storage instanceof byte[] || storage instanceof boolean[]) {
+			return Byte.BYTES;
+		}
+		return -1;
+	}
+
+	private final DLTensorId[] m_ids;
+
+	private final int[] m_exampleSizes;
+
+	private final int[] m_offsets;
+
+	private final int m_recordSize;
+
+	private final long m_numExamples;
+
+	private final int m_recordsPerRegion;
+
+	private final File m_file;
+
+	private final List<MappedByteBuffer> m_regions;
+
+	private long m_numWritten = 0;
+
+	private DLTrainingExampleCache(final DLTensorId[] ids, final int[] exampleSizes, final int[] offsets,
+			final int recordSize, final long numExamples, final int maxRegionSize) throws IOException {
+		m_ids = ids;
+		m_exampleSizes = exampleSizes;
+		m_offsets = offsets;
+		m_recordSize = recordSize;
+		m_numExamples = numExamples;
+		m_recordsPerRegion = maxRegionSize / recordSize;
+		m_file = FileUtil.createTempFile("knime-dl-training-examples-", ".bin", true);
+		final long capacity = Math.multiplyExact(numExamples, recordSize);
+		final long regionSize = (long) m_recordsPerRegion * recordSize;
+		m_regions = new ArrayList<>((int) (capacity / regionSize) + 1);
+		try (final FileChannel channel = FileChannel.open(m_file.toPath(), StandardOpenOption.READ,
+				StandardOpenOption.WRITE)) {
+			for (long offset = 0; offset < capacity; offset += regionSize) {
+				m_regions.add(channel.map(MapMode.READ_WRITE, offset, Math.min(regionSize, capacity - offset)));
+			}
+		} catch (final IOException e) {
+			close();
+			throw e;
+		}
+	}
+
+	/**
+	 * @return <code>true</code> if all examples were written, <code>false</code> otherwise
+	 */
+	boolean isComplete() {
+		return m_numWritten == m_numExamples;
+	}
+
+	/**
+	 * Appends the last examples of the given tensors to the cache. Examples beyond the number of examples the cache was
+	 * created for are ignored.
+	 *
+	 * @param tensors the tensors, must match the ones the cache was created for
+	 * @param numExamples the number of examples to append, counted from the end of the tensors
+	 */
+	void write(final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> tensors, final int numExamples) {
+		final int numToWrite = (int) Math.min(numExamples, m_numExamples - m_numWritten);
+		for (int i = 0; i < m_ids.length; i++) {
+			final DLWrappingDataBuffer<?> buffer = (DLWrappingDataBuffer<?>) tensors.get(m_ids[i]).getBuffer();
+			final int exampleSize = m_exampleSizes[i];
+			final int firstExample = (int) (buffer.size() / exampleSize) - numExamples;
+			final Object storage = buffer.getStorageForReading((long) firstExample * exampleSize,
+					(long) numToWrite * exampleSize);
+			for (int e = 0; e < numToWrite; e++) {
+				final ByteBuffer record = getRecord(m_numWritten + e, m_offsets[i]);
+				putIntoRecord(storage, (firstExample + e) * exampleSize, exampleSize, record);
+			}
+		}
+		m_numWritten += numToWrite;
+	}
+
+	/**
+	 * Appends the given example to each of the given tensors.
+	 *
+	 * @param tensors the tensors, must match the ones the cache was created for
+	 * @param example the index of the example to read, must have been written before
+	 */
+	void read(final Map<DLTensorId, DLTensor<? extends DLWritableBuffer>> tensors, final long example) {
+		for (int i = 0; i < m_ids.length; i++) {
+			final DLWrappingDataBuffer<?> buffer = (DLWrappingDataBuffer<?>) tensors.get(m_ids[i]).getBuffer();
+			final int exampleSize = m_exampleSizes[i];
+			final long writeStart = buffer.size();
+			final Object storage = buffer.getStorageForWriting(writeStart, exampleSize);
+			getFromRecord(getRecord(example, m_offsets[i]), storage, (int) writeStart, exampleSize);
+		}
+	}
+
+	@Override
+	public void close() {
+		for (final MappedByteBuffer region : m_regions) {
+			DLUtils.Files.unmap(region);
+		}
+		m_regions.clear();
+		if (!m_file.delete()) {
+			// still mapped (Windows), deleted as soon as possible
+			m_file.deleteOnExit();
+		}
+	}
+
+	private ByteBuffer getRecord(final long example, final int offset) {
+		final ByteBuffer region = m_regions.get((int) (example / m_recordsPerRegion)).duplicate();
+		region.order(ByteOrder.nativeOrder());
+		region.position((int) (example % m_recordsPerRegion) * m_recordSize + offset);
+		return region;
+	}
+
+	private static void putIntoRecord(final Object storage, final int offset, final int length,
+			final ByteBuffer record) {
+		if (storage instanceof float[]) {
+			record.asFloatBuffer().put((float[]) storage, offset, length);
+		} else if (storage instanceof double[]) {
+			record.asDoubleBuffer().put((double[]) storage, offset, length);
+		} else if (storage instanceof int[]) {
+			record.asIntBuffer().put((int[]) storage, offset, length);
+		} else if (storage instanceof long[]) {
+			record.asLongBuffer().put((long[]) storage, offset, length);
+		} else if (storage instanceof short[]) {
+			record.asShortBuffer().put((short[]) storage, offset, length);
+		} else if (storage instanceof byte[]) {
+			record.put((byte[]) storage, offset, length);
+		} else {
+			final boolean[] bits = (boolean[]) storage;
+			for (int i = offset; i < offset + length; i++) {
+				record.put(bits[i] ? (byte) 1 : (byte) 0);
+			}
+		}
+	}
+
+	private static void getFromRecord(final ByteBuffer record, final Object storage, final int offset,
+			final int length) {
+		if (storage instanceof float[]) {
+			record.asFloatBuffer().get((float[]) storage, offset, length);
+		} else if (storage instanceof double[]) {
+			record.asDoubleBuffer().get((double[]) storage, offset, length);
+		} else if (storage instanceof int[]) {
+			record.asIntBuffer().get((int[]) storage, offset, length);
+		} else if (storage instanceof long[]) {
+			record.asLongBuffer().get((long[]) storage, offset, length);
+		} else if (storage instanceof short[]) {
+			record.asShortBuffer().get((short[]) storage, offset, length);
+		} else if (storage instanceof byte[]) {
+			record.get((byte[]) storage, offset, length);
+		} else {
+			final boolean[] bits = (boolean[]) storage;
+			for (int i = offset; i < offset + length; i++) {
+				bits[i] = record.get() != 0;
+			}
+		}
+	}
+}
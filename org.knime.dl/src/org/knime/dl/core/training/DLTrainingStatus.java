@@ -51,6 +51,7 @@
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 import org.knime.dl.core.DLEvent;
@@ -105,6 +106,12 @@ public enum Status {
 
 	DLEvent<Map<String, DLReportedMetric>> batchEnded();
 
+	/**
+	 * Raised instead of pairs of <code>batchStarted</code> and <code>batchEnded</code> if the metrics of several
+	 * consecutive batches are reported at once. The event argument contains the metrics of each batch in order.
+	 */
+	DLEvent<List<Map<String, DLReportedMetric>>> batchesEnded();
+
 	DLEvent<Void> validationStarted();
 
 	DLEvent<Map<String, DLReportedMetric>> valdationEnded();
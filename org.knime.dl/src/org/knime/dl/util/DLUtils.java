@@ -54,7 +54,11 @@
 
 import java.io.File;
 import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collection;
@@ -68,6 +72,7 @@
 import org.eclipse.core.runtime.FileLocator;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.core.runtime.Platform;
+import org.knime.core.node.NodeLogger;
 import org.knime.core.util.FileUtil;
 import org.knime.core.util.Version;
 import org.knime.dl.core.DLDefaultFixedTensorShape;
@@ -135,6 +140,61 @@ public static String readAllUTF8(final File f) throws IOException {
             checkNotNull(f);
             return new String(java.nio.file.Files.readAllBytes(f.toPath()), StandardCharsets.UTF_8);
         }
+
+        /**
+         * Releases the memory mapping of the given buffer right away instead of once the buffer was garbage collected.
+         * Java offers no public API for this, and as long as a mapping exists, the underlying file cannot be deleted on
+         * Windows. The buffer must not be accessed anymore after this method returned <code>true</code>.
+         *
+         * @param buffer the buffer to unmap
+         * @return <code>true</code> if the buffer was unmapped, <code>false</code> if unmapping is not possible on the
+         *         running JVM or failed
+         */
+        public static boolean unmap(final MappedByteBuffer buffer) {
+            checkNotNull(buffer);
+            if (Unmapper.INVOKE_CLEANER == null) {
+                return false;
+            }
+            try {
+                Unmapper.INVOKE_CLEANER.invoke(Unmapper.UNSAFE, buffer);
+                return true;
+            } catch (final Exception e) {
+                Unmapper.LOGGER.debug("Failed to unmap memory-mapped buffer.", e);
+                return false;
+            }
+        }
+
+        /**
+         * Holds the <code>sun.misc.Unsafe</code> instance and its <code>invokeCleaner(ByteBuffer)</code> method which
+         * are used to unmap buffers. Both <code>null</code> if not available on the running JVM.
+         */
+        private static final class Unmapper {
+
+            private static final NodeLogger LOGGER = NodeLogger.getLogger(Unmapper.class);
+
+            private static final Object UNSAFE;
+
+            private static final Method INVOKE_CLEANER;
+
+            static {
+                Object unsafe = null;
+                Method invokeCleaner = null;
+                try {
+                    final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+                    final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+                    theUnsafe.setAccessible(true);
+                    unsafe = theUnsafe.get(null);
+                    invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+                } catch (final Exception e) {
+                    LOGGER.debug("Memory-mapped buffers cannot be unmapped explicitly.", e);
+                }
+                UNSAFE = invokeCleaner != null ? unsafe : null;
+                INVOKE_CLEANER = invokeCleaner;
+            }
+
+            private Unmapper() {
+            }
+        }
     }
 
     public static class Layers {